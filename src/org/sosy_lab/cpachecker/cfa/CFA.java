@@ -71,4 +71,12 @@ public interface CFA {
   Language getLanguage();
 
   List<Path> getFileNames();
+
+  /**
+   * Return a compact, array-based view of the edges of this CFA, if this CFA is not going to be
+   * modified anymore. Mutable CFAs do not provide such a view.
+   */
+  default Optional<CompactCFAGraph> getCompactGraph() {
+    return Optional.empty();
+  }
 }
\ No newline at end of file
@@ -0,0 +1,1974 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Sets;
+import com.google.common.collect.SortedSetMultimap;
+import com.google.common.collect.TreeMultimap;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAddressOfLabelExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CArrayDesignator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CArrayRangeDesignator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CArraySubscriptExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAssignment;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
+import org.sosy_lab.cpachecker.cfa.ast.c.CAstNodeVisitor;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CCastExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CCharLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CComplexCastExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CComplexTypeDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CDesignatedInitializer;
+import org.sosy_lab.cpachecker.cfa.ast.c.CDesignator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpressionAssignmentStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpressionStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFieldDesignator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFieldReference;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFloatLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCall;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallAssignmentStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionCallStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CImaginaryLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CInitializer;
+import org.sosy_lab.cpachecker.cfa.ast.c.CInitializerExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CInitializerList;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CLeftHandSide;
+import org.sosy_lab.cpachecker.cfa.ast.c.CLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CParameterDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CPointerExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CReturnStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CStringLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CThreadOperationStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CThreadOperationStatement.CThreadCreateStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CThreadOperationStatement.CThreadJoinStatement;
+import org.sosy_lab.cpachecker.cfa.ast.c.CTypeDefDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CTypeIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CTypeIdExpression.TypeIdOperator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression.UnaryOperator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.CFATerminationNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CAssumeEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionCallEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionReturnEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionSummaryStatementEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CLabelNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CReturnStatementEdge;
+import org.sosy_lab.cpachecker.cfa.model.c.CStatementEdge;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CArrayType;
+import org.sosy_lab.cpachecker.cfa.types.c.CBasicType;
+import org.sosy_lab.cpachecker.cfa.types.c.CBitFieldType;
+import org.sosy_lab.cpachecker.cfa.types.c.CComplexType;
+import org.sosy_lab.cpachecker.cfa.types.c.CComplexType.ComplexTypeKind;
+import org.sosy_lab.cpachecker.cfa.types.c.CCompositeType;
+import org.sosy_lab.cpachecker.cfa.types.c.CCompositeType.CCompositeTypeMemberDeclaration;
+import org.sosy_lab.cpachecker.cfa.types.c.CElaboratedType;
+import org.sosy_lab.cpachecker.cfa.types.c.CEnumType;
+import org.sosy_lab.cpachecker.cfa.types.c.CEnumType.CEnumerator;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionTypeWithNames;
+import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
+import org.sosy_lab.cpachecker.cfa.types.c.CProblemType;
+import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.cfa.types.c.CTypeVisitor;
+import org.sosy_lab.cpachecker.cfa.types.c.CTypedefType;
+import org.sosy_lab.cpachecker.cfa.types.c.CVoidType;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.Pair;
+
+/**
+ * An explicit binary encoding of C CFAs for the {@link CFACache}.
+ *
+ * <p>The encoding contains only numbers and strings and no serialized Java objects, and reading it
+ * only creates instances of a fixed set of CFA, AST and type classes. Objects that are shared in
+ * the CFA, e.g., declarations and types, are written once and referenced by their index
+ * afterwards, such that they are shared in the loaded CFA, too. Nodes keep their numbers, and
+ * edges keep their order. The variable classification, live variables, and dependence graph are
+ * not part of the encoding and have to be computed for the loaded CFA.
+ *
+ * <p>Two details of types are normalized: elaborated types are stored with their resolved real
+ * type (without intermediate elaborated types) and get the name and original name of it, as
+ * returned by {@link CElaboratedType#getName()} and {@link CElaboratedType#getOrigName()}.
+ */
+final class CFABinaryFormat {
+
+  private static final int FORMAT_VERSION = 1;
+
+  // references to objects and strings: null, the start of a new object or string,
+  // or the index of a previously written one (plus FIRST_INDEX_REF)
+  private static final int NULL_REF = 0;
+  private static final int NEW_REF = 1;
+  // an object that has to be written before the following one (only used for objects)
+  private static final int DEPENDENCY_REF = 2;
+  private static final int FIRST_INDEX_REF = 3;
+
+  private enum Tag {
+    FILE_LOCATION,
+    DUMMY_FILE_LOCATION,
+    MULTIPLE_FILES_FILE_LOCATION,
+
+    ARRAY_TYPE,
+    BIT_FIELD_TYPE,
+    COMPOSITE_TYPE,
+    ELABORATED_TYPE,
+    ENUM_TYPE,
+    FUNCTION_TYPE,
+    FUNCTION_TYPE_WITH_NAMES,
+    POINTER_TYPE,
+    PROBLEM_TYPE,
+    SIMPLE_TYPE,
+    TYPEDEF_TYPE,
+    VOID_TYPE,
+
+    ADDRESS_OF_LABEL_EXPRESSION,
+    ARRAY_DESIGNATOR,
+    ARRAY_RANGE_DESIGNATOR,
+    ARRAY_SUBSCRIPT_EXPRESSION,
+    BINARY_EXPRESSION,
+    CAST_EXPRESSION,
+    CHAR_LITERAL_EXPRESSION,
+    COMPLEX_CAST_EXPRESSION,
+    COMPLEX_TYPE_DECLARATION,
+    DESIGNATED_INITIALIZER,
+    ENUMERATOR,
+    EXPRESSION_ASSIGNMENT_STATEMENT,
+    EXPRESSION_STATEMENT,
+    FIELD_DESIGNATOR,
+    FIELD_REFERENCE,
+    FLOAT_LITERAL_EXPRESSION,
+    FUNCTION_CALL_ASSIGNMENT_STATEMENT,
+    FUNCTION_CALL_EXPRESSION,
+    FUNCTION_CALL_STATEMENT,
+    THREAD_CREATE_STATEMENT,
+    THREAD_JOIN_STATEMENT,
+    FUNCTION_DECLARATION,
+    ID_EXPRESSION,
+    IMAGINARY_LITERAL_EXPRESSION,
+    INITIALIZER_EXPRESSION,
+    INITIALIZER_LIST,
+    INTEGER_LITERAL_EXPRESSION,
+    PARAMETER_DECLARATION,
+    POINTER_EXPRESSION,
+    RETURN_STATEMENT,
+    STRING_LITERAL_EXPRESSION,
+    TYPE_DEF_DECLARATION,
+    TYPE_ID_EXPRESSION,
+    UNARY_EXPRESSION,
+    VARIABLE_DECLARATION,
+  }
+
+  private enum NodeKind {
+    NODE,
+    TERMINATION_NODE,
+    LABEL_NODE,
+    FUNCTION_EXIT_NODE,
+    FUNCTION_ENTRY_NODE,
+  }
+
+  private enum EdgeKind {
+    BLANK_EDGE,
+    ASSUME_EDGE,
+    DECLARATION_EDGE,
+    STATEMENT_EDGE,
+    SUMMARY_STATEMENT_EDGE,
+    RETURN_STATEMENT_EDGE,
+    FUNCTION_CALL_EDGE,
+    FUNCTION_RETURN_EDGE,
+  }
+
+  /** All classes of objects that can be stored, apart from the special file locations. */
+  private static final ImmutableSet<Class<?>> SUPPORTED_CLASSES =
+      ImmutableSet.of(
+          FileLocation.class,
+          CArrayType.class,
+          CBitFieldType.class,
+          CCompositeType.class,
+          CElaboratedType.class,
+          CEnumType.class,
+          CFunctionType.class,
+          CFunctionTypeWithNames.class,
+          CPointerType.class,
+          CProblemType.class,
+          CSimpleType.class,
+          CTypedefType.class,
+          CVoidType.class,
+          CAddressOfLabelExpression.class,
+          CArrayDesignator.class,
+          CArrayRangeDesignator.class,
+          CArraySubscriptExpression.class,
+          CBinaryExpression.class,
+          CCastExpression.class,
+          CCharLiteralExpression.class,
+          CComplexCastExpression.class,
+          CComplexTypeDeclaration.class,
+          CDesignatedInitializer.class,
+          CEnumerator.class,
+          CExpressionAssignmentStatement.class,
+          CExpressionStatement.class,
+          CFieldDesignator.class,
+          CFieldReference.class,
+          CFloatLiteralExpression.class,
+          CFunctionCallAssignmentStatement.class,
+          CFunctionCallExpression.class,
+          CFunctionCallStatement.class,
+          CThreadCreateStatement.class,
+          CThreadJoinStatement.class,
+          CFunctionDeclaration.class,
+          CIdExpression.class,
+          CImaginaryLiteralExpression.class,
+          CInitializerExpression.class,
+          CInitializerList.class,
+          CIntegerLiteralExpression.class,
+          CParameterDeclaration.class,
+          CPointerExpression.class,
+          CReturnStatement.class,
+          CStringLiteralExpression.class,
+          CTypeDefDeclaration.class,
+          CTypeIdExpression.class,
+          CUnaryExpression.class,
+          CVariableDeclaration.class);
+
+  private CFABinaryFormat() {}
+
+  /**
+   * Write the given CFA and the global declarations of the program.
+   *
+   * @throws IOException if writing fails or if the CFA contains something that cannot be stored
+   */
+  static void write(
+      DataOutputStream pOut, MutableCFA pCfa, List<Pair<ADeclaration, String>> pGlobalDeclarations)
+      throws IOException {
+    new Writer(pOut).writeCfa(pCfa, pGlobalDeclarations);
+  }
+
+  /**
+   * Read a CFA and the global declarations of the program as written by {@link #write}.
+   *
+   * @throws IOException if reading fails or if the input is not a valid CFA in this format
+   */
+  static Pair<MutableCFA, List<Pair<ADeclaration, String>>> read(DataInputStream pIn)
+      throws IOException {
+    return new Reader(pIn).readCfa();
+  }
+
+  private static final class Writer
+      implements CTypeVisitor<Void, IOException>, CAstNodeVisitor<Void, IOException> {
+
+    private final DataOutputStream out;
+
+    private final Map<Object, Integer> objectIndices = new IdentityHashMap<>();
+    // objects whose data are being written and that must not be referenced yet
+    private final Set<Object> unfinishedObjects = Sets.newIdentityHashSet();
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final Map<CFANode, Integer> nodeIndices = new HashMap<>();
+
+    // enumerators may be referenced by their own type, so their enum and type are written later
+    private final Deque<CEnumerator> pendingEnumerators = new ArrayDeque<>();
+
+    private Writer(DataOutputStream pOut) {
+      out = pOut;
+    }
+
+    private void writeCfa(MutableCFA pCfa, List<Pair<ADeclaration, String>> pGlobalDeclarations)
+        throws IOException {
+      if (pCfa.getLanguage() != Language.C) {
+        throw new IOException("Cannot store CFA for language " + pCfa.getLanguage());
+      }
+
+      out.writeInt(FORMAT_VERSION);
+      writeEnum(pCfa.getMachineModel());
+      out.writeInt(pCfa.getFileNames().size());
+      for (Path fileName : pCfa.getFileNames()) {
+        writeString(fileName.toString());
+      }
+
+      List<CFANode> nodes = collectNodes(pCfa);
+      Set<CFANode> cfaNodes = ImmutableSet.copyOf(pCfa.getAllNodes());
+      out.writeInt(nodes.size());
+      for (CFANode node : nodes) {
+        writeNode(node, cfaNodes.contains(node));
+        nodeIndices.put(node, nodeIndices.size());
+      }
+
+      out.writeInt(pCfa.getAllFunctions().size());
+      for (Map.Entry<String, FunctionEntryNode> function : pCfa.getAllFunctions().entrySet()) {
+        writeString(function.getKey());
+        writeNodeIndex(function.getValue());
+      }
+      writeNodeIndex(pCfa.getMainFunction());
+
+      Map<FunctionSummaryEdge, Integer> summaryEdgeIndices = writeSummaryEdges(nodes);
+
+      for (CFANode node : nodes) {
+        out.writeInt(node.getNumLeavingEdges());
+        for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+          CFAEdge edge = node.getLeavingEdge(i);
+          if (edge.getPredecessor() != node) {
+            throw new IOException("Edge " + edge + " is not connected to its predecessor");
+          }
+          writeEdge(edge, summaryEdgeIndices);
+        }
+      }
+
+      // entering edges are written as references to leaving edges to keep their order
+      for (CFANode node : nodes) {
+        out.writeInt(node.getNumEnteringEdges());
+        for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+          CFAEdge edge = node.getEnteringEdge(i);
+          CFANode predecessor = edge.getPredecessor();
+          if (edge.getSuccessor() != node) {
+            throw new IOException("Edge " + edge + " is not connected to its successor");
+          }
+          writeNodeIndex(predecessor);
+          out.writeInt(getLeavingEdgeIndex(predecessor, edge));
+        }
+      }
+
+      for (CFANode node : nodes) {
+        out.writeInt(node.getOutOfScopeVariables().size());
+        for (CSimpleDeclaration variable : node.getOutOfScopeVariables()) {
+          writeRoot(variable);
+        }
+      }
+
+      writeLoopStructure(pCfa);
+
+      out.writeInt(pGlobalDeclarations.size());
+      for (Pair<ADeclaration, String> global : pGlobalDeclarations) {
+        writeRoot(global.getFirst());
+        writeNullableString(global.getSecond());
+      }
+    }
+
+    /**
+     * Collect the nodes of the CFA and all nodes that are reachable from them via edges, in the
+     * order in which they have to be created: function entry nodes after all other nodes, because
+     * they need their exit node.
+     */
+    private static List<CFANode> collectNodes(MutableCFA pCfa) {
+      Set<CFANode> reached = new HashSet<>(pCfa.getAllNodes());
+      Deque<CFANode> waitlist = new ArrayDeque<>(reached);
+      while (!waitlist.isEmpty()) {
+        CFANode node = waitlist.pop();
+        List<CFANode> neighbors = new ArrayList<>();
+        for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+          neighbors.add(node.getLeavingEdge(i).getSuccessor());
+        }
+        for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+          neighbors.add(node.getEnteringEdge(i).getPredecessor());
+        }
+        addSummaryEdgeNodes(node.getLeavingSummaryEdge(), neighbors);
+        addSummaryEdgeNodes(node.getEnteringSummaryEdge(), neighbors);
+        if (node instanceof FunctionEntryNode) {
+          neighbors.add(((FunctionEntryNode) node).getExitNode());
+        }
+        for (CFANode neighbor : neighbors) {
+          if (reached.add(neighbor)) {
+            waitlist.push(neighbor);
+          }
+        }
+      }
+
+      List<CFANode> nodes = new ArrayList<>(reached.size());
+      List<CFANode> entryNodes = new ArrayList<>();
+      for (CFANode node : ImmutableSortedSet.copyOf(reached)) {
+        if (node instanceof FunctionEntryNode) {
+          entryNodes.add(node);
+        } else {
+          nodes.add(node);
+        }
+      }
+      nodes.addAll(entryNodes);
+      return nodes;
+    }
+
+    private static void addSummaryEdgeNodes(
+        @Nullable FunctionSummaryEdge pSummaryEdge, List<CFANode> pNodes) {
+      if (pSummaryEdge != null) {
+        pNodes.add(pSummaryEdge.getPredecessor());
+        pNodes.add(pSummaryEdge.getSuccessor());
+        pNodes.add(pSummaryEdge.getFunctionEntry());
+      }
+    }
+
+    private void writeNode(CFANode pNode, boolean pIsInCfa) throws IOException {
+      Class<?> nodeClass = pNode.getClass();
+      if (nodeClass == CFunctionEntryNode.class) {
+        CFunctionEntryNode entryNode = (CFunctionEntryNode) pNode;
+        if (!entryNode.getFunctionName().equals(entryNode.getFunctionDefinition().getName())
+            || entryNode.getExitNode().getEntryNode() != entryNode) {
+          throw new IOException("Inconsistent function entry node " + entryNode);
+        }
+        writeEnum(NodeKind.FUNCTION_ENTRY_NODE);
+        writeRoot(entryNode.getFileLocation());
+        writeRoot(entryNode.getFunctionDefinition());
+        writeNodeIndex(entryNode.getExitNode());
+        writeRoot(entryNode.getReturnVariable().orElse(null));
+      } else {
+        if (nodeClass == CFANode.class) {
+          writeEnum(NodeKind.NODE);
+        } else if (nodeClass == CFATerminationNode.class) {
+          writeEnum(NodeKind.TERMINATION_NODE);
+        } else if (nodeClass == CLabelNode.class) {
+          writeEnum(NodeKind.LABEL_NODE);
+        } else if (nodeClass == FunctionExitNode.class) {
+          writeEnum(NodeKind.FUNCTION_EXIT_NODE);
+        } else {
+          throw new IOException("Cannot store CFA node of " + nodeClass);
+        }
+        writeString(pNode.getFunctionName());
+        if (pNode instanceof CLabelNode) {
+          writeString(((CLabelNode) pNode).getLabel());
+        }
+      }
+      out.writeInt(pNode.getNodeNumber());
+      out.writeInt(pNode.getReversePostorderId());
+      out.writeBoolean(pNode.isLoopStart());
+      out.writeBoolean(pIsInCfa);
+    }
+
+    private Map<FunctionSummaryEdge, Integer> writeSummaryEdges(List<CFANode> pNodes)
+        throws IOException {
+      Map<FunctionSummaryEdge, Integer> summaryEdgeIndices = new IdentityHashMap<>();
+      List<CFunctionSummaryEdge> summaryEdges = new ArrayList<>();
+      for (CFANode node : pNodes) {
+        FunctionSummaryEdge summaryEdge = node.getLeavingSummaryEdge();
+        if (summaryEdge != null) {
+          if (summaryEdge.getClass() != CFunctionSummaryEdge.class
+              || summaryEdge.getPredecessor() != node
+              || summaryEdge.getSuccessor().getEnteringSummaryEdge() != summaryEdge) {
+            throw new IOException("Cannot store summary edge " + summaryEdge);
+          }
+          summaryEdgeIndices.put(summaryEdge, summaryEdges.size());
+          summaryEdges.add((CFunctionSummaryEdge) summaryEdge);
+        }
+      }
+      for (CFANode node : pNodes) {
+        FunctionSummaryEdge summaryEdge = node.getEnteringSummaryEdge();
+        if (summaryEdge != null && !summaryEdgeIndices.containsKey(summaryEdge)) {
+          throw new IOException("Summary edge " + summaryEdge + " is not connected");
+        }
+      }
+
+      out.writeInt(summaryEdges.size());
+      for (CFunctionSummaryEdge summaryEdge : summaryEdges) {
+        writeString(summaryEdge.getRawStatement());
+        writeRoot(summaryEdge.getFileLocation());
+        writeNodeIndex(summaryEdge.getPredecessor());
+        writeNodeIndex(summaryEdge.getSuccessor());
+        writeRoot(summaryEdge.getExpression());
+        writeNodeIndex(summaryEdge.getFunctionEntry());
+      }
+      return summaryEdgeIndices;
+    }
+
+    private void writeEdge(CFAEdge pEdge, Map<FunctionSummaryEdge, Integer> pSummaryEdgeIndices)
+        throws IOException {
+      Class<?> edgeClass = pEdge.getClass();
+      if (edgeClass == BlankEdge.class) {
+        writeEnum(EdgeKind.BLANK_EDGE);
+      } else if (edgeClass == CAssumeEdge.class) {
+        writeEnum(EdgeKind.ASSUME_EDGE);
+      } else if (edgeClass == CDeclarationEdge.class) {
+        writeEnum(EdgeKind.DECLARATION_EDGE);
+      } else if (edgeClass == CStatementEdge.class) {
+        writeEnum(EdgeKind.STATEMENT_EDGE);
+      } else if (edgeClass == CFunctionSummaryStatementEdge.class) {
+        writeEnum(EdgeKind.SUMMARY_STATEMENT_EDGE);
+      } else if (edgeClass == CReturnStatementEdge.class) {
+        writeEnum(EdgeKind.RETURN_STATEMENT_EDGE);
+      } else if (edgeClass == CFunctionCallEdge.class) {
+        writeEnum(EdgeKind.FUNCTION_CALL_EDGE);
+      } else if (edgeClass == CFunctionReturnEdge.class) {
+        writeEnum(EdgeKind.FUNCTION_RETURN_EDGE);
+      } else {
+        throw new IOException("Cannot store CFA edge of " + edgeClass);
+      }
+      writeNodeIndex(pEdge.getSuccessor());
+      writeRoot(pEdge.getFileLocation());
+
+      if (pEdge instanceof CAssumeEdge) {
+        // the constructor adds the brackets again
+        String rawStatement = pEdge.getRawStatement();
+        if (!rawStatement.startsWith("[") || !rawStatement.endsWith("]")) {
+          throw new IOException("Unexpected raw statement of assume edge " + pEdge);
+        }
+        writeString(rawStatement.substring(1, rawStatement.length() - 1));
+      } else if (!(pEdge instanceof CFunctionReturnEdge)) {
+        writeString(pEdge.getRawStatement());
+      }
+
+      if (pEdge instanceof BlankEdge) {
+        writeString(pEdge.getDescription());
+
+      } else if (pEdge instanceof CAssumeEdge) {
+        CAssumeEdge assumeEdge = (CAssumeEdge) pEdge;
+        writeRoot(assumeEdge.getExpression());
+        out.writeBoolean(assumeEdge.getTruthAssumption());
+        out.writeBoolean(assumeEdge.isSwapped());
+        out.writeBoolean(assumeEdge.isArtificialIntermediate());
+
+      } else if (pEdge instanceof CDeclarationEdge) {
+        writeRoot(((CDeclarationEdge) pEdge).getDeclaration());
+
+      } else if (pEdge instanceof CStatementEdge) {
+        writeRoot(((CStatementEdge) pEdge).getStatement());
+        if (pEdge instanceof CFunctionSummaryStatementEdge) {
+          CFunctionSummaryStatementEdge summaryStatementEdge =
+              (CFunctionSummaryStatementEdge) pEdge;
+          writeRoot(summaryStatementEdge.getFunctionCall());
+          writeString(summaryStatementEdge.getFunctionName());
+        }
+
+      } else if (pEdge instanceof CReturnStatementEdge) {
+        writeRoot(((CReturnStatementEdge) pEdge).getRawAST().get());
+
+      } else if (pEdge instanceof CFunctionCallEdge) {
+        CFunctionCallEdge callEdge = (CFunctionCallEdge) pEdge;
+        writeRoot(callEdge.getRawAST().get());
+        writeSummaryEdgeIndex(callEdge.getSummaryEdge(), pSummaryEdgeIndices);
+
+      } else if (pEdge instanceof CFunctionReturnEdge) {
+        writeSummaryEdgeIndex(
+            ((CFunctionReturnEdge) pEdge).getSummaryEdge(), pSummaryEdgeIndices);
+      }
+    }
+
+    private void writeSummaryEdgeIndex(
+        FunctionSummaryEdge pSummaryEdge, Map<FunctionSummaryEdge, Integer> pSummaryEdgeIndices)
+        throws IOException {
+      Integer index = pSummaryEdgeIndices.get(pSummaryEdge);
+      if (index == null) {
+        throw new IOException("Summary edge " + pSummaryEdge + " is not part of the CFA");
+      }
+      out.writeInt(index);
+    }
+
+    private static int getLeavingEdgeIndex(CFANode pPredecessor, CFAEdge pEdge)
+        throws IOException {
+      for (int i = 0; i < pPredecessor.getNumLeavingEdges(); i++) {
+        if (pPredecessor.getLeavingEdge(i) == pEdge) {
+          return i;
+        }
+      }
+      throw new IOException("Edge " + pEdge + " is not connected to its predecessor");
+    }
+
+    private void writeNodeIndex(CFANode pNode) throws IOException {
+      Integer index = nodeIndices.get(pNode);
+      if (index == null) {
+        throw new IOException("CFA node " + pNode + " is not part of the CFA");
+      }
+      out.writeInt(index);
+    }
+
+    private void writeLoopStructure(MutableCFA pCfa) throws IOException {
+      Optional<LoopStructure> loopStructure = pCfa.getLoopStructure();
+      out.writeBoolean(loopStructure.isPresent());
+      if (!loopStructure.isPresent()) {
+        return;
+      }
+
+      List<Pair<String, Loop>> loops = new ArrayList<>();
+      for (String function : pCfa.getAllFunctionNames()) {
+        for (Loop loop : loopStructure.get().getLoopsForFunction(function)) {
+          loops.add(Pair.of(function, loop));
+        }
+      }
+      if (loops.size() != loopStructure.get().getCount()) {
+        throw new IOException("Loop structure contains loops of unknown functions");
+      }
+
+      out.writeInt(loops.size());
+      for (Pair<String, Loop> loop : loops) {
+        writeString(loop.getFirst());
+        writeNodeIndices(loop.getSecond().getLoopHeads());
+        writeNodeIndices(loop.getSecond().getLoopNodes());
+      }
+    }
+
+    private void writeNodeIndices(Set<CFANode> pNodes) throws IOException {
+      out.writeInt(pNodes.size());
+      for (CFANode node : pNodes) {
+        writeNodeIndex(node);
+      }
+    }
+
+    /**
+     * Write an object that is referenced from outside of the AST, together with the missing data
+     * of all enumerators that were written as part of it.
+     */
+    private void writeRoot(@Nullable Object pObject) throws IOException {
+      writeRef(pObject);
+      while (!pendingEnumerators.isEmpty()) {
+        CEnumerator enumerator = pendingEnumerators.pop();
+        out.writeBoolean(true);
+        writeRef(enumerator);
+        writeRef(enumerator.getEnum());
+        writeRef(enumerator.getType());
+      }
+      out.writeBoolean(false);
+    }
+
+    private void writeRef(@Nullable Object pObject) throws IOException {
+      if (pObject == null) {
+        out.writeInt(NULL_REF);
+        return;
+      }
+
+      Integer index = objectIndices.get(pObject);
+      if (index != null) {
+        if (unfinishedObjects.contains(pObject)) {
+          throw new IOException("Cannot store cyclic reference to " + pObject);
+        }
+        out.writeInt(FIRST_INDEX_REF + index);
+        return;
+      }
+
+      if (pObject instanceof CElaboratedType) {
+        // the real type may refer back to the elaborated type, e.g., in a member type,
+        // but the elaborated type needs its real type for construction
+        CComplexType realType = ((CElaboratedType) pObject).getRealType();
+        if (realType != null && !objectIndices.containsKey(realType)) {
+          out.writeInt(DEPENDENCY_REF);
+          writeRef(realType);
+          writeRef(pObject);
+          return;
+        }
+      }
+
+      if (pObject != FileLocation.DUMMY
+          && pObject != FileLocation.MULTIPLE_FILES
+          && !SUPPORTED_CLASSES.contains(pObject.getClass())) {
+        throw new IOException("Cannot store object of " + pObject.getClass());
+      }
+
+      out.writeInt(NEW_REF);
+      objectIndices.put(pObject, objectIndices.size());
+      unfinishedObjects.add(pObject);
+      if (pObject instanceof FileLocation) {
+        writeFileLocation((FileLocation) pObject);
+      } else if (pObject instanceof CType) {
+        ((CType) pObject).accept(this);
+      } else {
+        ((CAstNode) pObject).accept(this);
+      }
+      unfinishedObjects.remove(pObject);
+    }
+
+    /** Allow references to an object before all of its data are written. */
+    private void publish(Object pObject) {
+      unfinishedObjects.remove(pObject);
+    }
+
+    private void writeRefs(List<?> pObjects) throws IOException {
+      out.writeInt(pObjects.size());
+      for (Object object : pObjects) {
+        writeRef(object);
+      }
+    }
+
+    private void writeString(String pString) throws IOException {
+      if (pString == null) {
+        throw new IOException("Unexpected missing string");
+      }
+      writeNullableString(pString);
+    }
+
+    private void writeNullableString(@Nullable String pString) throws IOException {
+      if (pString == null) {
+        out.writeInt(NULL_REF);
+        return;
+      }
+      Integer index = stringIndices.get(pString);
+      if (index != null) {
+        out.writeInt(FIRST_INDEX_REF + index);
+        return;
+      }
+      stringIndices.put(pString, stringIndices.size());
+      out.writeInt(NEW_REF);
+      byte[] bytes = pString.getBytes(UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+
+    private void writeEnum(Enum<?> pValue) throws IOException {
+      if (pValue instanceof Tag || pValue instanceof NodeKind || pValue instanceof EdgeKind) {
+        out.writeByte(pValue.ordinal());
+      } else {
+        // enums of other classes are stored by name to be independent of their declaration order
+        writeString(pValue.name());
+      }
+    }
+
+    private void writeFileLocation(FileLocation pLocation) throws IOException {
+      if (pLocation == FileLocation.DUMMY) {
+        writeEnum(Tag.DUMMY_FILE_LOCATION);
+      } else if (pLocation == FileLocation.MULTIPLE_FILES) {
+        writeEnum(Tag.MULTIPLE_FILES_FILE_LOCATION);
+      } else {
+        writeEnum(Tag.FILE_LOCATION);
+        writeString(pLocation.getFileName());
+        writeString(pLocation.getNiceFileName());
+        out.writeInt(pLocation.getNodeOffset());
+        out.writeInt(pLocation.getNodeLength());
+        out.writeInt(pLocation.getStartingLineNumber());
+        out.writeInt(pLocation.getEndingLineNumber());
+        out.writeInt(pLocation.getStartingLineInOrigin());
+        out.writeInt(pLocation.getEndingLineInOrigin());
+        out.writeBoolean(pLocation.isOffsetRelatedToOrigin());
+      }
+    }
+
+    // types
+
+    @Override
+    public Void visit(CArrayType pArrayType) throws IOException {
+      writeEnum(Tag.ARRAY_TYPE);
+      out.writeBoolean(pArrayType.isConst());
+      out.writeBoolean(pArrayType.isVolatile());
+      writeRef(pArrayType.getType());
+      writeRef(pArrayType.getLength());
+      return null;
+    }
+
+    @Override
+    public Void visit(CCompositeType pCompositeType) throws IOException {
+      writeEnum(Tag.COMPOSITE_TYPE);
+      out.writeBoolean(pCompositeType.isConst());
+      out.writeBoolean(pCompositeType.isVolatile());
+      writeEnum(pCompositeType.getKind());
+      writeString(pCompositeType.getName());
+      writeString(pCompositeType.getOrigName());
+      // members may refer back to this type
+      publish(pCompositeType);
+      List<CCompositeTypeMemberDeclaration> members = pCompositeType.getMembers();
+      out.writeBoolean(members != null);
+      if (members != null) {
+        out.writeInt(members.size());
+        for (CCompositeTypeMemberDeclaration member : members) {
+          writeRef(member.getType());
+          writeNullableString(member.getName());
+        }
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(CElaboratedType pElaboratedType) throws IOException {
+      writeEnum(Tag.ELABORATED_TYPE);
+      out.writeBoolean(pElaboratedType.isConst());
+      out.writeBoolean(pElaboratedType.isVolatile());
+      writeEnum(pElaboratedType.getKind());
+      writeString(pElaboratedType.getName());
+      writeString(pElaboratedType.getOrigName());
+      writeRef(pElaboratedType.getRealType());
+      return null;
+    }
+
+    @Override
+    public Void visit(CEnumType pEnumType) throws IOException {
+      writeEnum(Tag.ENUM_TYPE);
+      out.writeBoolean(pEnumType.isConst());
+      out.writeBoolean(pEnumType.isVolatile());
+      writeRefs(pEnumType.getEnumerators());
+      writeString(pEnumType.getName());
+      writeString(pEnumType.getOrigName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFunctionType pFunctionType) throws IOException {
+      if (pFunctionType instanceof CFunctionTypeWithNames) {
+        writeEnum(Tag.FUNCTION_TYPE_WITH_NAMES);
+        writeRef(pFunctionType.getReturnType());
+        writeRefs(((CFunctionTypeWithNames) pFunctionType).getParameterDeclarations());
+      } else {
+        writeEnum(Tag.FUNCTION_TYPE);
+        writeRef(pFunctionType.getReturnType());
+        writeRefs(pFunctionType.getParameters());
+      }
+      out.writeBoolean(pFunctionType.takesVarArgs());
+      writeNullableString(pFunctionType.getName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CPointerType pPointerType) throws IOException {
+      writeEnum(Tag.POINTER_TYPE);
+      out.writeBoolean(pPointerType.isConst());
+      out.writeBoolean(pPointerType.isVolatile());
+      writeRef(pPointerType.getType());
+      return null;
+    }
+
+    @Override
+    public Void visit(CProblemType pProblemType) throws IOException {
+      writeEnum(Tag.PROBLEM_TYPE);
+      writeString(pProblemType.toString());
+      return null;
+    }
+
+    @Override
+    public Void visit(CSimpleType pSimpleType) throws IOException {
+      writeEnum(Tag.SIMPLE_TYPE);
+      out.writeBoolean(pSimpleType.isConst());
+      out.writeBoolean(pSimpleType.isVolatile());
+      writeEnum(pSimpleType.getType());
+      out.writeBoolean(pSimpleType.isLong());
+      out.writeBoolean(pSimpleType.isShort());
+      out.writeBoolean(pSimpleType.isSigned());
+      out.writeBoolean(pSimpleType.isUnsigned());
+      out.writeBoolean(pSimpleType.isComplex());
+      out.writeBoolean(pSimpleType.isImaginary());
+      out.writeBoolean(pSimpleType.isLongLong());
+      return null;
+    }
+
+    @Override
+    public Void visit(CTypedefType pTypedefType) throws IOException {
+      writeEnum(Tag.TYPEDEF_TYPE);
+      out.writeBoolean(pTypedefType.isConst());
+      out.writeBoolean(pTypedefType.isVolatile());
+      writeString(pTypedefType.getName());
+      writeRef(pTypedefType.getRealType());
+      return null;
+    }
+
+    @Override
+    public Void visit(CVoidType pVoidType) throws IOException {
+      writeEnum(Tag.VOID_TYPE);
+      out.writeBoolean(pVoidType.isConst());
+      out.writeBoolean(pVoidType.isVolatile());
+      return null;
+    }
+
+    @Override
+    public Void visit(CBitFieldType pCBitFieldType) throws IOException {
+      writeEnum(Tag.BIT_FIELD_TYPE);
+      writeRef(pCBitFieldType.getType());
+      out.writeInt(pCBitFieldType.getBitFieldSize());
+      return null;
+    }
+
+    // expressions
+
+    @Override
+    public Void visit(CArraySubscriptExpression pExpression) throws IOException {
+      writeEnum(Tag.ARRAY_SUBSCRIPT_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getArrayExpression());
+      writeRef(pExpression.getSubscriptExpression());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFieldReference pExpression) throws IOException {
+      writeEnum(Tag.FIELD_REFERENCE);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeString(pExpression.getFieldName());
+      writeRef(pExpression.getFieldOwner());
+      out.writeBoolean(pExpression.isPointerDereference());
+      return null;
+    }
+
+    @Override
+    public Void visit(CIdExpression pExpression) throws IOException {
+      writeEnum(Tag.ID_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeString(pExpression.getName());
+      writeRef(pExpression.getDeclaration());
+      return null;
+    }
+
+    @Override
+    public Void visit(CPointerExpression pExpression) throws IOException {
+      writeEnum(Tag.POINTER_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getOperand());
+      return null;
+    }
+
+    @Override
+    public Void visit(CComplexCastExpression pExpression) throws IOException {
+      writeEnum(Tag.COMPLEX_CAST_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getOperand());
+      writeRef(pExpression.getType());
+      out.writeBoolean(pExpression.isRealCast());
+      return null;
+    }
+
+    @Override
+    public Void visit(CBinaryExpression pExpression) throws IOException {
+      writeEnum(Tag.BINARY_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getCalculationType());
+      writeRef(pExpression.getOperand1());
+      writeRef(pExpression.getOperand2());
+      writeEnum(pExpression.getOperator());
+      return null;
+    }
+
+    @Override
+    public Void visit(CCastExpression pExpression) throws IOException {
+      writeEnum(Tag.CAST_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getOperand());
+      return null;
+    }
+
+    @Override
+    public Void visit(CCharLiteralExpression pExpression) throws IOException {
+      writeEnum(Tag.CHAR_LITERAL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      out.writeChar(pExpression.getCharacter());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFloatLiteralExpression pExpression) throws IOException {
+      writeEnum(Tag.FLOAT_LITERAL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeString(pExpression.getValue().toString());
+      return null;
+    }
+
+    @Override
+    public Void visit(CIntegerLiteralExpression pExpression) throws IOException {
+      writeEnum(Tag.INTEGER_LITERAL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      byte[] value = pExpression.getValue().toByteArray();
+      out.writeInt(value.length);
+      out.write(value);
+      return null;
+    }
+
+    @Override
+    public Void visit(CStringLiteralExpression pExpression) throws IOException {
+      writeEnum(Tag.STRING_LITERAL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeString(pExpression.getValue());
+      return null;
+    }
+
+    @Override
+    public Void visit(CTypeIdExpression pExpression) throws IOException {
+      writeEnum(Tag.TYPE_ID_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeEnum(pExpression.getOperator());
+      writeRef(pExpression.getType());
+      return null;
+    }
+
+    @Override
+    public Void visit(CUnaryExpression pExpression) throws IOException {
+      writeEnum(Tag.UNARY_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getOperand());
+      writeEnum(pExpression.getOperator());
+      return null;
+    }
+
+    @Override
+    public Void visit(CImaginaryLiteralExpression pExpression) throws IOException {
+      writeEnum(Tag.IMAGINARY_LITERAL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getValue());
+      return null;
+    }
+
+    @Override
+    public Void visit(CAddressOfLabelExpression pExpression) throws IOException {
+      writeEnum(Tag.ADDRESS_OF_LABEL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeString(pExpression.getLabelName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFunctionCallExpression pExpression) throws IOException {
+      writeEnum(Tag.FUNCTION_CALL_EXPRESSION);
+      writeRef(pExpression.getFileLocation());
+      writeRef(pExpression.getExpressionType());
+      writeRef(pExpression.getFunctionNameExpression());
+      writeRefs(pExpression.getParameterExpressions());
+      writeRef(pExpression.getDeclaration());
+      return null;
+    }
+
+    // designators and initializers
+
+    @Override
+    public Void visit(CArrayDesignator pDesignator) throws IOException {
+      writeEnum(Tag.ARRAY_DESIGNATOR);
+      writeRef(pDesignator.getFileLocation());
+      writeRef(pDesignator.getSubscriptExpression());
+      return null;
+    }
+
+    @Override
+    public Void visit(CArrayRangeDesignator pDesignator) throws IOException {
+      writeEnum(Tag.ARRAY_RANGE_DESIGNATOR);
+      writeRef(pDesignator.getFileLocation());
+      writeRef(pDesignator.getFloorExpression());
+      writeRef(pDesignator.getCeilExpression());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFieldDesignator pDesignator) throws IOException {
+      writeEnum(Tag.FIELD_DESIGNATOR);
+      writeRef(pDesignator.getFileLocation());
+      writeString(pDesignator.getFieldName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CInitializerExpression pInitializer) throws IOException {
+      writeEnum(Tag.INITIALIZER_EXPRESSION);
+      writeRef(pInitializer.getFileLocation());
+      writeRef(pInitializer.getExpression());
+      return null;
+    }
+
+    @Override
+    public Void visit(CInitializerList pInitializer) throws IOException {
+      writeEnum(Tag.INITIALIZER_LIST);
+      writeRef(pInitializer.getFileLocation());
+      writeRefs(pInitializer.getInitializers());
+      return null;
+    }
+
+    @Override
+    public Void visit(CDesignatedInitializer pInitializer) throws IOException {
+      writeEnum(Tag.DESIGNATED_INITIALIZER);
+      writeRef(pInitializer.getFileLocation());
+      writeRefs(pInitializer.getDesignators());
+      writeRef(pInitializer.getRightHandSide());
+      return null;
+    }
+
+    // declarations
+
+    @Override
+    public Void visit(CFunctionDeclaration pDecl) throws IOException {
+      writeEnum(Tag.FUNCTION_DECLARATION);
+      writeRef(pDecl.getFileLocation());
+      writeRef(pDecl.getType());
+      writeString(pDecl.getName());
+      writeString(pDecl.getOrigName());
+      writeRefs(pDecl.getParameters());
+      return null;
+    }
+
+    @Override
+    public Void visit(CComplexTypeDeclaration pDecl) throws IOException {
+      writeEnum(Tag.COMPLEX_TYPE_DECLARATION);
+      writeRef(pDecl.getFileLocation());
+      out.writeBoolean(pDecl.isGlobal());
+      writeRef(pDecl.getType());
+      return null;
+    }
+
+    @Override
+    public Void visit(CTypeDefDeclaration pDecl) throws IOException {
+      writeEnum(Tag.TYPE_DEF_DECLARATION);
+      writeRef(pDecl.getFileLocation());
+      out.writeBoolean(pDecl.isGlobal());
+      writeRef(pDecl.getType());
+      writeString(pDecl.getName());
+      writeString(pDecl.getQualifiedName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CVariableDeclaration pDecl) throws IOException {
+      writeEnum(Tag.VARIABLE_DECLARATION);
+      writeRef(pDecl.getFileLocation());
+      out.writeBoolean(pDecl.isGlobal());
+      writeEnum(pDecl.getCStorageClass());
+      writeRef(pDecl.getType());
+      writeString(pDecl.getName());
+      writeNullableString(pDecl.getOrigName());
+      writeNullableString(pDecl.getQualifiedName());
+      // the initializer may refer to the variable itself
+      publish(pDecl);
+      writeRef(pDecl.getInitializer());
+      return null;
+    }
+
+    @Override
+    public Void visit(CParameterDeclaration pDecl) throws IOException {
+      writeEnum(Tag.PARAMETER_DECLARATION);
+      writeRef(pDecl.getFileLocation());
+      writeRef(pDecl.getType());
+      writeString(pDecl.getName());
+      writeNullableString(pDecl.getQualifiedName());
+      return null;
+    }
+
+    @Override
+    public Void visit(CEnumerator pDecl) throws IOException {
+      writeEnum(Tag.ENUMERATOR);
+      writeRef(pDecl.getFileLocation());
+      writeString(pDecl.getName());
+      writeString(pDecl.getQualifiedName());
+      out.writeBoolean(pDecl.hasValue());
+      if (pDecl.hasValue()) {
+        out.writeLong(pDecl.getValue());
+      }
+      pendingEnumerators.add(pDecl);
+      return null;
+    }
+
+    // statements
+
+    @Override
+    public Void visit(CExpressionAssignmentStatement pStatement) throws IOException {
+      writeEnum(Tag.EXPRESSION_ASSIGNMENT_STATEMENT);
+      writeRef(pStatement.getFileLocation());
+      writeRef(pStatement.getLeftHandSide());
+      writeRef(pStatement.getRightHandSide());
+      return null;
+    }
+
+    @Override
+    public Void visit(CExpressionStatement pStatement) throws IOException {
+      writeEnum(Tag.EXPRESSION_STATEMENT);
+      writeRef(pStatement.getFileLocation());
+      writeRef(pStatement.getExpression());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFunctionCallAssignmentStatement pStatement) throws IOException {
+      writeEnum(Tag.FUNCTION_CALL_ASSIGNMENT_STATEMENT);
+      writeRef(pStatement.getFileLocation());
+      writeRef(pStatement.getLeftHandSide());
+      writeRef(pStatement.getRightHandSide());
+      return null;
+    }
+
+    @Override
+    public Void visit(CFunctionCallStatement pStatement) throws IOException {
+      if (pStatement instanceof CThreadCreateStatement) {
+        writeEnum(Tag.THREAD_CREATE_STATEMENT);
+      } else if (pStatement instanceof CThreadJoinStatement) {
+        writeEnum(Tag.THREAD_JOIN_STATEMENT);
+      } else {
+        writeEnum(Tag.FUNCTION_CALL_STATEMENT);
+      }
+      writeRef(pStatement.getFileLocation());
+      writeRef(pStatement.getFunctionCallExpression());
+      if (pStatement instanceof CThreadOperationStatement) {
+        CThreadOperationStatement threadStatement = (CThreadOperationStatement) pStatement;
+        out.writeBoolean(threadStatement.isSelfParallel());
+        writeNullableString(threadStatement.getVariableName());
+      }
+      return null;
+    }
+
+    @Override
+    public Void visit(CReturnStatement pNode) throws IOException {
+      writeEnum(Tag.RETURN_STATEMENT);
+      writeRef(pNode.getFileLocation());
+      writeRef(pNode.getReturnValue().orElse(null));
+      writeRef(pNode.asAssignment().orElse(null));
+      return null;
+    }
+  }
+
+  private static final class Reader {
+
+    private final DataInputStream in;
+
+    private final List<@Nullable Object> objects = new ArrayList<>();
+    private final List<String> strings = new ArrayList<>();
+    private final List<CFANode> nodes = new ArrayList<>();
+
+    private Reader(DataInputStream pIn) {
+      in = pIn;
+    }
+
+    private Pair<MutableCFA, List<Pair<ADeclaration, String>>> readCfa() throws IOException {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported format of cached CFA");
+      }
+      MachineModel machineModel = readEnum(MachineModel.class);
+      int fileCount = in.readInt();
+      List<Path> fileNames = new ArrayList<>(fileCount);
+      for (int i = 0; i < fileCount; i++) {
+        fileNames.add(Paths.get(readString()));
+      }
+
+      int nodeCount = in.readInt();
+      int[] nodeNumbers = new int[nodeCount];
+      Set<Integer> usedNodeNumbers = new HashSet<>();
+      SortedSetMultimap<String, CFANode> cfaNodes = TreeMultimap.create();
+      List<CFANode> nodesInCfa = new ArrayList<>();
+      CFANode.startDeferredNumbering();
+      try {
+        for (int i = 0; i < nodeCount; i++) {
+          CFANode node = readNode();
+          nodeNumbers[i] = in.readInt();
+          node.setReversePostorderId(in.readInt());
+          if (in.readBoolean()) {
+            node.setLoopStart();
+          }
+          if (in.readBoolean()) {
+            nodesInCfa.add(node);
+          }
+          if (!usedNodeNumbers.add(nodeNumbers[i])) {
+            throw new IOException("Duplicate node number in cached CFA");
+          }
+          nodes.add(node);
+        }
+      } finally {
+        CFANode.stopDeferredNumbering();
+      }
+      CFANode.assignNodeNumbers(nodes, nodeNumbers);
+      for (CFANode node : nodesInCfa) {
+        cfaNodes.put(node.getFunctionName(), node);
+      }
+
+      NavigableMap<String, FunctionEntryNode> functions = new TreeMap<>();
+      int functionCount = in.readInt();
+      for (int i = 0; i < functionCount; i++) {
+        functions.put(readString(), readNode(FunctionEntryNode.class));
+      }
+      FunctionEntryNode mainFunction = readNode(FunctionEntryNode.class);
+
+      List<CFunctionSummaryEdge> summaryEdges = readSummaryEdges();
+
+      for (CFANode node : nodes) {
+        int edgeCount = in.readInt();
+        for (int i = 0; i < edgeCount; i++) {
+          node.addLeavingEdge(readEdge(node, summaryEdges));
+        }
+      }
+
+      for (CFANode node : nodes) {
+        int edgeCount = in.readInt();
+        for (int i = 0; i < edgeCount; i++) {
+          CFANode predecessor = readNode(CFANode.class);
+          int index = in.readInt();
+          if (index < 0 || index >= predecessor.getNumLeavingEdges()) {
+            throw new IOException("Invalid edge reference in cached CFA");
+          }
+          CFAEdge edge = predecessor.getLeavingEdge(index);
+          if (edge.getSuccessor() != node) {
+            throw new IOException("Invalid edge reference in cached CFA");
+          }
+          node.addEnteringEdge(edge);
+        }
+      }
+
+      for (CFANode node : nodes) {
+        int variableCount = in.readInt();
+        List<CSimpleDeclaration> variables = new ArrayList<>(variableCount);
+        for (int i = 0; i < variableCount; i++) {
+          variables.add(readRoot(CSimpleDeclaration.class));
+        }
+        if (!variables.isEmpty()) {
+          node.addOutOfScopeVariables(variables);
+        }
+      }
+
+      Optional<LoopStructure> loopStructure = readLoopStructure();
+
+      int globalCount = in.readInt();
+      List<Pair<ADeclaration, String>> globalDeclarations = new ArrayList<>(globalCount);
+      for (int i = 0; i < globalCount; i++) {
+        ADeclaration declaration = readRoot(CDeclaration.class);
+        globalDeclarations.add(Pair.of(declaration, readNullableString()));
+      }
+
+      if (!functions.keySet().equals(cfaNodes.keySet())
+          || functions.get(mainFunction.getFunctionName()) != mainFunction) {
+        throw new IOException("Inconsistent functions in cached CFA");
+      }
+      MutableCFA cfa =
+          new MutableCFA(machineModel, functions, cfaNodes, mainFunction, fileNames, Language.C);
+      if (loopStructure.isPresent()) {
+        cfa.setLoopStructure(loopStructure.get());
+      }
+      return Pair.of(cfa, globalDeclarations);
+    }
+
+    private CFANode readNode() throws IOException {
+      NodeKind kind = readEnum(NodeKind.values());
+      if (kind == NodeKind.FUNCTION_ENTRY_NODE) {
+        FileLocation location = readRoot(FileLocation.class);
+        CFunctionDeclaration declaration = readRoot(CFunctionDeclaration.class);
+        FunctionExitNode exitNode = readNode(FunctionExitNode.class);
+        CVariableDeclaration returnVariable = readNullableRoot(CVariableDeclaration.class);
+        CFunctionEntryNode entryNode =
+            new CFunctionEntryNode(
+                location, declaration, exitNode, Optional.ofNullable(returnVariable));
+        exitNode.setEntryNode(entryNode);
+        return entryNode;
+      }
+
+      String functionName = readString();
+      switch (kind) {
+        case NODE:
+          return new CFANode(functionName);
+        case TERMINATION_NODE:
+          return new CFATerminationNode(functionName);
+        case LABEL_NODE:
+          return new CLabelNode(functionName, readString());
+        case FUNCTION_EXIT_NODE:
+          return new FunctionExitNode(functionName);
+        default:
+          throw new AssertionError(kind);
+      }
+    }
+
+    private <T extends CFANode> T readNode(Class<T> pClass) throws IOException {
+      int index = in.readInt();
+      if (index < 0 || index >= nodes.size() || !pClass.isInstance(nodes.get(index))) {
+        throw new IOException("Invalid node reference in cached CFA");
+      }
+      return pClass.cast(nodes.get(index));
+    }
+
+    private List<CFunctionSummaryEdge> readSummaryEdges() throws IOException {
+      int summaryEdgeCount = in.readInt();
+      List<CFunctionSummaryEdge> summaryEdges = new ArrayList<>(summaryEdgeCount);
+      for (int i = 0; i < summaryEdgeCount; i++) {
+        String rawStatement = readString();
+        FileLocation location = readRoot(FileLocation.class);
+        CFANode predecessor = readNode(CFANode.class);
+        CFANode successor = readNode(CFANode.class);
+        CFunctionCall functionCall = readRoot(CFunctionCall.class);
+        CFunctionEntryNode functionEntry = readNode(CFunctionEntryNode.class);
+        CFunctionSummaryEdge summaryEdge =
+            new CFunctionSummaryEdge(
+                rawStatement, location, predecessor, successor, functionCall, functionEntry);
+        predecessor.addLeavingSummaryEdge(summaryEdge);
+        successor.addEnteringSummaryEdge(summaryEdge);
+        summaryEdges.add(summaryEdge);
+      }
+      return summaryEdges;
+    }
+
+    private CFAEdge readEdge(CFANode pPredecessor, List<CFunctionSummaryEdge> pSummaryEdges)
+        throws IOException {
+      EdgeKind kind = readEnum(EdgeKind.values());
+      CFANode successor = readNode(CFANode.class);
+      FileLocation location = readRoot(FileLocation.class);
+      String rawStatement = kind == EdgeKind.FUNCTION_RETURN_EDGE ? "" : readString();
+
+      switch (kind) {
+        case BLANK_EDGE:
+          return new BlankEdge(rawStatement, location, pPredecessor, successor, readString());
+
+        case ASSUME_EDGE:
+          return new CAssumeEdge(
+              rawStatement,
+              location,
+              pPredecessor,
+              successor,
+              readRoot(CExpression.class),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean());
+
+        case DECLARATION_EDGE:
+          return new CDeclarationEdge(
+              rawStatement, location, pPredecessor, successor, readRoot(CDeclaration.class));
+
+        case STATEMENT_EDGE:
+          return new CStatementEdge(
+              rawStatement, readRoot(CStatement.class), location, pPredecessor, successor);
+
+        case SUMMARY_STATEMENT_EDGE:
+          return new CFunctionSummaryStatementEdge(
+              rawStatement,
+              readRoot(CStatement.class),
+              location,
+              pPredecessor,
+              successor,
+              readRoot(CFunctionCall.class),
+              readString());
+
+        case RETURN_STATEMENT_EDGE:
+          if (!(successor instanceof FunctionExitNode)) {
+            throw new IOException("Invalid return statement edge in cached CFA");
+          }
+          return new CReturnStatementEdge(
+              rawStatement,
+              readRoot(CReturnStatement.class),
+              location,
+              pPredecessor,
+              (FunctionExitNode) successor);
+
+        case FUNCTION_CALL_EDGE:
+          if (!(successor instanceof CFunctionEntryNode)) {
+            throw new IOException("Invalid function call edge in cached CFA");
+          }
+          return new CFunctionCallEdge(
+              rawStatement,
+              location,
+              pPredecessor,
+              (CFunctionEntryNode) successor,
+              readRoot(CFunctionCall.class),
+              readSummaryEdge(pSummaryEdges));
+
+        case FUNCTION_RETURN_EDGE:
+          if (!(pPredecessor instanceof FunctionExitNode)) {
+            throw new IOException("Invalid function return edge in cached CFA");
+          }
+          return new CFunctionReturnEdge(
+              location,
+              (FunctionExitNode) pPredecessor,
+              successor,
+              readSummaryEdge(pSummaryEdges));
+
+        default:
+          throw new AssertionError(kind);
+      }
+    }
+
+    private CFunctionSummaryEdge readSummaryEdge(List<CFunctionSummaryEdge> pSummaryEdges)
+        throws IOException {
+      int index = in.readInt();
+      if (index < 0 || index >= pSummaryEdges.size()) {
+        throw new IOException("Invalid summary edge reference in cached CFA");
+      }
+      return pSummaryEdges.get(index);
+    }
+
+    private Optional<LoopStructure> readLoopStructure() throws IOException {
+      if (!in.readBoolean()) {
+        return Optional.empty();
+      }
+      ImmutableListMultimap.Builder<String, Loop> loops = ImmutableListMultimap.builder();
+      int loopCount = in.readInt();
+      for (int i = 0; i < loopCount; i++) {
+        String function = readString();
+        List<CFANode> loopHeads = readNodes();
+        List<CFANode> loopNodes = readNodes();
+        loops.put(function, Loop.of(loopHeads, loopNodes));
+      }
+      return Optional.of(LoopStructure.of(loops.build()));
+    }
+
+    private List<CFANode> readNodes() throws IOException {
+      int count = in.readInt();
+      List<CFANode> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        result.add(readNode(CFANode.class));
+      }
+      return result;
+    }
+
+    /** Read an object as written by {@link Writer#writeRoot(Object)}. */
+    private <T> T readRoot(Class<T> pClass) throws IOException {
+      T object = readNullableRoot(pClass);
+      if (object == null) {
+        throw new IOException("Missing object in cached CFA");
+      }
+      return object;
+    }
+
+    private @Nullable <T> T readNullableRoot(Class<T> pClass) throws IOException {
+      T object = readNullableRef(pClass);
+      while (in.readBoolean()) {
+        CEnumerator enumerator = readRef(CEnumerator.class);
+        CEnumType enumType = readNullableRef(CEnumType.class);
+        CType type = readNullableRef(CType.class);
+        if (enumType != null) {
+          enumerator.setEnum(enumType);
+        }
+        if (type != null) {
+          enumerator.setType(type);
+        }
+      }
+      return object;
+    }
+
+    private <T> T readRef(Class<T> pClass) throws IOException {
+      T object = readNullableRef(pClass);
+      if (object == null) {
+        throw new IOException("Missing object in cached CFA");
+      }
+      return object;
+    }
+
+    private @Nullable <T> T readNullableRef(Class<T> pClass) throws IOException {
+      Object object = readObjectRef();
+      if (object != null && !pClass.isInstance(object)) {
+        throw new IOException(
+            "Expected " + pClass.getSimpleName() + " in cached CFA, but found " + object);
+      }
+      return pClass.cast(object);
+    }
+
+    private <T> List<T> readRefs(Class<T> pClass) throws IOException {
+      int count = in.readInt();
+      List<T> result = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        result.add(readRef(pClass));
+      }
+      return result;
+    }
+
+    private @Nullable Object readObjectRef() throws IOException {
+      int ref = in.readInt();
+      while (ref == DEPENDENCY_REF) {
+        readObjectRef();
+        ref = in.readInt();
+      }
+
+      if (ref == NULL_REF) {
+        return null;
+      } else if (ref == NEW_REF) {
+        int index = objects.size();
+        objects.add(null); // placeholder until the object is created
+        Object object = readObject(index);
+        objects.set(index, object);
+        return object;
+      } else {
+        int index = ref - FIRST_INDEX_REF;
+        if (index < 0 || index >= objects.size() || objects.get(index) == null) {
+          throw new IOException("Invalid object reference in cached CFA");
+        }
+        return objects.get(index);
+      }
+    }
+
+    private String readString() throws IOException {
+      String string = readNullableString();
+      if (string == null) {
+        throw new IOException("Missing string in cached CFA");
+      }
+      return string;
+    }
+
+    private @Nullable String readNullableString() throws IOException {
+      int ref = in.readInt();
+      if (ref == NULL_REF) {
+        return null;
+      } else if (ref == NEW_REF) {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        String string = UTF_8.decode(ByteBuffer.wrap(bytes)).toString();
+        strings.add(string);
+        return string;
+      } else {
+        int index = ref - FIRST_INDEX_REF;
+        if (index < 0 || index >= strings.size()) {
+          throw new IOException("Invalid string reference in cached CFA");
+        }
+        return strings.get(index);
+      }
+    }
+
+    private <E extends Enum<E>> E readEnum(E[] pValues) throws IOException {
+      int ordinal = in.readByte();
+      if (ordinal < 0 || ordinal >= pValues.length) {
+        throw new IOException("Invalid data in cached CFA");
+      }
+      return pValues[ordinal];
+    }
+
+    private <E extends Enum<E>> E readEnum(Class<E> pClass) throws IOException {
+      return Enum.valueOf(pClass, readString());
+    }
+
+    private FileLocation readFileLocation() throws IOException {
+      return new FileLocation(
+          readString(),
+          readString(),
+          in.readInt(),
+          in.readInt(),
+          in.readInt(),
+          in.readInt(),
+          in.readInt(),
+          in.readInt(),
+          in.readBoolean());
+    }
+
+    /**
+     * Read the data of an object. Arguments of constructors are read in the order in which they
+     * appear, which is the order in which they were written.
+     *
+     * @param pIndex the index under which the object will be registered, objects that may be
+     *     referenced by their own data are registered early
+     */
+    private Object readObject(int pIndex) throws IOException {
+      Tag tag = readEnum(Tag.values());
+      switch (tag) {
+        case FILE_LOCATION:
+          return readFileLocation();
+        case DUMMY_FILE_LOCATION:
+          return FileLocation.DUMMY;
+        case MULTIPLE_FILES_FILE_LOCATION:
+          return FileLocation.MULTIPLE_FILES;
+
+        case ARRAY_TYPE:
+          return new CArrayType(
+              in.readBoolean(),
+              in.readBoolean(),
+              readRef(CType.class),
+              readNullableRef(CExpression.class));
+        case BIT_FIELD_TYPE:
+          return new CBitFieldType(readRef(CType.class), in.readInt());
+        case COMPOSITE_TYPE:
+          {
+            CCompositeType type =
+                new CCompositeType(
+                    in.readBoolean(),
+                    in.readBoolean(),
+                    readEnum(ComplexTypeKind.class),
+                    readString(),
+                    readString());
+            objects.set(pIndex, type);
+            if (in.readBoolean()) {
+              int memberCount = in.readInt();
+              List<CCompositeTypeMemberDeclaration> members = new ArrayList<>(memberCount);
+              for (int i = 0; i < memberCount; i++) {
+                CType memberType = readRef(CType.class);
+                members.add(new CCompositeTypeMemberDeclaration(memberType, readNullableString()));
+              }
+              type.setMembers(members);
+            }
+            return type;
+          }
+        case ELABORATED_TYPE:
+          return new CElaboratedType(
+              in.readBoolean(),
+              in.readBoolean(),
+              readEnum(ComplexTypeKind.class),
+              readString(),
+              readString(),
+              readNullableRef(CComplexType.class));
+        case ENUM_TYPE:
+          return new CEnumType(
+              in.readBoolean(),
+              in.readBoolean(),
+              readRefs(CEnumerator.class),
+              readString(),
+              readString());
+        case FUNCTION_TYPE:
+        case FUNCTION_TYPE_WITH_NAMES:
+          {
+            CFunctionType type =
+                tag == Tag.FUNCTION_TYPE
+                    ? new CFunctionType(
+                        readRef(CType.class), readRefs(CType.class), in.readBoolean())
+                    : new CFunctionTypeWithNames(
+                        readRef(CType.class),
+                        readRefs(CParameterDeclaration.class),
+                        in.readBoolean());
+            String name = readNullableString();
+            if (name != null) {
+              type.setName(name);
+            }
+            return type;
+          }
+        case POINTER_TYPE:
+          return new CPointerType(in.readBoolean(), in.readBoolean(), readRef(CType.class));
+        case PROBLEM_TYPE:
+          return new CProblemType(readString());
+        case SIMPLE_TYPE:
+          return new CSimpleType(
+              in.readBoolean(),
+              in.readBoolean(),
+              readEnum(CBasicType.class),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean(),
+              in.readBoolean());
+        case TYPEDEF_TYPE:
+          return new CTypedefType(
+              in.readBoolean(), in.readBoolean(), readString(), readRef(CType.class));
+        case VOID_TYPE:
+          return CVoidType.create(in.readBoolean(), in.readBoolean());
+
+        case ADDRESS_OF_LABEL_EXPRESSION:
+          return new CAddressOfLabelExpression(
+              readRef(FileLocation.class), readRef(CType.class), readString());
+        case ARRAY_DESIGNATOR:
+          return new CArrayDesignator(readRef(FileLocation.class), readRef(CExpression.class));
+        case ARRAY_RANGE_DESIGNATOR:
+          return new CArrayRangeDesignator(
+              readRef(FileLocation.class), readRef(CExpression.class), readRef(CExpression.class));
+        case ARRAY_SUBSCRIPT_EXPRESSION:
+          return new CArraySubscriptExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CExpression.class),
+              readRef(CExpression.class));
+        case BINARY_EXPRESSION:
+          return new CBinaryExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CType.class),
+              readRef(CExpression.class),
+              readRef(CExpression.class),
+              readEnum(BinaryOperator.class));
+        case CAST_EXPRESSION:
+          return new CCastExpression(
+              readRef(FileLocation.class), readRef(CType.class), readRef(CExpression.class));
+        case CHAR_LITERAL_EXPRESSION:
+          return new CCharLiteralExpression(
+              readRef(FileLocation.class), readRef(CType.class), in.readChar());
+        case COMPLEX_CAST_EXPRESSION:
+          return new CComplexCastExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CExpression.class),
+              readRef(CType.class),
+              in.readBoolean());
+        case COMPLEX_TYPE_DECLARATION:
+          return new CComplexTypeDeclaration(
+              readRef(FileLocation.class), in.readBoolean(), readRef(CComplexType.class));
+        case DESIGNATED_INITIALIZER:
+          return new CDesignatedInitializer(
+              readRef(FileLocation.class),
+              readRefs(CDesignator.class),
+              readRef(CInitializer.class));
+        case ENUMERATOR:
+          {
+            FileLocation location = readRef(FileLocation.class);
+            String name = readString();
+            String qualifiedName = readString();
+            Long value = in.readBoolean() ? in.readLong() : null;
+            // enum and type are set when the root object is complete
+            return new CEnumerator(location, name, qualifiedName, null, value);
+          }
+        case EXPRESSION_ASSIGNMENT_STATEMENT:
+          return new CExpressionAssignmentStatement(
+              readRef(FileLocation.class),
+              readRef(CLeftHandSide.class),
+              readRef(CExpression.class));
+        case EXPRESSION_STATEMENT:
+          return new CExpressionStatement(
+              readRef(FileLocation.class), readRef(CExpression.class));
+        case FIELD_DESIGNATOR:
+          return new CFieldDesignator(readRef(FileLocation.class), readString());
+        case FIELD_REFERENCE:
+          return new CFieldReference(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readString(),
+              readRef(CExpression.class),
+              in.readBoolean());
+        case FLOAT_LITERAL_EXPRESSION:
+          return new CFloatLiteralExpression(
+              readRef(FileLocation.class), readRef(CType.class), new BigDecimal(readString()));
+        case FUNCTION_CALL_ASSIGNMENT_STATEMENT:
+          return new CFunctionCallAssignmentStatement(
+              readRef(FileLocation.class),
+              readRef(CLeftHandSide.class),
+              readRef(CFunctionCallExpression.class));
+        case FUNCTION_CALL_EXPRESSION:
+          return new CFunctionCallExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CExpression.class),
+              readRefs(CExpression.class),
+              readNullableRef(CFunctionDeclaration.class));
+        case FUNCTION_CALL_STATEMENT:
+          return new CFunctionCallStatement(
+              readRef(FileLocation.class), readRef(CFunctionCallExpression.class));
+        case THREAD_CREATE_STATEMENT:
+          return new CThreadCreateStatement(
+              readRef(FileLocation.class),
+              readRef(CFunctionCallExpression.class),
+              in.readBoolean(),
+              readNullableString());
+        case THREAD_JOIN_STATEMENT:
+          return new CThreadJoinStatement(
+              readRef(FileLocation.class),
+              readRef(CFunctionCallExpression.class),
+              in.readBoolean(),
+              readNullableString());
+        case FUNCTION_DECLARATION:
+          return new CFunctionDeclaration(
+              readRef(FileLocation.class),
+              readRef(CFunctionType.class),
+              readString(),
+              readString(),
+              readRefs(CParameterDeclaration.class));
+        case ID_EXPRESSION:
+          return new CIdExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readString(),
+              readNullableRef(CSimpleDeclaration.class));
+        case IMAGINARY_LITERAL_EXPRESSION:
+          return new CImaginaryLiteralExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CLiteralExpression.class));
+        case INITIALIZER_EXPRESSION:
+          return new CInitializerExpression(
+              readRef(FileLocation.class), readRef(CExpression.class));
+        case INITIALIZER_LIST:
+          return new CInitializerList(readRef(FileLocation.class), readRefs(CInitializer.class));
+        case INTEGER_LITERAL_EXPRESSION:
+          {
+            FileLocation location = readRef(FileLocation.class);
+            CType type = readRef(CType.class);
+            byte[] value = new byte[in.readInt()];
+            in.readFully(value);
+            return new CIntegerLiteralExpression(location, type, new BigInteger(value));
+          }
+        case PARAMETER_DECLARATION:
+          {
+            CParameterDeclaration declaration =
+                new CParameterDeclaration(
+                    readRef(FileLocation.class), readRef(CType.class), readString());
+            String qualifiedName = readNullableString();
+            if (qualifiedName != null) {
+              declaration.setQualifiedName(qualifiedName);
+            }
+            return declaration;
+          }
+        case POINTER_EXPRESSION:
+          return new CPointerExpression(
+              readRef(FileLocation.class), readRef(CType.class), readRef(CExpression.class));
+        case RETURN_STATEMENT:
+          return new CReturnStatement(
+              readRef(FileLocation.class),
+              Optional.ofNullable(readNullableRef(CExpression.class)),
+              Optional.ofNullable(readNullableRef(CAssignment.class)));
+        case STRING_LITERAL_EXPRESSION:
+          return new CStringLiteralExpression(
+              readRef(FileLocation.class), readRef(CType.class), readString());
+        case TYPE_DEF_DECLARATION:
+          return new CTypeDefDeclaration(
+              readRef(FileLocation.class),
+              in.readBoolean(),
+              readRef(CType.class),
+              readString(),
+              readString());
+        case TYPE_ID_EXPRESSION:
+          return new CTypeIdExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readEnum(TypeIdOperator.class),
+              readRef(CType.class));
+        case UNARY_EXPRESSION:
+          return new CUnaryExpression(
+              readRef(FileLocation.class),
+              readRef(CType.class),
+              readRef(CExpression.class),
+              readEnum(UnaryOperator.class));
+        case VARIABLE_DECLARATION:
+          {
+            CVariableDeclaration declaration =
+                new CVariableDeclaration(
+                    readRef(FileLocation.class),
+                    in.readBoolean(),
+                    readEnum(CStorageClass.class),
+                    readRef(CType.class),
+                    readString(),
+                    readNullableString(),
+                    readNullableString(),
+                    null);
+            objects.set(pIndex, declaration);
+            CInitializer initializer = readNullableRef(CInitializer.class);
+            if (initializer != null) {
+              declaration.addInitializer(initializer);
+            }
+            return declaration;
+          }
+        default:
+          throw new AssertionError(tag);
+      }
+    }
+  }
+}
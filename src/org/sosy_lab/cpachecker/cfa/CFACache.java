@@ -0,0 +1,304 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.exceptions.CParserException;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+
+/**
+ * A persistent cache for CFAs of C programs, such that several runs on the same program need to
+ * parse it only once.
+ *
+ * <p>The cache contains the CFA after all post-processings that change it, including the loop
+ * structure and the supergraph, in the format of {@link CFABinaryFormat}. The variable
+ * classification, live variables, and dependence graph are computed again after loading. Each CFA
+ * is stored in a file whose name is a hash of the program, the CPAchecker version, and all
+ * configuration options that influence CFA creation. If the preprocessor is used, the hash covers
+ * the preprocessed program, otherwise the source files and all files they include.
+ */
+@Options(prefix = "cfa.cache")
+final class CFACache implements Statistics {
+
+  // not secure, because cached files are read from a configurable directory
+  @Option(
+    description =
+        "Store the created CFA in a cache directory and load it from there if the same program is"
+            + " analyzed again with the same CFA-related options. Only supported for C programs."
+  )
+  private boolean enabled = false;
+
+  @Option(
+    description =
+        "directory for cached CFAs, use an absolute path to share the cache between several"
+            + " executions of CPAchecker"
+  )
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path directory = Paths.get("cfaCache");
+
+  @Option(
+    secure = true,
+    description =
+        "prefixes of the names of configuration options that are part of the cache key."
+            + " All options that influence CFA creation need to be covered, the default is"
+            + " conservative and can be narrowed to increase cache hits between different"
+            + " analyses."
+  )
+  private ImmutableSet<String> keyOptionPrefixes =
+      ImmutableSet.of("analysis.", "cfa.", "language", "parser.");
+
+  private static final String CACHE_FILE_SUFFIX = ".cfa.bin";
+
+  private static final Pattern INCLUDE_DIRECTIVE =
+      Pattern.compile(
+          "^\\s*#\\s*(?:include|include_next|import)\\b\\s*(.*)$", Pattern.MULTILINE);
+  private static final Pattern INCLUDED_FILE = Pattern.compile("^(?:\"([^\"]*)\"|<([^>]*)>)");
+
+  private final Configuration config;
+  private final LogManager logger;
+
+  private final Timer keyTime = new Timer();
+  private final Timer loadTime = new Timer();
+  private final Timer storeTime = new Timer();
+  private int cacheHits = 0;
+  private int cacheMisses = 0;
+
+  CFACache(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+  }
+
+  boolean isEnabled() {
+    return enabled && directory != null;
+  }
+
+  /**
+   * Returns the file in which the CFA for the given source files is cached, or nothing if the
+   * program cannot be cached because its included files cannot be determined.
+   *
+   * @param pPreprocessingParser the parser that will parse the program if the preprocessor is
+   *     used, the preprocessed program is kept for parsing
+   */
+  Optional<Path> getCacheFile(
+      List<String> pSourceFiles, @Nullable CParserWithPreprocessor pPreprocessingParser)
+      throws IOException, CParserException, InterruptedException {
+    keyTime.start();
+    try {
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putString(CPAchecker.getPlainVersion(), UTF_8).putByte((byte) 0);
+
+      // sorted such that the order in the configuration files does not matter
+      Properties properties = new Properties();
+      properties.load(new StringReader(config.asPropertiesString()));
+      for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+        if (isKeyOption(name)) {
+          hasher.putString(name, UTF_8).putByte((byte) 0);
+          hasher.putString(properties.getProperty(name), UTF_8).putByte((byte) 0);
+        }
+      }
+
+      Set<Path> hashedFiles = new HashSet<>();
+      for (String sourceFile : pSourceFiles) {
+        hasher.putString(sourceFile, UTF_8).putByte((byte) 0);
+        if (pPreprocessingParser != null) {
+          hasher.putString(pPreprocessingParser.preprocessAhead(sourceFile), UTF_8);
+          hasher.putByte((byte) 0);
+        } else if (!hashFileWithIncludes(Paths.get(sourceFile), hasher, hashedFiles)) {
+          return Optional.empty();
+        }
+      }
+      return Optional.of(directory.resolve(hasher.hash() + CACHE_FILE_SUFFIX));
+    } finally {
+      keyTime.stop();
+    }
+  }
+
+  private boolean isKeyOption(String pName) {
+    if (pName.startsWith("cfa.cache.")) {
+      return false;
+    }
+    return keyOptionPrefixes.stream().anyMatch(pName::startsWith);
+  }
+
+  /**
+   * Hash the contents of the given file and of all files that it includes. Files in angle brackets
+   * and files that are not found next to the including file are hashed by name only, because the
+   * search path of the parser is not known here.
+   *
+   * @return whether all included files could be determined
+   */
+  private boolean hashFileWithIncludes(Path pFile, Hasher pHasher, Set<Path> pHashedFiles)
+      throws IOException {
+    if (!pHashedFiles.add(pFile.toRealPath())) {
+      return true;
+    }
+    byte[] content = Files.readAllBytes(pFile);
+    pHasher.putInt(content.length).putBytes(content);
+
+    // the encoding does not matter for the directives, and this one cannot fail
+    String code = ISO_8859_1.decode(ByteBuffer.wrap(content)).toString();
+    Matcher directive = INCLUDE_DIRECTIVE.matcher(code.replace("\\\n", ""));
+    while (directive.find()) {
+      Matcher includedFile = INCLUDED_FILE.matcher(directive.group(1));
+      if (!includedFile.find()) {
+        logger.log(
+            Level.INFO,
+            "Not using the CFA cache because",
+            pFile,
+            "contains a computed include directive.");
+        return false;
+      }
+      String quotedName = includedFile.group(1);
+      String name = quotedName != null ? quotedName : includedFile.group(2);
+      pHasher.putString(name, UTF_8).putByte((byte) 0);
+
+      Path resolved = pFile.resolveSibling(name);
+      if (quotedName != null && Files.isRegularFile(resolved)) {
+        if (!hashFileWithIncludes(resolved, pHasher, pHashedFiles)) {
+          return false;
+        }
+      } else {
+        pHasher.putByte((byte) 1);
+      }
+    }
+    return true;
+  }
+
+  /** Loads a previously cached CFA and the global declarations from the given file. */
+  Optional<Pair<MutableCFA, List<Pair<ADeclaration, String>>>> load(Path pCacheFile) {
+    if (!Files.isRegularFile(pCacheFile)) {
+      logger.log(Level.FINE, "No cached CFA found in", pCacheFile);
+      cacheMisses++;
+      return Optional.empty();
+    }
+
+    loadTime.start();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(pCacheFile)))) {
+      Pair<MutableCFA, List<Pair<ADeclaration, String>>> result = CFABinaryFormat.read(in);
+      logger.log(Level.INFO, "Loaded CFA from cache file", pCacheFile);
+      cacheHits++;
+      return Optional.of(result);
+    } catch (IOException
+        | IllegalArgumentException
+        | IllegalStateException
+        | IndexOutOfBoundsException e) {
+      // e.g., an incompatible or damaged file
+      logger.logUserException(
+          Level.WARNING, e, "Could not read cached CFA, creating it from scratch");
+      cacheMisses++;
+      return Optional.empty();
+    } finally {
+      loadTime.stop();
+    }
+  }
+
+  /**
+   * Stores the given CFA in the given file. The file is written to a temporary location first and
+   * moved afterwards, such that concurrent executions never see partially written files.
+   */
+  void store(Path pCacheFile, MutableCFA pCfa, List<Pair<ADeclaration, String>> pGlobals) {
+    storeTime.start();
+    try {
+      MoreFiles.createParentDirectories(pCacheFile);
+      Path tmpFile =
+          Files.createTempFile(
+              pCacheFile.getParent(), pCacheFile.getFileName().toString(), ".tmp");
+      try {
+        try (DataOutputStream out =
+            new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+          CFABinaryFormat.write(out, pCfa, pGlobals);
+        }
+        Files.move(
+            tmpFile,
+            pCacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmpFile);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write CFA to cache");
+    } finally {
+      storeTime.stop();
+    }
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter.writingStatisticsTo(pOut)
+        .put("Number of CFA cache hits", cacheHits)
+        .put("Number of CFA cache misses", cacheMisses)
+        .put("Time for computing CFA cache key", keyTime)
+        .putIf(loadTime.getNumberOfIntervals() > 0, "Time for loading cached CFA", loadTime)
+        .putIf(storeTime.getNumberOfIntervals() > 0, "Time for storing CFA in cache", storeTime);
+  }
+
+  @Override
+  public String getName() {
+    return "CFA cache";
+  }
+}
@@ -0,0 +1,286 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.ast.ASimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.TraversalDirection;
+import org.sosy_lab.cpachecker.util.variableclassification.VariableClassification;
+
+public class CFACacheTest {
+
+  private static final String PROGRAM =
+      "int g;\n"
+          + "int main() {\n"
+          + "  int a = 1;\n"
+          + "  int b = 2;\n"
+          + "  int flag = 0;\n"
+          + "  if (a < b) { flag = 1; }\n"
+          + "  g = a + b;\n"
+          + "  return flag;\n"
+          + "}\n";
+
+  private static final String COMPLEX_PROGRAM =
+      "typedef struct node { int value; struct node *next; } node_t;\n"
+          + "enum color { RED, GREEN = 5, BLUE };\n"
+          + "int values[3] = { 1, 2, [2] = 3 };\n"
+          + "const char *name = \"cache\";\n"
+          + "int sum(node_t *list) {\n"
+          + "  int result = 0;\n"
+          + "  while (list != 0) { result += list->value; list = list->next; }\n"
+          + "  return result;\n"
+          + "}\n"
+          + "int main() {\n"
+          + "  node_t second = { 2, 0 };\n"
+          + "  node_t first = { .value = 1, .next = &second };\n"
+          + "  enum color c = GREEN;\n"
+          + "  for (int i = 0; i < 3; i++) { values[i] = values[i] * (int) sizeof(node_t); }\n"
+          + "  if (sum(&first) == 3 && c == GREEN) { return name[0]; }\n"
+          + "  return c;\n"
+          + "}\n";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private Configuration config;
+  private List<String> sourceFiles;
+  private Path cacheDirectory;
+
+  @Before
+  public void setUp() throws InvalidConfigurationException, IOException {
+    cacheDirectory = tempFolder.newFolder("cache").toPath();
+    Path program = tempFolder.newFile("program.c").toPath();
+    Files.write(program, PROGRAM.getBytes(UTF_8));
+    sourceFiles = ImmutableList.of(program.toString());
+
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder("output").toString())
+                .build());
+    config =
+        Configuration.builder()
+            .addConverter(FileOption.class, fileTypeConverter)
+            .setOption("cfa.cache.enabled", "true")
+            .setOption("cfa.cache.directory", cacheDirectory.toString())
+            .setOption("cfa.findLiveVariables", "true")
+            .setOption("cfa.createDependenceGraph", "true")
+            .setOption("cfa.export", "false")
+            .setOption("cfa.exportPerFunction", "false")
+            .setOption("cfa.callgraph.export", "false")
+            .build();
+  }
+
+  private CFA createCFA() throws Exception {
+    return new CFACreator(config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy())
+        .parseFileAndCreateCFA(sourceFiles);
+  }
+
+  private long countCacheFiles() throws IOException {
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(".cfa.bin")).count();
+    }
+  }
+
+  @Test
+  public void testStoreAndLoad() throws Exception {
+    CFA created = createCFA();
+    assertThat(countCacheFiles()).isEqualTo(1);
+
+    CFA loaded = createCFA();
+    assertThat(loaded).isNotSameAs(created);
+    // a freshly created CFA would have new node numbers
+    assertThat(loaded.getMainFunction().getNodeNumber())
+        .isEqualTo(created.getMainFunction().getNodeNumber());
+    assertThat(loaded.getAllFunctionNames()).isEqualTo(created.getAllFunctionNames());
+    assertThat(loaded.getAllNodes()).hasSize(created.getAllNodes().size());
+    assertThat(countCacheFiles()).isEqualTo(1);
+  }
+
+  @Test
+  public void testLoadedLiveVariables() throws Exception {
+    CFA created = createCFA();
+    CFA loaded = createCFA();
+
+    assertThat(created.getLiveVariables().isPresent()).isTrue();
+    assertThat(loaded.getLiveVariables().isPresent()).isTrue();
+    for (CFANode node : loaded.getAllNodes()) {
+      CFANode original = findNode(created, node.getNodeNumber());
+      assertThat(qualifiedNames(loaded.getLiveVariables().get().getLiveVariablesForNode(node)))
+          .containsExactlyElementsIn(
+              qualifiedNames(created.getLiveVariables().get().getLiveVariablesForNode(original)))
+          .inOrder();
+    }
+  }
+
+  @Test
+  public void testSlicingOnLoadedCFA() throws Exception {
+    CFA created = createCFA();
+    CFA loaded = createCFA();
+
+    DependenceGraph originalGraph = created.getDependenceGraph().get();
+    DependenceGraph loadedGraph = loaded.getDependenceGraph().get();
+    assertThat(loadedGraph.getAllNodes()).hasSize(originalGraph.getAllNodes().size());
+
+    CFAEdge loadedAssignment = findAssignmentToGlobal(loaded);
+    CFAEdge originalAssignment = findAssignmentToGlobal(created);
+    assertThat(edgeStrings(loadedGraph.getReachable(loadedAssignment, TraversalDirection.BACKWARD)))
+        .containsExactlyElementsIn(
+            edgeStrings(
+                originalGraph.getReachable(originalAssignment, TraversalDirection.BACKWARD)));
+  }
+
+  @Test
+  public void testVariableClassificationOnLoadedCFA() throws Exception {
+    CFA created = createCFA();
+    CFA loaded = createCFA();
+
+    VariableClassification original = created.getVarClassification().get();
+    VariableClassification classification = loaded.getVarClassification().get();
+    assertThat(classification.getIntBoolVars()).isEqualTo(original.getIntBoolVars());
+    assertThat(classification.getIntEqualVars()).isEqualTo(original.getIntEqualVars());
+    assertThat(classification.getRelevantVariables()).isEqualTo(original.getRelevantVariables());
+    assertThat(classification.getPartitions()).hasSize(original.getPartitions().size());
+
+    assertThat(
+            classification.obtainDomainTypeScoreForVariables(
+                ImmutableList.of("main::flag"), loaded.getLoopStructure()))
+        .isEqualTo(
+            original.obtainDomainTypeScoreForVariables(
+                ImmutableList.of("main::flag"), created.getLoopStructure()));
+
+    // The score overflows for this many unclassified variables, which makes the classification
+    // log a warning. This needs to work for the classification of a loaded CFA, too.
+    assertThat(
+            classification.obtainDomainTypeScoreForVariables(
+                Collections.nCopies(Integer.MAX_VALUE / 4 + 1, "unknown::var"), Optional.empty()))
+        .isEqualTo(Integer.MAX_VALUE - 1);
+  }
+
+  @Test
+  public void testStoreAndLoadComplexProgram() throws Exception {
+    Files.write(Paths.get(sourceFiles.get(0)), COMPLEX_PROGRAM.getBytes(UTF_8));
+    CFA created = createCFA();
+    CFA loaded = createCFA();
+
+    assertThat(loaded.getAllFunctionNames()).isEqualTo(created.getAllFunctionNames());
+    assertThat(loaded.getAllNodes()).hasSize(created.getAllNodes().size());
+    for (CFANode node : loaded.getAllNodes()) {
+      CFANode original = findNode(created, node.getNodeNumber());
+      assertThat(node.getClass()).isEqualTo(original.getClass());
+      assertThat(node.getReversePostorderId()).isEqualTo(original.getReversePostorderId());
+      assertThat(edgeStrings(CFAUtils.allLeavingEdges(node)))
+          .containsExactlyElementsIn(edgeStrings(CFAUtils.allLeavingEdges(original)))
+          .inOrder();
+      assertThat(edgeStrings(CFAUtils.allEnteringEdges(node)))
+          .containsExactlyElementsIn(edgeStrings(CFAUtils.allEnteringEdges(original)))
+          .inOrder();
+      assertThat(qualifiedNames(node.getOutOfScopeVariables()))
+          .containsExactlyElementsIn(qualifiedNames(original.getOutOfScopeVariables()))
+          .inOrder();
+    }
+    assertThat(loaded.getLoopStructure().get().getCount())
+        .isEqualTo(created.getLoopStructure().get().getCount());
+  }
+
+  @Test
+  public void testKeyContainsIncludedFiles() throws Exception {
+    Path header = tempFolder.newFile("header.h").toPath();
+    Files.write(header, "int g;\n".getBytes(UTF_8));
+    Path program = Paths.get(sourceFiles.get(0));
+    Files.write(program, ("#include \"header.h\"\n" + PROGRAM).getBytes(UTF_8));
+    CFACache cache = new CFACache(config, LogManager.createTestLogManager());
+
+    Optional<Path> cacheFile = cache.getCacheFile(sourceFiles, null);
+    assertThat(cacheFile.isPresent()).isTrue();
+    assertThat(cache.getCacheFile(sourceFiles, null)).isEqualTo(cacheFile);
+
+    Files.write(header, "long g;\n".getBytes(UTF_8));
+    Optional<Path> changedCacheFile = cache.getCacheFile(sourceFiles, null);
+    assertThat(changedCacheFile.isPresent()).isTrue();
+    assertThat(changedCacheFile).isNotEqualTo(cacheFile);
+  }
+
+  @Test
+  public void testNoKeyForComputedInclude() throws Exception {
+    Path program = Paths.get(sourceFiles.get(0));
+    Files.write(program, "#define HEADER \"header.h\"\n#include HEADER\n".getBytes(UTF_8));
+    CFACache cache = new CFACache(config, LogManager.createTestLogManager());
+
+    assertThat(cache.getCacheFile(sourceFiles, null).isPresent()).isFalse();
+  }
+
+  private static CFANode findNode(CFA pCfa, int pNodeNumber) {
+    return FluentIterable.from(pCfa.getAllNodes())
+        .firstMatch(n -> n.getNodeNumber() == pNodeNumber)
+        .get();
+  }
+
+  private static CFAEdge findAssignmentToGlobal(CFA pCfa) {
+    return FluentIterable.from(pCfa.getAllNodes())
+        .transformAndConcat(CFAUtils::leavingEdges)
+        .firstMatch(
+            e ->
+                e.getEdgeType() == CFAEdgeType.StatementEdge
+                    && e.getRawStatement().startsWith("g = "))
+        .get();
+  }
+
+  private static List<String> qualifiedNames(
+      Iterable<? extends ASimpleDeclaration> pDeclarations) {
+    return FluentIterable.from(pDeclarations)
+        .transform(ASimpleDeclaration::getQualifiedName)
+        .toList();
+  }
+
+  private static List<String> edgeStrings(Iterable<CFAEdge> pEdges) {
+    return FluentIterable.from(pEdges).transform(CFAEdge::toString).toList();
+  }
+}
@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.cfa;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
 import com.google.common.io.MoreFiles;
@@ -45,6 +47,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.zip.GZIPOutputStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.Concurrency;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
@@ -54,6 +57,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.AExpression;
@@ -301,6 +305,7 @@ public class CFACreator {
     private final Timer totalTime = new Timer();
     private Timer parsingTime;
     private Timer conversionTime;
+    private Parser parser;
     private final Timer checkTime = new Timer();
     private final Timer processingTime = new Timer();
     private final Timer exportTime = new Timer();
@@ -323,6 +328,22 @@ public class CFACreator {
       out.println("  Time for CFA construction:  " + totalTime);
       out.println("    Time for parsing file(s): " + parsingTime);
       out.println("    Time for AST to CFA:      " + conversionTime);
+      Timer functionConversionTime = parser.getFunctionCFAConstructionTime();
+      TimeSpan functionConversionTaskTime = parser.getFunctionCFAConstructionTaskTime();
+      if (functionConversionTime != null
+          && functionConversionTime.getNumberOfIntervals() > 0
+          && functionConversionTaskTime != null) {
+        long wallNanos = functionConversionTime.getSumTime().asNanos();
+        out.println("      Time for function CFAs: " + functionConversionTime);
+        out.println(
+            "      Sum of function CFA tasks: " + functionConversionTaskTime.formatAs(SECONDS));
+        if (wallNanos > 0) {
+          out.println(
+              String.format(
+                  "      Speedup of function CFAs: %.2f",
+                  (double) functionConversionTaskTime.asNanos() / wallNanos));
+        }
+      }
       out.println("    Time for CFA sanity check:" + checkTime);
       out.println("    Time for post-processing: " + processingTime);
 
@@ -345,6 +366,8 @@ public class CFACreator {
 
   private final CFACreatorStatistics stats;
   private final Configuration config;
+  private final CFACache cfaCache;
+  private final @Nullable CParserWithPreprocessor preprocessingParser;
 
   public CFACreator(Configuration config, LogManager logger, ShutdownNotifier pShutdownNotifier)
       throws InvalidConfigurationException {
@@ -356,11 +379,20 @@ public class CFACreator {
     this.shutdownNotifier = pShutdownNotifier;
     this.stats = new CFACreatorStatistics(logger);
 
+    cfaCache = new CFACache(config, logger);
+    if (cfaCache.isEnabled()) {
+      if (language == Language.JAVA) {
+        throw new InvalidConfigurationException("The CFA cache supports only C programs.");
+      }
+      stats.statisticsCollection.add(cfaCache);
+    }
+
     stats.parserInstantiationTime.start();
 
     switch (language) {
     case JAVA:
       parser = Parsers.getJavaParser(logger, config);
+      preprocessingParser = null;
       break;
     case C:
         CParser outerParser =
@@ -373,7 +405,10 @@ public class CFACreator {
 
       if (usePreprocessor) {
         CPreprocessor preprocessor = new CPreprocessor(config, logger);
-        outerParser = new CParserWithPreprocessor(outerParser, preprocessor);
+        preprocessingParser = new CParserWithPreprocessor(outerParser, preprocessor);
+        outerParser = preprocessingParser;
+      } else {
+        preprocessingParser = null;
       }
 
       parser = outerParser;
@@ -381,6 +416,7 @@ public class CFACreator {
       break;
     case LLVM:
       parser = Parsers.getLlvmParser(logger, machineModel);
+      preprocessingParser = null;
       language = Language.C; // After parsing we will have a CFA representing C code
       break;
 
@@ -390,6 +426,7 @@ public class CFACreator {
 
     stats.parsingTime = parser.getParseTime();
     stats.conversionTime = parser.getCFAConstructionTime();
+    stats.parser = parser;
 
     stats.parserInstantiationTime.stop();
   }
@@ -435,6 +472,18 @@ public class CFACreator {
 
     stats.totalTime.start();
     try {
+      Optional<Path> cacheFile = Optional.empty();
+      if (cfaCache.isEnabled()) {
+        cacheFile = cfaCache.getCacheFile(sourceFiles, preprocessingParser);
+        if (cacheFile.isPresent()) {
+          Optional<Pair<MutableCFA, List<Pair<ADeclaration, String>>>> cachedCfa =
+              cfaCache.load(cacheFile.get());
+          if (cachedCfa.isPresent()) {
+            return finishCFA(cachedCfa.get().getFirst(), cachedCfa.get().getSecond());
+          }
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -455,7 +504,12 @@ public class CFACreator {
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      MutableCFA cfa = createMutableCFA(c, mainFunction);
+
+      if (cacheFile.isPresent()) {
+        cfaCache.store(cacheFile.get(), cfa, c.getGlobalDeclarations());
+      }
+      return finishCFA(cfa, c.getGlobalDeclarations());
 
     } finally {
       stats.totalTime.stop();
@@ -463,6 +517,16 @@ public class CFACreator {
   }
 
   private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+    return finishCFA(
+        createMutableCFA(pParseResult, pMainFunction), pParseResult.getGlobalDeclarations());
+  }
+
+  /**
+   * Create the CFA including the supergraph and all post-processings that change it. This is the
+   * part that can be stored in the {@link CFACache}.
+   */
+  private MutableCFA createMutableCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction)
+      throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -529,6 +593,16 @@ public class CFACreator {
 
     // (currently no such post-processings exist)
 
+    stats.processingTime.stop();
+    return cfa;
+  }
+
+  /** Compute the information about the given CFA and make it immutable. */
+  private CFA finishCFA(MutableCFA cfa, List<Pair<ADeclaration, String>> pGlobalDeclarations)
+      throws InvalidConfigurationException, InterruptedException, ParserException {
+
+    stats.processingTime.start();
+
     // SIXTH, get information about the CFA,
     // the cfa should not be modified after this line.
 
@@ -550,7 +624,7 @@ public class CFACreator {
     if (findLiveVariables &&
         (varClassification.isPresent() || cfa.getLanguage() != Language.C)) {
       cfa.setLiveVariables(LiveVariables.create(varClassification,
-                                                pParseResult.getGlobalDeclarations(),
+                                                pGlobalDeclarations,
                                                 cfa, logger, shutdownNotifier,
                                                 config));
     }
@@ -581,21 +655,25 @@ public class CFACreator {
 
     // check the super CFA starting at the main function
     stats.checkTime.start();
-    assert CFACheck.check(mainFunction, null, machineModel);
+    assert CFACheck.check(cfa.getMainFunction(), null, machineModel);
     stats.checkTime.stop();
 
+    exportCFAIfRequested(immutableCFA);
+
+    logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
+
+    return immutableCFA;
+  }
+
+  private void exportCFAIfRequested(CFA pCfa) {
     if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
         || ((exportFunctionCallsFile != null) && exportFunctionCalls)
         || ((exportFunctionCallsUsedFile != null) && exportFunctionCalls)
         || ((serializeCfaFile != null) && serializeCfa)
         || (exportCfaPixelFile != null)
         || (exportCfaToCFile != null && exportCfaToC)) {
-      exportCFAAsync(immutableCFA);
+      exportCFAAsync(pCfa);
     }
-
-    logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
-
-    return immutableCFA;
   }
 
   private void instrumentCfa(MutableCFA pCfa) throws InvalidConfigurationException {
@@ -43,6 +43,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -216,6 +217,16 @@ public class CParserWithLocationMapper implements CParser {
     return realParser.getCFAConstructionTime();
   }
 
+  @Override
+  public Timer getFunctionCFAConstructionTime() {
+    return realParser.getFunctionCFAConstructionTime();
+  }
+
+  @Override
+  public TimeSpan getFunctionCFAConstructionTaskTime() {
+    return realParser.getFunctionCFAConstructionTaskTime();
+  }
+
   @Override
   public ParseResult parseFile(List<String> pFilenames)
       throws CParserException, IOException, InterruptedException {
@@ -24,7 +24,10 @@
 package org.sosy_lab.cpachecker.cfa;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
 import org.sosy_lab.cpachecker.cfa.parser.Scope;
@@ -40,6 +43,9 @@ class CParserWithPreprocessor implements CParser {
   private final CParser realParser;
   private final CPreprocessor preprocessor;
 
+  // programs that were preprocessed before parsing, e.g., for computing the key of the CFA cache
+  private final Map<String, String> preprocessedPrograms = new HashMap<>();
+
   public CParserWithPreprocessor(CParser pRealParser, CPreprocessor pPreprocessor) {
     realParser = pRealParser;
     preprocessor = pPreprocessor;
@@ -47,11 +53,31 @@ class CParserWithPreprocessor implements CParser {
 
   @Override
   public ParseResult parseFile(String pFilename) throws ParserException, InterruptedException {
-    String programCode = preprocessor.preprocess(pFilename);
+    return realParser.parseString(pFilename, preprocess(pFilename));
+  }
+
+  /**
+   * Preprocess the given file before it is parsed. The result is kept and used by the next call
+   * to one of the parse methods for this file.
+   */
+  String preprocessAhead(String pFilename) throws CParserException, InterruptedException {
+    String programCode = preprocessedPrograms.get(pFilename);
+    if (programCode == null) {
+      programCode = preprocessor.preprocess(pFilename);
+      preprocessedPrograms.put(pFilename, programCode);
+    }
+    return programCode;
+  }
+
+  private String preprocess(String pFilename) throws CParserException, InterruptedException {
+    String programCode = preprocessedPrograms.remove(pFilename);
+    if (programCode == null) {
+      programCode = preprocessor.preprocess(pFilename);
+    }
     if (programCode.isEmpty()) {
       throw new CParserException("Preprocessor returned empty program");
     }
-    return realParser.parseString(pFilename, programCode);
+    return programCode;
   }
 
   @Override
@@ -71,17 +97,23 @@ class CParserWithPreprocessor implements CParser {
     return realParser.getCFAConstructionTime();
   }
 
+  @Override
+  public Timer getFunctionCFAConstructionTime() {
+    return realParser.getFunctionCFAConstructionTime();
+  }
+
+  @Override
+  public TimeSpan getFunctionCFAConstructionTaskTime() {
+    return realParser.getFunctionCFAConstructionTaskTime();
+  }
+
   @Override
   public ParseResult parseFile(List<String> pFilenames)
       throws CParserException, InterruptedException {
 
     List<FileContentToParse> programs = new ArrayList<>(pFilenames.size());
     for (String f : pFilenames) {
-      String programCode = preprocessor.preprocess(f);
-      if (programCode.isEmpty()) {
-        throw new CParserException("Preprocessor returned empty program");
-      }
-      programs.add(new FileContentToParse(f, programCode));
+      programs.add(new FileContentToParse(f, preprocess(f)));
     }
     return realParser.parseString(programs, new CSourceOriginMapping());
   }
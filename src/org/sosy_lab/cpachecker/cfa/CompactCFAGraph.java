@@ -0,0 +1,222 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.Arrays;
+import java.util.Collection;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+
+/**
+ * A compact, array-based snapshot of the edges of a fully created CFA.
+ *
+ * <p>Every node gets a dense id in the range {@code [0, getNumberOfNodes())}, following the order
+ * of the node numbers. The leaving and entering edges of all nodes are stored in compressed sparse
+ * row form: one offset array per direction and flat arrays holding the edges and the ids of the
+ * adjacent nodes. Summary edges are stored separately and are not part of the regular edges, in
+ * the same way as in {@link CFANode}.
+ *
+ * <p>All accessors work on ints and arrays only, so hot loops can iterate over the graph without
+ * creating iterators or boxing node ids. The snapshot does not follow later modifications of the
+ * CFA, so it must only be created for CFAs that are not changed anymore, e.g., by {@link
+ * ImmutableCFA}.
+ *
+ * <p>Ids are only meaningful for the graph instance that assigned them. Use {@link #getId(CFANode)}
+ * and {@link #getNode(int)} to convert between nodes and ids.
+ */
+public final class CompactCFAGraph {
+
+  private static final int[] EMPTY = new int[0];
+
+  private final int minNodeNumber;
+
+  /** Maps (node number - minNodeNumber) to the id of the node, or -1 for unknown numbers. */
+  private final int[] idByNodeNumber;
+
+  private final CFANode[] nodes;
+
+  private final int[] leavingOffsets;
+  private final CFAEdge[] leavingEdges;
+  private final int[] successorIds;
+
+  private final int[] enteringOffsets;
+  private final CFAEdge[] enteringEdges;
+  private final int[] predecessorIds;
+
+  private final @Nullable FunctionSummaryEdge[] leavingSummaryEdges;
+  private final @Nullable FunctionSummaryEdge[] enteringSummaryEdges;
+
+  private CompactCFAGraph(ImmutableSortedSet<CFANode> pNodes) {
+    final int n = pNodes.size();
+    nodes = pNodes.toArray(new CFANode[n]);
+
+    if (n == 0) {
+      minNodeNumber = 0;
+      idByNodeNumber = EMPTY;
+    } else {
+      minNodeNumber = nodes[0].getNodeNumber();
+      idByNodeNumber = new int[nodes[n - 1].getNodeNumber() - minNodeNumber + 1];
+      Arrays.fill(idByNodeNumber, -1);
+      for (int id = 0; id < n; id++) {
+        idByNodeNumber[nodes[id].getNodeNumber() - minNodeNumber] = id;
+      }
+    }
+
+    leavingOffsets = new int[n + 1];
+    enteringOffsets = new int[n + 1];
+    leavingSummaryEdges = new FunctionSummaryEdge[n];
+    enteringSummaryEdges = new FunctionSummaryEdge[n];
+    for (int id = 0; id < n; id++) {
+      CFANode node = nodes[id];
+      leavingOffsets[id + 1] = leavingOffsets[id] + node.getNumLeavingEdges();
+      enteringOffsets[id + 1] = enteringOffsets[id] + node.getNumEnteringEdges();
+      leavingSummaryEdges[id] = node.getLeavingSummaryEdge();
+      enteringSummaryEdges[id] = node.getEnteringSummaryEdge();
+    }
+
+    leavingEdges = new CFAEdge[leavingOffsets[n]];
+    successorIds = new int[leavingOffsets[n]];
+    enteringEdges = new CFAEdge[enteringOffsets[n]];
+    predecessorIds = new int[enteringOffsets[n]];
+    for (int id = 0; id < n; id++) {
+      CFANode node = nodes[id];
+      int offset = leavingOffsets[id];
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        CFAEdge edge = node.getLeavingEdge(i);
+        leavingEdges[offset + i] = edge;
+        successorIds[offset + i] = getId(edge.getSuccessor());
+      }
+      offset = enteringOffsets[id];
+      for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+        CFAEdge edge = node.getEnteringEdge(i);
+        enteringEdges[offset + i] = edge;
+        predecessorIds[offset + i] = getId(edge.getPredecessor());
+      }
+    }
+  }
+
+  /** Create a snapshot of the current edges between the given nodes. */
+  public static CompactCFAGraph of(Collection<CFANode> pNodes) {
+    return new CompactCFAGraph(ImmutableSortedSet.copyOf(pNodes));
+  }
+
+  public int getNumberOfNodes() {
+    return nodes.length;
+  }
+
+  /** Return the number of regular edges, i.e., without summary edges. */
+  public int getNumberOfEdges() {
+    return leavingEdges.length;
+  }
+
+  /** Return the id of the given node, or -1 if the node is not part of this graph. */
+  public int getId(CFANode pNode) {
+    int index = pNode.getNodeNumber() - minNodeNumber;
+    if (index < 0 || index >= idByNodeNumber.length) {
+      return -1;
+    }
+    int id = idByNodeNumber[index];
+    return (id >= 0 && nodes[id] == pNode) ? id : -1;
+  }
+
+  public boolean contains(CFANode pNode) {
+    return getId(checkNotNull(pNode)) >= 0;
+  }
+
+  public CFANode getNode(int pId) {
+    return nodes[pId];
+  }
+
+  public int getNumberOfLeavingEdges(int pId) {
+    return leavingOffsets[pId + 1] - leavingOffsets[pId];
+  }
+
+  public CFAEdge getLeavingEdge(int pId, int pIndex) {
+    return leavingEdges[leavingIndex(pId, pIndex)];
+  }
+
+  /**
+   * Return the id of the successor of the given leaving edge, or -1 if the successor is not part of
+   * this graph.
+   */
+  public int getSuccessorId(int pId, int pIndex) {
+    return successorIds[leavingIndex(pId, pIndex)];
+  }
+
+  public @Nullable FunctionSummaryEdge getLeavingSummaryEdge(int pId) {
+    return leavingSummaryEdges[pId];
+  }
+
+  public int getNumberOfEnteringEdges(int pId) {
+    return enteringOffsets[pId + 1] - enteringOffsets[pId];
+  }
+
+  public CFAEdge getEnteringEdge(int pId, int pIndex) {
+    return enteringEdges[enteringIndex(pId, pIndex)];
+  }
+
+  /**
+   * Return the id of the predecessor of the given entering edge, or -1 if the predecessor is not
+   * part of this graph.
+   */
+  public int getPredecessorId(int pId, int pIndex) {
+    return predecessorIds[enteringIndex(pId, pIndex)];
+  }
+
+  public @Nullable FunctionSummaryEdge getEnteringSummaryEdge(int pId) {
+    return enteringSummaryEdges[pId];
+  }
+
+  /**
+   * Check whether the given edge leaves the node with the given id, either as regular edge or as
+   * summary edge.
+   */
+  public boolean hasLeavingEdge(int pId, CFAEdge pEdge) {
+    if (pEdge.equals(leavingSummaryEdges[pId])) {
+      return true;
+    }
+    for (int i = leavingOffsets[pId], end = leavingOffsets[pId + 1]; i < end; i++) {
+      if (pEdge.equals(leavingEdges[i])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int leavingIndex(int pId, int pIndex) {
+    checkElementIndex(pIndex, getNumberOfLeavingEdges(pId));
+    return leavingOffsets[pId] + pIndex;
+  }
+
+  private int enteringIndex(int pId, int pIndex) {
+    checkElementIndex(pIndex, getNumberOfEnteringEdges(pId));
+    return enteringOffsets[pId] + pIndex;
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class CompactCFAGraphTest {
+
+  private static CFA cfa;
+
+  @BeforeClass
+  public static void createCFA() throws Exception {
+    cfa =
+        TestDataTools.makeCFA(
+            "int f(int x) {",
+            "  if (x > 0) {",
+            "    return x - 1;",
+            "  }",
+            "  return 0;",
+            "}",
+            "int main() {",
+            "  int i = 0;",
+            "  int s = 0;",
+            "  while (i < 10) {",
+            "    s = s + f(i);",
+            "    i++;",
+            "  }",
+            "  switch (s) {",
+            "    case 1: s = 2; break;",
+            "    case 2: s = 3; break;",
+            "    default: s = 0;",
+            "  }",
+            "  return s;",
+            "}");
+  }
+
+  @Test
+  public void testCompactGraphIsProvided() {
+    CompactCFAGraph graph = cfa.getCompactGraph().get();
+    assertThat(graph).isSameInstanceAs(cfa.getCompactGraph().get());
+    assertThat(graph.getNumberOfNodes()).isEqualTo(cfa.getAllNodes().size());
+  }
+
+  @Test
+  public void testSameEdgesAsCFAUtils() {
+    CompactCFAGraph graph = cfa.getCompactGraph().get();
+    int edges = 0;
+    for (CFANode node : cfa.getAllNodes()) {
+      int id = graph.getId(node);
+      assertThat(id).isAtLeast(0);
+      assertThat(graph.getNode(id)).isSameInstanceAs(node);
+      assertThat(graph.contains(node)).isTrue();
+
+      assertThat(leavingEdges(graph, id))
+          .containsExactlyElementsIn(CFAUtils.leavingEdges(node))
+          .inOrder();
+      assertThat(successors(graph, id))
+          .containsExactlyElementsIn(CFAUtils.successorsOf(node))
+          .inOrder();
+      assertThat(enteringEdges(graph, id))
+          .containsExactlyElementsIn(CFAUtils.enteringEdges(node))
+          .inOrder();
+      assertThat(predecessors(graph, id))
+          .containsExactlyElementsIn(CFAUtils.predecessorsOf(node))
+          .inOrder();
+
+      assertThat(graph.getLeavingSummaryEdge(id)).isEqualTo(node.getLeavingSummaryEdge());
+      assertThat(graph.getEnteringSummaryEdge(id)).isEqualTo(node.getEnteringSummaryEdge());
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        assertThat(graph.hasLeavingEdge(id, edge)).isTrue();
+      }
+      for (CFAEdge edge : CFAUtils.enteringEdges(node)) {
+        assertThat(graph.hasLeavingEdge(id, edge)).isEqualTo(edge.getPredecessor() == node);
+      }
+      edges += node.getNumLeavingEdges();
+    }
+    assertThat(graph.getNumberOfEdges()).isEqualTo(edges);
+  }
+
+  @Test
+  public void testSummaryEdgesAreSeparate() {
+    CompactCFAGraph graph = cfa.getCompactGraph().get();
+    int summaryEdges = 0;
+    for (CFANode node : cfa.getAllNodes()) {
+      int id = graph.getId(node);
+      if (graph.getLeavingSummaryEdge(id) != null) {
+        summaryEdges++;
+        assertThat(leavingEdges(graph, id)).doesNotContain(graph.getLeavingSummaryEdge(id));
+      }
+    }
+    assertThat(summaryEdges).isGreaterThan(0);
+  }
+
+  @Test
+  public void testSubgraph() {
+    List<CFANode> mainNodes =
+        FluentIterable.from(cfa.getAllNodes())
+            .filter(node -> node.getFunctionName().equals("main"))
+            .toList();
+    CompactCFAGraph graph = CompactCFAGraph.of(mainNodes);
+    assertThat(graph.getNumberOfNodes()).isEqualTo(mainNodes.size());
+
+    for (CFANode node : cfa.getAllNodes()) {
+      assertThat(graph.contains(node)).isEqualTo(mainNodes.contains(node));
+    }
+    for (CFANode node : mainNodes) {
+      int id = graph.getId(node);
+      assertThat(leavingEdges(graph, id))
+          .containsExactlyElementsIn(CFAUtils.leavingEdges(node))
+          .inOrder();
+      for (int i = 0; i < graph.getNumberOfLeavingEdges(id); i++) {
+        CFANode successor = graph.getLeavingEdge(id, i).getSuccessor();
+        int expected = mainNodes.contains(successor) ? graph.getId(successor) : -1;
+        assertThat(graph.getSuccessorId(id, i)).isEqualTo(expected);
+      }
+      for (int i = 0; i < graph.getNumberOfEnteringEdges(id); i++) {
+        CFANode predecessor = graph.getEnteringEdge(id, i).getPredecessor();
+        int expected = mainNodes.contains(predecessor) ? graph.getId(predecessor) : -1;
+        assertThat(graph.getPredecessorId(id, i)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testEmptyGraph() {
+    CompactCFAGraph graph = CompactCFAGraph.of(ImmutableList.of());
+    assertThat(graph.getNumberOfNodes()).isEqualTo(0);
+    assertThat(graph.getNumberOfEdges()).isEqualTo(0);
+    assertThat(graph.contains(cfa.getMainFunction())).isFalse();
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void testEdgeIndexIsChecked() {
+    CompactCFAGraph graph = cfa.getCompactGraph().get();
+    int id = graph.getId(cfa.getMainFunction());
+    graph.getLeavingEdge(id, graph.getNumberOfLeavingEdges(id));
+  }
+
+  private static List<CFAEdge> leavingEdges(CompactCFAGraph pGraph, int pId) {
+    List<CFAEdge> result = new ArrayList<>();
+    for (int i = 0; i < pGraph.getNumberOfLeavingEdges(pId); i++) {
+      result.add(pGraph.getLeavingEdge(pId, i));
+    }
+    return result;
+  }
+
+  private static List<CFAEdge> enteringEdges(CompactCFAGraph pGraph, int pId) {
+    List<CFAEdge> result = new ArrayList<>();
+    for (int i = 0; i < pGraph.getNumberOfEnteringEdges(pId); i++) {
+      result.add(pGraph.getEnteringEdge(pId, i));
+    }
+    return result;
+  }
+
+  private static Collection<CFANode> successors(CompactCFAGraph pGraph, int pId) {
+    List<CFANode> result = new ArrayList<>();
+    for (int i = 0; i < pGraph.getNumberOfLeavingEdges(pId); i++) {
+      result.add(pGraph.getNode(pGraph.getSuccessorId(pId, i)));
+    }
+    return result;
+  }
+
+  private static Collection<CFANode> predecessors(CompactCFAGraph pGraph, int pId) {
+    List<CFANode> result = new ArrayList<>();
+    for (int i = 0; i < pGraph.getNumberOfEnteringEdges(pId); i++) {
+      result.add(pGraph.getNode(pGraph.getPredecessorId(pId, i)));
+    }
+    return result;
+  }
+}
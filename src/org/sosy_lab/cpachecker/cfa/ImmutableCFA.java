@@ -72,6 +72,9 @@ class ImmutableCFA implements CFA, Serializable {
   /* fileNames are final, except for serialization. */
   private transient ImmutableList<Path> fileNames;
 
+  /* created lazily on first request, not serialized. */
+  private transient volatile @Nullable CompactCFAGraph compactGraph;
+
   ImmutableCFA(
       MachineModel pMachineModel,
       Map<String, FunctionEntryNode> pFunctions,
@@ -198,6 +201,21 @@ class ImmutableCFA implements CFA, Serializable {
     return fileNames;
   }
 
+  @Override
+  public Optional<CompactCFAGraph> getCompactGraph() {
+    CompactCFAGraph result = compactGraph;
+    if (result == null) {
+      synchronized (this) {
+        result = compactGraph;
+        if (result == null) {
+          result = CompactCFAGraph.of(allNodes);
+          compactGraph = result;
+        }
+      }
+    }
+    return Optional.of(result);
+  }
+
   private void writeObject(java.io.ObjectOutputStream s) throws java.io.IOException {
 
     // write default stuff
@@ -0,0 +1,134 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSortedSet;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class ParallelFunctionConversionTest {
+
+  private static final String[] PROGRAM = {
+    "typedef struct { int a; } global_t;",
+    "struct { int b; } globalVar;",
+    "int f(int x) {",
+    "  struct { int c; int d; } s;",
+    "  enum { RED, GREEN } color = GREEN;",
+    "  s.c = x;",
+    "  s.d = color;",
+    "  return s.c + s.d;",
+    "}",
+    "int g(int y) {",
+    "  union { int i; char c; } u;",
+    "  struct { global_t inner; } t;",
+    "  u.i = y;",
+    "  t.inner.a = u.i;",
+    "  return t.inner.a;",
+    "}",
+    "int h(int z) {",
+    "  struct { int e; } s1;",
+    "  struct { int e; } s2;",
+    "  s1.e = z;",
+    "  s2.e = s1.e;",
+    "  return s2.e;",
+    "}",
+    "int main() {",
+    "  enum { ONE = 1 } one = ONE;",
+    "  globalVar.b = f(one) + g(2) + h(3);",
+    "  return globalVar.b;",
+    "}"
+  };
+
+  private static CFA createCFA(boolean pParallel) throws Exception {
+    return TestDataTools.makeCFA(
+        TestDataTools.configurationForTest()
+            .setOption("cfa.parallelFunctionConversion", Boolean.toString(pParallel))
+            .setOption("cfa.functionConversionThreads", "4")
+            .build(),
+        PROGRAM);
+  }
+
+  /**
+   * Describes all edges of the CFA, including the types of declarations and node numbers relative
+   * to the first node, such that CFAs that were created one after the other can be compared.
+   */
+  private static List<String> describe(CFA pCfa) {
+    ImmutableSortedSet<CFANode> nodes = ImmutableSortedSet.copyOf(pCfa.getAllNodes());
+    int firstNodeNumber = nodes.first().getNodeNumber();
+    List<String> result = new ArrayList<>();
+    for (CFANode node : nodes) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        String description =
+            node.getFunctionName()
+                + " "
+                + (edge.getPredecessor().getNodeNumber() - firstNodeNumber)
+                + " -> "
+                + (edge.getSuccessor().getNodeNumber() - firstNodeNumber)
+                + ": "
+                + edge.getCode();
+        if (edge instanceof ADeclarationEdge) {
+          description += " : " + ((ADeclarationEdge) edge).getDeclaration().getType();
+        }
+        result.add(description);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testSameCFA() throws Exception {
+    List<String> sequential = describe(createCFA(false));
+
+    assertThat(sequential).isNotEmpty();
+    for (int i = 0; i < 5; i++) {
+      assertThat(describe(createCFA(true))).containsExactlyElementsIn(sequential).inOrder();
+    }
+  }
+
+  @Test
+  public void testAnonymousTypesNamedPerFunction() throws Exception {
+    String descriptionOfH = String.join("\n", onlyFunction(describe(createCFA(true)), "h"));
+
+    assertThat(descriptionOfH).contains("__anon_type_h_0");
+    assertThat(descriptionOfH).contains("__anon_type_h_1");
+  }
+
+  private static List<String> onlyFunction(List<String> pDescriptions, String pFunction) {
+    List<String> result = new ArrayList<>();
+    for (String description : pDescriptions) {
+      if (description.startsWith(pFunction + " ")) {
+        result.add(description);
+      }
+    }
+    return result;
+  }
+}
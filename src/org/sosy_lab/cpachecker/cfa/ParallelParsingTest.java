@@ -0,0 +1,153 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.exceptions.ParserException;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class ParallelParsingTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private List<String> writeProgram() throws IOException {
+    return ImmutableList.of(
+        writeFile(
+            "counter.c",
+            "int counter = 0;",
+            "static int helper(int x) { return x + 1; }",
+            "int inc(void) { counter = helper(counter); return counter; }"),
+        writeFile(
+            "twice.c",
+            "extern int counter;",
+            "typedef struct { int a; } pair_t;",
+            "static int helper(int y) { pair_t p; p.a = y; return p.a * 2; }",
+            "int twice(void) { return helper(counter); }"),
+        writeFile(
+            "main.c",
+            "int inc(void);",
+            "int twice(void);",
+            "int main() {",
+            "  inc();",
+            "  return twice();",
+            "}"));
+  }
+
+  private String writeFile(String pName, String... pLines) throws IOException {
+    Path file = tempFolder.getRoot().toPath().resolve(pName);
+    Files.write(file, Joiner.on('\n').join(pLines).getBytes(StandardCharsets.UTF_8));
+    return file.toString();
+  }
+
+  private static CFA createCFA(List<String> pFiles, boolean pParallel) throws Exception {
+    CFACreator creator =
+        new CFACreator(
+            TestDataTools.configurationForTest()
+                .setOption("cfa.parallelParsing", Boolean.toString(pParallel))
+                .setOption("cfa.parsingThreads", "3")
+                .build(),
+            LogManager.createTestLogManager(),
+            ShutdownNotifier.createDummy());
+    return creator.parseFileAndCreateCFA(pFiles);
+  }
+
+  /**
+   * Describes all edges of the CFA, including the types of declarations and node numbers relative
+   * to the first node, such that CFAs that were created one after the other can be compared.
+   */
+  private static List<String> describe(CFA pCfa) {
+    ImmutableSortedSet<CFANode> nodes = ImmutableSortedSet.copyOf(pCfa.getAllNodes());
+    int firstNodeNumber = nodes.first().getNodeNumber();
+    List<String> result = new ArrayList<>();
+    for (CFANode node : nodes) {
+      for (CFAEdge edge : CFAUtils.leavingEdges(node)) {
+        String description =
+            node.getFunctionName()
+                + " "
+                + (edge.getPredecessor().getNodeNumber() - firstNodeNumber)
+                + " -> "
+                + (edge.getSuccessor().getNodeNumber() - firstNodeNumber)
+                + ": "
+                + edge.getCode();
+        if (edge instanceof ADeclarationEdge) {
+          description += " : " + ((ADeclarationEdge) edge).getDeclaration().getType();
+        }
+        result.add(description);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testSameCFA() throws Exception {
+    List<String> files = writeProgram();
+    CFA sequentialCfa = createCFA(files, false);
+    List<String> sequential = describe(sequentialCfa);
+
+    assertThat(sequential).isNotEmpty();
+    // both static helpers are kept, renamed per file
+    assertThat(sequentialCfa.getAllFunctionNames()).hasSize(5);
+    for (int i = 0; i < 5; i++) {
+      CFA parallelCfa = createCFA(files, true);
+      assertThat(parallelCfa.getAllFunctionNames())
+          .containsExactlyElementsIn(sequentialCfa.getAllFunctionNames())
+          .inOrder();
+      assertThat(describe(parallelCfa)).containsExactlyElementsIn(sequential).inOrder();
+    }
+  }
+
+  @Test
+  public void testSingleFile() throws Exception {
+    List<String> files = ImmutableList.of(writeProgram().get(2));
+    assertThat(describe(createCFA(files, true)))
+        .containsExactlyElementsIn(describe(createCFA(files, false)))
+        .inOrder();
+  }
+
+  @Test(expected = ParserException.class)
+  public void testParseErrorInOneFile() throws Exception {
+    List<String> files = new ArrayList<>(writeProgram());
+    files.add(1, writeFile("broken.c", "int broken( {", "}"));
+    createCFA(files, true);
+  }
+}
@@ -24,6 +24,8 @@
 package org.sosy_lab.cpachecker.cfa;
 
 import java.io.IOException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.exceptions.ParserException;
 
@@ -69,4 +71,21 @@ public interface Parser {
    */
   Timer getCFAConstructionTime();
 
+  /**
+   * Return a timer that measured the time needed for building the CFAs of function bodies, which
+   * is part of the CFA construction.
+   * Optional method: may return null.
+   */
+  default @Nullable Timer getFunctionCFAConstructionTime() {
+    return null;
+  }
+
+  /**
+   * Return the accumulated time of all tasks that built CFAs of function bodies. If these tasks
+   * run concurrently, this is larger than {@link #getFunctionCFAConstructionTime()}.
+   * Optional method: may return null.
+   */
+  default @Nullable TimeSpan getFunctionCFAConstructionTaskTime() {
+    return null;
+  }
 }
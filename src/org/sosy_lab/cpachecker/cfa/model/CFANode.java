@@ -34,7 +34,7 @@ import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import org.sosy_lab.common.UniqueIdGenerator;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclaration;
 
@@ -42,9 +42,16 @@ public class CFANode implements Comparable<CFANode>, Serializable {
 
   private static final long serialVersionUID = 5168350921309486536L;
 
-  private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
+  // not a UniqueIdGenerator, because deserialized and restored nodes need to advance the counter
+  private static final AtomicInteger nextNodeNumber = new AtomicInteger();
 
-  private final int nodeNumber;
+  private static final int UNASSIGNED_NODE_NUMBER = -1;
+
+  // nodes created by the current thread that are not numbered yet, see startDeferredNumbering()
+  private static final ThreadLocal<List<CFANode>> unnumberedNodes = new ThreadLocal<>();
+
+  // final, except for deferred numbering
+  private int nodeNumber;
 
   // do not serialize edges, recursive traversal of the CFA causes a stack-overflow.
   // edge-list is final, except for serialization
@@ -72,7 +79,61 @@ public class CFANode implements Comparable<CFANode>, Serializable {
     assert !pFunctionName.isEmpty();
 
     functionName = pFunctionName;
-    nodeNumber = idGenerator.getFreshId();
+
+    List<CFANode> unnumbered = unnumberedNodes.get();
+    if (unnumbered == null) {
+      nodeNumber = nextNodeNumber.getAndIncrement();
+    } else {
+      nodeNumber = UNASSIGNED_NODE_NUMBER;
+      unnumbered.add(this);
+    }
+  }
+
+  /**
+   * Let all nodes that are created by the current thread from now on remain without a number,
+   * until they are numbered with {@link #assignNodeNumbers(List)}. This allows to create CFAs
+   * concurrently and still number their nodes deterministically. Until then, the nodes must not be
+   * compared or put into sorted collections.
+   */
+  public static void startDeferredNumbering() {
+    checkState(unnumberedNodes.get() == null, "deferred numbering already started");
+    unnumberedNodes.set(new ArrayList<>());
+  }
+
+  /**
+   * Stop deferred numbering for the current thread.
+   *
+   * @return all nodes created by the current thread since {@link #startDeferredNumbering()}, in
+   *     the order of their creation
+   */
+  public static List<CFANode> stopDeferredNumbering() {
+    List<CFANode> unnumbered = unnumberedNodes.get();
+    checkState(unnumbered != null, "deferred numbering not started");
+    unnumberedNodes.remove();
+    return unnumbered;
+  }
+
+  /** Assign fresh numbers to nodes created with deferred numbering, in the given order. */
+  public static void assignNodeNumbers(List<CFANode> pNodes) {
+    for (CFANode node : pNodes) {
+      checkState(node.nodeNumber == UNASSIGNED_NODE_NUMBER, "node %s already numbered", node);
+      node.nodeNumber = nextNodeNumber.getAndIncrement();
+    }
+  }
+
+  /**
+   * Assign the given numbers to nodes created with deferred numbering, e.g., the numbers that the
+   * same nodes had when the CFA was stored in a cache. Nodes created afterwards get higher numbers.
+   */
+  public static void assignNodeNumbers(List<CFANode> pNodes, int[] pNumbers) {
+    checkArgument(pNodes.size() == pNumbers.length, "need exactly one number per node");
+    for (int i = 0; i < pNumbers.length; i++) {
+      CFANode node = pNodes.get(i);
+      checkState(node.nodeNumber == UNASSIGNED_NODE_NUMBER, "node %s already numbered", node);
+      checkArgument(pNumbers[i] >= 0, "invalid node number %s", pNumbers[i]);
+      node.nodeNumber = pNumbers[i];
+      nextNodeNumber.accumulateAndGet(pNumbers[i] + 1, Math::max);
+    }
   }
 
   public int getNodeNumber() {
@@ -263,6 +324,9 @@ public class CFANode implements Comparable<CFANode>, Serializable {
       throws java.io.IOException, ClassNotFoundException {
     s.defaultReadObject();
 
+    // nodes created after deserialization must not reuse the number of this node
+    nextNodeNumber.accumulateAndGet(nodeNumber + 1, Math::max);
+
     // leaving and entering edges have to be updated explicitly after reading a node
     leavingEdges = new ArrayList<>(1);
     enteringEdges = new ArrayList<>(1);
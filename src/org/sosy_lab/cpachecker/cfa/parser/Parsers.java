@@ -33,6 +33,7 @@ import java.util.regex.Pattern;
 import org.sosy_lab.common.Classes;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -77,6 +78,41 @@ public class Parsers {
     @Option(secure = true, description = "simplify simple const expressions like 1+2")
     private boolean simplifyConstExpressions = true;
 
+    @Option(
+      secure = true,
+      description =
+          "Build the CFAs of the function bodies in parallel."
+              + " The created CFA is the same as with sequential construction."
+    )
+    private boolean parallelFunctionConversion = false;
+
+    @Option(
+      secure = true,
+      description =
+          "number of threads for building function CFAs in parallel,"
+              + " 0 for the number of available processors"
+    )
+    @IntegerOption(min = 0)
+    private int functionConversionThreads = 0;
+
+    @Option(
+      secure = true,
+      description =
+          "Parse the translation units of programs that consist of several files in parallel."
+              + " They are still merged in the given order, so the result is the same as with"
+              + " sequential parsing."
+    )
+    private boolean parallelParsing = false;
+
+    @Option(
+      secure = true,
+      description =
+          "number of threads for parsing several files in parallel,"
+              + " 0 for the number of available processors"
+    )
+    @IntegerOption(min = 0)
+    private int parsingThreads = 0;
+
     public boolean initializeAllVariables() {
       return initializeAllVariables;
     }
@@ -92,6 +128,24 @@ public class Parsers {
     public boolean simplifyConstExpressions() {
       return simplifyConstExpressions;
     }
+
+    public boolean parallelFunctionConversion() {
+      return parallelFunctionConversion;
+    }
+
+    public int functionConversionThreads() {
+      return functionConversionThreads > 0
+          ? functionConversionThreads
+          : Runtime.getRuntime().availableProcessors();
+    }
+
+    public boolean parallelParsing() {
+      return parallelParsing;
+    }
+
+    public int parsingThreads() {
+      return parsingThreads > 0 ? parsingThreads : Runtime.getRuntime().availableProcessors();
+    }
   }
 
   private Parsers() { }
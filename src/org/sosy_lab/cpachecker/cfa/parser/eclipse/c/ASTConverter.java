@@ -40,6 +40,7 @@ import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.LongSummaryStatistics;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.eclipse.cdt.core.dom.ast.IASTArrayDeclarator;
@@ -208,7 +209,13 @@ class ASTConverter {
   // this counter is static to make the replacing names for anonymous types, in
   // more than one file (which get parsed with different AstConverters, although
   // they are in the same run) unique
-  private static int anonTypeCounter = 0;
+  private static final AtomicInteger anonTypeCounter = new AtomicInteger();
+
+  // Anonymous types inside function definitions are numbered per function instead,
+  // such that their names do not depend on the order in which functions are converted
+  // (cf. option cfa.parallelFunctionConversion).
+  private @Nullable String functionNameForAnonTypes = null;
+  private int functionAnonTypeCounter = 0;
 
 
   private final Sideassignments sideAssignmentStack;
@@ -1495,6 +1502,15 @@ class ASTConverter {
   }
 
   public CFunctionDeclaration convert(final IASTFunctionDefinition f) {
+    if (scope instanceof FunctionScope) {
+      IASTDeclarator nameDeclarator = f.getDeclarator();
+      while (nameDeclarator.getNestedDeclarator() != null) {
+        nameDeclarator = nameDeclarator.getNestedDeclarator();
+      }
+      functionNameForAnonTypes = convert(nameDeclarator.getName());
+      functionAnonTypeCounter = 0;
+    }
+
     Pair<CStorageClass, ? extends CType> specifier = convert(f.getDeclSpecifier());
 
     CStorageClass cStorageClass = specifier.getFirst();
@@ -2120,7 +2136,7 @@ class ASTConverter {
       if (d.getStorageClass() == IASTDeclSpecifier.sc_typedef) {
         name += ((IASTSimpleDeclaration)d.getParent()).getDeclarators()[0].getName().getRawSignature();
       } else {
-        name += anonTypeCounter++;
+        name = createAnonTypeName();
       }
     }
 
@@ -2153,6 +2169,13 @@ class ASTConverter {
     return compositeType;
   }
 
+  private String createAnonTypeName() {
+    if (functionNameForAnonTypes != null) {
+      return "__anon_type_" + functionNameForAnonTypes + "_" + functionAnonTypeCounter++;
+    }
+    return "__anon_type_" + anonTypeCounter.getAndIncrement();
+  }
+
   private CEnumType convert(IASTEnumerationSpecifier d) {
     List<CEnumerator> list = new ArrayList<>(d.getEnumerators().length);
     Long lastValue = -1L; // initialize with -1, so the first one gets value 0
@@ -2173,7 +2196,7 @@ class ASTConverter {
     // when the enum has no name we create one
     // (this may be the case when the enum declaration is surrounded by a typedef)
     if (name.isEmpty()) {
-      name = "__anon_type_" + anonTypeCounter++;
+      name = createAnonTypeName();
     }
 
     CEnumType enumType = new CEnumType(d.isConst(), d.isVolatile(), list, name, origName);
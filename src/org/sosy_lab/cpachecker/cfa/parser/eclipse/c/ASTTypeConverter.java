@@ -28,11 +28,11 @@ import static com.google.common.base.Verify.verify;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTElaboratedTypeSpecifier;
@@ -93,42 +93,53 @@ class ASTTypeConverter {
     converter = pConverter;
     filePrefix = pFilePrefix;
     parseContext = pParseContext;
-    if (!typeConversions.containsKey(filePrefix)) {
-      typeConversions.put(filePrefix, new IdentityHashMap<>());
-    }
+    typeConversions.computeIfAbsent(filePrefix, k -> new IdentityHashMap<>());
   }
 
   /** cache for all ITypes, so that they don't have to be parsed again and again
-   *  (Eclipse seems to give us identical objects for identical types already). */
-  private final static Map<String, Map<IType, CType>> typeConversions = new HashMap<>();
+   *  (Eclipse seems to give us identical objects for identical types already).
+   *  The maps per file are guarded by themselves,
+   *  because function CFAs may be built in parallel. */
+  private final static Map<String, Map<IType, CType>> typeConversions = new ConcurrentHashMap<>();
 
   /**
    * This can be used to rename a CType in case of Types with equal names but
    * different fields, from different files.
    */
   static void overwriteType(IType cdtType, CType ourType, String filePrefix) {
-    typeConversions.get(filePrefix).put(cdtType, ourType);
+    Map<IType, CType> conversions = typeConversions.get(filePrefix);
+    synchronized (conversions) {
+      conversions.put(cdtType, ourType);
+    }
   }
 
   static IType getTypeFromTypeConversion(CType ourCType, String filePrefix) {
-    for (Entry<IType, CType> entry : typeConversions.get(filePrefix).entrySet()) {
-      if (ourCType.equals(entry.getValue())) {
-        return entry.getKey();
+    Map<IType, CType> conversions = typeConversions.get(filePrefix);
+    synchronized (conversions) {
+      for (Entry<IType, CType> entry : conversions.entrySet()) {
+        if (ourCType.equals(entry.getValue())) {
+          return entry.getKey();
+        }
       }
     }
     return null;
   }
 
   CType convert(IType t) {
-    CType result = typeConversions.get(filePrefix).get(t);
-    if (result == null) {
-      result = checkNotNull(convert0(t));
-      // re-check, in some cases we updated the map already
-      if (!typeConversions.get(filePrefix).containsKey(t)) {
-        typeConversions.get(filePrefix).put(t, result);
+    Map<IType, CType> conversions = typeConversions.get(filePrefix);
+    // the lock is held during the whole conversion,
+    // because convert0 temporarily puts incomplete types into the map
+    synchronized (conversions) {
+      CType result = conversions.get(t);
+      if (result == null) {
+        result = checkNotNull(convert0(t));
+        // re-check, in some cases we updated the map already
+        if (!conversions.containsKey(t)) {
+          conversions.put(t, result);
+        }
       }
+      return result;
     }
-    return result;
   }
 
   /** converts types BOOL, INT,..., PointerTypes, ComplexTypes */
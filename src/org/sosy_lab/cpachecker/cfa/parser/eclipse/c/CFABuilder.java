@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
 
 import static com.google.common.base.Strings.isNullOrEmpty;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.SortedSetMultimap;
@@ -38,6 +39,10 @@ import java.util.List;
 import java.util.NavigableMap;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.eclipse.cdt.core.dom.ast.ASTVisitor;
@@ -45,14 +50,18 @@ import org.eclipse.cdt.core.dom.ast.IASTASMDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTFileLocation;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
+import org.eclipse.cdt.core.dom.ast.IASTName;
 import org.eclipse.cdt.core.dom.ast.IASTProblem;
 import org.eclipse.cdt.core.dom.ast.IASTProblemDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.ParseResult;
 import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
@@ -114,14 +123,22 @@ class CFABuilder extends ASTVisitor {
   private boolean encounteredAsm = false;
   private Sideassignments sideAssignmentStack = null;
 
+  // only for creating separate loggers for parallel function conversion
+  private final LogManager baseLogger;
+  private final Timer functionConversionTime;
+  private final AtomicLong functionConversionTaskNanos = new AtomicLong();
+
   public CFABuilder(
       EclipseCParserOptions pOptions,
       LogManager pLogger,
       ShutdownNotifier pShutdownNotifier,
       ParseContext pParseContext,
-      MachineModel pMachine) {
+      MachineModel pMachine,
+      Timer pFunctionConversionTime) {
     options = pOptions;
+    baseLogger = pLogger;
     logger = new LogManagerWithoutDuplicates(pLogger);
+    functionConversionTime = pFunctionConversionTime;
     shutdownNotifier = pShutdownNotifier;
     parseContext = pParseContext;
     machine = pMachine;
@@ -345,6 +362,31 @@ class CFABuilder extends ASTVisitor {
       ((CDeclaration)decl.getFirst()).getType().accept(fillInAllBindingsVisitor);
     }
 
+    functionConversionTime.start();
+    try {
+      if (options.parallelFunctionConversion()) {
+        handleFunctionDefinitionsInParallel();
+      } else {
+        handleFunctionDefinitions();
+      }
+    } finally {
+      functionConversionTime.stop();
+    }
+
+    if (encounteredAsm) {
+      logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
+    }
+
+    if (checkBinding.foundUndefinedIdentifiers()) {
+      throw new CParserException("Invalid C code because of undefined identifiers mentioned above.");
+    }
+
+    ParseResult result = new ParseResult(cfas, cfaNodes, globalDecls, parsedFiles);
+
+    return result;
+  }
+
+  private void handleFunctionDefinitions() throws InterruptedException {
     for (Triple<List<IASTFunctionDefinition>, String, GlobalScope> triple : functionDeclarations) {
       GlobalScope actScope = triple.getThird();
 
@@ -356,31 +398,84 @@ class CFABuilder extends ASTVisitor {
       ImmutableMap<String, CTypeDefDeclaration> actTypeDefs = actScope.getTypeDefs();
       ImmutableMap<String, CSimpleDeclaration> actVars = actScope.getGlobalVars();
       for (IASTFunctionDefinition declaration : triple.getFirst()) {
-          handleFunctionDefinition(actScope,
-                                   triple.getSecond(),
-                                   declaration,
-                                   actFunctions,
-                                   actTypes,
-                                   actTypeDefs,
-                                   actVars);
+        long start = System.nanoTime();
+        CFAFunctionBuilder functionBuilder =
+            buildFunction(
+                triple.getSecond(),
+                declaration,
+                actFunctions,
+                actTypes,
+                actTypeDefs,
+                actVars,
+                logger,
+                sideAssignmentStack);
+        Set<CFANode> nodes = functionBuilder.getCfaNodes();
+        functionConversionTaskNanos.addAndGet(System.nanoTime() - start);
+
+        addFunction(actScope, functionBuilder, nodes);
       }
     }
+  }
 
-    if (encounteredAsm) {
-      logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
-    }
+  /**
+   * Builds the CFAs of all functions concurrently. The results are added in the same order as in
+   * {@link #handleFunctionDefinitions()}, and the CFA nodes are numbered only afterwards in this
+   * order, such that the created CFA is the same as with sequential construction.
+   */
+  private void handleFunctionDefinitionsInParallel() throws InterruptedException {
+    // CDT resolves bindings lazily and this is not thread-safe,
+    // so we resolve all bindings in function bodies upfront.
+    ASTVisitor bindingResolver =
+        new ASTVisitor() {
+          {
+            shouldVisitNames = true;
+          }
 
-    if (checkBinding.foundUndefinedIdentifiers()) {
-      throw new CParserException("Invalid C code because of undefined identifiers mentioned above.");
+          @Override
+          public int visit(IASTName pName) {
+            pName.resolveBinding();
+            return PROCESS_CONTINUE;
+          }
+        };
+    for (Triple<List<IASTFunctionDefinition>, String, GlobalScope> triple : functionDeclarations) {
+      for (IASTFunctionDefinition declaration : triple.getFirst()) {
+        declaration.accept(bindingResolver);
+      }
     }
+    shutdownNotifier.shutdownIfNecessary();
 
-    ParseResult result = new ParseResult(cfas, cfaNodes, globalDecls, parsedFiles);
+    ForkJoinPool pool = new ForkJoinPool(options.functionConversionThreads());
+    try {
+      List<Pair<GlobalScope, Future<ConvertedFunction>>> results = new ArrayList<>();
+      for (Triple<List<IASTFunctionDefinition>, String, GlobalScope> triple :
+          functionDeclarations) {
+        GlobalScope actScope = triple.getThird();
+        String fileName = triple.getSecond();
+        ImmutableMap<String, CFunctionDeclaration> actFunctions = actScope.getFunctions();
+        ImmutableMap<String, CComplexTypeDeclaration> actTypes = actScope.getTypes();
+        ImmutableMap<String, CTypeDefDeclaration> actTypeDefs = actScope.getTypeDefs();
+        ImmutableMap<String, CSimpleDeclaration> actVars = actScope.getGlobalVars();
+        for (IASTFunctionDefinition declaration : triple.getFirst()) {
+          Future<ConvertedFunction> result =
+              pool.submit(
+                  () ->
+                      convertFunctionWithDeferredNumbering(
+                          fileName, declaration, actFunctions, actTypes, actTypeDefs, actVars));
+          results.add(Pair.of(actScope, result));
+        }
+      }
 
-    return result;
+      for (Pair<GlobalScope, Future<ConvertedFunction>> result : results) {
+        ConvertedFunction function = getResult(result.getSecond());
+        CFANode.assignNodeNumbers(function.createdNodes);
+        addFunction(result.getFirst(), function.builder, function.nodes);
+      }
+    } finally {
+      pool.shutdownNow();
+    }
   }
 
-  private void handleFunctionDefinition(
-      final GlobalScope actScope,
+  private ConvertedFunction convertFunctionWithDeferredNumbering(
       String fileName,
       IASTFunctionDefinition declaration,
       ImmutableMap<String, CFunctionDeclaration> functions,
@@ -388,19 +483,82 @@ class CFABuilder extends ASTVisitor {
       ImmutableMap<String, CTypeDefDeclaration> typedefs,
       ImmutableMap<String, CSimpleDeclaration> globalVars)
       throws InterruptedException {
+    long start = System.nanoTime();
+    CFANode.startDeferredNumbering();
+    List<CFANode> createdNodes;
+    CFAFunctionBuilder functionBuilder;
+    Set<CFANode> nodes;
+    try {
+      // loggers and side assignments are not thread-safe
+      functionBuilder =
+          buildFunction(
+              fileName,
+              declaration,
+              functions,
+              types,
+              typedefs,
+              globalVars,
+              new LogManagerWithoutDuplicates(baseLogger),
+              new Sideassignments());
+      nodes = functionBuilder.getCfaNodes();
+    } finally {
+      createdNodes = CFANode.stopDeferredNumbering();
+    }
+    functionConversionTaskNanos.addAndGet(System.nanoTime() - start);
+    return new ConvertedFunction(functionBuilder, nodes, createdNodes);
+  }
+
+  private static ConvertedFunction getResult(Future<ConvertedFunction> pResult)
+      throws InterruptedException {
+    try {
+      return pResult.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, InterruptedException.class);
+      throw new UnexpectedCheckedException("building function CFA", cause);
+    }
+  }
+
+  /** The result of building the CFA of one function concurrently. */
+  private static class ConvertedFunction {
+
+    private final CFAFunctionBuilder builder;
+    private final Set<CFANode> nodes;
+
+    /** all nodes created for this function in the order of creation, still without numbers */
+    private final List<CFANode> createdNodes;
+
+    private ConvertedFunction(
+        CFAFunctionBuilder pBuilder, Set<CFANode> pNodes, List<CFANode> pCreatedNodes) {
+      builder = pBuilder;
+      nodes = pNodes;
+      createdNodes = pCreatedNodes;
+    }
+  }
+
+  private CFAFunctionBuilder buildFunction(
+      String fileName,
+      IASTFunctionDefinition declaration,
+      ImmutableMap<String, CFunctionDeclaration> functions,
+      ImmutableMap<String, CComplexTypeDeclaration> types,
+      ImmutableMap<String, CTypeDefDeclaration> typedefs,
+      ImmutableMap<String, CSimpleDeclaration> globalVars,
+      LogManagerWithoutDuplicates pLogger,
+      Sideassignments pSideAssignments)
+      throws InterruptedException {
 
     FunctionScope localScope =
         new FunctionScope(functions, types, typedefs, globalVars, fileName, artificialScope);
     CFAFunctionBuilder functionBuilder =
         new CFAFunctionBuilder(
             options,
-            logger,
+            pLogger,
             shutdownNotifier,
             localScope,
             parseContext,
             machine,
             fileName,
-            sideAssignmentStack,
+            pSideAssignments,
             checkBinding);
 
     declaration.accept(functionBuilder);
@@ -408,6 +566,11 @@ class CFABuilder extends ASTVisitor {
     // check whether an interrupt happened while parsing
     shutdownNotifier.shutdownIfNecessary();
 
+    return functionBuilder;
+  }
+
+  private void addFunction(
+      final GlobalScope actScope, CFAFunctionBuilder functionBuilder, Set<CFANode> nodes) {
     FunctionEntryNode startNode = functionBuilder.getStartNode();
     String functionName = startNode.getFunctionName();
 
@@ -416,7 +579,7 @@ class CFABuilder extends ASTVisitor {
           + " in " + startNode.getFileLocation() + " and " + cfas.get(functionName).getFileLocation());
     }
     cfas.put(functionName, startNode);
-    cfaNodes.putAll(functionName, functionBuilder.getCfaNodes());
+    cfaNodes.putAll(functionName, nodes);
     globalDeclarations.addAll(
         Collections2.transform(
             functionBuilder.getGlobalDeclarations(),
@@ -427,6 +590,11 @@ class CFABuilder extends ASTVisitor {
     functionBuilder.finish();
   }
 
+  /** Returns the accumulated time of building all function CFAs (possibly in parallel). */
+  TimeSpan getFunctionConversionTaskTime() {
+    return TimeSpan.ofNanos(functionConversionTaskNanos.get());
+  }
+
   @Override
   public int leave(IASTTranslationUnit ast) {
     if (shutdownNotifier.shouldShutdown()) {
@@ -23,7 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
 
-import java.util.HashSet;
+import com.google.common.collect.Sets;
 import java.util.Set;
 import java.util.logging.Level;
 import org.sosy_lab.common.log.LogManager;
@@ -76,9 +76,10 @@ class CheckBindingVisitor implements CRightHandSideVisitor<Void, CFAGenerationRu
 
   private final LogManager logger;
 
-  private final Set<String> printedWarnings = new HashSet<>();
+  // thread-safe, because function CFAs may be built in parallel
+  private final Set<String> printedWarnings = Sets.newConcurrentHashSet();
 
-  private boolean foundUndefinedIdentifiers = false;
+  private volatile boolean foundUndefinedIdentifiers = false;
 
   CheckBindingVisitor(LogManager pLogger) {
     logger = pLogger;
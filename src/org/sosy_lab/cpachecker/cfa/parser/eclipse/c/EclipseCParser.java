@@ -28,6 +28,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
@@ -43,6 +44,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTFunctionDefinition;
@@ -63,9 +69,11 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
@@ -93,6 +101,8 @@ class EclipseCParser implements CParser {
 
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
+  private final Timer functionCfaTimer = new Timer();
+  private TimeSpan functionCfaTaskTime = TimeSpan.empty();
 
   public EclipseCParser(
       LogManager pLogger,
@@ -164,21 +174,92 @@ class EclipseCParser implements CParser {
     ParseContext parseContext =
         new ParseContext(createNiceFileNameFunction(fileNameMapping.keySet()), sourceOriginMapping);
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+    List<IASTTranslationUnit> astUnits;
+    if (options.parallelParsing() && pInput.size() > 1) {
+      astUnits = parseInParallel(pInput, parseContext, pWrapperFunction);
 
-    for (FileToParse f : pInput) {
-      final String fileName = fixPath(f.getFileName());
+    } else {
+      astUnits = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        final String fileName = fixPath(f.getFileName());
 
-      try {
-        astUnits.add(parse(pWrapperFunction.wrap(fileName, f), parseContext));
-      } catch (IOException e) {
-        throw new CParserException("IO failed!", e);
+        try {
+          astUnits.add(parse(pWrapperFunction.wrap(fileName, f), parseContext));
+        } catch (IOException e) {
+          throw new CParserException("IO failed!", e);
+        }
+        if (pInput.size() > 1) {
+          logger.log(
+              Level.FINE, "Parsing", fileName, "took", parseTimer.getLengthOfLastInterval());
+        }
       }
     }
 
+    // The translation units are always merged sequentially and in the given order,
+    // such that the result does not depend on whether they were parsed in parallel.
     return buildCFA(astUnits, parseContext, scope);
   }
 
+  /**
+   * Parse several translation units concurrently. CDT parsers do not share state, but each parser
+   * needs its own log service for handling shutdown requests.
+   *
+   * @return the translation units in the same order as the input
+   */
+  private List<IASTTranslationUnit> parseInParallel(
+      List<? extends FileToParse> pInput,
+      ParseContext parseContext,
+      FileParseWrapper pWrapperFunction)
+      throws CParserException, InterruptedException {
+
+    ForkJoinPool pool = new ForkJoinPool(Math.min(pInput.size(), options.parsingThreads()));
+    parseTimer.start();
+    try {
+      List<Future<IASTTranslationUnit>> results = new ArrayList<>(pInput.size());
+      for (FileToParse f : pInput) {
+        final String fileName = fixPath(f.getFileName());
+        results.add(
+            pool.submit(
+                () -> {
+                  long start = System.nanoTime();
+                  ShutdownNotifierLogAdapter fileParserLog =
+                      new ShutdownNotifierLogAdapter(shutdownNotifier);
+                  try {
+                    IASTTranslationUnit result =
+                        parse0(pWrapperFunction.wrap(fileName, f), parseContext, fileParserLog);
+                    logger.log(
+                        Level.FINE,
+                        "Parsing",
+                        fileName,
+                        "took",
+                        TimeSpan.ofNanos(System.nanoTime() - start).formatAs(TimeUnit.SECONDS));
+                    return result;
+                  } catch (IOException e) {
+                    throw new CParserException("IO failed!", e);
+                  } finally {
+                    shutdownNotifier.unregister(fileParserLog);
+                  }
+                }));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(pInput.size());
+      for (Future<IASTTranslationUnit> result : results) {
+        try {
+          astUnits.add(result.get());
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(
+              e.getCause(), CParserException.class, InterruptedException.class);
+          throw new UnexpectedCheckedException("parsing", e.getCause());
+        }
+      }
+      return astUnits;
+
+    } finally {
+      parseTimer.stop();
+      pool.shutdownNow();
+    }
+  }
+
   @Override
   public ParseResult parseFile(List<String> pFilenames)
       throws CParserException, InterruptedException {
@@ -319,7 +400,17 @@ class EclipseCParser implements CParser {
       throws CParserException, InterruptedException {
     parseTimer.start();
     try {
-      IASTTranslationUnit result = getASTTranslationUnit(codeReader);
+      return parse0(codeReader, parseContext, parserLog);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  private IASTTranslationUnit parse0(
+      FileContent codeReader, ParseContext parseContext, IParserLogService pParserLog)
+      throws CParserException, InterruptedException {
+    try {
+      IASTTranslationUnit result = getASTTranslationUnit(codeReader, pParserLog);
 
       // Separate handling of include problems
       // so that we can give a better error message.
@@ -344,12 +435,11 @@ class EclipseCParser implements CParser {
 
     } catch (CFAGenerationRuntimeException | CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
-  private IASTTranslationUnit getASTTranslationUnit(FileContent pCode)
+  private IASTTranslationUnit getASTTranslationUnit(
+      FileContent pCode, IParserLogService pParserLog)
       throws CFAGenerationRuntimeException, CoreException, InterruptedException {
     try {
       return language.getASTTranslationUnit(
@@ -358,7 +448,7 @@ class EclipseCParser implements CParser {
           FileContentProvider.instance,
           null,
           PARSER_OPTIONS,
-          parserLog);
+          pParserLog);
     } finally {
       shutdownNotifier.shutdownIfNecessary();
     }
@@ -379,7 +469,9 @@ class EclipseCParser implements CParser {
     cfaTimer.start();
 
     try {
-      CFABuilder builder = new CFABuilder(options, logger, shutdownNotifier, parseContext, machine);
+      CFABuilder builder =
+          new CFABuilder(
+              options, logger, shutdownNotifier, parseContext, machine, functionCfaTimer);
 
       // we don't need any file prefix if we only have one file
       if (asts.size() == 1) {
@@ -400,7 +492,12 @@ class EclipseCParser implements CParser {
         }
       }
 
-      return builder.createCFA();
+      try {
+        return builder.createCFA();
+      } finally {
+        functionCfaTaskTime =
+            TimeSpan.sum(functionCfaTaskTime, builder.getFunctionConversionTaskTime());
+      }
 
     } catch (CFAGenerationRuntimeException e) {
       throw new CParserException(e);
@@ -466,6 +563,16 @@ class EclipseCParser implements CParser {
     return cfaTimer;
   }
 
+  @Override
+  public Timer getFunctionCFAConstructionTime() {
+    return functionCfaTimer;
+  }
+
+  @Override
+  public TimeSpan getFunctionCFAConstructionTaskTime() {
+    return functionCfaTaskTime;
+  }
+
 
   /**
    * Private class extending the Eclipse CDT class that is the starting point
@@ -76,6 +76,7 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm;
 import org.sosy_lab.cpachecker.core.algorithm.Algorithm.AlgorithmStatus;
 import org.sosy_lab.cpachecker.core.algorithm.ExternalCBMCAlgorithm;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.impact.ImpactAlgorithm;
 import org.sosy_lab.cpachecker.core.algorithm.mpv.MPVAlgorithm;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -407,6 +408,12 @@ public class CPAchecker {
       stats.creationTime.stop();
       shutdownNotifier.shutdownIfNecessary();
 
+      if (!(algorithm instanceof ParallelAlgorithm)) {
+        // The parallel algorithm sets its reached set only after all analyses have finished,
+        // it exports the sizes of the reached sets of the single analyses itself.
+        stats.setReachedSet(reached);
+      }
+
       // now everything necessary has been instantiated: run analysis
 
       result = Result.UNKNOWN; // set to unknown so that the result is correct in case of exception
@@ -293,7 +293,8 @@ public class CoreComponentsFactory {
     }
 
     if (useTerminationAlgorithm) {
-      aggregatedReachedSetManager = new AggregatedReachedSetManager();
+      aggregatedReachedSetManager =
+          new AggregatedReachedSetManager(pAggregatedReachedSets.getBlackboard());
       aggregatedReachedSetManager.addAggregated(pAggregatedReachedSets);
       aggregatedReachedSets = aggregatedReachedSetManager.asView();
     } else {
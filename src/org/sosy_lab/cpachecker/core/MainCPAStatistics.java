@@ -44,10 +44,10 @@ import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import javax.management.JMException;
@@ -87,6 +87,8 @@ import org.sosy_lab.cpachecker.util.coverage.CoverageReportStdoutSummary;
 import org.sosy_lab.cpachecker.util.cwriter.CExpressionInvariantExporter;
 import org.sosy_lab.cpachecker.util.resources.MemoryStatistics;
 import org.sosy_lab.cpachecker.util.resources.ProcessCpuTime;
+import org.sosy_lab.cpachecker.util.statistics.MetricsExporter;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
@@ -148,6 +150,7 @@ class MainCPAStatistics implements Statistics {
   private final @Nullable MemoryStatistics memStats;
   private final @Nullable CExpressionInvariantExporter cExpressionInvariantExporter;
   private Thread memStatsThread;
+  private final MetricsExporter metricsExporter;
 
   private final Timer programTime = new Timer();
   final Timer creationTime = new Timer();
@@ -156,11 +159,13 @@ class MainCPAStatistics implements Statistics {
   final Timer resultAnalysisTime = new Timer();
 
   private long programCpuTime;
+  private long startCpuTime; // for metrics, programCpuTime is replaced with the duration
   private long analysisCpuTime = 0;
 
   private @Nullable Statistics cfaCreatorStatistics;
   private @Nullable CFA cfa;
   private @Nullable ConfigurableProgramAnalysis cpa;
+  private volatile @Nullable UnmodifiableReachedSet reachedSet;
 
   public MainCPAStatistics(
       Configuration pConfig, LogManager pLogger, ShutdownNotifier pShutdownNotifier)
@@ -168,7 +173,8 @@ class MainCPAStatistics implements Statistics {
     logger = pLogger;
     pConfig.inject(this);
 
-    subStats = new ArrayList<>();
+    // modified while the metrics exporter reads it
+    subStats = new CopyOnWriteArrayList<>();
 
     if (monitorMemoryUsage) {
       memStats = new MemoryStatistics(pLogger);
@@ -204,6 +210,10 @@ class MainCPAStatistics implements Statistics {
     } else {
       cExpressionInvariantExporter = null;
     }
+
+    startCpuTime = programCpuTime;
+    metricsExporter = new MetricsExporter(pConfig, pLogger, this);
+    metricsExporter.start();
   }
 
   public Collection<Statistics> getSubStatistics() {
@@ -281,6 +291,7 @@ class MainCPAStatistics implements Statistics {
     if (memStats != null) {
       memStatsThread.interrupt(); // stop memory statistics collection
     }
+    metricsExporter.stop(); // writes the last snapshot
 
     final Timer statisticsTime = new Timer();
     statisticsTime.start();
@@ -578,4 +589,34 @@ class MainCPAStatistics implements Statistics {
     Preconditions.checkState(cpa == null);
     cpa = pCpa;
   }
+
+  /** Set the reached set of the main analysis, which is used for exporting metrics. */
+  public void setReachedSet(UnmodifiableReachedSet pReached) {
+    reachedSet = pReached;
+  }
+
+  @Override
+  public void collectMetrics(MetricsSnapshot pSnapshot) {
+    pSnapshot.put("walltime_seconds", programTime.getSumTime());
+    pSnapshot.put("analysis_walltime_seconds", analysisTime.getSumTime());
+    if (startCpuTime >= 0) {
+      try {
+        pSnapshot.put("cputime_seconds", TimeSpan.ofNanos(ProcessCpuTime.read() - startCpuTime));
+      } catch (JMException e) {
+        // user was already warned
+      }
+    }
+    Runtime runtime = Runtime.getRuntime();
+    pSnapshot.put("heap_used_bytes", runtime.totalMemory() - runtime.freeMemory());
+    pSnapshot.put("heap_max_bytes", runtime.maxMemory());
+
+    UnmodifiableReachedSet reached = reachedSet;
+    if (reached != null) {
+      pSnapshot.put("reached_set_size", reached.size());
+    }
+
+    for (Statistics s : subStats) {
+      s.collectMetrics(pSnapshot);
+    }
+  }
 }
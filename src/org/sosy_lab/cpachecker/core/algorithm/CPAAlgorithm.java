@@ -39,6 +39,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -65,6 +66,8 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.LowOverheadTimer;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatHist;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
@@ -75,16 +78,19 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
   private static class CPAStatistics implements Statistics {
 
     private Timer totalTimer         = new Timer();
-    private Timer chooseTimer        = new Timer();
-    private Timer precisionTimer     = new Timer();
-    private Timer transferTimer      = new Timer();
-    private Timer mergeTimer         = new Timer();
-    private Timer stopTimer          = new Timer();
-    private Timer addTimer           = new Timer();
-    private Timer forcedCoveringTimer = new Timer();
+
+    // the timers for the single steps are started and stopped in every iteration
+    private final LowOverheadTimer chooseTimer;
+    private final LowOverheadTimer precisionTimer;
+    private final LowOverheadTimer transferTimer;
+    private final LowOverheadTimer mergeTimer;
+    private final LowOverheadTimer stopTimer;
+    private final LowOverheadTimer addTimer;
+    private final LowOverheadTimer forcedCoveringTimer;
 
     private int   countIterations   = 0;
     private int   maxWaitlistSize   = 0;
+    private int   currentWaitlistSize = 0;
     private long  countWaitlistSize = 0;
     private int   countSuccessors   = 0;
     private int   maxSuccessors     = 0;
@@ -94,6 +100,16 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
     private Map<String, AbstractStatValue> reachedSetStatistics = new HashMap<>();
 
+    private CPAStatistics(int pTimerSamplingRate) {
+      chooseTimer = new LowOverheadTimer("Time for choose from waitlist", pTimerSamplingRate);
+      precisionTimer = new LowOverheadTimer("Time for precision adjustment", pTimerSamplingRate);
+      transferTimer = new LowOverheadTimer("Time for transfer relation", pTimerSamplingRate);
+      mergeTimer = new LowOverheadTimer("Time for merge operator", pTimerSamplingRate);
+      stopTimer = new LowOverheadTimer("Time for stop operator", pTimerSamplingRate);
+      addTimer = new LowOverheadTimer("Time for adding to reached set", pTimerSamplingRate);
+      forcedCoveringTimer = new LowOverheadTimer("Time for forced covering", pTimerSamplingRate);
+    }
+
     @Override
     public String getName() {
       return "CPA algorithm";
@@ -132,8 +148,33 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       }
       out.println("  Time for stop operator:         " + stopTimer);
       out.println("  Time for adding to reached set: " + addTimer);
+      if (transferTimer.getSamplingRate() > 1) {
+        out.println(
+            "  Measured intervals per step:    "
+                + transferTimer.getNumberOfMeasuredIntervals()
+                + " of "
+                + transferTimer.getNumberOfIntervals()
+                + " (sampling rate "
+                + transferTimer.getSamplingRate()
+                + ")");
+      }
 
     }
+
+    @Override
+    public void collectMetrics(MetricsSnapshot pSnapshot) {
+      pSnapshot
+          .put("cpa_algorithm_iterations", countIterations)
+          .put("cpa_algorithm_waitlist_size", currentWaitlistSize)
+          .put("cpa_algorithm_max_waitlist_size", maxWaitlistSize)
+          .put("cpa_algorithm_successors", countSuccessors)
+          .put("cpa_algorithm_merges", countMerge)
+          .put("cpa_algorithm_stops", countStop)
+          .put("cpa_algorithm_precision_adjustment_seconds", precisionTimer.getSumTime())
+          .put("cpa_algorithm_transfer_seconds", transferTimer.getSumTime())
+          .put("cpa_algorithm_merge_seconds", mergeTimer.getSumTime())
+          .put("cpa_algorithm_stop_seconds", stopTimer.getSumTime());
+    }
   }
 
   @Options(prefix = "cpa")
@@ -150,6 +191,18 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         + " Useful for incomplete analysis with no counterexample checking.")
     private boolean reportFalseAsUnknown = false;
 
+    @Option(
+      secure = true,
+      description =
+          "Measure only every n-th execution of the single steps of the CPA algorithm"
+              + " (e.g., transfer relation, merge, stop) for the statistics."
+              + " The total times are extrapolated from the measured executions."
+              + " Values larger than 1 reduce the overhead of time measurement"
+              + " for analyses with cheap operations."
+    )
+    @IntegerOption(min = 1)
+    private int timerSamplingRate = 1;
+
     private final ForcedCovering forcedCovering;
 
     private final ConfigurableProgramAnalysis cpa;
@@ -174,7 +227,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
     @Override
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, reportFalseAsUnknown);
+      return new CPAAlgorithm(
+          cpa, logger, shutdownNotifier, forcedCovering, reportFalseAsUnknown, timerSamplingRate);
     }
   }
 
@@ -187,7 +241,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final ForcedCovering forcedCovering;
 
-  private final CPAStatistics               stats = new CPAStatistics();
+  private final CPAStatistics               stats;
 
   private final TransferRelation transferRelation;
   private final MergeOperator mergeOperator;
@@ -203,7 +257,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
-      boolean pIsImprecise) {
+      boolean pIsImprecise,
+      int pTimerSamplingRate) {
 
     transferRelation = cpa.getTransferRelation();
     mergeOperator = cpa.getMergeOperator();
@@ -213,6 +268,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.shutdownNotifier = pShutdownNotifier;
     this.forcedCovering = pForcedCovering;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+    stats = new CPAStatistics(pTimerSamplingRate);
   }
 
   @Override
@@ -270,6 +326,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         stats.maxWaitlistSize = size;
       }
       stats.countWaitlistSize += size;
+      stats.currentWaitlistSize = size;
 
       stats.chooseTimer.start();
       final AbstractState state = reachedSet.popFromWaitlist();
@@ -30,6 +30,7 @@ import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator
 import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition.getDefaultPartition;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.common.base.Throwables;
@@ -41,6 +42,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -62,10 +64,13 @@ import org.sosy_lab.common.configuration.AnnotatedValue;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
@@ -89,6 +94,7 @@ import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.globalinfo.GlobalInfo;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 import org.sosy_lab.cpachecker.util.resources.ThreadCpuTimeLimit;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 @Options(prefix = "parallelAlgorithm")
@@ -109,6 +115,38 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<AnnotatedValue<Path>> configFiles;
 
+  @Option(
+    secure = true,
+    description =
+        "Maximal number of analyses that run concurrently. Further analyses are started"
+            + " in the order of parallelAlgorithm.configFiles as soon as a running analysis"
+            + " terminates. 0 derives the number from the available processors and heap"
+            + " (cf. parallelAlgorithm.heapPerAnalysis), -1 runs all analyses at once."
+  )
+  @IntegerOption(min = -1)
+  private int maxConcurrentAnalyses = -1;
+
+  @Option(
+    secure = true,
+    description =
+        "Heap memory in MB that a single analysis is expected to need. If"
+            + " parallelAlgorithm.maxConcurrentAnalyses is 0, only as many analyses as fit"
+            + " into the maximal heap are run concurrently (0 to ignore the heap)."
+  )
+  @IntegerOption(min = 0)
+  private int heapPerAnalysis = 0;
+
+  @Option(
+    secure = true,
+    description =
+        "Thread CPU time that all analyses may use together (use seconds or specify a unit;"
+            + " -1 for infinite). Each analysis gets an equal share of the budget that is left"
+            + " when it is started, such that time not used by analyses that terminated early"
+            + " is given to the analyses started later."
+  )
+  @TimeSpanOption(codeUnit = TimeUnit.NANOSECONDS, defaultUserUnit = TimeUnit.SECONDS, min = -1)
+  private TimeSpan cpuTimeBudget = TimeSpan.ofNanos(-1);
+
   private static final String SUCCESS_MESSAGE =
       "One of the parallel analyses has finished successfully, cancelling all other runs.";
 
@@ -127,6 +165,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       new CopyOnWriteArrayList<>();
 
   private final ImmutableList<Callable<ParallelAnalysisResult>> analyses;
+  private final @Nullable CpuTimeBudget sharedCpuTimeBudget;
 
   public ParallelAlgorithm(
       Configuration config,
@@ -145,9 +184,16 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     specification = checkNotNull(pSpecification);
     cfa = checkNotNull(pCfa);
 
-    aggregatedReachedSetManager = new AggregatedReachedSetManager();
+    aggregatedReachedSetManager =
+        new AggregatedReachedSetManager(pAggregatedReachedSets.getBlackboard());
     aggregatedReachedSetManager.addAggregated(pAggregatedReachedSets);
 
+    if (cpuTimeBudget.compareTo(TimeSpan.empty()) >= 0) {
+      sharedCpuTimeBudget = new CpuTimeBudget(cpuTimeBudget.asNanos());
+    } else {
+      sharedCpuTimeBudget = null;
+    }
+
     ImmutableList.Builder<Callable<ParallelAnalysisResult>> analysesBuilder =
         ImmutableList.builder();
     for (AnnotatedValue<Path> p : configFiles) {
@@ -161,7 +207,26 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     mainEntryNode = AbstractStates.extractLocation(pReachedSet.getFirstState());
     ForwardingReachedSet forwardingReachedSet = (ForwardingReachedSet) pReachedSet;
 
-    ListeningExecutorService exec = listeningDecorator(newFixedThreadPool(analyses.size()));
+    int concurrentAnalyses =
+        determineConcurrentAnalyses(
+            analyses.size(),
+            maxConcurrentAnalyses,
+            heapPerAnalysis,
+            Runtime.getRuntime().availableProcessors(),
+            Runtime.getRuntime().maxMemory());
+    stats.maxConcurrentAnalyses = concurrentAnalyses;
+    stats.schedulingStartTime = System.nanoTime();
+    logger.log(
+        Level.FINE,
+        "Running at most",
+        concurrentAnalyses,
+        "of",
+        analyses.size(),
+        "analyses at once");
+
+    // The executor starts the analyses in the order of submission,
+    // i.e., in the order in which they were configured.
+    ListeningExecutorService exec = listeningDecorator(newFixedThreadPool(concurrentAnalyses));
 
     List<ListenableFuture<ParallelAnalysisResult>> futures = new ArrayList<>(analyses.size());
     for (Callable<ParallelAnalysisResult> call : analyses) {
@@ -192,6 +257,26 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     return AlgorithmStatus.UNSOUND_AND_PRECISE;
   }
 
+  /**
+   * Compute how many of the given number of analyses are run at once, see {@link
+   * #maxConcurrentAnalyses}. The result is always at least 1.
+   */
+  @VisibleForTesting
+  static int determineConcurrentAnalyses(
+      int pAnalyses, int pMaxConcurrent, int pHeapPerAnalysis, int pProcessors, long pMaxHeap) {
+    int result = pAnalyses;
+    if (pMaxConcurrent > 0) {
+      result = Math.min(result, pMaxConcurrent);
+    } else if (pMaxConcurrent == 0) {
+      result = Math.min(result, pProcessors);
+      if (pHeapPerAnalysis > 0) {
+        long fittingIntoHeap = pMaxHeap / (pHeapPerAnalysis * 1024L * 1024L);
+        result = (int) Math.min(result, fittingIntoHeap);
+      }
+    }
+    return Math.max(1, result);
+  }
+
   private static boolean awaitTermination(
       ListeningExecutorService exec, long timeout, TimeUnit unit) {
     long timeoutNanos = unit.toNanos(timeout);
@@ -305,6 +390,10 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       supplyRefinableReached = false;
     }
 
+    if (sharedCpuTimeBudget != null) {
+      sharedCpuTimeBudget.register();
+    }
+
     final ResourceLimitChecker singleAnalysisOverallLimit =
         ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, singleShutdownManager);
 
@@ -324,54 +413,96 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
         stats.getNewSubStatistics(
             reached,
             singleConfigFileName.toString(),
+            analysisNumber,
             Iterables.getOnlyElement(
                 FluentIterable.from(singleAnalysisOverallLimit.getResourceLimits())
                     .filter(ThreadCpuTimeLimit.class),
                 null), terminated);
     return () -> {
-      // TODO global info will not work correctly with parallel analyses
-      // as it is a mutable singleton object
-      GlobalInfo.getInstance().setUpInfoFromCPA(cpa);
-
-      if (algorithm instanceof ConditionAdjustmentEventSubscriber) {
-        conditionAdjustmentEventSubscribers.add((ConditionAdjustmentEventSubscriber) algorithm);
+      statisticsEntry.started = true;
+      final long startCpuTime = getCurrentThreadCpuTime();
+      final long reservedCpuTime;
+      final ResourceLimitChecker budgetLimit;
+      if (sharedCpuTimeBudget != null) {
+        reservedCpuTime = Math.max(1, sharedCpuTimeBudget.reserve());
+        budgetLimit =
+            ResourceLimitChecker.createThreadCpuTimeLimitChecker(
+                singleLogger,
+                singleShutdownManager,
+                TimeSpan.ofNanos(reservedCpuTime),
+                Thread.currentThread());
+        budgetLimit.start();
+        stats.logSchedulingDecision(
+            "started "
+                + singleConfigFileName
+                + " with a CPU-time budget of "
+                + TimeSpan.ofNanos(reservedCpuTime).formatAs(TimeUnit.SECONDS));
+      } else {
+        reservedCpuTime = 0;
+        budgetLimit = null;
+        stats.logSchedulingDecision("started " + singleConfigFileName);
       }
 
-      singleAnalysisOverallLimit.start();
+      try {
+        // TODO global info will not work correctly with parallel analyses
+        // as it is a mutable singleton object
+        GlobalInfo.getInstance().setUpInfoFromCPA(cpa);
 
-      if (cpa instanceof StatisticsProvider) {
-        ((StatisticsProvider) cpa).collectStatistics(statisticsEntry.subStatistics);
-      }
+        if (algorithm instanceof ConditionAdjustmentEventSubscriber) {
+          conditionAdjustmentEventSubscribers.add((ConditionAdjustmentEventSubscriber) algorithm);
+        }
 
-      if (algorithm instanceof StatisticsProvider) {
-        ((StatisticsProvider) algorithm).collectStatistics(statisticsEntry.subStatistics);
-      }
+        singleAnalysisOverallLimit.start();
 
-      try {
-        initializeReachedSet(cpa, mainEntryNode, reached);
-      } catch (InterruptedException e) {
-        singleLogger.logUserException(
-            Level.INFO, e, "Initializing reached set took too long, analysis cannot be started");
+        if (cpa instanceof StatisticsProvider) {
+          ((StatisticsProvider) cpa).collectStatistics(statisticsEntry.subStatistics);
+        }
+
+        if (algorithm instanceof StatisticsProvider) {
+          ((StatisticsProvider) algorithm).collectStatistics(statisticsEntry.subStatistics);
+        }
+
+        try {
+          initializeReachedSet(cpa, mainEntryNode, reached);
+        } catch (InterruptedException e) {
+          singleLogger.logUserException(
+              Level.INFO, e, "Initializing reached set took too long, analysis cannot be started");
+          terminated.set(true);
+          return ParallelAnalysisResult.absent(singleConfigFileName.toString());
+        }
+
+        ParallelAnalysisResult r =
+            runParallelAnalysis(
+                singleConfigFileName.toString(),
+                algorithm,
+                reached,
+                singleLogger,
+                cpa,
+                supplyReached,
+                supplyRefinableReached,
+                coreComponents,
+                statisticsEntry);
         terminated.set(true);
-        return ParallelAnalysisResult.absent(singleConfigFileName.toString());
+        return r;
+      } finally {
+        long usedCpuTime = getCurrentThreadCpuTime() - startCpuTime;
+        if (budgetLimit != null) {
+          budgetLimit.cancel();
+          sharedCpuTimeBudget.release(reservedCpuTime, usedCpuTime);
+        }
+        stats.logSchedulingDecision(
+            singleConfigFileName
+                + " terminated after using "
+                + TimeSpan.ofNanos(usedCpuTime).formatAs(TimeUnit.SECONDS)
+                + " of CPU time");
       }
-
-      ParallelAnalysisResult r =
-          runParallelAnalysis(
-              singleConfigFileName.toString(),
-              algorithm,
-              reached,
-              singleLogger,
-              cpa,
-              supplyReached,
-              supplyRefinableReached,
-              coreComponents,
-              statisticsEntry);
-      terminated.set(true);
-      return r;
     };
   }
 
+  private static long getCurrentThreadCpuTime() {
+    return ManagementFactory.getThreadMXBean().getCurrentThreadCpuTime();
+  }
+
   private ParallelAnalysisResult runParallelAnalysis(
       final String analysisName,
       final Algorithm algorithm,
@@ -579,7 +710,10 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
 
     private final LogManager logger;
     private final List<StatisticsEntry> allAnalysesStats = new CopyOnWriteArrayList<>();
+    private final List<String> schedulingDecisions = new CopyOnWriteArrayList<>();
+    private volatile long schedulingStartTime = 0;
     private int noOfAlgorithmsUsed = 0;
+    private int maxConcurrentAnalyses = 0;
     private String successfulAnalysisName = null;
 
     ParallelAlgorithmStatistics(LogManager pLogger) {
@@ -587,13 +721,29 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     }
 
     public synchronized StatisticsEntry getNewSubStatistics(
-        ReachedSet pReached, String pName, @Nullable ThreadCpuTimeLimit pRLimit, AtomicBoolean pTerminated) {
+        ReachedSet pReached,
+        String pName,
+        int pNumber,
+        @Nullable ThreadCpuTimeLimit pRLimit,
+        AtomicBoolean pTerminated) {
       Collection<Statistics> subStats = new CopyOnWriteArrayList<>();
-      StatisticsEntry entry = new StatisticsEntry(subStats, pReached, pName, pRLimit, pTerminated);
+      StatisticsEntry entry =
+          new StatisticsEntry(subStats, pReached, pName, pNumber, pRLimit, pTerminated);
       allAnalysesStats.add(entry);
       return entry;
     }
 
+    void logSchedulingDecision(String pDecision) {
+      String decision =
+          String.format(
+              "%8s: %s",
+              TimeSpan.ofNanos(System.nanoTime() - schedulingStartTime)
+                  .formatAs(TimeUnit.SECONDS),
+              pDecision);
+      logger.log(Level.FINE, decision);
+      schedulingDecisions.add(decision);
+    }
+
     @Override
     public String getName() {
       return "Parallel Algorithm";
@@ -602,9 +752,14 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
     @Override
     public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
+      out.println("Max. concurrent analyses:         " + maxConcurrentAnalyses);
       if (successfulAnalysisName != null) {
         out.println("Successful analysis: " + successfulAnalysisName);
       }
+      if (!schedulingDecisions.isEmpty()) {
+        out.println("Scheduling of analyses:");
+        schedulingDecisions.forEach(decision -> out.println("  " + decision));
+      }
       printSubStatistics(out, result);
     }
 
@@ -623,7 +778,9 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
                   + subStats.rLimit.getOverallUsedTime().formatAs(TimeUnit.SECONDS));
         }
         boolean terminated = subStats.terminated.get();
-        if (terminated) {
+        if (!subStats.started) {
+          pOut.println("Analysis was not started.");
+        } else if (terminated) {
           Result result = determineAnalysisResult(pResult, subStats.name);
           for (Statistics s : subStats.subStatistics) {
             StatisticsUtils.printStatistics(s, pOut, logger, result, subStats.reachedSet.get());
@@ -641,6 +798,31 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
       pOut.println("================");
     }
 
+    /**
+     * The metrics of each analysis are prefixed with its number, because the analyses run
+     * concurrently and use the same metric names. This includes the size of the reached set of
+     * each analysis, the reached set of the main analysis is only set after all analyses finished.
+     */
+    @Override
+    public void collectMetrics(MetricsSnapshot pSnapshot) {
+      int running = 0;
+      for (StatisticsEntry subStats : allAnalysesStats) {
+        if (!subStats.started) {
+          continue;
+        }
+        if (!subStats.terminated.get()) {
+          running++;
+        }
+        MetricsSnapshot analysisSnapshot =
+            pSnapshot.withPrefix("parallel_analysis" + subStats.number + "_");
+        analysisSnapshot.put("reached_set_size", subStats.reachedSet.get().size());
+        for (Statistics s : subStats.subStatistics) {
+          s.collectMetrics(analysisSnapshot);
+        }
+      }
+      pSnapshot.put("parallel_algorithm_running_analyses", running);
+    }
+
     @Override
     public void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {
       StatisticsEntry successfullAnalysisStats = null;
@@ -688,6 +870,7 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
+    pStatsCollection.add(aggregatedReachedSetManager.asView().getBlackboard().getStatistics());
   }
 
   private static class StatisticsEntry {
@@ -698,20 +881,62 @@ public class ParallelAlgorithm implements Algorithm, StatisticsProvider {
 
     private final String name;
 
+    private final int number;
+
     private final @Nullable ThreadCpuTimeLimit rLimit;
 
     private final AtomicBoolean terminated;
 
-    public StatisticsEntry(Collection<Statistics> pSubStatistics, ReachedSet pReachedSet, String pName, @Nullable ThreadCpuTimeLimit pRLimit, AtomicBoolean pTerminated) {
+    private volatile boolean started = false;
+
+    public StatisticsEntry(
+        Collection<Statistics> pSubStatistics,
+        ReachedSet pReachedSet,
+        String pName,
+        int pNumber,
+        @Nullable ThreadCpuTimeLimit pRLimit,
+        AtomicBoolean pTerminated) {
       subStatistics = Objects.requireNonNull(pSubStatistics);
       reachedSet = new AtomicReference<>(Objects.requireNonNull(pReachedSet));
       name = Objects.requireNonNull(pName);
+      number = pNumber;
       rLimit = pRLimit;
       terminated = Objects.requireNonNull(pTerminated);
     }
 
   }
 
+  /**
+   * Thread CPU time shared by the analyses of the portfolio, see {@link
+   * ParallelAlgorithm#cpuTimeBudget}.
+   */
+  @VisibleForTesting
+  static final class CpuTimeBudget {
+
+    private long remaining;
+    private int analysesNotStarted = 0;
+
+    CpuTimeBudget(long pBudget) {
+      remaining = pBudget;
+    }
+
+    synchronized void register() {
+      analysesNotStarted++;
+    }
+
+    synchronized long reserve() {
+      Preconditions.checkState(analysesNotStarted > 0);
+      long share = remaining / analysesNotStarted;
+      analysesNotStarted--;
+      remaining -= share;
+      return share;
+    }
+
+    synchronized void release(long pReserved, long pUsed) {
+      remaining += Math.max(0, pReserved - pUsed);
+    }
+  }
+
   public interface ReachedSetUpdateListener {
 
     void updated(ReachedSet pReachedSet);
@@ -0,0 +1,96 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.determineConcurrentAnalyses;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.algorithm.ParallelAlgorithm.CpuTimeBudget;
+
+public class ParallelAlgorithmTest {
+
+  private static final long MB = 1024L * 1024L;
+
+  @Test
+  public void testAllAnalysesAtOnceByDefault() {
+    assertThat(determineConcurrentAnalyses(5, -1, 0, 2, 100 * MB)).isEqualTo(5);
+    // the heap is only considered if the number is derived from the resources
+    assertThat(determineConcurrentAnalyses(5, -1, 1000, 2, 100 * MB)).isEqualTo(5);
+  }
+
+  @Test
+  public void testExplicitLimit() {
+    assertThat(determineConcurrentAnalyses(5, 2, 0, 8, 100 * MB)).isEqualTo(2);
+    assertThat(determineConcurrentAnalyses(5, 1, 0, 8, 100 * MB)).isEqualTo(1);
+    assertThat(determineConcurrentAnalyses(3, 10, 0, 8, 100 * MB)).isEqualTo(3);
+  }
+
+  @Test
+  public void testLimitFromResources() {
+    assertThat(determineConcurrentAnalyses(5, 0, 0, 4, 100 * MB)).isEqualTo(4);
+    assertThat(determineConcurrentAnalyses(3, 0, 0, 4, 100 * MB)).isEqualTo(3);
+    assertThat(determineConcurrentAnalyses(5, 0, 30, 4, 100 * MB)).isEqualTo(3);
+    assertThat(determineConcurrentAnalyses(5, 0, 10, 4, 100 * MB)).isEqualTo(4);
+    // at least one analysis is always run
+    assertThat(determineConcurrentAnalyses(5, 0, 200, 4, 100 * MB)).isEqualTo(1);
+  }
+
+  @Test
+  public void testCpuTimeBudgetIsSharedEqually() {
+    CpuTimeBudget budget = new CpuTimeBudget(90);
+    budget.register();
+    budget.register();
+    budget.register();
+    assertThat(budget.reserve()).isEqualTo(30);
+    assertThat(budget.reserve()).isEqualTo(30);
+    assertThat(budget.reserve()).isEqualTo(30);
+  }
+
+  @Test
+  public void testUnusedCpuTimeIsReturned() {
+    CpuTimeBudget budget = new CpuTimeBudget(90);
+    budget.register();
+    budget.register();
+    budget.register();
+
+    long first = budget.reserve();
+    assertThat(first).isEqualTo(30);
+    budget.release(first, 10);
+    long second = budget.reserve();
+    assertThat(second).isEqualTo(40);
+
+    // exceeding the reservation does not take time from the others
+    budget.release(second, 50);
+    assertThat(budget.reserve()).isEqualTo(40);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testReserveWithoutRegistration() {
+    CpuTimeBudget budget = new CpuTimeBudget(90);
+    budget.register();
+    budget.reserve();
+    budget.reserve();
+  }
+}
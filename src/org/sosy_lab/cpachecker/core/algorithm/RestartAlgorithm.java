@@ -80,6 +80,7 @@ import org.sosy_lab.cpachecker.exceptions.RefinementFailedException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
 import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 
 @Options(prefix = "restartAlgorithm")
 public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpdater {
@@ -132,6 +133,22 @@ public class RestartAlgorithm extends NestingAlgorithm implements ReachedSetUpda
       out.println("Total time for algorithm " + noOfAlgorithmsUsed + ": " + totalTime);
       super.printStatistics(out, result, reached);
     }
+
+    /**
+     * The sub-statistics belong to the current analysis only, their metrics are prefixed with the
+     * number of this analysis such that they can be distinguished from those of previous
+     * analyses.
+     */
+    @Override
+    public void collectMetrics(MetricsSnapshot pSnapshot) {
+      int currentAlgorithm = noOfAlgorithmsUsed;
+      pSnapshot.put("restart_algorithm_analyses_used", currentAlgorithm);
+      MetricsSnapshot analysisSnapshot =
+          pSnapshot.withPrefix("restart_analysis" + currentAlgorithm + "_");
+      for (Statistics s : getSubStatistics()) {
+        s.collectMetrics(analysisSnapshot);
+      }
+    }
   }
 
   @Option(
@@ -117,6 +117,17 @@ public class ExpressionTreeLocationInvariant extends SingleLocationFormulaInvari
     return ExpressionTrees.cast(expressionTree);
   }
 
+  /**
+   * Returns an equivalent invariant that does not share the cache of formula visitors with this
+   * one, such that it can safely be handed to another thread.
+   */
+  public ExpressionTreeLocationInvariant withoutVisitorCache() {
+    if (visitorCache == null) {
+      return this;
+    }
+    return new ExpressionTreeLocationInvariant(groupId, location, expressionTree);
+  }
+
   public String getGroupId() {
     return groupId;
   }
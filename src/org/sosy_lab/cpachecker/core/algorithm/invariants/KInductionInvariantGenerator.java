@@ -119,6 +119,8 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard.Participant;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
@@ -296,6 +298,8 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
               .filter(Predicates.not(Predicates.instanceOf(TargetLocationCandidateInvariant.class)))
               .size();
     }
+    Participant sharedResults =
+        pAggregatedReachedSets.getBlackboard().register("k-induction invariant generator");
     CandidateGenerator statisticsCandidateGenerator =
         new CandidateGenerator() {
 
@@ -345,6 +349,11 @@ public class KInductionInvariantGenerator extends AbstractInvariantGenerator
               if (!(invariant instanceof TargetLocationCandidateInvariant)
                   && confirmedCandidates.add(invariant)) {
                 ++stats.numberOfConfirmedCandidates;
+                if (invariant instanceof ExpressionTreeLocationInvariant) {
+                  sharedResults.publish(
+                      ResultBlackboard.INVARIANTS,
+                      ((ExpressionTreeLocationInvariant) invariant).withoutVisitorCache());
+                }
               }
             }
           }
@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.core.algorithm.mpv;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
@@ -36,17 +38,24 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownManager;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -77,7 +86,10 @@ import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 /**
  * This is an implementation of multi-property verification algorithm, which was presented in the
@@ -90,7 +102,8 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
   private class MPVStatistics implements Statistics {
 
     private final Timer totalTimer = new Timer();
-    private final Timer createPartitionsTimer = new Timer();
+    private final ThreadSafeTimerContainer createPartitionsTimer =
+        new ThreadSafeTimerContainer("Total wall time for creating partitions");
 
     private int iterationNumber;
     private final List<Partition> partitions;
@@ -234,6 +247,24 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
           "Ignore exceptions, which may be caused by checking of some properties, to successfully check the others.")
   private boolean ignoreInnerExceptions = false;
 
+  @Option(
+      secure = true,
+      name = "parallel",
+      description =
+          "Check the partitions of properties, which are created in one step of the partitioning "
+              + "operator, in parallel. Each partition is checked by its own CPA instance with its "
+              + "own CPU time limit, which is measured for the thread checking the partition.")
+  private boolean parallel = false;
+
+  @Option(
+      secure = true,
+      name = "threads",
+      description =
+          "Number of threads for checking partitions in parallel, if mpv.parallel is enabled. "
+              + "The value 0 uses as many threads as processors are available.")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
   private final MPVStatistics stats;
   private final ConfigurableProgramAnalysis cpa;
   private final LogManager logger;
@@ -355,61 +386,41 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
       do {
         // Distribute all checking properties into several partitions
         ImmutableList<Partition> partitions = partitioningOperator.createPartitions();
-        int partitionNumber = 0;
         logger.log(Level.FINER, "Using the following partitions of properties:", partitions);
-        // Check each partition of properties
-        for (Partition partition : partitions) {
-          int numberOfProperties = partition.getNumberOfProperties();
-          if (numberOfProperties <= 0) {
-            // Shortcut - empty partition
-            continue;
-          }
-          stats.partitions.add(partition);
-          adjustTimeLimit(partition, partitions.size(), partitionNumber);
-          partitionNumber++;
-          ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
-          // Limit resources for partition
-          ResourceLimitChecker limits =
-              ResourceLimitChecker.createCpuTimeLimitChecker(
-                  logger, shutdownManager, partition.getTimeLimit());
-          limits.start();
-
-          // Create inner algorithm, that will check the partition
-          Algorithm algorithm = createInnerAlgorithm(reached, mainFunction, shutdownManager);
-          multipleProperties.setTargetProperties(partition.getProperties(), reached);
-          try {
-            partition.startAnalysis();
-            logger.log(
-                Level.INFO,
-                "Iteration",
-                stats.iterationNumber,
-                ": checking partition",
-                partition,
-                "with",
-                numberOfProperties,
-                "properties");
-            do {
-              status = status.update(algorithm.run(reached));
-            } while (!partition.isChecked(reached));
-          } catch (InterruptedException e) {
-            if (shutdownNotifier.shouldShutdown()) {
-              // If interrupted by outer limit checker or by the user, then stop algorithm
-              partition.stopAnalysisOnFailure(reached, "Interrupted");
-              throw e;
-            } else {
-              // If interrupted by inner limit checker, then continue the algorithm
-              logger.log(Level.INFO, "Partition has exhausted resource limitations:", e);
-              partition.stopAnalysisOnFailure(reached, "Inner time limit");
+        if (parallel) {
+          status =
+              status.update(
+                  checkPartitionsInParallel(partitions, (MPVReachedSet) reached, mainFunction));
+        } else {
+          int partitionNumber = 0;
+          // Check each partition of properties
+          for (Partition partition : partitions) {
+            if (partition.getNumberOfProperties() <= 0) {
+              // Shortcut - empty partition
+              continue;
             }
-          } catch (Exception e) {
-            partition.stopAnalysisOnFailure(reached, e.getClass().getSimpleName());
-            if (ignoreInnerExceptions) {
-              logger.log(Level.INFO, "Exception occured during partition checking:", e);
-            } else {
-              throw e;
+            stats.partitions.add(partition);
+            adjustTimeLimit(partition, partitions.size(), partitionNumber);
+            partitionNumber++;
+            ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+            // Limit resources for partition
+            ResourceLimitChecker limits =
+                ResourceLimitChecker.createCpuTimeLimitChecker(
+                    logger, shutdownManager, partition.getTimeLimit());
+            limits.start();
+
+            try {
+              // Create inner algorithm, that will check the partition
+              Algorithm algorithm = createInnerAlgorithm(reached, mainFunction, shutdownManager);
+              multipleProperties.setTargetProperties(partition.getProperties(), reached);
+              partition.startAnalysis();
+              status =
+                  status.update(
+                      checkPartition(
+                          partition, algorithm, reached, logger, stats.iterationNumber));
+            } finally {
+              limits.cancel();
             }
-          } finally {
-            limits.cancel();
           }
         }
         // Continue the algorithm, until all properties are not checked
@@ -420,6 +431,147 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /**
+   * Run the given algorithm until the partition is checked or its resource limitations are
+   * exhausted.
+   */
+  private AlgorithmStatus checkPartition(
+      Partition partition,
+      Algorithm algorithm,
+      ReachedSet reached,
+      LogManager partitionLogger,
+      int iteration)
+      throws CPAException, InterruptedException {
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    try {
+      partitionLogger.log(
+          Level.INFO,
+          "Iteration",
+          iteration,
+          ": checking partition",
+          partition,
+          "with",
+          partition.getNumberOfProperties(),
+          "properties");
+      do {
+        status = status.update(algorithm.run(reached));
+      } while (!partition.isChecked(reached));
+    } catch (InterruptedException e) {
+      if (shutdownNotifier.shouldShutdown()) {
+        // If interrupted by outer limit checker or by the user, then stop algorithm
+        partition.stopAnalysisOnFailure(reached, "Interrupted");
+        throw e;
+      } else {
+        // If interrupted by inner limit checker, then continue the algorithm
+        partitionLogger.log(Level.INFO, "Partition has exhausted resource limitations:", e);
+        partition.stopAnalysisOnFailure(reached, "Inner time limit");
+      }
+    } catch (Exception e) {
+      partition.stopAnalysisOnFailure(reached, e.getClass().getSimpleName());
+      if (ignoreInnerExceptions) {
+        partitionLogger.log(Level.INFO, "Exception occured during partition checking:", e);
+      } else {
+        throw e;
+      }
+    }
+    return status;
+  }
+
+  /**
+   * Check all partitions concurrently. Partitions of one step of the partitioning operator contain
+   * disjoint sets of properties, so each property is only updated by the thread checking its
+   * partition. Every partition gets its own CPA, reached set and CPU time limit, only the CFA and
+   * the specification automata are shared. Afterwards the reached set of the last partition is
+   * used as the delegate of the given reached set, as after checking the partitions sequentially.
+   */
+  private AlgorithmStatus checkPartitionsInParallel(
+      ImmutableList<Partition> partitions, MPVReachedSet reached, CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    ImmutableList<Partition> nonEmptyPartitions =
+        FluentIterable.from(partitions).filter(p -> p.getNumberOfProperties() > 0).toList();
+    if (nonEmptyPartitions.isEmpty()) {
+      return AlgorithmStatus.SOUND_AND_PRECISE;
+    }
+    // Adjust all limits before starting, such that they do not depend on the thread schedule
+    for (int i = 0; i < nonEmptyPartitions.size(); i++) {
+      stats.partitions.add(nonEmptyPartitions.get(i));
+      adjustTimeLimit(nonEmptyPartitions.get(i), partitions.size(), i);
+    }
+
+    int numThreads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    ExecutorService executor =
+        Executors.newFixedThreadPool(Math.min(numThreads, nonEmptyPartitions.size()));
+    List<ShutdownManager> shutdownManagers = new ArrayList<>(nonEmptyPartitions.size());
+    List<Future<AlgorithmStatus>> futures = new ArrayList<>(nonEmptyPartitions.size());
+    AtomicReference<ReachedSet> lastReached = new AtomicReference<>();
+
+    for (int i = 0; i < nonEmptyPartitions.size(); i++) {
+      Partition partition = nonEmptyPartitions.get(i);
+      boolean isLastPartition = i == nonEmptyPartitions.size() - 1;
+      int iteration = ++stats.iterationNumber;
+      ShutdownManager shutdownManager = ShutdownManager.createWithParent(shutdownNotifier);
+      shutdownManagers.add(shutdownManager);
+      futures.add(
+          executor.submit(
+              () -> {
+                LogManager partitionLogger = logger.withComponentName("MPV partition " + iteration);
+                ResourceLimitChecker limits =
+                    ResourceLimitChecker.createThreadCpuTimeLimitChecker(
+                        partitionLogger,
+                        shutdownManager,
+                        partition.getTimeLimit(),
+                        Thread.currentThread());
+                limits.start();
+                try {
+                  Pair<Algorithm, ReachedSet> analysis =
+                      createPartitionAnalysis(
+                          mainFunction, shutdownManager.getNotifier(), partitionLogger);
+                  ReachedSet partitionReached = analysis.getSecond();
+                  multipleProperties.setTargetProperties(
+                      partition.getProperties(), partitionReached);
+                  partition.startAnalysis(Thread.currentThread());
+                  AlgorithmStatus partitionStatus =
+                      checkPartition(
+                          partition, analysis.getFirst(), partitionReached, partitionLogger,
+                          iteration);
+                  if (isLastPartition) {
+                    lastReached.set(partitionReached);
+                  }
+                  return partitionStatus;
+                } finally {
+                  limits.cancel();
+                }
+              }));
+    }
+    executor.shutdown();
+
+    AlgorithmStatus status = AlgorithmStatus.SOUND_AND_PRECISE;
+    boolean success = false;
+    try {
+      // Combine the results in the order of the partitions, not in the order of termination
+      for (Future<AlgorithmStatus> future : futures) {
+        status = status.update(future.get());
+      }
+      success = true;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.propagateIfPossible(cause, CPAException.class, InterruptedException.class);
+      throw new UnexpectedCheckedException("checking of property partition", cause);
+    } finally {
+      if (!success) {
+        for (ShutdownManager shutdownManager : shutdownManagers) {
+          shutdownManager.requestShutdown("Checking of another partition failed");
+        }
+      }
+      executor.shutdownNow();
+    }
+
+    if (lastReached.get() != null) {
+      reached.setDelegate(lastReached.get());
+    }
+    return status;
+  }
+
   private void adjustTimeLimit(
       Partition partition, int overallPartitions, int currentPartitionNumber) {
     if (limitsAdjustmentStrategy.equals(LimitAdjustmentStrategy.NONE)) {
@@ -469,8 +621,9 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
   private Algorithm createInnerAlgorithm(
       ReachedSet reached, CFANode mainFunction, ShutdownManager shutdownManager)
       throws InterruptedException, CPAException {
+    TimerWrapper createPartitionTimer = stats.createPartitionsTimer.getNewTimer();
     try {
-      stats.createPartitionsTimer.start();
+      createPartitionTimer.start();
       if (stats.iterationNumber > 0) {
         // Clear reached set for further iterations.
         reached.clear();
@@ -482,23 +635,54 @@ public class MPVAlgorithm implements Algorithm, StatisticsProvider {
       }
       stats.iterationNumber++;
 
-      ConfigurationBuilder innerConfigBuilder = Configuration.builder();
-      innerConfigBuilder.copyFrom(config);
-      innerConfigBuilder.clearOption("analysis.algorithm.MPV"); // to prevent infinite recursion
-      Configuration singleConfig = innerConfigBuilder.build();
       CoreComponentsFactory coreComponents =
-          new CoreComponentsFactory(
-              singleConfig, logger, shutdownManager.getNotifier(), new AggregatedReachedSets());
+          createInnerCoreComponents(shutdownManager.getNotifier(), logger);
 
       return coreComponents.createAlgorithm(cpa, cfa, specification);
     } catch (InvalidConfigurationException e) {
       // Should be unreachable, since configuration is already checked
       throw new CPAException("Cannot create configuration for inner algorithm", e);
     } finally {
-      stats.createPartitionsTimer.stop();
+      createPartitionTimer.stop();
     }
   }
 
+  /** Create a new CPA with its own reached set and algorithm for checking a single partition. */
+  private Pair<Algorithm, ReachedSet> createPartitionAnalysis(
+      CFANode mainFunction, ShutdownNotifier partitionShutdownNotifier, LogManager partitionLogger)
+      throws InterruptedException, CPAException {
+    TimerWrapper createPartitionTimer = stats.createPartitionsTimer.getNewTimer();
+    try {
+      createPartitionTimer.start();
+      CoreComponentsFactory coreComponents =
+          createInnerCoreComponents(partitionShutdownNotifier, partitionLogger);
+      ConfigurableProgramAnalysis partitionCpa = coreComponents.createCPA(cfa, specification);
+      ReachedSet partitionReached = coreComponents.createReachedSet();
+      partitionReached.add(
+          partitionCpa.getInitialState(mainFunction, StateSpacePartition.getDefaultPartition()),
+          partitionCpa.getInitialPrecision(
+              mainFunction, StateSpacePartition.getDefaultPartition()));
+      return Pair.of(
+          coreComponents.createAlgorithm(partitionCpa, cfa, specification), partitionReached);
+    } catch (InvalidConfigurationException e) {
+      // Should be unreachable, since configuration is already checked
+      throw new CPAException("Cannot create configuration for inner algorithm", e);
+    } finally {
+      createPartitionTimer.stop();
+    }
+  }
+
+  private CoreComponentsFactory createInnerCoreComponents(
+      ShutdownNotifier innerShutdownNotifier, LogManager innerLogger)
+      throws InvalidConfigurationException {
+    ConfigurationBuilder innerConfigBuilder = Configuration.builder();
+    innerConfigBuilder.copyFrom(config);
+    innerConfigBuilder.clearOption("analysis.algorithm.MPV"); // to prevent infinite recursion
+    Configuration singleConfig = innerConfigBuilder.build();
+    return new CoreComponentsFactory(
+        singleConfig, innerLogger, innerShutdownNotifier, new AggregatedReachedSets());
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
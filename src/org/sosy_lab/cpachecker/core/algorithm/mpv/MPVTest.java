@@ -184,6 +184,19 @@ public class MPVTest {
     return builder.build();
   }
 
+  private Map<String, String> createParallelConfig(
+      final String[] automataFiles,
+      String propertySeparator,
+      String partitioningOperator,
+      boolean findAllViolations) {
+    return ImmutableMap.<String, String>builder()
+        .putAll(
+            createConfig(automataFiles, propertySeparator, partitioningOperator, findAllViolations))
+        .put("mpv.parallel", "true")
+        .put("mpv.threads", "3")
+        .build();
+  }
+
   private List<AbstractSingleProperty> parseResult(CPAcheckerResult result)
       throws UnsupportedEncodingException {
     // Get property names with their results based on 'printResult'
@@ -384,6 +397,46 @@ public class MPVTest {
     checkResults(results, idealResults, Result.UNKNOWN);
   }
 
+  @Test
+  public void parallelSeparatePartitioning() throws Exception {
+    TestResults results =
+        CPATestRunner.run(
+            createParallelConfig(
+                AUTOMATA_FILES, "AUTOMATON", "SeparatePartitioningOperator", false),
+            SIMPLE_TEST);
+    checkResults(results, BASIC_IDEAL_RESULTS, Result.FALSE);
+  }
+
+  @Test
+  public void parallelRelevancePartitioning() throws Exception {
+    TestResults results =
+        CPATestRunner.run(
+            createParallelConfig(
+                AUTOMATA_FILES, "AUTOMATON", "RelevancePartitioningOperator", false),
+            SIMPLE_TEST);
+    checkResults(results, BASIC_IDEAL_RESULTS, Result.FALSE);
+  }
+
+  @Test
+  public void parallelMeaPartialResult() throws Exception {
+    TestResults results =
+        CPATestRunner.run(
+            createParallelConfig(
+                AUTOMATA_FILES, "AUTOMATON", "SeparatePartitioningOperator", true),
+            MEA_TEST);
+    checkResults(results, MEA_IDEAL_RESULTS, Result.FALSE);
+  }
+
+  @Test
+  public void parallelInnerTimeLimit() throws Exception {
+    TestResults results =
+        CPATestRunner.run(
+            createParallelConfig(
+                AUTOMATA_FILES, "AUTOMATON", "SeparatePartitioningOperator", false),
+            ITL_TEST);
+    checkResults(results, ITL_IDEAL_RESULTS, Result.FALSE);
+  }
+
   @Test
   public void badSeparator() throws Exception {
     TestResults results =
@@ -19,6 +19,8 @@
  */
 package org.sosy_lab.cpachecker.core.algorithm.mpv.partition;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
+import java.lang.management.ManagementFactory;
 import javax.management.JMException;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.algorithm.mpv.property.MultipleProperties;
@@ -36,6 +38,8 @@ public final class Partition {
       isAssignUnknown; // whether treat analysis failure as Unknown for checked properties or not
   private long cpuTime = 0;
   private TimeSpan spentCpuTime = TimeSpan.ofNanos(-1);
+  // if set, only the CPU time of this thread is accounted to the partition
+  private @Nullable Thread analysisThread = null;
 
   public Partition(
       MultipleProperties pProperties, TimeSpan pPartitionTimeLimit, boolean pIsAssignUnknown) {
@@ -51,13 +55,31 @@ public final class Partition {
   /** Prepare partition for algorithm run. */
   public void startAnalysis() {
     try {
-      cpuTime = ProcessCpuTime.read();
+      cpuTime = readCpuTime();
     } catch (JMException | NoClassDefFoundError e) {
       // user was already warned in MainCPAStatistics
       cpuTime = -1;
     }
   }
 
+  /**
+   * Prepare partition for algorithm run in the given thread, which checks only this partition. In
+   * contrast to {@link #startAnalysis()} only the CPU time of this thread is considered as spent
+   * on this partition, which is necessary if several partitions are checked in parallel.
+   */
+  public void startAnalysis(Thread pAnalysisThread) {
+    analysisThread = pAnalysisThread;
+    startAnalysis();
+  }
+
+  private long readCpuTime() throws JMException {
+    if (analysisThread == null) {
+      return ProcessCpuTime.read();
+    }
+    // returns -1 if measuring thread CPU time is not supported
+    return ManagementFactory.getThreadMXBean().getThreadCpuTime(analysisThread.getId());
+  }
+
   /** Stop checking of the partition on algorithm failure. */
   public void stopAnalysisOnFailure(ReachedSet reached, String reason) {
     if (isAssignUnknown) {
@@ -117,8 +139,8 @@ public final class Partition {
       return spentCpuTime;
     }
     try {
-      long stopCpuTime = ProcessCpuTime.read();
-      if (cpuTime >= 0) {
+      long stopCpuTime = readCpuTime();
+      if (cpuTime >= 0 && stopCpuTime >= 0) {
         cpuTime = stopCpuTime - cpuTime;
       }
     } catch (JMException | NoClassDefFoundError e) {
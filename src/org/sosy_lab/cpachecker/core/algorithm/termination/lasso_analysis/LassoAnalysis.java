@@ -29,8 +29,10 @@ import static java.util.logging.Level.FINER;
 import static java.util.logging.Level.WARNING;
 import static org.sosy_lab.java_smt.SolverContextFactory.Solvers.SMTINTERPOL;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import de.uni_freiburg.informatik.ultimate.lassoranker.AnalysisType;
 import de.uni_freiburg.informatik.ultimate.lassoranker.Lasso;
 import de.uni_freiburg.informatik.ultimate.lassoranker.LassoRankerPreferences;
@@ -49,9 +51,21 @@ import de.uni_freiburg.informatik.ultimate.logic.Script.LBool;
 import de.uni_freiburg.informatik.ultimate.logic.Term;
 import de.uni_freiburg.informatik.ultimate.util.ToolchainCanceledException;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.IntegerOption;
@@ -61,13 +75,17 @@ import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis.RankingRelationBuilder.RankingRelationException;
 import org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis.construction.LassoBuilder;
 import org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis.toolchain.LassoRankerToolchainStorage;
 import org.sosy_lab.cpachecker.core.counterexample.CounterexampleInfo;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.LoopStructure.Loop;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManagerImpl;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
@@ -183,6 +201,43 @@ public class LassoAnalysis {
   @IntegerOption(min = 1)
   private int maxTemplateFunctions = 3;
 
+  @Option(
+    secure = true,
+    description =
+        "Reuse the result of the analysis of a lasso if the same lasso (i.e., the same stem"
+            + " and loop edges for the same loop and relevant variables) is found again"
+            + " in a later iteration of the termination algorithm."
+  )
+  private boolean cacheResults = false;
+
+  @Option(
+    secure = true,
+    description =
+        "Synthesize (non-)termination arguments for the lassos of a counterexample in parallel."
+            + " Each thread uses its own solver context."
+  )
+  private boolean parallel = false;
+
+  @Option(
+    secure = true,
+    description =
+        "Number of threads for the synthesis of (non-)termination arguments, if"
+            + " termination.lassoAnalysis.parallel is enabled. The value 0 uses as many"
+            + " threads as processors are available."
+  )
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  @Option(
+    secure = true,
+    description =
+        "Maximal number of threads for the synthesis of (non-)termination arguments, if"
+            + " termination.lassoAnalysis.parallel is enabled. Each thread needs its own solver"
+            + " context, which is only created when a counterexample has enough lassos for it."
+  )
+  @IntegerOption(min = 1)
+  private int maxThreads = 8;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final LassoAnalysisStatistics statistics;
@@ -202,6 +257,19 @@ public class LassoAnalysis {
 
   private final ImmutableList<RankingTemplate> rankingTemplates;
 
+  private final Map<LassoKey, LassoAnalysisResult> resultCache = new HashMap<>();
+
+  // analyses with their own solver context, only used if the lassos are analyzed in parallel
+  private final List<LassoAnalysis> workers = new ArrayList<>();
+  private @Nullable ExecutorService workerExecutor = null;
+
+  /** Maximal number of workers, at most one worker means sequential analysis. */
+  private int maxWorkers = 0;
+
+  // only needed for creating workers
+  private @Nullable Configuration config = null;
+  private @Nullable CFA cfa = null;
+
   @SuppressWarnings({"resource", "unchecked"})
   public static LassoAnalysis create(
       LassoBuilder pLassoBuilder,
@@ -222,7 +290,6 @@ public class LassoAnalysis {
         pStatistics);
   }
 
-  @SuppressWarnings({"resource", "unchecked"})
   public static LassoAnalysis create(
       LogManager pLogger,
       Configuration pConfig,
@@ -230,6 +297,22 @@ public class LassoAnalysis {
       CFA pCfa,
       LassoAnalysisStatistics pStatistics)
       throws InvalidConfigurationException {
+    LassoAnalysis lassoAnalysis =
+        createWithOwnSolverContext(pLogger, pConfig, pShutdownNotifier, pCfa, pStatistics);
+    if (lassoAnalysis.parallel) {
+      lassoAnalysis.enableWorkers(pConfig, pCfa);
+    }
+    return lassoAnalysis;
+  }
+
+  @SuppressWarnings({"resource", "unchecked"})
+  private static LassoAnalysis createWithOwnSolverContext(
+      LogManager pLogger,
+      Configuration pConfig,
+      ShutdownNotifier pShutdownNotifier,
+      CFA pCfa,
+      LassoAnalysisStatistics pStatistics)
+      throws InvalidConfigurationException {
     SolverContext solverContext =
         SolverContextFactory.createSolverContext(pConfig, pLogger, pShutdownNotifier, SMTINTERPOL);
     AbstractFormulaManager<Term, ?, ?, ?> formulaManager =
@@ -319,6 +402,47 @@ public class LassoAnalysis {
     rankingTemplates = createTemplates(maxTemplateFunctions);
   }
 
+  private void enableWorkers(Configuration pConfig, CFA pCfa) {
+    int numThreads = threads == 0 ? Runtime.getRuntime().availableProcessors() : threads;
+    maxWorkers = Math.min(numThreads, maxThreads);
+    config = pConfig;
+    cfa = pCfa;
+  }
+
+  /**
+   * Creates workers until there are the given number of them, or less if a worker cannot be
+   * created.
+   *
+   * @return the number of available workers
+   */
+  private int ensureWorkers(int pNumWorkers) {
+    while (workers.size() < pNumWorkers) {
+      try {
+        workers.add(
+            createWithOwnSolverContext(
+                logger.withComponentName("LassoAnalysis worker " + workers.size()),
+                checkNotNull(config),
+                shutdownNotifier,
+                checkNotNull(cfa),
+                new WorkerStatistics()));
+      } catch (InvalidConfigurationException e) {
+        logger.logUserException(
+            WARNING, e, "Could not create solver context for parallel lasso analysis.");
+        maxWorkers = workers.size();
+        break;
+      }
+    }
+    if (workerExecutor == null && !workers.isEmpty()) {
+      workerExecutor =
+          Executors.newCachedThreadPool(
+              new ThreadFactoryBuilder()
+                  .setDaemon(true)
+                  .setNameFormat("Lasso analysis %d")
+                  .build());
+    }
+    return workers.size();
+  }
+
   private static ImmutableList<RankingTemplate> createTemplates(int pMaxTemplateFunctions) {
     ImmutableList.Builder<RankingTemplate> rankingTemplates = ImmutableList.builder();
 
@@ -333,6 +457,10 @@ public class LassoAnalysis {
 
   /** Frees all created resources and the solver context. */
   public void close() {
+    if (workerExecutor != null) {
+      workerExecutor.shutdownNow();
+    }
+    workers.forEach(LassoAnalysis::close);
     toolchainStorage.clear();
     solverContext.close();
   }
@@ -362,10 +490,40 @@ public class LassoAnalysis {
   private LassoAnalysisResult checkTermination0(
       Loop pLoop, CounterexampleInfo pCounterexample, Set<CVariableDeclaration> pRelevantVariables)
       throws CPATransferException, InterruptedException {
+    Pair<List<CFAEdge>, List<CFAEdge>> stemAndLoopEdges =
+        LassoBuilder.getStemAndLoopEdges(pCounterexample);
+    LassoKey key =
+        new LassoKey(
+            pLoop, stemAndLoopEdges.getFirst(), stemAndLoopEdges.getSecond(), pRelevantVariables);
+    if (cacheResults) {
+      LassoAnalysisResult cachedResult = resultCache.get(key);
+      if (cachedResult != null) {
+        logger.logf(FINE, "Reusing result of lasso analysis for %s.", pLoop);
+        statistics.lassoAnalysisResultReused();
+        return cachedResult;
+      }
+    }
+
+    LassoAnalysisResult result =
+        checkTermination0(
+            pLoop, stemAndLoopEdges.getFirst(), stemAndLoopEdges.getSecond(), pRelevantVariables);
+
+    if (cacheResults) {
+      resultCache.put(key, result);
+    }
+    return result;
+  }
+
+  private LassoAnalysisResult checkTermination0(
+      Loop pLoop,
+      List<CFAEdge> pStemEdges,
+      List<CFAEdge> pLoopEdges,
+      Set<CVariableDeclaration> pRelevantVariables)
+      throws CPATransferException, InterruptedException {
     Collection<Lasso> lassos;
     statistics.lassoConstructionStarted();
     try {
-      lassos = lassoBuilder.buildLasso(pCounterexample, pRelevantVariables);
+      lassos = lassoBuilder.buildLasso(pStemEdges, pLoopEdges, pRelevantVariables);
       statistics.lassosConstructed(pLoop, lassos.size());
 
     } catch (TermException | SolverException e) {
@@ -375,6 +533,16 @@ public class LassoAnalysis {
       statistics.lassoConstructionFinished();
     }
 
+    if (maxWorkers > 1 && lassos.size() > 1) {
+      // Workers are only created if there is more than one lasso to analyze
+      int numWorkers = Math.min(lassos.size(), maxWorkers);
+      numWorkers = Math.min(numWorkers, ensureWorkers(numWorkers));
+      if (numWorkers > 1) {
+        return checkTerminationInParallel(
+            pLoop, pStemEdges, pLoopEdges, pRelevantVariables, numWorkers);
+      }
+    }
+
     try {
       return checkTermination(pLoop, lassos, pRelevantVariables);
 
@@ -387,6 +555,150 @@ public class LassoAnalysis {
     }
   }
 
+  /**
+   * Analyzes the lassos for the given stem and loop with the first n workers. Each worker builds
+   * the lassos in its own solver context and analyzes every n-th of them. As in the sequential
+   * analysis, non-termination arguments are tried first for all lassos. The resulting ranking
+   * relations are translated to the solver context of this instance.
+   */
+  private LassoAnalysisResult checkTerminationInParallel(
+      Loop pLoop,
+      List<CFAEdge> pStemEdges,
+      List<CFAEdge> pLoopEdges,
+      Set<CVariableDeclaration> pRelevantVariables,
+      int pNumWorkers)
+      throws CPATransferException, InterruptedException {
+
+    List<List<Lasso>> lassosOfWorkers;
+    statistics.lassoConstructionStarted();
+    try {
+      // The lassos are built deterministically, so every worker gets the same list of lassos.
+      // They were already counted when this instance built them.
+      lassosOfWorkers =
+          invokeWorkers(
+              pNumWorkers,
+              (worker, index) ->
+                  ImmutableList.copyOf(
+                      worker.lassoBuilder.buildLasso(pStemEdges, pLoopEdges, pRelevantVariables)));
+    } catch (ExecutionException e) {
+      return handleWorkerFailure(pLoop, e.getCause());
+    } finally {
+      statistics.lassoConstructionFinished();
+    }
+
+    List<LassoAnalysisResult> nonTerminationResults;
+    statistics.nonTerminationAnalysisOfLassoStarted();
+    try {
+      nonTerminationResults =
+          invokeWorkers(
+              pNumWorkers,
+              (worker, index) -> {
+                List<Lasso> lassos = lassosOfWorkers.get(index);
+                for (int i = index; i < lassos.size(); i += pNumWorkers) {
+                  worker.shutdownNotifier.shutdownIfNecessary();
+                  LassoAnalysisResult result =
+                      worker.synthesizeNonTerminationArgument(pLoop, lassos.get(i));
+                  if (result.hasNonTerminationArgument()) {
+                    return result;
+                  }
+                }
+                return LassoAnalysisResult.unknown();
+              });
+    } catch (ExecutionException e) {
+      return handleWorkerFailure(pLoop, e.getCause());
+    } finally {
+      statistics.nonTerminationAnalysisOfLassoFinished();
+    }
+
+    for (LassoAnalysisResult result : nonTerminationResults) {
+      if (result.hasNonTerminationArgument()) {
+        statistics.synthesizedNonTerminationArgument(pLoop, result.getNonTerminationArgument());
+        return result;
+      }
+    }
+
+    List<LassoAnalysisResult> terminationResults;
+    statistics.terminationAnalysisOfLassoStarted();
+    try {
+      terminationResults =
+          invokeWorkers(
+              pNumWorkers,
+              (worker, index) -> {
+                List<Lasso> lassos = lassosOfWorkers.get(index);
+                LassoAnalysisResult result = LassoAnalysisResult.unknown();
+                for (int i = index; i < lassos.size(); i += pNumWorkers) {
+                  worker.shutdownNotifier.shutdownIfNecessary();
+                  result =
+                      result.update(
+                          worker.synthesizeTerminationArgument(
+                              pLoop, lassos.get(i), pRelevantVariables));
+                }
+                return result;
+              });
+    } catch (ExecutionException e) {
+      return handleWorkerFailure(pLoop, e.getCause());
+    } finally {
+      statistics.terminationAnalysisOfLassoFinished();
+    }
+
+    FormulaManagerView fmgr = rankingRelationBuilder.getFormulaManagerView();
+    LassoAnalysisResult result = LassoAnalysisResult.unknown();
+    for (int i = 0; i < pNumWorkers; i++) {
+      LassoAnalysisResult workerResult = terminationResults.get(i);
+      if (workerResult.hasTerminationArgument()) {
+        RankingRelation rankingRelation = workerResult.getTerminationArgument().translateTo(fmgr);
+        result = result.update(LassoAnalysisResult.fromTerminationArgument(rankingRelation));
+      }
+      for (TerminationArgument terminationArgument :
+          workers.get(i).statistics.terminationArguments.removeAll(pLoop)) {
+        statistics.synthesizedTerminationArgument(pLoop, terminationArgument);
+      }
+    }
+    return result;
+  }
+
+  private <T> List<T> invokeWorkers(int pNumWorkers, WorkerTask<T> pTask)
+      throws ExecutionException, InterruptedException {
+    List<Future<T>> futures = new ArrayList<>(pNumWorkers);
+    for (int i = 0; i < pNumWorkers; i++) {
+      final LassoAnalysis worker = workers.get(i);
+      final int index = i;
+      futures.add(workerExecutor.submit(() -> pTask.run(worker, index)));
+    }
+
+    List<T> results = new ArrayList<>(futures.size());
+    boolean success = false;
+    try {
+      // Collect the results in the order of the workers, not in the order of termination
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      success = true;
+    } finally {
+      if (!success) {
+        futures.forEach(future -> future.cancel(true));
+      }
+    }
+    return results;
+  }
+
+  private LassoAnalysisResult handleWorkerFailure(Loop pLoop, Throwable pCause)
+      throws CPATransferException, InterruptedException {
+    if (pCause instanceof ToolchainCanceledException) {
+      throw new InterruptedException(pCause.getMessage());
+    }
+    if (pCause instanceof IOException
+        || pCause instanceof SMTLIBException
+        || pCause instanceof TermException
+        || pCause instanceof SolverException) {
+      logger.logUserException(
+          WARNING, pCause, "Could not check (non)-termination of lasso (" + pLoop + ").");
+      return LassoAnalysisResult.unknown();
+    }
+    Throwables.propagateIfPossible(pCause, CPATransferException.class, InterruptedException.class);
+    throw new UnexpectedCheckedException("lasso analysis", pCause);
+  }
+
   public LassoAnalysisResult checkTermination(
       Loop pLoop, Collection<Lasso> lassos, Set<CVariableDeclaration> pRelevantVariables)
       throws IOException, SMTLIBException, TermException, InterruptedException, SolverException {
@@ -529,4 +841,63 @@ public class LassoAnalysis {
         toolchainStorage,
         toolchainStorage);
   }
+
+  @FunctionalInterface
+  private interface WorkerTask<T> {
+    T run(LassoAnalysis pWorker, int pWorkerIndex) throws Exception;
+  }
+
+  /** Key for reusing the results of analyzing a lasso with the same structure. */
+  private static final class LassoKey {
+
+    private final Loop loop;
+    private final List<CFAEdge> stemEdges;
+    private final List<CFAEdge> loopEdges;
+    private final ImmutableSet<CVariableDeclaration> relevantVariables;
+
+    private LassoKey(
+        Loop pLoop,
+        List<CFAEdge> pStemEdges,
+        List<CFAEdge> pLoopEdges,
+        Set<CVariableDeclaration> pRelevantVariables) {
+      loop = checkNotNull(pLoop);
+      stemEdges = checkNotNull(pStemEdges);
+      loopEdges = checkNotNull(pLoopEdges);
+      relevantVariables = ImmutableSet.copyOf(pRelevantVariables);
+    }
+
+    @Override
+    public boolean equals(Object pObj) {
+      if (this == pObj) {
+        return true;
+      }
+      if (!(pObj instanceof LassoKey)) {
+        return false;
+      }
+      LassoKey other = (LassoKey) pObj;
+      return loop.equals(other.loop)
+          && stemEdges.equals(other.stemEdges)
+          && loopEdges.equals(other.loopEdges)
+          && relevantVariables.equals(other.relevantVariables);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(loop, stemEdges, loopEdges, relevantVariables);
+    }
+  }
+
+  /** Statistics of a worker, the relevant parts are transferred to the main statistics. */
+  private static final class WorkerStatistics extends LassoAnalysisStatistics {
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      // not printed
+    }
+
+    @Override
+    public @Nullable String getName() {
+      return null;
+    }
+  }
 }
@@ -56,6 +56,8 @@ public abstract class LassoAnalysisStatistics implements Statistics {
 
   protected final AtomicInteger lassosCurrentIteration = new AtomicInteger();
 
+  protected final AtomicInteger reusedLassoAnalysisResults = new AtomicInteger();
+
   protected final Multimap<Loop, TerminationArgument> terminationArguments =
       MultimapBuilder.linkedHashKeys().arrayListValues().build();
 
@@ -76,6 +78,10 @@ public abstract class LassoAnalysisStatistics implements Statistics {
     maxLassosPerIteration.accumulateAndGet(lassosCurrentIteration.getAndSet(0), Math::max);
   }
 
+  public void lassoAnalysisResultReused() {
+    reusedLassoAnalysisResults.incrementAndGet();
+  }
+
   public void lassoConstructionStarted() {
     lassoConstructionTime.start();
   }
@@ -0,0 +1,110 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.util.test.CPATestRunner;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+import org.sosy_lab.cpachecker.util.test.TestResults;
+
+public class LassoAnalysisTest {
+
+  /** Every loop iteration takes one of two paths, which gives more than one lasso. */
+  private static final String TERMINATING =
+      "extern int __VERIFIER_nondet_int(void);\n"
+          + "int main() {\n"
+          + "  int x = __VERIFIER_nondet_int();\n"
+          + "  int y = __VERIFIER_nondet_int();\n"
+          + "  while (x > 0) {\n"
+          + "    if (y > 0) {\n"
+          + "      x = x - 1;\n"
+          + "    } else {\n"
+          + "      x = x - 2;\n"
+          + "    }\n"
+          + "  }\n"
+          + "  return 0;\n"
+          + "}\n";
+
+  private static final String NON_TERMINATING =
+      "extern int __VERIFIER_nondet_int(void);\n"
+          + "int main() {\n"
+          + "  int x = __VERIFIER_nondet_int();\n"
+          + "  int y = __VERIFIER_nondet_int();\n"
+          + "  while (x > 0) {\n"
+          + "    if (y > 0) {\n"
+          + "      x = x + y;\n"
+          + "    } else {\n"
+          + "      x = x - 1;\n"
+          + "    }\n"
+          + "  }\n"
+          + "  return 0;\n"
+          + "}\n";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private TestResults run(String pProgram, boolean pParallel, int pMaxThreads) throws Exception {
+    File program = tempFolder.newFile("program.c");
+    Files.write(program.toPath(), pProgram.getBytes(StandardCharsets.US_ASCII));
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .loadFromFile("config/terminationAnalysis.properties")
+            .setOption("termination.lassoAnalysis.parallel", Boolean.toString(pParallel))
+            .setOption("termination.lassoAnalysis.threads", "4")
+            .setOption("termination.lassoAnalysis.maxThreads", Integer.toString(pMaxThreads))
+            .build();
+    return CPATestRunner.run(config, program.toString());
+  }
+
+  @Test(timeout = 90000)
+  public void testTerminatingSequential() throws Exception {
+    run(TERMINATING, false, 8).assertIsSafe();
+  }
+
+  @Test(timeout = 90000)
+  public void testTerminatingParallel() throws Exception {
+    run(TERMINATING, true, 2).assertIsSafe();
+  }
+
+  @Test(timeout = 90000)
+  public void testTerminatingParallelWithSingleThread() throws Exception {
+    // the cap on the number of threads makes the analysis sequential
+    run(TERMINATING, true, 1).assertIsSafe();
+  }
+
+  @Test(timeout = 90000)
+  public void testNonTerminatingSequential() throws Exception {
+    run(NON_TERMINATING, false, 8).assertIsUnsafe();
+  }
+
+  @Test(timeout = 90000)
+  public void testNonTerminatingParallel() throws Exception {
+    run(NON_TERMINATING, true, 2).assertIsUnsafe();
+  }
+}
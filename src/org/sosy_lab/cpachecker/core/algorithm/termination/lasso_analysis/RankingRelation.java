@@ -25,6 +25,7 @@ package org.sosy_lab.cpachecker.core.algorithm.termination.lasso_analysis;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
+import static org.sosy_lab.common.collect.Collections3.transformedImmutableSetCopy;
 import static org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator.BINARY_OR;
 import static org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator.EQUALS;
 import static org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression.ONE;
@@ -99,6 +100,22 @@ public class RankingRelation {
     return pFormulaManagerView.translateFrom(asFormula(), formulaManagerView);
   }
 
+  /** Returns this ranking relation with all formulas translated to the given solver. */
+  @CheckReturnValue
+  public RankingRelation translateTo(FormulaManagerView pFormulaManagerView) {
+    if (pFormulaManagerView == formulaManagerView) {
+      return this;
+    }
+    return new RankingRelation(
+        rankingRelations,
+        transformedImmutableSetCopy(
+            rankingRelationFormulas, f -> pFormulaManagerView.translateFrom(f, formulaManagerView)),
+        transformedImmutableSetCopy(
+            supportingInvariants, f -> pFormulaManagerView.translateFrom(f, formulaManagerView)),
+        binaryExpressionBuilder,
+        pFormulaManagerView);
+  }
+
   public Collection<FormulaReportingState> getSupportingInvariants() {
     return transformedImmutableListCopy(
         supportingInvariants, i -> new TerminationInvariantSupplierState(formulaManagerView, i));
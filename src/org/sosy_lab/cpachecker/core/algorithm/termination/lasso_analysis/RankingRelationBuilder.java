@@ -443,6 +443,10 @@ public class RankingRelationBuilder {
     }
   }
 
+  FormulaManagerView getFormulaManagerView() {
+    return fmgr;
+  }
+
   private final class RankingRelationComponents {
 
     private final Optional<CExpression> unprimedExpression;
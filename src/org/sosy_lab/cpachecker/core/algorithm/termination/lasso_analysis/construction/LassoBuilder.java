@@ -66,6 +66,7 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.arg.path.PathIterator;
 import org.sosy_lab.cpachecker.cpa.termination.TerminationState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap;
@@ -153,9 +154,23 @@ public class LassoBuilder {
   public Collection<Lasso> buildLasso(
       CounterexampleInfo pCounterexampleInfo, Set<CVariableDeclaration> pRelevantVariables)
       throws CPATransferException, InterruptedException, TermException, SolverException {
+    Pair<List<CFAEdge>, List<CFAEdge>> stemAndLoopEdges = getStemAndLoopEdges(pCounterexampleInfo);
+    return buildLasso(
+        stemAndLoopEdges.getFirst(), stemAndLoopEdges.getSecond(), pRelevantVariables);
+  }
+
+  /**
+   * Builds the lassos for the given edges of stem and loop, as returned by {@link
+   * #getStemAndLoopEdges(CounterexampleInfo)}.
+   */
+  public Collection<Lasso> buildLasso(
+      List<CFAEdge> pStemEdges,
+      List<CFAEdge> pLoopEdges,
+      Set<CVariableDeclaration> pRelevantVariables)
+      throws CPATransferException, InterruptedException, TermException, SolverException {
 
     stats.stemAndLoopConstructionStarted();
-    StemAndLoop stemAndLoop = createStemAndLoop(pCounterexampleInfo);
+    StemAndLoop stemAndLoop = createStemAndLoop(pStemEdges, pLoopEdges);
     shutdownNotifier.shutdownIfNecessary();
     stats.stemAndLoopConstructionFinished();
 
@@ -169,8 +184,12 @@ public class LassoBuilder {
     }
   }
 
-  private StemAndLoop createStemAndLoop(CounterexampleInfo pCounterexampleInfo)
-      throws CPATransferException, InterruptedException {
+  /**
+   * Splits the path of a counterexample for a lasso into the edges of the stem and the edges of
+   * the loop. The result only depends on the structure of the lasso and not on a solver.
+   */
+  public static Pair<List<CFAEdge>, List<CFAEdge>> getStemAndLoopEdges(
+      CounterexampleInfo pCounterexampleInfo) {
     PathIterator path = pCounterexampleInfo.getTargetPath().fullPathIterator();
 
     List<CFAEdge> stemEdges = new ArrayList<>();
@@ -209,7 +228,7 @@ public class LassoBuilder {
       }
     }
 
-    return createStemAndLoop(stemEdges, loopEdges);
+    return Pair.of(ImmutableList.copyOf(stemEdges), ImmutableList.copyOf(loopEdges));
   }
 
   public StemAndLoop createStemAndLoop(List<CFAEdge> stemEdges, List<CFAEdge> loopEdges)
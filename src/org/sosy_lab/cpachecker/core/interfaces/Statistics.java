@@ -28,6 +28,7 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.util.statistics.AbstractStatValue;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsUtils;
 
 /**
@@ -82,6 +83,19 @@ public interface Statistics {
    */
   default void writeOutputFiles(Result pResult, UnmodifiableReachedSet pReached) {}
 
+  /**
+   * Add the current values of this group of statistics to a snapshot of metrics, which is exported
+   * periodically while the analysis is running (cf. {@link
+   * org.sosy_lab.cpachecker.util.statistics.MetricsExporter}).
+   *
+   * <p>This method is called from a separate thread while the analysis modifies the statistics. It
+   * should be cheap, only read values (a slightly outdated value is fine), and must not modify any
+   * state. Statistics that do not support this simply do not override it.
+   *
+   * @param pSnapshot the snapshot to which the values are added
+   */
+  default void collectMetrics(MetricsSnapshot pSnapshot) {}
+
   int DEFAULT_OUTPUT_NAME_COL_WIDTH = 50;
 
   /**
@@ -23,8 +23,10 @@
  */
 package org.sosy_lab.cpachecker.core.interfaces;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
@@ -103,4 +105,20 @@ public interface TransferRelation {
       throws CPATransferException, InterruptedException {
     return Collections.singleton(state);
   }
+
+  /**
+   * Declares which abstract states of other domains are read by {@link #strengthen(AbstractState,
+   * Iterable, CFAEdge, Precision)}.
+   *
+   * <p>If a set of types is returned, strengthening must return the given state unchanged if none
+   * of the other states is an instance of one of these types, and its result may only depend on
+   * other states of these types. Wrapping transfer relations use this to skip strengthening if
+   * none of the relevant states is present or has changed. An empty optional (the default) means
+   * that strengthening may read any other state.
+   *
+   * @return the types of states read during strengthening, or an empty optional if unknown
+   */
+  default Optional<ImmutableSet<Class<? extends AbstractState>>> getStrengthenDependencies() {
+    return Optional.empty();
+  }
 }
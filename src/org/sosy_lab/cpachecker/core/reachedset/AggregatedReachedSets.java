@@ -36,13 +36,25 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class AggregatedReachedSets {
   protected final Set<UnmodifiableReachedSet> reachedSets;
+  private final ResultBlackboard blackboard;
 
   public AggregatedReachedSets() {
-    reachedSets = ImmutableSet.of();
+    this(ImmutableSet.of());
   }
 
   public AggregatedReachedSets(Set<UnmodifiableReachedSet> pReachedSets) {
+    this(pReachedSets, new ResultBlackboard());
+  }
+
+  private AggregatedReachedSets(
+      Set<UnmodifiableReachedSet> pReachedSets, ResultBlackboard pBlackboard) {
     reachedSets = checkNotNull(pReachedSets);
+    blackboard = checkNotNull(pBlackboard);
+  }
+
+  /** Returns the board on which concurrently running analyses share intermediate results. */
+  public ResultBlackboard getBlackboard() {
+    return blackboard;
   }
 
   public Set<UnmodifiableReachedSet> snapShot() {
@@ -56,8 +68,10 @@ public class AggregatedReachedSets {
     private final List<AggregatedThreadedReachedSets> otherAggregators = new ArrayList<>();
 
     private AggregatedThreadedReachedSets(
-        final ReentrantReadWriteLock pLock, Set<UnmodifiableReachedSet> pReachedSets) {
-      super(pReachedSets);
+        final ReentrantReadWriteLock pLock,
+        Set<UnmodifiableReachedSet> pReachedSets,
+        ResultBlackboard pBlackboard) {
+      super(pReachedSets, pBlackboard);
       lock = pLock;
     }
 
@@ -85,7 +99,11 @@ public class AggregatedReachedSets {
     private final Set<UnmodifiableReachedSet> reachedSets = ConcurrentHashMap.newKeySet();
 
     public AggregatedReachedSetManager() {
-      reachedView = new AggregatedThreadedReachedSets(lock, reachedSets);
+      this(new ResultBlackboard());
+    }
+
+    public AggregatedReachedSetManager(ResultBlackboard pBlackboard) {
+      reachedView = new AggregatedThreadedReachedSets(lock, reachedSets, pBlackboard);
     }
 
     public void addReachedSet(UnmodifiableReachedSet reached) {
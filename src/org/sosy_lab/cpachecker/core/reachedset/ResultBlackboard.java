@@ -0,0 +1,226 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableList;
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.ExpressionTreeLocationInvariant;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+
+/**
+ * Board on which analyses that run in parallel (e.g. in a portfolio of the parallel algorithm)
+ * publish intermediate results for each other while they are still running. Results are published
+ * to typed {@link Topic}s and are never removed, so every subscriber sees every result of a topic
+ * in publication order, regardless of when it subscribed.
+ *
+ * <p>Publishing and reading is lock-free. A {@link Participant} is registered for every component
+ * that publishes or reads results, and the number of shared results is counted per participant.
+ */
+public final class ResultBlackboard {
+
+  /** Typed key for a kind of shared results. */
+  public static final class Topic<T> {
+
+    private final String name;
+
+    private Topic(String pName) {
+      name = checkNotNull(pName);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /**
+   * Invariants that are proven to hold at their location. An invariant <code>false</code> means
+   * that its location is unreachable. Published invariants must not share mutable state (like
+   * caches) with their producer.
+   */
+  public static final Topic<ExpressionTreeLocationInvariant> INVARIANTS = new Topic<>("invariants");
+
+  private final ConcurrentMap<Topic<?>, TopicLog<?>> topics = new ConcurrentHashMap<>();
+  private final Queue<Participant> participants = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger participantCounter = new AtomicInteger();
+  private final Statistics stats = new BlackboardStatistics();
+
+  /**
+   * Register a new component that publishes or reads results. The returned participant may be
+   * used by several threads, but each of its subscriptions only by one thread at a time.
+   *
+   * @param pName a name describing the component, a unique number is appended to it
+   */
+  public Participant register(String pName) {
+    Participant participant =
+        new Participant(checkNotNull(pName) + " #" + participantCounter.incrementAndGet());
+    participants.add(participant);
+    return participant;
+  }
+
+  @SuppressWarnings("unchecked") // the map always maps a Topic<T> to a TopicLog<T>
+  private <T> TopicLog<T> getLog(Topic<T> pTopic) {
+    return (TopicLog<T>) topics.computeIfAbsent(pTopic, t -> new TopicLog<T>());
+  }
+
+  /** Returns statistics about the number of results shared by each participant. */
+  public Statistics getStatistics() {
+    return stats;
+  }
+
+  /** A component that publishes results to and reads results from the board. */
+  public final class Participant {
+
+    private final String name;
+    private final ConcurrentMap<Topic<?>, LongAdder> published = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Topic<?>, LongAdder> received = new ConcurrentHashMap<>();
+
+    private Participant(String pName) {
+      name = pName;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    /** Make the result available to all (current and future) subscribers of the topic. */
+    public <T> void publish(Topic<T> pTopic, T pItem) {
+      getLog(pTopic).append(new Entry<>(checkNotNull(pItem), this));
+      published.computeIfAbsent(pTopic, t -> new LongAdder()).increment();
+    }
+
+    /**
+     * Subscribe to a topic. The subscription will return all results of this topic that were
+     * published by other participants, including those published before subscribing.
+     */
+    public <T> Subscription<T> subscribe(Topic<T> pTopic) {
+      return new Subscription<>(pTopic, getLog(pTopic).head, this);
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  /** Cursor into the results of a topic, must not be used by several threads concurrently. */
+  public static final class Subscription<T> {
+
+    private final Topic<T> topic;
+    private final Participant subscriber;
+    private Entry<T> last;
+
+    private Subscription(Topic<T> pTopic, Entry<T> pStart, Participant pSubscriber) {
+      topic = pTopic;
+      last = pStart;
+      subscriber = pSubscriber;
+    }
+
+    /** Returns the results published by other participants since the last call. */
+    public ImmutableList<T> poll() {
+      ImmutableList.Builder<T> result = ImmutableList.builder();
+      int count = 0;
+      for (Entry<T> next = last.next.get(); next != null; next = next.next.get()) {
+        if (next.producer != subscriber) {
+          result.add(next.item);
+          count++;
+        }
+        last = next;
+      }
+      if (count > 0) {
+        subscriber.received.computeIfAbsent(topic, t -> new LongAdder()).add(count);
+      }
+      return result.build();
+    }
+  }
+
+  private final class BlackboardStatistics implements Statistics {
+
+    @Override
+    public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+      for (Participant participant : participants) {
+        if (participant.published.isEmpty() && participant.received.isEmpty()) {
+          continue;
+        }
+        pOut.println(participant.name + ":");
+        for (Map.Entry<Topic<?>, LongAdder> entry : participant.published.entrySet()) {
+          pOut.println("  Number of published " + entry.getKey() + ": " + entry.getValue().sum());
+        }
+        for (Map.Entry<Topic<?>, LongAdder> entry : participant.received.entrySet()) {
+          pOut.println("  Number of received " + entry.getKey() + ":  " + entry.getValue().sum());
+        }
+      }
+    }
+
+    @Override
+    public @Nullable String getName() {
+      return "Shared results";
+    }
+  }
+
+  /** Append-only singly linked list of the results of one topic. */
+  private static final class TopicLog<T> {
+
+    private final Entry<T> head = new Entry<>(null, null);
+    // hint for appending, the actual tail may be some entries further
+    private final AtomicReference<Entry<T>> tail = new AtomicReference<>(head);
+
+    private void append(Entry<T> pEntry) {
+      Entry<T> current = tail.get();
+      while (true) {
+        Entry<T> next = current.next.get();
+        if (next != null) {
+          current = next;
+        } else if (current.next.compareAndSet(null, pEntry)) {
+          tail.set(pEntry);
+          return;
+        }
+      }
+    }
+  }
+
+  private static final class Entry<T> {
+
+    private final @Nullable T item;
+    private final @Nullable Participant producer;
+    private final AtomicReference<Entry<T>> next = new AtomicReference<>();
+
+    private Entry(@Nullable T pItem, @Nullable Participant pProducer) {
+      item = pItem;
+      producer = pProducer;
+    }
+  }
+}
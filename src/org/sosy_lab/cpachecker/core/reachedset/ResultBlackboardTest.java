@@ -0,0 +1,177 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Splitter;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.ExpressionTreeLocationInvariant;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard.Participant;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard.Subscription;
+import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
+
+public class ResultBlackboardTest {
+
+  private static final int NUM_PUBLISHERS = 4;
+  private static final int NUM_RESULTS = 500;
+
+  private static ExpressionTreeLocationInvariant invariant(String pGroupId) {
+    return new ExpressionTreeLocationInvariant(
+        pGroupId, new CFANode("main"), ExpressionTrees.getTrue());
+  }
+
+  @Test
+  public void testSubscriptionSeesEarlierAndLaterResults() {
+    ResultBlackboard blackboard = new ResultBlackboard();
+    Participant producer = blackboard.register("producer");
+    Participant consumer = blackboard.register("consumer");
+    assertThat(producer.getName()).isNotEqualTo(consumer.getName());
+
+    ExpressionTreeLocationInvariant first = invariant("first");
+    producer.publish(ResultBlackboard.INVARIANTS, first);
+    Subscription<ExpressionTreeLocationInvariant> subscription =
+        consumer.subscribe(ResultBlackboard.INVARIANTS);
+    assertThat(subscription.poll()).containsExactly(first);
+    assertThat(subscription.poll()).isEmpty();
+
+    ExpressionTreeLocationInvariant second = invariant("second");
+    ExpressionTreeLocationInvariant third = invariant("third");
+    producer.publish(ResultBlackboard.INVARIANTS, second);
+    producer.publish(ResultBlackboard.INVARIANTS, third);
+    assertThat(subscription.poll()).containsExactly(second, third).inOrder();
+
+    // a late subscriber still gets everything
+    assertThat(blackboard.register("late").subscribe(ResultBlackboard.INVARIANTS).poll())
+        .containsExactly(first, second, third)
+        .inOrder();
+  }
+
+  @Test
+  public void testOwnResultsAreSkipped() {
+    ResultBlackboard blackboard = new ResultBlackboard();
+    Participant participant = blackboard.register("analysis");
+    Participant other = blackboard.register("analysis");
+    Subscription<ExpressionTreeLocationInvariant> subscription =
+        participant.subscribe(ResultBlackboard.INVARIANTS);
+
+    participant.publish(ResultBlackboard.INVARIANTS, invariant("own"));
+    ExpressionTreeLocationInvariant foreign = invariant("foreign");
+    other.publish(ResultBlackboard.INVARIANTS, foreign);
+    participant.publish(ResultBlackboard.INVARIANTS, invariant("own"));
+
+    assertThat(subscription.poll()).containsExactly(foreign);
+    assertThat(subscription.poll()).isEmpty();
+  }
+
+  @Test
+  public void testConcurrentPublishing() throws Exception {
+    ResultBlackboard blackboard = new ResultBlackboard();
+    Participant consumer = blackboard.register("consumer");
+    Subscription<ExpressionTreeLocationInvariant> subscription =
+        consumer.subscribe(ResultBlackboard.INVARIANTS);
+
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_PUBLISHERS);
+    CountDownLatch start = new CountDownLatch(1);
+    List<ExpressionTreeLocationInvariant> received = new ArrayList<>();
+    try {
+      List<Future<?>> publishers = new ArrayList<>();
+      for (int t = 0; t < NUM_PUBLISHERS; t++) {
+        final Participant producer = blackboard.register("producer");
+        final String group = "p" + t;
+        publishers.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (int i = 0; i < NUM_RESULTS; i++) {
+                    producer.publish(ResultBlackboard.INVARIANTS, invariant(group + ":" + i));
+                  }
+                  return null;
+                }));
+      }
+      start.countDown();
+      // poll while the producers are running
+      for (Future<?> publisher : publishers) {
+        while (!publisher.isDone()) {
+          received.addAll(subscription.poll());
+        }
+        publisher.get();
+      }
+      received.addAll(subscription.poll());
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertThat(subscription.poll()).isEmpty();
+    assertThat(received).hasSize(NUM_PUBLISHERS * NUM_RESULTS);
+    // all results arrive, and the results of each producer in publication order
+    Map<String, Integer> nextIndex = new HashMap<>();
+    for (ExpressionTreeLocationInvariant inv : received) {
+      List<String> parts = Splitter.on(':').splitToList(inv.getGroupId());
+      int expected = nextIndex.getOrDefault(parts.get(0), 0);
+      assertThat(Integer.parseInt(parts.get(1))).isEqualTo(expected);
+      nextIndex.put(parts.get(0), expected + 1);
+    }
+    assertThat(nextIndex).hasSize(NUM_PUBLISHERS);
+    for (int count : nextIndex.values()) {
+      assertThat(count).isEqualTo(NUM_RESULTS);
+    }
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    ResultBlackboard blackboard = new ResultBlackboard();
+    Participant producer = blackboard.register("producer");
+    Participant consumer = blackboard.register("consumer");
+    blackboard.register("idle");
+    Subscription<ExpressionTreeLocationInvariant> subscription =
+        consumer.subscribe(ResultBlackboard.INVARIANTS);
+    producer.publish(ResultBlackboard.INVARIANTS, invariant("a"));
+    producer.publish(ResultBlackboard.INVARIANTS, invariant("b"));
+    subscription.poll();
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    @SuppressWarnings("checkstyle:IllegalInstantiation") // ok for statistics
+    PrintStream out = new PrintStream(bytes, true, UTF_8.name());
+    blackboard.getStatistics().printStatistics(out, null, null);
+    String statistics = bytes.toString(UTF_8.name());
+    assertThat(statistics).contains(producer.getName() + ":");
+    assertThat(statistics).contains("  Number of published invariants: 2");
+    assertThat(statistics).contains(consumer.getName() + ":");
+    assertThat(statistics).contains("  Number of received invariants:  2");
+    assertThat(statistics).doesNotContain("idle");
+  }
+}
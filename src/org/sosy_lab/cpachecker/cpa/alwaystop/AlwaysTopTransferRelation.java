@@ -23,8 +23,10 @@
  */
 package org.sosy_lab.cpachecker.cpa.alwaystop;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Optional;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
@@ -65,4 +67,8 @@ enum AlwaysTopTransferRelation implements TransferRelation {
     return Collections.singleton(pElement);
   }
 
+  @Override
+  public Optional<ImmutableSet<Class<? extends AbstractState>>> getStrengthenDependencies() {
+    return Optional.of(ImmutableSet.of());
+  }
 }
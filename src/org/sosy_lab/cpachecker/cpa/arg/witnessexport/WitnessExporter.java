@@ -196,6 +196,7 @@ public class WitnessExporter {
   protected final WitnessOptions options;
 
   protected final CFA cfa;
+  private final LogManager logger;
   private final FormulaManagerView fmgr;
 
   private final AssumptionToEdgeAllocator assumptionToEdgeAllocator;
@@ -215,6 +216,7 @@ public class WitnessExporter {
     options = new WitnessOptions();
     pConfig.inject(options);
     this.cfa = pCFA;
+    this.logger = pLogger;
     this.fmgr = Solver.create(pConfig, pLogger, ShutdownNotifier.createDummy()).getFormulaManager();
     this.assumptionToEdgeAllocator =
         AssumptionToEdgeAllocator.create(pConfig, pLogger, pCFA.getMachineModel());
@@ -249,7 +251,7 @@ public class WitnessExporter {
             Optional.empty(),
             Optional.ofNullable(pCounterExample),
             GraphBuilder.ARG_PATH);
-    WitnessToOutputFormatsUtils.writeToGraphMl(generatedWitness, pTarget);
+    WitnessToOutputFormatsUtils.writeToGraphMl(generatedWitness, pTarget, logger);
   }
 
   public void writeTerminationErrorWitness(
@@ -349,7 +351,7 @@ public class WitnessExporter {
 
     Witness generatedWitness =
         generateProofWitness(pRootState, pIsRelevantState, pIsRelevantEdge, pInvariantProvider);
-    WitnessToOutputFormatsUtils.writeToGraphMl(generatedWitness, pTarget);
+    WitnessToOutputFormatsUtils.writeToGraphMl(generatedWitness, pTarget, logger);
   }
 
   protected String getInitialFileName(ARGState pRootState) {
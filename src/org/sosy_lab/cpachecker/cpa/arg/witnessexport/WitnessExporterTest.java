@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.arg.witnessexport;
 
+import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.Truth.assertWithMessage;
 
 import com.google.common.base.Charsets;
@@ -33,18 +34,23 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import java.io.BufferedReader;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import javax.xml.parsers.DocumentBuilderFactory;
 import org.junit.Test;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
@@ -55,6 +61,9 @@ import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType
 import org.sosy_lab.cpachecker.util.test.CPATestRunner;
 import org.sosy_lab.cpachecker.util.test.TestDataTools;
 import org.sosy_lab.cpachecker.util.test.TestResults;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
 
 public class WitnessExporterTest {
 
@@ -98,6 +107,51 @@ public class WitnessExporterTest {
       .performTest();
   }
 
+  @Test(timeout = 90000)
+  public void streamedGraphMlIsWellFormed() throws Exception {
+    String fullPath = Paths.get(TEST_DIR_PATH, "rule60_list2.c_false-unreach-call_1.i").toString();
+    TempCompressedFilePath witnessPath = new TempCompressedFilePath("witness", ".graphml");
+
+    WitnessType witnessType =
+        generateWitness(
+            fullPath,
+            WitnessGenerationConfig.PREDICATE_ANALYSIS,
+            "config/specification/default.spc",
+            ImmutableMap.of(),
+            witnessPath);
+    assertThat(witnessType).isEqualTo(WitnessType.VIOLATION_WITNESS);
+
+    Document document;
+    try (InputStream in =
+        new GZIPInputStream(Files.newInputStream(witnessPath.compressedFilePath))) {
+      document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(in);
+    }
+
+    Set<String> keys = new HashSet<>();
+    NodeList keyElements = document.getElementsByTagName("key");
+    for (int i = 0; i < keyElements.getLength(); i++) {
+      assertThat(keys.add(((Element) keyElements.item(i)).getAttribute("id"))).isTrue();
+    }
+    NodeList dataElements = document.getElementsByTagName("data");
+    for (int i = 0; i < dataElements.getLength(); i++) {
+      assertThat(keys).contains(((Element) dataElements.item(i)).getAttribute("key"));
+    }
+
+    Set<String> nodes = new HashSet<>();
+    NodeList nodeElements = document.getElementsByTagName("node");
+    for (int i = 0; i < nodeElements.getLength(); i++) {
+      assertThat(nodes.add(((Element) nodeElements.item(i)).getAttribute("id"))).isTrue();
+    }
+    NodeList edgeElements = document.getElementsByTagName("edge");
+    for (int i = 0; i < edgeElements.getLength(); i++) {
+      Element edge = (Element) edgeElements.item(i);
+      assertThat(nodes).contains(edge.getAttribute("source"));
+      assertThat(nodes).contains(edge.getAttribute("target"));
+    }
+    assertThat(nodes).isNotEmpty();
+    assertThat(edgeElements.getLength()).isGreaterThan(0);
+  }
+
   private static void performTest(
       String pFilename,
       String pSpecification,
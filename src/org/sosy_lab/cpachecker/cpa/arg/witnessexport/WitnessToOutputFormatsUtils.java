@@ -22,16 +22,21 @@ package org.sosy_lab.cpachecker.cpa.arg.witnessexport;
 import static com.google.common.base.Strings.isNullOrEmpty;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.Queues;
 import com.google.common.collect.Sets;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Deque;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import javax.xml.parsers.ParserConfigurationException;
+import java.util.logging.Level;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.core.counterexample.ReportGenerator;
 import org.sosy_lab.cpachecker.core.interfaces.Property;
@@ -39,13 +44,12 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.slab.SLARGToDotWriter;
 import org.sosy_lab.cpachecker.util.NumericIdProvider;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.ElementType;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlBuilder;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlStreamWriter;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeType;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
-import org.w3c.dom.Element;
 
 public class WitnessToOutputFormatsUtils {
 
@@ -56,20 +60,82 @@ public class WitnessToOutputFormatsUtils {
    * @param pTarget where to append the GraphML
    */
   public static void writeToGraphMl(Witness witness, Appendable pTarget) throws IOException {
-    // Write elements
-    final GraphMlBuilder doc;
-    try {
-      doc =
-          new GraphMlBuilder(
-              witness.getWitnessType(),
-              witness.getOriginFile(),
-              witness.getCfa(),
-              witness.getMetaData());
-    } catch (ParserConfigurationException e) {
-      throw new IOException(e);
-    }
-    WitnessToOutputFormatsUtils.writeElementsOfGraphToDoc(doc, witness);
-    doc.appendTo(pTarget);
+    writeToGraphMl(witness, pTarget, LogManager.createNullLogManager());
+  }
+
+  /**
+   * Appends the witness as GraphML to the supplied {@link Appendable}. The GraphML elements are
+   * written directly instead of building a DOM document first, but the {@link Witness} itself is
+   * already completely in memory.
+   *
+   * <p>The witness graph is traversed twice: the first pass determines the keys that need to be
+   * declared in the header and the node data that are attached to edges, the second pass writes
+   * the nodes and edges.
+   *
+   * @param witness contains the information necessary to generate the GraphML representation
+   * @param pTarget where to append the GraphML
+   * @param pLogger used for logging the size of the exported witness
+   */
+  public static void writeToGraphMl(Witness witness, Appendable pTarget, LogManager pLogger)
+      throws IOException {
+    Timer exportTime = new Timer();
+    exportTime.start();
+
+    // First pass: collect keys and the node data given on entering edges
+    Set<KeyDef> usedKeys = EnumSet.noneOf(KeyDef.class);
+    ListMultimap<String, Map.Entry<KeyDef, String>> nodeDataFromEdges =
+        MultimapBuilder.hashKeys().arrayListValues().build();
+    traverseWitnessGraph(
+        witness,
+        nodeId -> collectNodeKeys(witness, nodeId, usedKeys),
+        edge -> {
+          for (Map.Entry<KeyDef, String> entry : edge.getLabel().getMapping().entrySet()) {
+            KeyDef keyDef = entry.getKey();
+            if (keyDef.keyFor.equals(ElementType.EDGE)) {
+              usedKeys.add(keyDef);
+            } else if (keyDef.keyFor.equals(ElementType.NODE)) {
+              usedKeys.add(keyDef);
+              nodeDataFromEdges.put(edge.getTarget(), entry);
+            }
+          }
+        });
+
+    // Second pass: write elements
+    GraphMlStreamWriter writer =
+        new GraphMlStreamWriter(
+            pTarget,
+            witness.getWitnessType(),
+            witness.getOriginFile(),
+            witness.getCfa(),
+            witness.getMetaData(),
+            usedKeys);
+    traverseWitnessGraph(
+        witness,
+        nodeId -> {
+          writeNode(writer, nodeId, witness);
+          for (Map.Entry<KeyDef, String> entry : nodeDataFromEdges.get(nodeId)) {
+            writer.addData(entry.getKey(), entry.getValue());
+          }
+        },
+        edge -> {
+          writer.startEdge(edge.getSource(), edge.getTarget());
+          for (Map.Entry<KeyDef, String> entry : edge.getLabel().getMapping().entrySet()) {
+            if (entry.getKey().keyFor.equals(ElementType.EDGE)) {
+              writer.addData(entry.getKey(), entry.getValue());
+            }
+          }
+        });
+    writer.finish();
+
+    exportTime.stop();
+    long millis = exportTime.getLengthOfLastInterval().asMillis();
+    pLogger.logf(
+        Level.FINE,
+        "Exported witness with %d nodes and %d edges in %s (%d elements/s).",
+        writer.getNodeCount(),
+        writer.getEdgeCount(),
+        exportTime,
+        (writer.getNodeCount() + writer.getEdgeCount()) * 1000L / Math.max(millis, 1));
   }
 
   /**
@@ -171,82 +237,99 @@ public class WitnessToOutputFormatsUtils {
     return "";
   }
 
-  private static void writeElementsOfGraphToDoc(GraphMlBuilder doc, Witness witness) {
+  @FunctionalInterface
+  private interface WitnessGraphVisitor<T> {
+    void visit(T pElement) throws IOException;
+  }
+
+  /**
+   * Visits the nodes and edges of the witness that are reachable from the entry node. Each node is
+   * visited once when it is first encountered (before the edge that leads to it), and the
+   * successors of nodes with invariant false are not explored.
+   */
+  private static void traverseWitnessGraph(
+      Witness witness,
+      WitnessGraphVisitor<String> pNodeVisitor,
+      WitnessGraphVisitor<Edge> pEdgeVisitor)
+      throws IOException {
     String entryStateNodeId = witness.getEntryStateNodeId();
-    Map<String, Element> nodes = Maps.newHashMap();
+    Set<String> nodes = Sets.newHashSet();
     Deque<String> waitlist = Queues.newArrayDeque();
     waitlist.push(entryStateNodeId);
-    Element entryNode = createNewNode(doc, entryStateNodeId, witness);
-    addInvariantsData(doc, entryNode, entryStateNodeId, witness);
-    nodes.put(entryStateNodeId, entryNode);
+    pNodeVisitor.visit(entryStateNodeId);
+    nodes.add(entryStateNodeId);
     while (!waitlist.isEmpty()) {
       String source = waitlist.pop();
       for (Edge edge : witness.getLeavingEdges().get(source)) {
-        Element targetNode = nodes.get(edge.getTarget());
-        if (targetNode == null) {
-          targetNode = createNewNode(doc, edge.getTarget(), witness);
-          if (!ExpressionTrees.getFalse()
-              .equals(addInvariantsData(doc, targetNode, edge.getTarget(), witness))) {
+        if (nodes.add(edge.getTarget())) {
+          pNodeVisitor.visit(edge.getTarget());
+          if (!ExpressionTrees.getFalse().equals(getExportedInvariant(witness, edge.getTarget()))) {
             waitlist.push(edge.getTarget());
           }
-          nodes.put(edge.getTarget(), targetNode);
         }
-        createNewEdge(doc, edge, targetNode);
+        pEdgeVisitor.visit(edge);
       }
     }
   }
 
-  private static Element createNewNode(
-      GraphMlBuilder pDoc, String pEntryStateNodeId, Witness witness) {
-    Element result = pDoc.createNodeElement(pEntryStateNodeId, NodeType.ONPATH);
+  private static void collectNodeKeys(Witness witness, String pNodeId, Set<KeyDef> pUsedKeys) {
+    if (witness.getWitnessOptions().exportNodeLabel()) {
+      pUsedKeys.add(KeyDef.LABEL);
+    }
+    for (NodeFlag f : witness.getNodeFlags().get(pNodeId)) {
+      pUsedKeys.add(f.key);
+    }
+    if (!witness.getViolatedProperties().get(pNodeId).isEmpty()) {
+      pUsedKeys.add(KeyDef.VIOLATEDPROPERTY);
+    }
+    if (witness.hasQuasiInvariant(pNodeId)) {
+      pUsedKeys.add(KeyDef.INVARIANT);
+    }
+    ExpressionTree<Object> tree = getExportedInvariant(witness, pNodeId);
+    if (!tree.equals(ExpressionTrees.getTrue())) {
+      pUsedKeys.add(KeyDef.INVARIANT);
+      String scope = witness.getStateScopes().get(pNodeId);
+      if (!isNullOrEmpty(scope) && !tree.equals(ExpressionTrees.getFalse())) {
+        pUsedKeys.add(KeyDef.INVARIANTSCOPE);
+      }
+    }
+  }
+
+  private static void writeNode(GraphMlStreamWriter pWriter, String pNodeId, Witness witness)
+      throws IOException {
+    pWriter.startNode(pNodeId, NodeType.ONPATH);
 
     if (witness.getWitnessOptions().exportNodeLabel()) {
       // add a printable label that for example is shown in yEd
-      pDoc.addDataElementChild(result, KeyDef.LABEL, pEntryStateNodeId);
+      pWriter.addData(KeyDef.LABEL, pNodeId);
     }
 
-    for (NodeFlag f : witness.getNodeFlags().get(pEntryStateNodeId)) {
-      pDoc.addDataElementChild(result, f.key, "true");
+    for (NodeFlag f : witness.getNodeFlags().get(pNodeId)) {
+      pWriter.addData(f.key, "true");
     }
-    for (Property violation : witness.getViolatedProperties().get(pEntryStateNodeId)) {
-      pDoc.addDataElementChild(result, KeyDef.VIOLATEDPROPERTY, violation.toString());
+    for (Property violation : witness.getViolatedProperties().get(pNodeId)) {
+      pWriter.addData(KeyDef.VIOLATEDPROPERTY, violation.toString());
     }
 
-    if (witness.hasQuasiInvariant(pEntryStateNodeId)) {
-      ExpressionTree<Object> tree = witness.getQuasiInvariant(pEntryStateNodeId);
-      pDoc.addDataElementChild(result, KeyDef.INVARIANT, tree.toString());
+    if (witness.hasQuasiInvariant(pNodeId)) {
+      ExpressionTree<Object> tree = witness.getQuasiInvariant(pNodeId);
+      pWriter.addData(KeyDef.INVARIANT, tree.toString());
     }
 
-    return result;
-  }
-
-  private static ExpressionTree<Object> addInvariantsData(
-      GraphMlBuilder pDoc, Element pNode, String pStateId, Witness witness) {
-    if (!witness.getInvariantExportStates().contains(pStateId)) {
-      return ExpressionTrees.getTrue();
-    }
-    ExpressionTree<Object> tree = witness.getStateInvariant(pStateId);
+    ExpressionTree<Object> tree = getExportedInvariant(witness, pNodeId);
     if (!tree.equals(ExpressionTrees.getTrue())) {
-      pDoc.addDataElementChild(pNode, KeyDef.INVARIANT, tree.toString());
-      String scope = witness.getStateScopes().get(pStateId);
+      pWriter.addData(KeyDef.INVARIANT, tree.toString());
+      String scope = witness.getStateScopes().get(pNodeId);
       if (!isNullOrEmpty(scope) && !tree.equals(ExpressionTrees.getFalse())) {
-        pDoc.addDataElementChild(pNode, KeyDef.INVARIANTSCOPE, scope);
+        pWriter.addData(KeyDef.INVARIANTSCOPE, scope);
       }
     }
-    return tree;
   }
 
-  private static Element createNewEdge(GraphMlBuilder pDoc, Edge pEdge, Element pTargetNode) {
-    Element edge = pDoc.createEdgeElement(pEdge.getSource(), pEdge.getTarget());
-    for (Map.Entry<KeyDef, String> entry : pEdge.getLabel().getMapping().entrySet()) {
-      KeyDef keyDef = entry.getKey();
-      String value = entry.getValue();
-      if (keyDef.keyFor.equals(ElementType.EDGE)) {
-        pDoc.addDataElementChild(edge, keyDef, value);
-      } else if (keyDef.keyFor.equals(ElementType.NODE)) {
-        pDoc.addDataElementChild(pTargetNode, keyDef, value);
-      }
+  private static ExpressionTree<Object> getExportedInvariant(Witness witness, String pStateId) {
+    if (!witness.getInvariantExportStates().contains(pStateId)) {
+      return ExpressionTrees.getTrue();
     }
-    return edge;
+    return witness.getStateInvariant(pStateId);
   }
 }
@@ -34,6 +34,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
@@ -55,6 +56,9 @@ public class Automaton {
   private final ImmutableList<AutomatonInternalState> states;
   private final AutomatonInternalState initState;
 
+  /* Set by the witness parser if this automaton was read from a GraphML witness. */
+  private @Nullable WitnessParseStatistics parseStatistics = null;
+
   public Automaton(String pName, Map<String, AutomatonVariable> pVars, List<AutomatonInternalState> pStates,
       String pInitialStateName) throws InvalidAutomatonException {
     this.name = pName;
@@ -95,6 +99,15 @@ public class Automaton {
     return states.size();
   }
 
+  @Nullable
+  WitnessParseStatistics getParseStatistics() {
+    return parseStatistics;
+  }
+
+  void setParseStatistics(@Nullable WitnessParseStatistics pParseStatistics) {
+    parseStatistics = pParseStatistics;
+  }
+
   /**
    * Prints the contents of a DOT file representing this automaton to the PrintStream.
    *
@@ -403,6 +403,10 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
       this.functionName = pFunctionName;
     }
 
+    String getFunctionName() {
+      return functionName;
+    }
+
     @Override
     public ResultValue<Boolean> eval(AutomatonExpressionArguments pArgs) {
       CFAEdge edge = pArgs.getCfaEdge();
@@ -732,6 +736,14 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
       successorNodeNumber = pSuccessorNodeNumber;
     }
 
+    int getPredecessorNodeNumber() {
+      return predecessorNodeNumber;
+    }
+
+    int getSuccessorNodeNumber() {
+      return successorNodeNumber;
+    }
+
     @Override
     public ResultValue<Boolean> eval(AutomatonExpressionArguments pArgs) {
       if (predecessorNodeNumber == pArgs.getCfaEdge().getPredecessor().getNodeNumber()
@@ -1037,6 +1049,14 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
       this.matchDescriptor = pDescriptor;
     }
 
+    FunctionEntryNode getMainEntry() {
+      return mainEntry;
+    }
+
+    java.util.function.Predicate<FileLocation> getMatchDescriptor() {
+      return matchDescriptor;
+    }
+
     @Override
     public ResultValue<Boolean> eval(AutomatonExpressionArguments pArgs) {
       return eval(pArgs.getCfaEdge()) ? CONST_TRUE : CONST_FALSE;
@@ -1405,6 +1425,14 @@ interface AutomatonBoolExpr extends AutomatonExpression<Boolean> {
       super(pA, pB, null, "&&");
     }
 
+    AutomatonBoolExpr getA() {
+      return a;
+    }
+
+    AutomatonBoolExpr getB() {
+      return b;
+    }
+
     @Override
     public ResultValue<Boolean> eval(AutomatonExpressionArguments pArgs)
         throws CPATransferException {
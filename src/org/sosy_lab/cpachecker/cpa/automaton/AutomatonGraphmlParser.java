@@ -29,7 +29,7 @@ import com.google.common.base.Predicates;
 import com.google.common.base.Strings;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
@@ -40,6 +40,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -50,7 +51,6 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.EnumSet;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -65,8 +65,6 @@ import java.util.logging.Level;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPInputStream;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -79,6 +77,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
@@ -105,7 +104,6 @@ import org.sosy_lab.cpachecker.util.Property;
 import org.sosy_lab.cpachecker.util.Property.CommonPropertyType;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
-import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.WitnessType;
@@ -115,11 +113,6 @@ import org.sosy_lab.cpachecker.util.expressions.ExpressionTree;
 import org.sosy_lab.cpachecker.util.expressions.ExpressionTrees;
 import org.sosy_lab.cpachecker.util.expressions.LeafExpression;
 import org.sosy_lab.cpachecker.util.expressions.ToCExpressionVisitor;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -289,7 +282,9 @@ public class AutomatonGraphmlParser {
             cfa.getMachineModel(),
             shutdownNotifier);
 
-    AutomatonGraphmlParserState graphMLParserState = setupGraphMLParser(pInputStream, pProperties);
+    WitnessGraphReader reader = new WitnessGraphReader();
+    AutomatonGraphmlParserState graphMLParserState =
+        setupGraphMLParser(reader, pInputStream, pProperties);
 
     // Parse the transitions
     parseTransitions(cparser, graphMLParserState);
@@ -314,6 +309,7 @@ public class AutomatonGraphmlParser {
 
     // the automaton will be an ISA if specified
     automaton = invariantsSpecAutomaton.build(automaton, config, logger, cfa);
+    automaton.setParseStatistics(reader.getStatistics());
 
     if (automatonDumpFile != null) {
       try (Writer w = IO.openOutputFile(automatonDumpFile, Charset.defaultCharset())) {
@@ -1005,6 +1001,7 @@ public class AutomatonGraphmlParser {
    * Initializes the GraphML-parser state by parsing the XML document from the given input stream
    * into an intermediate representation.
    *
+   * @param pReader the reader that converts the nodes and edges of the document.
    * @param pInputStream the input stream to read from.
    * @param pProperties which are assumed to be witnessed.
    * @return the initialized parser state.
@@ -1013,43 +1010,20 @@ public class AutomatonGraphmlParser {
    *     format fail.
    */
   private AutomatonGraphmlParserState setupGraphMLParser(
-      InputStream pInputStream, Set<Property> pProperties)
+      WitnessGraphReader pReader, InputStream pInputStream, Set<Property> pProperties)
       throws IOException, WitnessParseException {
 
-    GraphMLDocumentData docDat = parseXML(pInputStream);
+    GraphMLElement graph = pReader.read(pInputStream);
 
-    checkFields(docDat.getGraph());
+    checkFields(graph);
 
-    WitnessType graphType = getWitnessType(docDat.getGraph());
+    WitnessType graphType = getWitnessType(graph);
 
     // Extract the information on the automaton ----
-    Node nameAttribute = docDat.getGraph().getAttributes().getNamedItem("name");
+    String nameAttribute = graph.getAttribute("name");
     String automatonName = WITNESS_AUTOMATON_NAME;
     if (nameAttribute != null) {
-      automatonName += "_" + nameAttribute.getTextContent();
-    }
-
-    Map<String, GraphMLState> states = new LinkedHashMap<>();
-    Multimap<GraphMLState, GraphMLTransition> enteringTransitions = LinkedHashMultimap.create();
-    Multimap<GraphMLState, GraphMLTransition> leavingTransitions = LinkedHashMultimap.create();
-    NumericIdProvider numericIdProvider = NumericIdProvider.create();
-    Set<GraphMLState> entryStates = new LinkedHashSet<>();
-    for (Node transition : docDat.getTransitions()) {
-      collectEdgeData(
-          docDat,
-          states,
-          entryStates,
-          leavingTransitions,
-          enteringTransitions,
-          numericIdProvider,
-          transition);
-    }
-    if (states.size() < docDat.idToNodeMap.size()) {
-      for (String stateId : docDat.idToNodeMap.keySet()) {
-        if (!states.containsKey(stateId)) {
-          states.put(stateId, parseState(docDat, states, stateId, Optional.empty()));
-        }
-      }
+      automatonName += "_" + nameAttribute;
     }
 
     AutomatonGraphmlParserState state =
@@ -1057,9 +1031,9 @@ public class AutomatonGraphmlParser {
             automatonName,
             graphType,
             pProperties,
-            states.values(),
-            enteringTransitions,
-            leavingTransitions,
+            pReader.states.values(),
+            pReader.enteringTransitions,
+            pReader.leavingTransitions,
             cfa.getAllFunctionNames());
 
     // Check if entry state is connected to a violation state
@@ -1088,24 +1062,133 @@ public class AutomatonGraphmlParser {
     return state;
   }
 
-  private GraphMLDocumentData parseXML(InputStream pInputStream)
-      throws WitnessParseException, IOException {
+  /**
+   * Converts the nodes and edges of a witness into {@link GraphMLState}s and {@link
+   * GraphMLTransition}s while the document is read, such that the GraphML elements do not need to
+   * be kept in memory.
+   *
+   * <p>Edges are converted in document order. Nodes usually come before the edges that reference
+   * them, but GraphML does not require this. Thus an edge that references a node that was not read
+   * yet is kept until the end of the document, together with all edges after it.
+   */
+  private final class WitnessGraphReader implements GraphMLDocumentHandler.ElementVisitor {
 
-    // Parse the XML document ----
-    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
+    /** Number of nodes and edges read between two samples of the heap usage. */
+    private static final int HEAP_SAMPLE_INTERVAL = 1000;
 
-    Document doc;
-    try {
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      doc = docBuilder.parse(pInputStream);
-    } catch (ParserConfigurationException | SAXException e) {
-      throw new WitnessParseException(e);
+    /** The states of all nodes read so far, in document order. */
+    private final Map<String, GraphMLState> nodeStates = new LinkedHashMap<>();
+
+    /** The states in the order in which they are referenced by transitions. */
+    private final Map<String, GraphMLState> states = new LinkedHashMap<>();
+
+    private final Set<GraphMLState> entryStates = new LinkedHashSet<>();
+    private final Multimap<GraphMLState, GraphMLTransition> enteringTransitions =
+        LinkedHashMultimap.create();
+    private final Multimap<GraphMLState, GraphMLTransition> leavingTransitions =
+        LinkedHashMultimap.create();
+    private final NumericIdProvider numericIdProvider = NumericIdProvider.create();
+
+    private final List<GraphMLElement> deferredEdges = new ArrayList<>();
+
+    private @Nullable WitnessParseStatistics statistics = null;
+
+    private long maxSampledHeapUsage = 0;
+    private int elementsSinceHeapSample = 0;
+
+    /** Reads the document and returns its graph element. */
+    private GraphMLElement read(InputStream pInputStream)
+        throws IOException, WitnessParseException {
+      Timer readTime = new Timer();
+      readTime.start();
+      sampleHeapUsage();
+      GraphMLDocumentHandler document = GraphMLDocumentHandler.parse(pInputStream, this);
+
+      List<GraphMLElement> graphs = document.getGraphs();
+      checkParsable(graphs.size() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
+
+      int deferred = deferredEdges.size();
+      for (GraphMLElement edge : deferredEdges) {
+        convertEdge(edge);
+      }
+      deferredEdges.clear();
+      for (Map.Entry<String, GraphMLState> nodeState : nodeStates.entrySet()) {
+        states.putIfAbsent(nodeState.getKey(), nodeState.getValue());
+      }
+      readTime.stop();
+      sampleHeapUsage();
+
+      statistics =
+          new WitnessParseStatistics(
+              document.getNodeCount(),
+              document.getEdgeCount(),
+              deferred,
+              readTime.getLengthOfLastInterval(),
+              maxSampledHeapUsage);
+      logger.log(Level.FINE, statistics);
+      return Objects.requireNonNull(graphs.get(0));
+    }
+
+    private @Nullable WitnessParseStatistics getStatistics() {
+      return statistics;
     }
 
-    return new GraphMLDocumentData(doc);
+    /** Sample the used heap every {@link #HEAP_SAMPLE_INTERVAL} elements. */
+    private void sampleHeapUsageRegularly() {
+      if (++elementsSinceHeapSample >= HEAP_SAMPLE_INTERVAL) {
+        sampleHeapUsage();
+      }
+    }
+
+    private void sampleHeapUsage() {
+      elementsSinceHeapSample = 0;
+      maxSampledHeapUsage =
+          Math.max(
+              maxSampledHeapUsage,
+              ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    @Override
+    public void visitNode(GraphMLElement pNode) throws WitnessParseException {
+      sampleHeapUsageRegularly();
+      String stateId =
+          GraphMLDocumentData.getAttributeValue(pNode, "id", "Every state needs an ID!");
+      if (nodeStates.containsKey(stateId)) {
+        throw new WitnessParseException(
+            String.format("The state with id <%s> is defined more than once.", stateId));
+      }
+      nodeStates.put(stateId, parseState(stateId, pNode));
+    }
+
+    @Override
+    public void visitEdge(GraphMLElement pEdge) throws WitnessParseException {
+      sampleHeapUsageRegularly();
+      String source = pEdge.getAttribute("source");
+      String target = pEdge.getAttribute("target");
+      if (deferredEdges.isEmpty()
+          && source != null
+          && nodeStates.containsKey(source)
+          && target != null
+          && nodeStates.containsKey(target)) {
+        convertEdge(pEdge);
+      } else {
+        deferredEdges.add(pEdge);
+      }
+    }
+
+    private void convertEdge(GraphMLElement pEdge) throws WitnessParseException {
+      collectEdgeData(
+          nodeStates,
+          states,
+          entryStates,
+          leavingTransitions,
+          enteringTransitions,
+          numericIdProvider,
+          pEdge);
+    }
   }
 
-  private void checkFields(Node graphNode) throws IOException, WitnessParseException {
+  private void checkFields(GraphMLElement graphNode) throws IOException, WitnessParseException {
 
     checkHashSum(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.PROGRAMHASH));
     checkArchitecture(GraphMLDocumentData.getDataOnNode(graphNode, KeyDef.ARCHITECTURE));
@@ -1143,7 +1226,7 @@ public class AutomatonGraphmlParser {
     return functionExitMatcher;
   }
 
-  private static boolean entersLoopHead(Node pTransition) throws WitnessParseException {
+  private static boolean entersLoopHead(GraphMLElement pTransition) throws WitnessParseException {
     Set<String> loopHeadFlags =
         GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ENTERLOOPHEAD);
     if (!loopHeadFlags.isEmpty()) {
@@ -1190,8 +1273,8 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which line numbers to assume.
    * @return a predicate to match file locations based on the line numbers specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(Node pTransition)
-      throws WitnessParseException {
+  private static Optional<Predicate<FileLocation>> getOriginLineMatcherPredicate(
+      GraphMLElement pTransition) throws WitnessParseException {
     Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
@@ -1244,7 +1327,8 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition specifying which character offset to assume.
    * @return a predicate to match file locations based on the offsets specified by the transition.
    */
-  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(Node pTransition) throws WitnessParseException {
+  private static Optional<Predicate<FileLocation>> getOffsetMatcherPredicate(
+      GraphMLElement pTransition) throws WitnessParseException {
     Set<String> originFileTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.ORIGINFILE);
     checkParsable(
         originFileTags.size() < 2,
@@ -1298,7 +1382,8 @@ public class AutomatonGraphmlParser {
    * @return an automaton-transition condition for specific branches of an assumption corresponding
    *     to the control case specified by the given transition.
    */
-  private static AutomatonBoolExpr getAssumeCaseMatcher(Node pTransition) throws WitnessParseException {
+  private static AutomatonBoolExpr getAssumeCaseMatcher(GraphMLElement pTransition)
+      throws WitnessParseException {
     Set<String> assumeCaseTags = GraphMLDocumentData.getDataOnNode(pTransition, KeyDef.CONTROLCASE);
 
     if (!assumeCaseTags.isEmpty()) {
@@ -1329,8 +1414,13 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> getThread(
-      Node pTransition, NumericIdProvider pNumericIdProvider) throws WitnessParseException {
-    return parseThreadId(pTransition, pNumericIdProvider, KeyDef.THREADID, "At most one threadId tag must be provided for each transition.");
+      GraphMLElement pTransition, NumericIdProvider pNumericIdProvider)
+      throws WitnessParseException {
+    return parseThreadId(
+        pTransition,
+        pNumericIdProvider,
+        KeyDef.THREADID,
+        "At most one threadId tag must be provided for each transition.");
   }
 
   /**
@@ -1345,7 +1435,10 @@ public class AutomatonGraphmlParser {
    * @throws WitnessParseException if more than one thread id was specified.
    */
   private static Optional<GraphMLTransition.GraphMLThread> parseThreadId(
-      Node pTransition, NumericIdProvider pNumericIdProvider, KeyDef pKey, String pErrorMessage)
+      GraphMLElement pTransition,
+      NumericIdProvider pNumericIdProvider,
+      KeyDef pKey,
+      String pErrorMessage)
       throws WitnessParseException {
     Set<String> threadIdTags = GraphMLDocumentData.getDataOnNode(pTransition, pKey);
 
@@ -1373,8 +1466,9 @@ public class AutomatonGraphmlParser {
   /**
    * Reads an automaton edge from the graphml file and inserts it into the automaton.
    *
-   * @param pDocDat the GraphML-document-data helper.
-   * @param pStates the map from state identifiers to parsed states.
+   * @param pNodeStates the map from state identifiers to the states parsed from the nodes.
+   * @param pStates the map from state identifiers to the states referenced by transitions, which
+   *     the source and target of the given transition will be entered into.
    * @param pEntryStates the set of entry states.
    * @param pLeavingEdges the map from predecessor states to transitions leaving these states that
    *     the given transition will be entered into.
@@ -1385,23 +1479,23 @@ public class AutomatonGraphmlParser {
    * @param pTransition the transition to be analyzed, represented as a GraphML edge.
    */
   private void collectEdgeData(
-      GraphMLDocumentData pDocDat,
+      Map<String, GraphMLState> pNodeStates,
       Map<String, GraphMLState> pStates,
       Set<GraphMLState> pEntryStates,
       Multimap<GraphMLState, GraphMLTransition> pLeavingEdges,
       Multimap<GraphMLState, GraphMLTransition> pEnteringEdges,
       NumericIdProvider pNumericThreadIdProvider,
-      Node pTransition)
+      GraphMLElement pTransition)
       throws WitnessParseException {
     String sourceStateId =
         GraphMLDocumentData.getAttributeValue(
             pTransition, "source", "Every transition needs a source!");
-    GraphMLState source = parseState(pDocDat, pStates, sourceStateId, Optional.of(pTransition));
+    GraphMLState source = lookupState(pNodeStates, pStates, sourceStateId, pTransition);
 
     String targetStateId =
         GraphMLDocumentData.getAttributeValue(
             pTransition, "target", "Every transition needs a target!");
-    GraphMLState target = parseState(pDocDat, pStates, targetStateId, Optional.of(pTransition));
+    GraphMLState target = lookupState(pNodeStates, pStates, targetStateId, pTransition);
 
     Optional<String> functionEntry = parseSingleDataValue(pTransition, KeyDef.FUNCTIONENTRY,
         "At most one function can be entered by one transition.");
@@ -1439,21 +1533,6 @@ public class AutomatonGraphmlParser {
     pLeavingEdges.put(source, transition);
     pEnteringEdges.put(target, transition);
 
-    Element sourceStateNode = pDocDat.getNodeWithId(sourceStateId);
-    if (sourceStateNode == null) {
-      throw new WitnessParseException(
-          String.format(
-              "Source %s of transition %s does not exist.",
-              sourceStateId, transitionToString(pTransition)));
-    }
-    Element targetStateNode = pDocDat.getNodeWithId(targetStateId);
-    if (targetStateNode == null) {
-      throw new WitnessParseException(
-          String.format(
-              "Target %s of transition %s does not exist.",
-              targetStateId, transitionToString(pTransition)));
-    }
-
     if (source.isViolationState()) {
       logger.log(
           Level.WARNING,
@@ -1478,47 +1557,37 @@ public class AutomatonGraphmlParser {
     }
   }
 
-  private GraphMLState parseState(
-      GraphMLDocumentData pDocDat,
+  private static GraphMLState lookupState(
+      Map<String, GraphMLState> pNodeStates,
       Map<String, GraphMLState> pStates,
       String pStateId,
-      Optional<Node> pReference)
+      GraphMLElement pReference)
       throws WitnessParseException {
-    GraphMLState result = pStates.get(pStateId);
-    if (result != null) {
-      return result;
-    }
-
-    Element stateNode = pDocDat.getNodeWithId(pStateId);
-    if (stateNode == null) {
-      final String message;
-      if (pReference.isPresent()) {
-        message =
-            String.format(
-                "The state with id <%s> does not exist, but is referenced in the transition <%s>",
-                pStateId, transitionToString(pReference.get()));
-      } else {
-        message = String.format("The state with if <%s> does not exist.", pStateId);
-      }
-      throw new WitnessParseException(message);
+    GraphMLState result = pNodeStates.get(pStateId);
+    if (result == null) {
+      throw new WitnessParseException(
+          String.format(
+              "The state with id <%s> does not exist, but is referenced in the transition <%s>",
+              pStateId, transitionToString(pReference)));
     }
+    pStates.putIfAbsent(pStateId, result);
+    return result;
+  }
 
-    Set<String> candidates = GraphMLDocumentData.getDataOnNode(stateNode, KeyDef.INVARIANT);
-    Optional<String> candidateScope = parseSingleDataValue(stateNode, KeyDef.INVARIANTSCOPE,
+  private static GraphMLState parseState(String pStateId, GraphMLElement pStateNode)
+      throws WitnessParseException {
+    Set<String> candidates = GraphMLDocumentData.getDataOnNode(pStateNode, KeyDef.INVARIANT);
+    Optional<String> candidateScope = parseSingleDataValue(pStateNode, KeyDef.INVARIANTSCOPE,
         "At most one explicit invariant scope must be provided for a state.");
 
-    result = new GraphMLState(
+    return new GraphMLState(
         pStateId,
         candidates,
         candidateScope,
-        pDocDat.getNodeFlags(stateNode));
-
-    pStates.put(pStateId, result);
-
-    return result;
+        GraphMLDocumentData.getNodeFlags(pStateNode));
   }
 
-  private static Optional<String> parseSingleDataValue(Node pEdge,
+  private static Optional<String> parseSingleDataValue(GraphMLElement pEdge,
       KeyDef pKey,
       String pErrorMessage) throws WitnessParseException {
     Set<String> values =
@@ -1534,7 +1603,7 @@ public class AutomatonGraphmlParser {
    * @param pAutomaton the GraphML graph node representing the witness automaton.
    * @return the witness-automaton type of an automaton represented as a GraphML graph.
    */
-  private WitnessType getWitnessType(Node pAutomaton) throws WitnessParseException {
+  private WitnessType getWitnessType(GraphMLElement pAutomaton) throws WitnessParseException {
     Set<String> witnessTypeText =
         GraphMLDocumentData.getDataOnNode(pAutomaton, KeyDef.WITNESS_TYPE);
     final WitnessType witnessType;
@@ -1558,27 +1627,24 @@ public class AutomatonGraphmlParser {
     return witnessType;
   }
 
-  private static String transitionToString(Node pTransition) {
+  private static String transitionToString(GraphMLElement pTransition) {
     if (pTransition == null) {
       return "null";
     }
-    NamedNodeMap attributes = pTransition.getAttributes();
-    if (attributes != null) {
-      Node id = attributes.getNamedItem("id");
-      if (id != null) {
-        return id.getNodeValue();
-      }
+    String id = pTransition.getAttribute("id");
+    if (id != null) {
+      return id;
     }
     return pTransition.toString();
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey)
+  private static void checkRequiredField(GraphMLElement pGraphNode, KeyDef pKey)
       throws WitnessParseException {
     checkRequiredField(pGraphNode, pKey, false);
   }
 
-  private static void checkRequiredField(Node pGraphNode, KeyDef pKey, boolean pAcceptEmpty)
-      throws WitnessParseException {
+  private static void checkRequiredField(
+      GraphMLElement pGraphNode, KeyDef pKey, boolean pAcceptEmpty) throws WitnessParseException {
     Iterable<String> data = GraphMLDocumentData.getDataOnNode(pGraphNode, pKey);
     if (Iterables.isEmpty(data)) {
       throw new WitnessParseException(
@@ -1932,46 +1998,12 @@ public class AutomatonGraphmlParser {
 
   private static class GraphMLDocumentData {
 
-    private final Node graph;
-
-    private final ImmutableMap<String, Element> idToNodeMap;
-
-    private final Iterable<Node> transitions;
-
-    public GraphMLDocumentData(Document pDocument) throws WitnessParseException {
-
-      NodeList graphs = pDocument.getElementsByTagName(GraphMLTag.GRAPH.toString());
-      checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-      graph = Objects.requireNonNull(graphs.item(0));
-
-      ImmutableMap.Builder<String, Element> idToNodeMapBuilder = ImmutableMap.builder();
-      NodeList nodes = pDocument.getElementsByTagName(GraphMLTag.NODE.toString());
-      for (Node stateNode : asIterable(nodes)) {
-        String stateId = getAttributeValue(stateNode, "id", "Every state needs an ID!");
-        idToNodeMapBuilder.put(stateId, (Element) stateNode);
-      }
-      idToNodeMap = idToNodeMapBuilder.build();
-
-      transitions = asIterable(pDocument.getElementsByTagName(GraphMLTag.EDGE.toString()));
-    }
-
-    public Node getGraph() {
-      return graph;
-    }
-
-    public Iterable<Node> getTransitions() {
-      return transitions;
-    }
+    private GraphMLDocumentData() {}
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
+    private static EnumSet<NodeFlag> getNodeFlags(GraphMLElement pStateNode) {
       EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMLTag.DATA.toString());
-
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
+      for (String key : pStateNode.getData().keySet()) {
         NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
         if (flag != null) {
           result.add(flag);
@@ -1981,62 +2013,29 @@ public class AutomatonGraphmlParser {
       return result;
     }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage)
+    private static String getAttributeValue(
+        GraphMLElement of, String attributeName, String exceptionMessage)
         throws WitnessParseException {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
+      String attribute = of.getAttribute(attributeName);
       if (attribute == null) {
         throw new WitnessParseException(exceptionMessage);
       }
-      return attribute.getTextContent();
-    }
-
-    private @Nullable Element getNodeWithId(String nodeId) {
-      Element result = idToNodeMap.get(nodeId);
-      if (result == null
-          || !result.getTagName().equals(GraphMLTag.NODE.toString())) {
-        return null;
-      }
-      return result;
+      return attribute;
     }
 
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
+    private static Set<String> getDataOnNode(GraphMLElement node, final KeyDef dataKey) {
       Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Set<Node> dataNodes = findKeyedDataNode((Element) node, dataKey);
 
-      Set<String> result = new LinkedHashSet<>();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
-      }
-      return result;
-    }
-
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = new LinkedHashSet<>();
-      Set<Node> alternative = null;
-      NodeList dataChilds = of.getElementsByTagName(GraphMLTag.DATA.toString());
-      for (Node dataChild : asIterable(dataChilds)) {
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String nodeKey = attribute.getTextContent();
-        if (nodeKey.equals(dataKey.id)) {
-          result.add(dataChild);
-          alternative = null;
+      ImmutableListMultimap<String, String> data = node.getData();
+      List<String> values = data.get(dataKey.id);
+      // Backwards-compatibility: type/graph-type
+      if (values.isEmpty() && dataKey.equals(KeyDef.WITNESS_TYPE)) {
+        values = data.get("type");
+        if (!values.isEmpty()) {
+          values = values.subList(0, 1);
         }
-        // Backwards-compatibility: type/graph-type
-        if (alternative == null
-            && result.isEmpty()
-            && dataKey.equals(KeyDef.WITNESS_TYPE)
-            && nodeKey.equals("type")) {
-          alternative = new LinkedHashSet<>();
-          alternative.add(dataChild);
-        }
-      }
-      if (result.isEmpty() && alternative != null) {
-        return alternative;
       }
-      return result;
+      return new LinkedHashSet<>(values);
     }
 
   }
@@ -2091,19 +2090,14 @@ public class AutomatonGraphmlParser {
   private static AutomatonGraphmlCommon.WitnessType getWitnessType(InputStream pInputStream)
       throws InvalidConfigurationException, IOException {
     // Parse the XML document ----
-    DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-    Document doc;
-    try {
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      doc = docBuilder.parse(pInputStream);
-    } catch (ParserConfigurationException | SAXException e) {
-      throw new WitnessParseException(e);
-    }
+    GraphMLDocumentHandler doc =
+        GraphMLDocumentHandler.parse(
+            pInputStream, GraphMLDocumentHandler.IGNORE_NODES_AND_EDGES);
 
     // (The one) root node of the graph ----
-    NodeList graphs = doc.getElementsByTagName(GraphMLTag.GRAPH.toString());
-    checkParsable(graphs.getLength() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
-    Node graphNode = graphs.item(0);
+    List<GraphMLElement> graphs = doc.getGraphs();
+    checkParsable(graphs.size() == 1, TOO_MANY_GRAPHS_ERROR_MESSAGE);
+    GraphMLElement graphNode = graphs.get(0);
 
     checkRequiredField(graphNode, KeyDef.WITNESS_TYPE);
 
@@ -2215,34 +2209,4 @@ public class AutomatonGraphmlParser {
       throw pExceptionHandler.apply(e);
     }
   }
-
-
-  /** return a nice {@link Iterable} wrapping the interface {@link NodeList}. */
-  private static Iterable<Node> asIterable(final NodeList pNodeList) {
-    return new Iterable<Node>() {
-
-      private Integer length = null;
-
-      @Override
-      public Iterator<Node> iterator() {
-        return new Iterator<Node>() {
-
-          private int index = 0;
-
-          @Override
-          public boolean hasNext() {
-            if (length == null) {
-              length = pNodeList.getLength();
-            }
-            return index < length;
-          }
-
-          @Override
-          public Node next() {
-            return pNodeList.item(index++);
-          }
-        };
-      }
-    };
-  }
 }
@@ -0,0 +1,217 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.DummyScope;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser.WitnessParseException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class AutomatonGraphmlParserTest {
+
+  private static final String HEADER =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n"
+          + "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n"
+          + " <graph edgedefault=\"directed\">\n"
+          + "  <data key=\"witness-type\">violation_witness</data>\n";
+
+  private static final String FOOTER = " </graph>\n</graphml>\n";
+
+  private static final ImmutableList<String> NODES =
+      ImmutableList.of(
+          "  <node id=\"A\"><data key=\"entry\">true</data></node>\n",
+          "  <node id=\"B\"/>\n",
+          "  <node id=\"C\"><data key=\"violation\">true</data></node>\n");
+
+  private static final ImmutableList<String> EDGES =
+      ImmutableList.of(
+          "  <edge source=\"A\" target=\"B\"><data key=\"startline\">2</data></edge>\n",
+          "  <edge source=\"B\" target=\"C\"><data key=\"startline\">3</data></edge>\n");
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private AutomatonGraphmlParser parser;
+
+  @Before
+  public void setUp() throws Exception {
+    Configuration config =
+        TestDataTools.configurationForTest()
+            .setOption("witness.checkProgramHash", "false")
+            .setOption("witness.strictChecking", "false")
+            .build();
+    CFA cfa = TestDataTools.makeCFA("void main() {", "  int x = 0;", "  x = 1;", "}");
+    parser =
+        new AutomatonGraphmlParser(
+            config,
+            LogManager.createTestLogManager(),
+            ShutdownNotifier.createDummy(),
+            cfa,
+            DummyScope.getInstance());
+  }
+
+  private Automaton parse(String pWitness) throws Exception {
+    Path file = tempFolder.newFile().toPath();
+    Files.write(file, pWitness.getBytes(StandardCharsets.UTF_8));
+    List<Automaton> automata = parser.parseAutomatonFile(file, ImmutableSet.of());
+    assertThat(automata).hasSize(1);
+    return automata.get(0);
+  }
+
+  @Test
+  public void testNodesBeforeEdges() throws Exception {
+    Automaton automaton =
+        parse(HEADER + Joiner.on("").join(NODES) + Joiner.on("").join(EDGES) + FOOTER);
+
+    WitnessParseStatistics statistics = automaton.getParseStatistics();
+    assertThat(statistics).isNotNull();
+    assertThat(statistics.getNodes()).isEqualTo(3);
+    assertThat(statistics.getEdges()).isEqualTo(2);
+    assertThat(statistics.getDeferredEdges()).isEqualTo(0);
+  }
+
+  @Test
+  public void testEdgesBeforeNodes() throws Exception {
+    Automaton nodesFirst =
+        parse(HEADER + Joiner.on("").join(NODES) + Joiner.on("").join(EDGES) + FOOTER);
+    // the first edge can be converted immediately, the second one only at the end
+    Automaton edgesInterleaved =
+        parse(
+            HEADER
+                + NODES.get(0)
+                + NODES.get(1)
+                + EDGES.get(0)
+                + EDGES.get(1)
+                + NODES.get(2)
+                + FOOTER);
+
+    assertThat(edgesInterleaved.getParseStatistics().getDeferredEdges()).isEqualTo(1);
+    assertThat(edgesInterleaved.toString()).isEqualTo(nodesFirst.toString());
+  }
+
+  @Test
+  public void testMissingNode() throws Exception {
+    try {
+      parse(HEADER + NODES.get(0) + NODES.get(1) + Joiner.on("").join(EDGES) + FOOTER);
+      fail();
+    } catch (WitnessParseException e) {
+      assertThat(e).hasMessageThat().contains("<C> does not exist");
+    }
+  }
+
+  @Test
+  public void testDuplicateNode() throws Exception {
+    try {
+      parse(
+          HEADER + Joiner.on("").join(NODES) + NODES.get(1) + Joiner.on("").join(EDGES) + FOOTER);
+      fail();
+    } catch (WitnessParseException e) {
+      assertThat(e).hasMessageThat().contains("<B> is defined more than once");
+    }
+  }
+
+  private static InputStream toStream(String pDocument) {
+    return new ByteArrayInputStream(pDocument.getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testHandlerPassesElementsInDocumentOrder()
+      throws IOException, WitnessParseException {
+    List<String> visited = new ArrayList<>();
+    GraphMLDocumentHandler.ElementVisitor visitor =
+        new GraphMLDocumentHandler.ElementVisitor() {
+
+          @Override
+          public void visitNode(GraphMLElement pNode) {
+            visited.add("node " + pNode.getAttribute("id") + " " + pNode.getData());
+          }
+
+          @Override
+          public void visitEdge(GraphMLElement pEdge) {
+            visited.add(
+                "edge " + pEdge.getAttribute("source") + "->" + pEdge.getAttribute("target"));
+          }
+        };
+
+    GraphMLDocumentHandler document =
+        GraphMLDocumentHandler.parse(
+            toStream(
+                HEADER
+                    + NODES.get(0)
+                    + EDGES.get(0)
+                    + "  <node id=\"B\"><data key=\"invariant\">x <b>==</b> 1</data></node>\n"
+                    + FOOTER),
+            visitor);
+
+    assertThat(visited)
+        .containsExactly("node A {entry=[true]}", "edge A->B", "node B {invariant=[x == 1]}")
+        .inOrder();
+    assertThat(document.getNodeCount()).isEqualTo(2);
+    assertThat(document.getEdgeCount()).isEqualTo(1);
+    assertThat(document.getGraphs()).hasSize(1);
+    assertThat(document.getGraphs().get(0).getData().get("witness-type"))
+        .containsExactly("violation_witness");
+  }
+
+  @Test
+  public void testHandlerPropagatesVisitorException() throws IOException {
+    GraphMLDocumentHandler.ElementVisitor visitor =
+        new GraphMLDocumentHandler.ElementVisitor() {
+
+          @Override
+          public void visitNode(GraphMLElement pNode) throws WitnessParseException {
+            throw new WitnessParseException("rejected " + pNode.getAttribute("id"));
+          }
+
+          @Override
+          public void visitEdge(GraphMLElement pEdge) {}
+        };
+    try {
+      GraphMLDocumentHandler.parse(toStream(HEADER + NODES.get(0) + FOOTER), visitor);
+      fail();
+    } catch (WitnessParseException e) {
+      assertThat(e).hasMessageThat().endsWith("rejected A");
+    }
+  }
+}
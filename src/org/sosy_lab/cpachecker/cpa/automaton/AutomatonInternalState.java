@@ -27,6 +27,7 @@ import com.google.common.collect.ImmutableList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -90,6 +91,9 @@ public class AutomatonInternalState {
 
   private final boolean isCycleStart;
 
+  /** Lazily created index of the outgoing transitions, see {@link #getTransitionIndex()}. */
+  private volatile @Nullable AutomatonTransitionIndex transitionIndex = null;
+
   public AutomatonInternalState(
       String pName,
       List<AutomatonTransition> pTransitions,
@@ -164,6 +168,19 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  /**
+   * Returns an index of the outgoing transitions by cheap properties of the CFA edge. The index is
+   * created on first use; concurrent first uses may create it more than once, which is harmless.
+   */
+  AutomatonTransitionIndex getTransitionIndex() {
+    AutomatonTransitionIndex index = transitionIndex;
+    if (index == null) {
+      index = new AutomatonTransitionIndex(this);
+      transitionIndex = index;
+    }
+    return index;
+  }
+
   @Override
   public String toString() {
     return this.name;
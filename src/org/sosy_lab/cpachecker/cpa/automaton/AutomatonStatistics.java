@@ -23,11 +23,14 @@
  */
 package org.sosy_lab.cpachecker.cpa.automaton;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 import java.io.PrintStream;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
@@ -42,6 +45,8 @@ class AutomatonStatistics implements Statistics {
   ThreadSafeTimerContainer actionTime          = new ThreadSafeTimerContainer("Time for transition actions");
   ThreadSafeTimerContainer totalStrengthenTime = new ThreadSafeTimerContainer("Total time for strengthen operator");
   StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  StatCounter indexedTransfers = new StatCounter("Automaton transfers using transition index");
+  StatCounter skippedMatches = new StatCounter("Transition matches skipped by transition index");
 
   public AutomatonStatistics(Automaton pAutomaton) {
     automaton = pAutomaton;
@@ -55,6 +60,19 @@ class AutomatonStatistics implements Statistics {
   @Override
   public void printStatistics(PrintStream out, Result pResult, UnmodifiableReachedSet pReached) {
     put(out, 0, "Number of states", automaton.getNumberOfStates());
+
+    WitnessParseStatistics parseStatistics = automaton.getParseStatistics();
+    if (parseStatistics != null) {
+      put(out, 0, "Time for reading witness", parseStatistics.getReadTime().formatAs(SECONDS));
+      put(out, 1, "Number of witness nodes", parseStatistics.getNodes());
+      put(out, 1, "Number of witness edges", parseStatistics.getEdges());
+      put(out, 1, "Edges read before their nodes", parseStatistics.getDeferredEdges());
+      put(
+          out,
+          1,
+          "Max. heap usage sampled while reading",
+          (parseStatistics.getMaxSampledHeapUsage() >> 20) + "MB");
+    }
     put(out, 0, totalPostTime);
 
     if (totalPostTime.getSumTime().compareTo(TimeSpan.ofMillis(500)) >= 0) {
@@ -69,6 +87,11 @@ class AutomatonStatistics implements Statistics {
       put(out, 0, totalStrengthenTime);
     }
 
+    if (indexedTransfers.getValue() > 0) {
+      put(out, 0, indexedTransfers);
+      put(out, 1, skippedMatches);
+    }
+
     long stateBranchings =
         automatonSuccessors.getValueCount()
             - automatonSuccessors.getTimesWithValue(0)
@@ -61,6 +61,7 @@ import org.sosy_lab.cpachecker.cpa.threading.ThreadingState;
 import org.sosy_lab.cpachecker.cpa.threading.ThreadingTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
@@ -73,6 +74,7 @@ public class AutomatonTransferRelation implements TransferRelation {
   private final ControlAutomatonCPA cpa;
   private final LogManager logger;
   private final MachineModel machineModel;
+  private final boolean indexTransitions;
 
   private final TimerWrapper totalPostTime;
   private final TimerWrapper matchTime;
@@ -80,15 +82,19 @@ public class AutomatonTransferRelation implements TransferRelation {
   private final TimerWrapper actionTime;
   private final TimerWrapper totalStrengthenTime;
   private final StatIntHist automatonSuccessors;
+  private final StatCounter indexedTransfers;
+  private final StatCounter skippedMatches;
 
   public AutomatonTransferRelation(
       ControlAutomatonCPA pCpa,
       LogManager pLogger,
       MachineModel pMachineModel,
-      AutomatonStatistics pStats) {
+      AutomatonStatistics pStats,
+      boolean pIndexTransitions) {
     this.cpa = pCpa;
     this.logger = pLogger;
     this.machineModel = pMachineModel;
+    this.indexTransitions = pIndexTransitions;
 
     totalPostTime = pStats.totalPostTime.getNewTimer();
     matchTime = pStats.matchTime.getNewTimer();
@@ -96,6 +102,8 @@ public class AutomatonTransferRelation implements TransferRelation {
     actionTime = pStats.actionTime.getNewTimer();
     totalStrengthenTime = pStats.totalStrengthenTime.getNewTimer();
     automatonSuccessors = pStats.automatonSuccessors;
+    indexedTransfers = pStats.indexedTransfers;
+    skippedMatches = pStats.skippedMatches;
   }
 
   @Override
@@ -192,7 +200,20 @@ public class AutomatonTransferRelation implements TransferRelation {
     List<Pair<AutomatonTransition, Map<Integer, AAstNode>>> transitionsToBeTaken =
         new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    List<AutomatonTransition> transitions = state.getInternalState().getTransitions();
+    if (indexTransitions
+        && transitions.size() >= AutomatonTransitionIndex.MIN_INDEXED_TRANSITIONS) {
+      // transitions that are not candidates for this edge are guaranteed not to match,
+      // so they count as failed matches in case no transition matches
+      List<AutomatonTransition> candidates =
+          state.getInternalState().getTransitionIndex().getCandidates(edge);
+      failedMatches = transitions.size() - candidates.size();
+      indexedTransfers.inc();
+      skippedMatches.inc(failedMatches);
+      transitions = candidates;
+    }
+
+    for (AutomatonTransition t : transitions) {
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
@@ -0,0 +1,258 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.And;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeASTComparison;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeNodes;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCall;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionCallStatement;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchFunctionExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.LineMatcher;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon;
+
+/**
+ * Index of the outgoing transitions of an {@link AutomatonInternalState} by cheap properties of a
+ * CFA edge (predecessor node, source line, edge type, and called function).
+ *
+ * <p>The discriminators are taken from the conjuncts of each transition trigger. A transition is
+ * only excluded from the candidates for an edge if one of these conjuncts definitely evaluates to
+ * false on that edge, which makes the whole trigger false. Matching only the candidates (in their
+ * original order) thus gives the same result as matching all transitions.
+ */
+final class AutomatonTransitionIndex {
+
+  /** States with fewer transitions are not worth indexing. */
+  static final int MIN_INDEXED_TRANSITIONS = 8;
+
+  /**
+   * Line ranges spanning more lines than this are not enumerated line by line, neither for the
+   * transitions nor for the edges. Such transitions are treated as unindexed.
+   */
+  static final int MAX_INDEXED_LINE_SPAN = 32;
+
+  private final ImmutableList<AutomatonTransition> transitions;
+
+  /** Necessary condition on the edge for each transition, in the order of the transitions. */
+  private final ImmutableList<Predicate<CFAEdge>> edgeFilters;
+
+  private final ImmutableListMultimap<Integer, Integer> byPredecessorNode;
+  private final ImmutableListMultimap<Integer, Integer> byLine;
+  private final ImmutableListMultimap<Integer, Integer> byOriginLine;
+
+  /** Transitions that are contained in none of the above maps. */
+  private final BitSet unindexed;
+
+  /** The main entry used for computing the file locations of an edge for the line index. */
+  private final @Nullable FunctionEntryNode mainEntry;
+
+  AutomatonTransitionIndex(AutomatonInternalState pState) {
+    transitions = pState.getTransitions();
+
+    ImmutableList.Builder<Predicate<CFAEdge>> filters = ImmutableList.builder();
+    ImmutableListMultimap.Builder<Integer, Integer> predecessorIndex =
+        ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<Integer, Integer> lineIndex = ImmutableListMultimap.builder();
+    ImmutableListMultimap.Builder<Integer, Integer> originLineIndex =
+        ImmutableListMultimap.builder();
+    unindexed = new BitSet(transitions.size());
+    FunctionEntryNode lineIndexMainEntry = null;
+
+    for (int i = 0; i < transitions.size(); i++) {
+      List<AutomatonBoolExpr> conjuncts = new ArrayList<>();
+      collectConjuncts(transitions.get(i).getTrigger(), conjuncts);
+      filters.add(buildEdgeFilter(conjuncts));
+
+      MatchCFAEdgeNodes nodes = getFirst(conjuncts, MatchCFAEdgeNodes.class);
+      if (nodes != null) {
+        predecessorIndex.put(nodes.getPredecessorNodeNumber(), i);
+        continue;
+      }
+
+      MatchLocationDescriptor location = findLineDescriptor(conjuncts);
+      if (location != null
+          && isIndexedLineSpan((LineMatcher) location.getMatchDescriptor())
+          && (lineIndexMainEntry == null || lineIndexMainEntry.equals(location.getMainEntry()))) {
+        lineIndexMainEntry = location.getMainEntry();
+        LineMatcher lines = (LineMatcher) location.getMatchDescriptor();
+        ImmutableListMultimap.Builder<Integer, Integer> index =
+            lines.isOriginLine() ? originLineIndex : lineIndex;
+        for (int line = lines.getStartLineNumber(); line <= lines.getEndLineNumber(); line++) {
+          index.put(line, i);
+        }
+        continue;
+      }
+
+      unindexed.set(i);
+    }
+
+    edgeFilters = filters.build();
+    byPredecessorNode = predecessorIndex.build();
+    byLine = lineIndex.build();
+    byOriginLine = originLineIndex.build();
+    mainEntry = lineIndexMainEntry;
+  }
+
+  /**
+   * Returns the transitions that may match the given edge, in their original order. All other
+   * transitions of the state are guaranteed not to match the edge.
+   */
+  List<AutomatonTransition> getCandidates(CFAEdge pEdge) {
+    BitSet candidates = (BitSet) unindexed.clone();
+    for (int i : byPredecessorNode.get(pEdge.getPredecessor().getNodeNumber())) {
+      candidates.set(i);
+    }
+    if (mainEntry != null) {
+      for (FileLocation location :
+          AutomatonGraphmlCommon.getFileLocationsFromCfaEdge(pEdge, mainEntry)) {
+        addLines(
+            candidates,
+            byOriginLine,
+            location.getStartingLineInOrigin(),
+            location.getEndingLineInOrigin());
+        addLines(
+            candidates,
+            byLine,
+            location.getStartingLineNumber(),
+            location.getEndingLineNumber());
+      }
+    }
+
+    List<AutomatonTransition> result = new ArrayList<>(candidates.cardinality());
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      if (edgeFilters.get(i).test(pEdge)) {
+        result.add(transitions.get(i));
+      }
+    }
+    return result;
+  }
+
+  private static void addLines(
+      BitSet pCandidates, ImmutableListMultimap<Integer, Integer> pIndex, int pStart, int pEnd) {
+    if (pIndex.isEmpty() || pEnd < pStart) {
+      return;
+    }
+    if (pEnd - pStart > MAX_INDEXED_LINE_SPAN) {
+      for (int i : pIndex.values()) {
+        pCandidates.set(i);
+      }
+    } else {
+      for (int line = pStart; line <= pEnd; line++) {
+        for (int i : pIndex.get(line)) {
+          pCandidates.set(i);
+        }
+      }
+    }
+  }
+
+  private static boolean isIndexedLineSpan(LineMatcher pLines) {
+    return (long) pLines.getEndLineNumber() - pLines.getStartLineNumber() <= MAX_INDEXED_LINE_SPAN;
+  }
+
+  private static void collectConjuncts(AutomatonBoolExpr pExpr, List<AutomatonBoolExpr> pResult) {
+    if (pExpr instanceof And) {
+      collectConjuncts(((And) pExpr).getA(), pResult);
+      collectConjuncts(((And) pExpr).getB(), pResult);
+    } else {
+      pResult.add(pExpr);
+    }
+  }
+
+  private static <T> @Nullable T getFirst(List<AutomatonBoolExpr> pConjuncts, Class<T> pClass) {
+    for (AutomatonBoolExpr conjunct : pConjuncts) {
+      if (pClass.isInstance(conjunct)) {
+        return pClass.cast(conjunct);
+      }
+    }
+    return null;
+  }
+
+  private static @Nullable MatchLocationDescriptor findLineDescriptor(
+      List<AutomatonBoolExpr> pConjuncts) {
+    for (AutomatonBoolExpr conjunct : pConjuncts) {
+      if (conjunct instanceof MatchLocationDescriptor
+          && ((MatchLocationDescriptor) conjunct).getMatchDescriptor() instanceof LineMatcher) {
+        return (MatchLocationDescriptor) conjunct;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Builds a cheap necessary condition on the edge from those conjuncts whose semantics only
+   * depend on the type of the edge, its nodes, or the called function.
+   */
+  private static Predicate<CFAEdge> buildEdgeFilter(List<AutomatonBoolExpr> pConjuncts) {
+    Set<CFAEdgeType> edgeTypes = EnumSet.allOf(CFAEdgeType.class);
+    Predicate<CFAEdge> filter = edge -> true;
+
+    for (AutomatonBoolExpr conjunct : pConjuncts) {
+      if (conjunct == MatchAssumeEdge.INSTANCE) {
+        edgeTypes.retainAll(EnumSet.of(CFAEdgeType.AssumeEdge));
+
+      } else if (conjunct instanceof MatchFunctionCallStatement) {
+        edgeTypes.retainAll(EnumSet.of(CFAEdgeType.StatementEdge));
+
+      } else if (conjunct instanceof MatchFunctionExit) {
+        edgeTypes.retainAll(
+            EnumSet.of(
+                CFAEdgeType.FunctionReturnEdge,
+                CFAEdgeType.ReturnStatementEdge,
+                CFAEdgeType.BlankEdge));
+
+      } else if (conjunct instanceof MatchCFAEdgeASTComparison) {
+        edgeTypes.remove(CFAEdgeType.FunctionCallEdge);
+
+      } else if (conjunct instanceof MatchCFAEdgeNodes) {
+        MatchCFAEdgeNodes nodes = (MatchCFAEdgeNodes) conjunct;
+        int successor = nodes.getSuccessorNodeNumber();
+        filter = filter.and(edge -> edge.getSuccessor().getNodeNumber() == successor);
+
+      } else if (conjunct instanceof MatchFunctionCall) {
+        String functionName = ((MatchFunctionCall) conjunct).getFunctionName();
+        filter = filter.and(edge -> edge.getSuccessor().getFunctionName().equals(functionName));
+      }
+    }
+
+    if (edgeTypes.size() < CFAEdgeType.values().length) {
+      filter = filter.and(edge -> edgeTypes.contains(edge.getEdgeType()));
+    }
+    return filter;
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.SourceLocationMatcher.LineMatcher;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class AutomatonTransitionIndexTest {
+
+  private static final int PROGRAM_LINES = 9;
+
+  private CFA cfa;
+  private FunctionEntryNode mainEntry;
+
+  @Before
+  public void setUp() throws Exception {
+    cfa =
+        TestDataTools.makeCFA(
+            "int main() {",
+            "  int x = 0;",
+            "  x = 1;",
+            "  x = 2;",
+            "  if (x > 1) {",
+            "    x = 3;",
+            "  }",
+            "  return x;",
+            "}");
+    mainEntry = cfa.getMainFunction();
+  }
+
+  private MatchLocationDescriptor matchLines(int pStart, int pEnd, boolean pOrigin) {
+    return new MatchLocationDescriptor(
+        mainEntry, new LineMatcher(Optional.empty(), pStart, pEnd, pOrigin));
+  }
+
+  private static AutomatonTransition transition(AutomatonBoolExpr pTrigger) {
+    return new AutomatonTransition.Builder(pTrigger, "q").build();
+  }
+
+  private List<CFAEdge> getAllEdges() {
+    List<CFAEdge> edges = new ArrayList<>();
+    for (CFANode node : cfa.getAllNodes()) {
+      CFAUtils.leavingEdges(node).copyInto(edges);
+    }
+    return edges;
+  }
+
+  /** Checks that the index returns exactly the transitions whose line descriptor matches. */
+  private void assertCandidatesMatch(List<AutomatonTransition> pTransitions) {
+    AutomatonTransitionIndex index =
+        new AutomatonTransitionIndex(new AutomatonInternalState("s", pTransitions));
+    for (CFAEdge edge : getAllEdges()) {
+      List<AutomatonTransition> expected = new ArrayList<>();
+      for (AutomatonTransition t : pTransitions) {
+        if (((MatchLocationDescriptor) t.getTrigger()).eval(edge)) {
+          expected.add(t);
+        }
+      }
+      List<AutomatonTransition> candidates = index.getCandidates(edge);
+      assertThat(candidates).containsAllIn(expected).inOrder();
+    }
+  }
+
+  @Test
+  public void testSingleLines() {
+    List<AutomatonTransition> transitions = new ArrayList<>();
+    for (int line = 1; line <= PROGRAM_LINES; line++) {
+      transitions.add(transition(matchLines(line, line, true)));
+      transitions.add(transition(matchLines(line, line, false)));
+    }
+    assertCandidatesMatch(transitions);
+
+    // a transition for one line is not a candidate for an edge on another line
+    AutomatonTransitionIndex index =
+        new AutomatonTransitionIndex(new AutomatonInternalState("s", transitions));
+    for (CFAEdge edge : getAllEdges()) {
+      for (AutomatonTransition t : index.getCandidates(edge)) {
+        assertThat(((MatchLocationDescriptor) t.getTrigger()).eval(edge)).isTrue();
+      }
+    }
+  }
+
+  @Test
+  public void testRanges() {
+    List<AutomatonTransition> transitions = new ArrayList<>();
+    for (int line = 1; line < PROGRAM_LINES; line++) {
+      transitions.add(transition(matchLines(line, line + 1, true)));
+    }
+    // wider than the limit, thus not indexed, but still a candidate for every edge it matches
+    transitions.add(
+        transition(matchLines(2, 2 + AutomatonTransitionIndex.MAX_INDEXED_LINE_SPAN + 1, true)));
+    transitions.add(transition(matchLines(3, 3, false)));
+    assertCandidatesMatch(transitions);
+  }
+
+  @Test(timeout = 10000)
+  public void testHugeRangeIsNotEnumerated() {
+    List<AutomatonTransition> transitions = new ArrayList<>();
+    for (int line = 1; line <= PROGRAM_LINES; line++) {
+      transitions.add(transition(matchLines(line, line, true)));
+    }
+    AutomatonTransition everything = transition(matchLines(1, Integer.MAX_VALUE, true));
+    transitions.add(everything);
+    AutomatonTransitionIndex index =
+        new AutomatonTransitionIndex(new AutomatonInternalState("s", transitions));
+
+    for (CFAEdge edge : getAllEdges()) {
+      if (((MatchLocationDescriptor) everything.getTrigger()).eval(edge)) {
+        assertThat(index.getCandidates(edge)).contains(everything);
+      }
+    }
+    assertCandidatesMatch(transitions);
+  }
+}
@@ -133,6 +133,16 @@ public class ControlAutomatonCPA
   )
   private boolean topOnFinalSelfLoopingState = false;
 
+  @Option(
+    secure = true,
+    description =
+        "Index the outgoing transitions of automaton states with many transitions by cheap"
+            + " properties of the CFA edge (CFA node, source line, edge type, function name),"
+            + " such that only candidate transitions need to be matched against an edge."
+            + " This is useful for large witness automata."
+  )
+  private boolean indexTransitions = false;
+
   private final Automaton automaton;
   private final AutomatonState topState;
   private final AutomatonState bottomState;
@@ -301,7 +311,8 @@ public class ControlAutomatonCPA
 
   @Override
   public AutomatonTransferRelation getTransferRelation() {
-    return new AutomatonTransferRelation(this, logger, cfa.getMachineModel(), stats);
+    return new AutomatonTransferRelation(
+        this, logger, cfa.getMachineModel(), stats, indexTransitions);
   }
 
   public AutomatonState getBottomState() {
@@ -0,0 +1,212 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser.WitnessParseException;
+import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMLTag;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that reads a GraphML document and passes each node and edge element to an {@link
+ * ElementVisitor} as soon as the element is complete. Only the graph elements are kept.
+ *
+ * <p>In contrast to a DOM, only the attributes and the data of these elements are read, and all
+ * strings are interned, because witnesses contain the same keys and values over and over again.
+ * Data elements belong to the innermost enclosing graph, node, or edge element.
+ */
+final class GraphMLDocumentHandler extends DefaultHandler {
+
+  private final Interner<String> strings = Interners.newStrongInterner();
+
+  /** Receives the node and edge elements of a GraphML document in document order. */
+  interface ElementVisitor {
+
+    void visitNode(GraphMLElement pNode) throws WitnessParseException;
+
+    void visitEdge(GraphMLElement pEdge) throws WitnessParseException;
+  }
+
+  /** Visitor for reading only the graph elements of a document. */
+  static final ElementVisitor IGNORE_NODES_AND_EDGES =
+      new ElementVisitor() {
+
+        @Override
+        public void visitNode(GraphMLElement pNode) {}
+
+        @Override
+        public void visitEdge(GraphMLElement pEdge) {}
+      };
+
+  private final ElementVisitor visitor;
+
+  private final ImmutableList.Builder<GraphMLElement> graphs = ImmutableList.builder();
+
+  private int nodeCount = 0;
+  private int edgeCount = 0;
+
+  /** The currently open graph, node, and edge elements. */
+  private final Deque<ElementBuilder> openElements = new ArrayDeque<>();
+
+  /** The key of the currently open data element, or null if no data element is open. */
+  private @Nullable String dataKey = null;
+
+  private final StringBuilder dataText = new StringBuilder();
+
+  /** The number of elements opened inside the currently open data element. */
+  private int dataDepth = 0;
+
+  private GraphMLDocumentHandler(ElementVisitor pVisitor) {
+    visitor = pVisitor;
+  }
+
+  /**
+   * Reads the GraphML document from the given stream and passes its nodes and edges to the given
+   * visitor.
+   */
+  static GraphMLDocumentHandler parse(InputStream pInputStream, ElementVisitor pVisitor)
+      throws IOException, WitnessParseException {
+    GraphMLDocumentHandler handler = new GraphMLDocumentHandler(pVisitor);
+    try {
+      SAXParserFactory.newInstance().newSAXParser().parse(pInputStream, handler);
+    } catch (SAXException e) {
+      if (e.getException() instanceof WitnessParseException) {
+        throw (WitnessParseException) e.getException();
+      }
+      throw new WitnessParseException(e);
+    } catch (ParserConfigurationException e) {
+      throw new WitnessParseException(e);
+    }
+    return handler;
+  }
+
+  ImmutableList<GraphMLElement> getGraphs() {
+    return graphs.build();
+  }
+
+  int getNodeCount() {
+    return nodeCount;
+  }
+
+  int getEdgeCount() {
+    return edgeCount;
+  }
+
+  @Override
+  public void startElement(String pUri, String pLocalName, String pQName, Attributes pAttributes)
+      throws SAXException {
+    if (dataKey != null) {
+      // nested markup inside data: only its text content is relevant
+      dataDepth++;
+
+    } else if (pQName.equals(GraphMLTag.DATA.toString())) {
+      String key = pAttributes.getValue("key");
+      if (key == null) {
+        throw new SAXException("Every data element must have a key attribute!");
+      }
+      dataKey = strings.intern(key);
+      dataText.setLength(0);
+
+    } else if (pQName.equals(GraphMLTag.GRAPH.toString())
+        || pQName.equals(GraphMLTag.NODE.toString())
+        || pQName.equals(GraphMLTag.EDGE.toString())) {
+      ImmutableMap.Builder<String, String> attributes = ImmutableMap.builder();
+      for (int i = 0; i < pAttributes.getLength(); i++) {
+        attributes.put(
+            strings.intern(pAttributes.getQName(i)), strings.intern(pAttributes.getValue(i)));
+      }
+      openElements.push(new ElementBuilder(strings.intern(pQName), attributes.build()));
+    }
+  }
+
+  @Override
+  public void endElement(String pUri, String pLocalName, String pQName) throws SAXException {
+    if (dataKey != null) {
+      if (dataDepth > 0) {
+        dataDepth--;
+        return;
+      }
+      ElementBuilder owner = openElements.peek();
+      if (owner != null) {
+        owner.data.put(dataKey, strings.intern(dataText.toString()));
+      }
+      dataKey = null;
+      dataText.setLength(0);
+
+    } else if (pQName.equals(GraphMLTag.GRAPH.toString())) {
+      graphs.add(openElements.pop().build());
+    } else if (pQName.equals(GraphMLTag.NODE.toString())) {
+      nodeCount++;
+      try {
+        visitor.visitNode(openElements.pop().build());
+      } catch (WitnessParseException e) {
+        throw new SAXException(e);
+      }
+    } else if (pQName.equals(GraphMLTag.EDGE.toString())) {
+      edgeCount++;
+      try {
+        visitor.visitEdge(openElements.pop().build());
+      } catch (WitnessParseException e) {
+        throw new SAXException(e);
+      }
+    }
+  }
+
+  @Override
+  public void characters(char[] pCh, int pStart, int pLength) {
+    if (dataKey != null) {
+      dataText.append(pCh, pStart, pLength);
+    }
+  }
+
+  private static final class ElementBuilder {
+
+    private final String tagName;
+    private final ImmutableMap<String, String> attributes;
+    private final ImmutableListMultimap.Builder<String, String> data =
+        ImmutableListMultimap.builder();
+
+    private ElementBuilder(String pTagName, ImmutableMap<String, String> pAttributes) {
+      tagName = pTagName;
+      attributes = pAttributes;
+    }
+
+    private GraphMLElement build() {
+      return new GraphMLElement(tagName, attributes, data.build());
+    }
+  }
+}
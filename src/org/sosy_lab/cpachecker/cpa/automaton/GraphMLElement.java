@@ -0,0 +1,70 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compact representation of a graph, node, or edge element of a GraphML document together with the
+ * text contents of its data children, keyed by the key attribute of each data element.
+ */
+final class GraphMLElement {
+
+  private final String tagName;
+
+  private final ImmutableMap<String, String> attributes;
+
+  private final ImmutableListMultimap<String, String> data;
+
+  GraphMLElement(
+      String pTagName,
+      ImmutableMap<String, String> pAttributes,
+      ImmutableListMultimap<String, String> pData) {
+    tagName = checkNotNull(pTagName);
+    attributes = checkNotNull(pAttributes);
+    data = checkNotNull(pData);
+  }
+
+  String getTagName() {
+    return tagName;
+  }
+
+  @Nullable String getAttribute(String pName) {
+    return attributes.get(pName);
+  }
+
+  /** Returns the data of this element as a map from data keys to values, in document order. */
+  ImmutableListMultimap<String, String> getData() {
+    return data;
+  }
+
+  @Override
+  public String toString() {
+    return "<" + tagName + " " + attributes + ">";
+  }
+}
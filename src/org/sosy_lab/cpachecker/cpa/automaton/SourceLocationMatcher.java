@@ -101,6 +101,19 @@ class SourceLocationMatcher {
       this(pFileName, pStartLineNumber, pEndLineNumber, true);
     }
 
+    int getStartLineNumber() {
+      return startLineNumber;
+    }
+
+    int getEndLineNumber() {
+      return endLineNumber;
+    }
+
+    /** Whether the line numbers refer to the original source file (before pre-processing). */
+    boolean isOriginLine() {
+      return origin;
+    }
+
     @Override
     public int hashCode() {
       return Objects.hash(getOriginFileName(), startLineNumber, endLineNumber, origin);
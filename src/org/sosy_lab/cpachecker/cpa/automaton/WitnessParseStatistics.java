@@ -0,0 +1,89 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.automaton;
+
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
+
+/** Counters for reading a witness automaton from a GraphML file. */
+final class WitnessParseStatistics {
+
+  private final int nodes;
+  private final int edges;
+  private final int deferredEdges;
+  private final TimeSpan readTime;
+  private final long maxSampledHeapUsage;
+
+  WitnessParseStatistics(
+      int pNodes,
+      int pEdges,
+      int pDeferredEdges,
+      TimeSpan pReadTime,
+      long pMaxSampledHeapUsage) {
+    nodes = pNodes;
+    edges = pEdges;
+    deferredEdges = pDeferredEdges;
+    readTime = pReadTime;
+    maxSampledHeapUsage = pMaxSampledHeapUsage;
+  }
+
+  int getNodes() {
+    return nodes;
+  }
+
+  int getEdges() {
+    return edges;
+  }
+
+  /** Returns the number of edges that were converted only after the whole document was read. */
+  int getDeferredEdges() {
+    return deferredEdges;
+  }
+
+  TimeSpan getReadTime() {
+    return readTime;
+  }
+
+  /**
+   * Returns the largest used heap in bytes among the samples taken while reading the witness. The
+   * heap is sampled at the start and end of reading and after every few nodes and edges. The value
+   * includes memory of other components and not yet collected garbage, and the real peak may lie
+   * between two samples, so it is only an estimate of what reading the witness needs.
+   */
+  long getMaxSampledHeapUsage() {
+    return maxSampledHeapUsage;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "Read witness graph with %d nodes and %d edges (%d deferred) in %s"
+            + " (max. sampled heap usage: %d MB).",
+        nodes,
+        edges,
+        deferredEdges,
+        readTime.formatAs(TimeUnit.SECONDS),
+        maxSampledHeapUsage >> 20);
+  }
+}
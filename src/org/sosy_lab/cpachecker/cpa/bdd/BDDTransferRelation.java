@@ -24,11 +24,13 @@
 package org.sosy_lab.cpachecker.cpa.bdd;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import java.math.BigInteger;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.CFA;
@@ -722,6 +724,11 @@ public class BDDTransferRelation extends ForwardingTransferRelation<BDDState, BD
     return Collections.singleton(bddState);
   }
 
+  @Override
+  public Optional<ImmutableSet<Class<? extends AbstractState>>> getStrengthenDependencies() {
+    return Optional.of(ImmutableSet.of(PointerState.class));
+  }
+
   private BDDState strengthenWithPointerInformation(PointerState pPointerInfo, CFAEdge cfaEdge)
       throws UnrecognizedCodeException {
 
@@ -30,6 +30,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import java.util.Collection;
 import java.util.List;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -89,6 +90,25 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
               + " be a list."
     )
     private boolean aggregateBasicBlocks = false;
+
+    @Option(
+      secure = true,
+      description =
+          "Repeat strengthening of a successor as long as a component changes a state that"
+              + " another component reads during strengthening (cf. maxStrengthenIterations)."
+              + " Components declare the states they read, all others are strengthened again"
+              + " after every change."
+    )
+    private boolean strengthenUntilFixpoint = false;
+
+    @Option(
+      secure = true,
+      description =
+          "maximal number of strengthening rounds per successor if strengthenUntilFixpoint is"
+              + " enabled"
+    )
+    @IntegerOption(min = 1)
+    private int maxStrengthenIterations = 5;
   }
 
   private static class CompositeCPAFactory extends AbstractCPAFactory {
@@ -148,6 +168,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
   private final ImmutableList<ConfigurableProgramAnalysis> cpas;
   private final CFA cfa;
   private final CompositeOptions options;
+  private final CompositeStatistics stats;
 
   private CompositeCPA(
       CFA pCfa,
@@ -156,6 +177,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
     this.cfa = pCfa;
     this.cpas = cpas;
     this.options = pOptions;
+    this.stats = new CompositeStatistics(cpas);
   }
 
   @Override
@@ -174,7 +196,11 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
       transferRelations.add(cpa.getTransferRelation());
     }
     return new CompositeTransferRelation(
-        transferRelations.build(), cfa, options.aggregateBasicBlocks);
+        transferRelations.build(),
+        cfa,
+        options.aggregateBasicBlocks,
+        options.strengthenUntilFixpoint ? options.maxStrengthenIterations : 1,
+        stats);
   }
 
   @Override
@@ -284,6 +310,7 @@ public class CompositeCPA implements StatisticsProvider, WrapperCPA, Configurabl
 
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    pStatsCollection.add(stats);
     for (ConfigurableProgramAnalysis cpa: cpas) {
       if (cpa instanceof StatisticsProvider) {
         ((StatisticsProvider)cpa).collectStatistics(pStatsCollection);
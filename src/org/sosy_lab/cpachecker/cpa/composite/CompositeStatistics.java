@@ -0,0 +1,80 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static org.sosy_lab.common.collect.Collections3.transformedImmutableListCopy;
+
+import com.google.common.collect.ImmutableList;
+import java.io.PrintStream;
+import java.util.List;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+
+/** Statistics about strengthening in {@link CompositeTransferRelation}. */
+class CompositeStatistics implements Statistics {
+
+  /** one timer per component, in the order of the wrapped CPAs */
+  private final ImmutableList<ThreadSafeTimerContainer> strengthenTimes;
+
+  final StatCounter strengthenCalls = new StatCounter("Number of strengthen calls");
+  final StatCounter skippedStrengthenCalls =
+      new StatCounter("Number of skipped strengthen calls");
+  final StatCounter strengthenIterations =
+      new StatCounter("Number of additional strengthening rounds");
+
+  CompositeStatistics(List<ConfigurableProgramAnalysis> pCpas) {
+    strengthenTimes =
+        transformedImmutableListCopy(
+            pCpas,
+            cpa ->
+                new ThreadSafeTimerContainer(
+                    "Time for strengthen of " + cpa.getClass().getSimpleName()));
+  }
+
+  ThreadSafeTimerContainer getStrengthenTime(int pIndex) {
+    return strengthenTimes.get(pIndex);
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    StatisticsWriter writer =
+        StatisticsWriter.writingStatisticsTo(pOut)
+            .put(strengthenCalls)
+            .put(skippedStrengthenCalls)
+            .putIfUpdatedAtLeastOnce(strengthenIterations);
+    for (ThreadSafeTimerContainer timer : strengthenTimes) {
+      writer.putIfUpdatedAtLeastOnce(timer);
+    }
+  }
+
+  @Override
+  public String getName() {
+    return "CompositeCPA";
+  }
+}
@@ -37,11 +37,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.Nullable;
 import org.sosy_lab.cpachecker.cfa.CFA;
@@ -65,6 +68,7 @@ import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 final class CompositeTransferRelation implements WrapperTransferRelation {
 
@@ -74,16 +78,61 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
   private final boolean predicatesPresent;
   private final boolean aggregateBasicBlocks;
 
+  /** the maximal number of strengthening rounds per successor, 1 disables the fixpoint loop */
+  private final int maxStrengthenIterations;
+
+  /** the types of states each component reads during strengthen, empty if unknown */
+  private final ImmutableList<Optional<ImmutableSet<Class<? extends AbstractState>>>>
+      strengthenDependencies;
+
+  private final CompositeStatistics stats;
+  private final ImmutableList<TimerWrapper> strengthenTimers;
+
   CompositeTransferRelation(
-      ImmutableList<TransferRelation> pTransferRelations, CFA pCFA, boolean pAggregateBasicBlocks) {
+      ImmutableList<TransferRelation> pTransferRelations,
+      CFA pCFA,
+      boolean pAggregateBasicBlocks,
+      int pMaxStrengthenIterations,
+      CompositeStatistics pStats) {
+    checkArgument(pMaxStrengthenIterations >= 1);
     transferRelations = pTransferRelations;
     cfa = pCFA;
     size = pTransferRelations.size();
     aggregateBasicBlocks = pAggregateBasicBlocks;
+    maxStrengthenIterations = pMaxStrengthenIterations;
+    stats = pStats;
 
     // prepare special case handling if both predicates and assumptions are used
     predicatesPresent =
         (indexOf(pTransferRelations, Predicates.instanceOf(PredicateTransferRelation.class)) != -1);
+
+    // components that use the default implementation of strengthen never read other states
+    strengthenDependencies =
+        transformedImmutableListCopy(
+            pTransferRelations,
+            transfer ->
+                overridesStrengthen(transfer)
+                    ? transfer.getStrengthenDependencies()
+                    : Optional.of(ImmutableSet.of()));
+
+    ImmutableList.Builder<TimerWrapper> timers = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      timers.add(pStats.getStrengthenTime(i).getNewTimer());
+    }
+    strengthenTimers = timers.build();
+  }
+
+  private static boolean overridesStrengthen(TransferRelation pTransfer) {
+    try {
+      return pTransfer
+              .getClass()
+              .getMethod(
+                  "strengthen", AbstractState.class, Iterable.class, CFAEdge.class, Precision.class)
+              .getDeclaringClass()
+          != TransferRelation.class;
+    } catch (NoSuchMethodException e) {
+      throw new AssertionError(e);
+    }
   }
 
   @Override
@@ -320,11 +369,15 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
 
     for (int i = 0; i < size; i++) {
 
-      TransferRelation lCurrentTransfer = transferRelations.get(i);
       AbstractState lCurrentElement = reachedState.get(i);
-      Precision lCurrentPrecision = compositePrecision.get(i);
 
-      Collection<? extends AbstractState> lResultsList = lCurrentTransfer.strengthen(lCurrentElement, reachedState, cfaEdge, lCurrentPrecision);
+      Collection<? extends AbstractState> lResultsList;
+      if (needsStrengthening(i, reachedState, null)) {
+        lResultsList = strengthenComponent(i, reachedState, compositePrecision, cfaEdge);
+      } else {
+        stats.skippedStrengthenCalls.inc();
+        lResultsList = Collections.singleton(lCurrentElement);
+      }
 
       resultCount *= lResultsList.size();
       if (resultCount == 0) {
@@ -339,6 +392,18 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     Collection<List<AbstractState>> strengthenedStates =
         createCartesianProduct(lStrengthenResults, resultCount);
 
+    // repeat strengthening for components whose input states were changed by other components
+    if (maxStrengthenIterations > 1 && resultCount > 0) {
+      Collection<List<AbstractState>> fixpointStates = new ArrayList<>(resultCount);
+      for (List<AbstractState> strengthenedState : strengthenedStates) {
+        fixpointStates.addAll(
+            strengthenUntilFixpoint(
+                reachedState, strengthenedState, compositePrecision, cfaEdge, 1));
+      }
+      strengthenedStates = fixpointStates;
+      resultCount = fixpointStates.size();
+    }
+
     // special case handling if we have predicate and assumption cpas
     // TODO remove as soon as we call strengthen in a fixpoint loop
     if (predicatesPresent && resultCount > 0) {
@@ -392,6 +457,96 @@ final class CompositeTransferRelation implements WrapperTransferRelation {
     }
   }
 
+  /**
+   * Strengthens the states in pCurrent again as long as the previous round changed a state that
+   * another component depends on, but at most until the configured number of rounds is reached.
+   * A component is not strengthened again if only its own state changed.
+   */
+  private Collection<List<AbstractState>> strengthenUntilFixpoint(
+      final List<AbstractState> pPrevious,
+      final List<AbstractState> pCurrent,
+      final CompositePrecision pPrecision,
+      final CFAEdge pEdge,
+      final int pIteration)
+      throws CPATransferException, InterruptedException {
+    BitSet changed = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      if (!Objects.equals(pPrevious.get(i), pCurrent.get(i))) {
+        changed.set(i);
+      }
+    }
+    if (changed.isEmpty() || pIteration >= maxStrengthenIterations) {
+      return Collections.singletonList(pCurrent);
+    }
+
+    stats.strengthenIterations.inc();
+    List<Collection<? extends AbstractState>> lStrengthenResults = new ArrayList<>(size);
+    int resultCount = 1;
+    for (int i = 0; i < size; i++) {
+      Collection<? extends AbstractState> lResultsList;
+      if (needsStrengthening(i, pCurrent, changed)) {
+        lResultsList = strengthenComponent(i, pCurrent, pPrecision, pEdge);
+      } else {
+        lResultsList = Collections.singleton(pCurrent.get(i));
+      }
+
+      resultCount *= lResultsList.size();
+      if (resultCount == 0) {
+        // shortcut
+        return ImmutableList.of();
+      }
+      lStrengthenResults.add(lResultsList);
+    }
+
+    Collection<List<AbstractState>> result = new ArrayList<>(resultCount);
+    for (List<AbstractState> next : createCartesianProduct(lStrengthenResults, resultCount)) {
+      result.addAll(strengthenUntilFixpoint(pCurrent, next, pPrecision, pEdge, pIteration + 1));
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether strengthening the component with the given index may have an effect, i.e.,
+   * whether one of the other states it reads is present in pStates. If pChanged is given, only the
+   * states of the components in this set are taken into account.
+   */
+  private boolean needsStrengthening(
+      int pIndex, List<AbstractState> pStates, @Nullable BitSet pChanged) {
+    Optional<ImmutableSet<Class<? extends AbstractState>>> dependencies =
+        strengthenDependencies.get(pIndex);
+    if (!dependencies.isPresent() && pChanged == null) {
+      return true;
+    }
+    for (int j = 0; j < size; j++) {
+      if (j == pIndex || (pChanged != null && !pChanged.get(j))) {
+        continue;
+      }
+      if (!dependencies.isPresent()) {
+        return true;
+      }
+      AbstractState other = pStates.get(j);
+      if (dependencies.get().stream().anyMatch(type -> type.isInstance(other))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private Collection<? extends AbstractState> strengthenComponent(
+      int pIndex, List<AbstractState> pStates, CompositePrecision pPrecision, CFAEdge pEdge)
+      throws CPATransferException, InterruptedException {
+    stats.strengthenCalls.inc();
+    TimerWrapper timer = strengthenTimers.get(pIndex);
+    timer.start();
+    try {
+      return transferRelations
+          .get(pIndex)
+          .strengthen(pStates.get(pIndex), pStates, pEdge, pPrecision.get(pIndex));
+    } finally {
+      timer.stop();
+    }
+  }
+
   private static boolean hasAssumptions(AbstractState x) {
     return x instanceof AbstractStateWithAssumptions
         || x instanceof AssumptionStorageState
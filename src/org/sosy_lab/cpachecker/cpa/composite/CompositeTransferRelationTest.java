@@ -0,0 +1,298 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.composite;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.IntUnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+
+public class CompositeTransferRelationTest {
+
+  private static final CFAEdge EDGE = mock(CFAEdge.class);
+
+  @Test
+  public void testSkipStrengthenWithoutDependencies() throws Exception {
+    DerivedTransfer b = new DerivedTransfer(AState.class, BState::new, v -> v + 1);
+    DerivedTransfer d = new DerivedTransfer(OtherState.class, BState::new, v -> v);
+    CompositeStatistics stats = createStatistics(3);
+
+    List<AbstractState> result =
+        computeSuccessor(
+            ImmutableList.of(new SourceTransfer(), b, d),
+            1,
+            stats,
+            new AState(5),
+            new BState(0),
+            new BState(7));
+
+    assertThat(result).containsExactly(new AState(5), new BState(6), new BState(7)).inOrder();
+    assertThat(b.calls).isEqualTo(1);
+    assertThat(d.calls).isEqualTo(0);
+    // the source uses the default strengthen and is skipped as well
+    assertThat(stats.skippedStrengthenCalls.getValue()).isEqualTo(2);
+    assertThat(stats.strengthenCalls.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testUnknownDependenciesAreStrengthened() throws Exception {
+    // no declared dependencies, so strengthen may read any state
+    DerivedTransfer b = new DerivedTransfer(AState.class, BState::new, v -> v + 1, null);
+    CompositeStatistics stats = createStatistics(2);
+
+    List<AbstractState> result =
+        computeSuccessor(
+            ImmutableList.of(new SourceTransfer(), b), 1, stats, new OtherState(1), new BState(0));
+
+    // b does not find the state it reads, but must be called nevertheless
+    assertThat(result).containsExactly(new OtherState(1), new BState(0)).inOrder();
+    assertThat(b.calls).isEqualTo(1);
+    assertThat(stats.skippedStrengthenCalls.getValue()).isEqualTo(1);
+  }
+
+  @Test
+  public void testSingleStrengthenRound() throws Exception {
+    // c reads the state of b, which is only changed by strengthening in the same round
+    DerivedTransfer c = new DerivedTransfer(BState.class, CState::new, v -> v * 2);
+    DerivedTransfer b = new DerivedTransfer(AState.class, BState::new, v -> v + 1);
+
+    List<AbstractState> result =
+        computeSuccessor(
+            ImmutableList.of(new SourceTransfer(), c, b),
+            1,
+            createStatistics(3),
+            new AState(5),
+            new CState(0),
+            new BState(0));
+
+    assertThat(result).containsExactly(new AState(5), new CState(0), new BState(6)).inOrder();
+  }
+
+  @Test
+  public void testStrengthenUntilFixpoint() throws Exception {
+    DerivedTransfer c = new DerivedTransfer(BState.class, CState::new, v -> v * 2);
+    DerivedTransfer b = new DerivedTransfer(AState.class, BState::new, v -> v + 1);
+    CompositeStatistics stats = createStatistics(3);
+
+    List<AbstractState> result =
+        computeSuccessor(
+            ImmutableList.of(new SourceTransfer(), c, b),
+            5,
+            stats,
+            new AState(5),
+            new CState(0),
+            new BState(0));
+
+    assertThat(result).containsExactly(new AState(5), new CState(12), new BState(6)).inOrder();
+    // b is not strengthened again, because the state it reads did not change
+    assertThat(b.calls).isEqualTo(1);
+    assertThat(c.calls).isEqualTo(2);
+    assertThat(stats.strengthenIterations.getValue()).isAtLeast(1);
+  }
+
+  @Test
+  public void testStrengthenIterationsAreBounded() throws Exception {
+    // b and c read each other and never reach a fixpoint
+    DerivedTransfer b = new DerivedTransfer(CState.class, BState::new, v -> v + 1);
+    DerivedTransfer c = new DerivedTransfer(BState.class, CState::new, v -> v + 1);
+    CompositeStatistics stats = createStatistics(2);
+
+    List<AbstractState> result =
+        computeSuccessor(ImmutableList.of(b, c), 3, stats, new BState(0), new CState(0));
+
+    assertThat(result).containsExactly(new BState(3), new CState(3)).inOrder();
+    assertThat(b.calls).isEqualTo(3);
+    assertThat(c.calls).isEqualTo(3);
+    assertThat(stats.strengthenIterations.getValue()).isEqualTo(2);
+  }
+
+  private static CompositeStatistics createStatistics(int pSize) {
+    ImmutableList.Builder<ConfigurableProgramAnalysis> cpas = ImmutableList.builder();
+    for (int i = 0; i < pSize; i++) {
+      cpas.add(mock(ConfigurableProgramAnalysis.class));
+    }
+    return new CompositeStatistics(cpas.build());
+  }
+
+  private static List<AbstractState> computeSuccessor(
+      ImmutableList<TransferRelation> pTransferRelations,
+      int pMaxStrengthenIterations,
+      CompositeStatistics pStats,
+      AbstractState... pStates)
+      throws Exception {
+    CompositeTransferRelation transfer =
+        new CompositeTransferRelation(
+            pTransferRelations, mock(CFA.class), false, pMaxStrengthenIterations, pStats);
+    CompositePrecision precision =
+        new CompositePrecision(
+            Collections.nCopies(pStates.length, SingletonPrecision.getInstance()));
+
+    Collection<CompositeState> successors =
+        transfer.getAbstractSuccessorsForEdge(
+            new CompositeState(ImmutableList.copyOf(pStates)), precision, EDGE);
+    return Iterables.getOnlyElement(successors).getWrappedStates();
+  }
+
+  private abstract static class IntState implements AbstractState {
+
+    private final int value;
+
+    IntState(int pValue) {
+      value = pValue;
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      return pOther != null
+          && pOther.getClass() == getClass()
+          && ((IntState) pOther).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * getClass().hashCode() + value;
+    }
+
+    @Override
+    public String toString() {
+      return getClass().getSimpleName() + "(" + value + ")";
+    }
+  }
+
+  private static final class AState extends IntState {
+    AState(int pValue) {
+      super(pValue);
+    }
+  }
+
+  private static final class BState extends IntState {
+    BState(int pValue) {
+      super(pValue);
+    }
+  }
+
+  private static final class CState extends IntState {
+    CState(int pValue) {
+      super(pValue);
+    }
+  }
+
+  private static final class OtherState extends IntState {
+    OtherState(int pValue) {
+      super(pValue);
+    }
+  }
+
+  private interface IntStateFactory {
+    IntState create(int pValue);
+  }
+
+  /** Transfer relation that keeps its state and uses the default strengthen. */
+  private static class SourceTransfer implements TransferRelation {
+
+    @Override
+    public Collection<? extends AbstractState> getAbstractSuccessors(
+        AbstractState pState, Precision pPrecision) {
+      return Collections.singleton(pState);
+    }
+
+    @Override
+    public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
+        AbstractState pState, Precision pPrecision, CFAEdge pCfaEdge) {
+      return Collections.singleton(pState);
+    }
+  }
+
+  /**
+   * Transfer relation whose strengthen derives its state from the state of another component, if
+   * present.
+   */
+  private static final class DerivedTransfer extends SourceTransfer {
+
+    private final Class<? extends IntState> readType;
+    private final IntStateFactory factory;
+    private final IntUnaryOperator function;
+    private final Optional<ImmutableSet<Class<? extends AbstractState>>> dependencies;
+    private int calls = 0;
+
+    DerivedTransfer(
+        Class<? extends IntState> pReadType,
+        IntStateFactory pFactory,
+        IntUnaryOperator pFunction) {
+      this(
+          pReadType,
+          pFactory,
+          pFunction,
+          ImmutableSet.<Class<? extends AbstractState>>of(pReadType));
+    }
+
+    DerivedTransfer(
+        Class<? extends IntState> pReadType,
+        IntStateFactory pFactory,
+        IntUnaryOperator pFunction,
+        @Nullable ImmutableSet<Class<? extends AbstractState>> pDependencies) {
+      readType = pReadType;
+      factory = pFactory;
+      function = pFunction;
+      dependencies = Optional.ofNullable(pDependencies);
+    }
+
+    @Override
+    public Collection<? extends AbstractState> strengthen(
+        AbstractState pState,
+        Iterable<AbstractState> pOtherStates,
+        CFAEdge pCfaEdge,
+        Precision pPrecision) {
+      calls++;
+      for (AbstractState other : pOtherStates) {
+        if (readType.isInstance(other)) {
+          return Collections.singleton(
+              factory.create(function.applyAsInt(((IntState) other).value)));
+        }
+      }
+      return Collections.singleton(pState);
+    }
+
+    @Override
+    public Optional<ImmutableSet<Class<? extends AbstractState>>> getStrengthenDependencies() {
+      return dependencies;
+    }
+  }
+}
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.location;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSortedSet;
 
 import org.sosy_lab.common.configuration.Configuration;
@@ -33,17 +34,28 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CompactCFAGraph;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.core.AnalysisDirection;
 import org.sosy_lab.cpachecker.cpa.location.LocationState.BackwardsLocationState;
 
 import java.util.Collection;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 @Options(prefix = "cpa.location")
 public class LocationStateFactory {
 
+  /** The state of each node of the CFA, indexed by node number. */
   private final LocationState[] states;
 
+  /**
+   * Compact graph of the CFA, or null if the CFA does not provide one. It assigns each node a dense
+   * id and holds, per id, the leaving edges and the ids of their successors.
+   */
+  private final @Nullable CompactCFAGraph graph;
+
   private final AnalysisDirection locationType;
 
   @Option(
@@ -74,6 +86,8 @@ public class LocationStateFactory {
       LocationState state = createLocationState(node);
       states[node.getNodeNumber()] = state;
     }
+
+    graph = pCfa.getCompactGraph().orElse(null);
   }
 
   public LocationState getState(CFANode node) {
@@ -92,6 +106,64 @@ public class LocationStateFactory {
     }
   }
 
+  /**
+   * Return the states for the successors of the given node (not following summary edges). If the
+   * CFA provides a compact graph, the successors are looked up by index without iterating over the
+   * edges of the node.
+   */
+  List<LocationState> getSuccessorStates(CFANode node) {
+    int id = graph == null ? -1 : graph.getId(node);
+    if (id < 0) {
+      ImmutableList.Builder<LocationState> result = ImmutableList.builder();
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        result.add(getState(node.getLeavingEdge(i).getSuccessor()));
+      }
+      return result.build();
+    }
+
+    switch (graph.getNumberOfLeavingEdges(id)) {
+      case 0:
+        return ImmutableList.of();
+      case 1:
+        return ImmutableList.of(getStateById(id, 0));
+      case 2:
+        return ImmutableList.of(getStateById(id, 0), getStateById(id, 1));
+      default:
+        LocationState[] result = new LocationState[graph.getNumberOfLeavingEdges(id)];
+        for (int i = 0; i < result.length; i++) {
+          result[i] = getStateById(id, i);
+        }
+        return ImmutableList.copyOf(result);
+    }
+  }
+
+  /**
+   * Check whether the given edge leaves the given node, either as regular or as summary edge.
+   */
+  boolean isLeavingEdge(CFANode node, CFAEdge edge) {
+    int id = graph == null ? -1 : graph.getId(node);
+    if (id < 0) {
+      if (edge.equals(node.getLeavingSummaryEdge())) {
+        return true;
+      }
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        if (edge.equals(node.getLeavingEdge(i))) {
+          return true;
+        }
+      }
+      return false;
+    }
+    return graph.hasLeavingEdge(id, edge);
+  }
+
+  private LocationState getStateById(int id, int edgeIndex) {
+    int successorId = graph.getSuccessorId(id, edgeIndex);
+    if (successorId < 0) {
+      return getState(graph.getLeavingEdge(id, edgeIndex).getSuccessor());
+    }
+    return getState(graph.getNode(successorId));
+  }
+
   private LocationState createLocationState(CFANode node) {
     return locationType == AnalysisDirection.BACKWARD
         ? new BackwardsLocationState(node, followFunctionCalls)
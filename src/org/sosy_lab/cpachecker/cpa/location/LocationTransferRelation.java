@@ -32,7 +32,6 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
-import org.sosy_lab.cpachecker.util.CFAUtils;
 
 public class LocationTransferRelation implements TransferRelation {
 
@@ -48,7 +47,7 @@ public class LocationTransferRelation implements TransferRelation {
 
     CFANode node = ((LocationState) element).getLocationNode();
 
-    if (CFAUtils.allLeavingEdges(node).contains(cfaEdge)) {
+    if (factory.isLeavingEdge(node, cfaEdge)) {
       return Collections.singleton(factory.getState(cfaEdge.getSuccessor()));
     }
 
@@ -60,6 +59,6 @@ public class LocationTransferRelation implements TransferRelation {
       Precision prec) throws CPATransferException {
 
     CFANode node = ((LocationState) element).getLocationNode();
-    return CFAUtils.successorsOf(node).transform(n -> factory.getState(n)).toList();
+    return factory.getSuccessorStates(node);
   }
 }
@@ -291,6 +291,7 @@ public class PolicyCPA extends SingleEdgeTransferRelation
 
   @Override
   public void close() {
+    policyIterationManager.close();
     solver.close();
   }
 
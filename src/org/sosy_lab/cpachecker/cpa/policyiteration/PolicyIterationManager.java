@@ -8,9 +8,11 @@ import static org.sosy_lab.cpachecker.util.AbstractStates.asIterable;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import com.google.common.collect.Streams;
+import com.google.common.collect.Table;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -150,6 +152,11 @@ public class PolicyIterationManager {
       + "let other CPAs use the output of LPI.")
   private boolean delayAbstractionUntilStrengthen = false;
 
+  @Option(secure=true, description="Keep the optimization environment of value determination "
+      + "for each strongly connected component alive between iterations, only add and retract "
+      + "the changed constraints, and reuse bounds for templates whose problem did not change.")
+  private boolean incrementalValueDetermination = false;
+
   private final FormulaManagerView fmgr;
   private final CFA cfa;
   private final PathFormulaManager pfmgr;
@@ -167,6 +174,14 @@ public class PolicyIterationManager {
   private final TemplateToFormulaConversionManager templateToFormulaConversionManager;
   @Nullable private BlockPartitioning partitioning;
 
+  /**
+   * Persistent optimization environments for value determination, indexed by the location ID of
+   * the state on which value determination is performed and whether the namespaced (sound)
+   * constraint system is used.
+   */
+  private final Table<Integer, Boolean, ValueDeterminationEnvironment>
+      valueDeterminationEnvironments = HashBasedTable.create();
+
   public PolicyIterationManager(
       Configuration pConfig,
       FormulaManagerView pFormulaManager,
@@ -463,7 +478,7 @@ public class PolicyIterationManager {
       if (runHopefulValueDetermination) {
         constraints = vdfmgr.valueDeterminationFormulaCheap(
             newState, merged, updated.keySet());
-        element = performValueDetermination(merged, updated, constraints);
+        element = performValueDetermination(merged, updated, constraints, false);
         if (!element.isPresent()) {
           logger.log(Level.INFO, "Switching to more expensive value "
               + "determination strategy.");
@@ -475,7 +490,7 @@ public class PolicyIterationManager {
         // Hopeful value determination failed, run the more expensive version.
         constraints = vdfmgr.valueDeterminationFormula(
             newState, merged, updated.keySet());
-        element = performValueDetermination(merged, updated, constraints);
+        element = performValueDetermination(merged, updated, constraints, true);
         if (!element.isPresent()) {
           throw new CPATransferException("Value determination problem is "
               + "unfeasible at node " + newState.getNode());
@@ -610,7 +625,8 @@ public class PolicyIterationManager {
   private Optional<PolicyAbstractedState> performValueDetermination(
       PolicyAbstractedState stateWithUpdates,
       Map<Template, PolicyBound> updated,
-      ValueDeterminationConstraints valDetConstraints
+      ValueDeterminationConstraints valDetConstraints,
+      boolean namespaced
   ) throws InterruptedException, CPATransferException {
     logger.log(Level.INFO, "Value determination at node",
         stateWithUpdates.getNode(), ", #constraints = ", valDetConstraints.constraints.size());
@@ -619,69 +635,146 @@ public class PolicyIterationManager {
     int locId = stateWithUpdates.getLocationID();
 
     // Maximize for each template subject to the overall constraints.
+    ValueDeterminationEnvironment environment =
+        getValueDeterminationEnvironment(locId, namespaced);
     statistics.valueDeterminationTimer.start();
-    try (OptimizationProverEnvironment optEnvironment = solver.newOptEnvironment()) {
-
-      for (BooleanFormula c : valDetConstraints.constraints) {
-        optEnvironment.addConstraint(c);
-      }
-
-      for (Entry<Template, PolicyBound> entry : updated.entrySet()) {
-        shutdownNotifier.shutdownIfNecessary();
-        optEnvironment.push();
-
-        Template template = entry.getKey();
-        PolicyBound mergedBound = entry.getValue();
-        Formula objective = valDetConstraints.outVars.get(template, locId);
-        BooleanFormula consistencyConstraint = fmgr.makeGreaterOrEqual(
-                objective,
-                fmgr.makeNumber(objective, mergedBound.getBound()), true);
-
-        optEnvironment.addConstraint(consistencyConstraint);
-        int handle = optEnvironment.maximize(objective);
+    try {
+      statistics.reusedValueDeterminationConstraints +=
+          environment.setConstraints(valDetConstraints.constraints);
+      OptimizationProverEnvironment optEnvironment = environment.getOptEnvironment();
 
-        OptStatus result;
-        try {
-          statistics.optTimer.start();
-          result = optEnvironment.check();
-        } finally {
-          statistics.optTimer.stop();
-        }
-        if (result == OptStatus.UNSAT) {
-          shutdownNotifier.shutdownIfNecessary();
-          return Optional.empty();
-        } else if (result == OptStatus.UNDEF) {
+      statistics.valueDeterminationOptTimer.start();
+      try {
+        for (Entry<Template, PolicyBound> entry : updated.entrySet()) {
           shutdownNotifier.shutdownIfNecessary();
-          logger.log(Level.WARNING,
-              "Solver returned undefined status on the problem: ");
-          logger.log(Level.INFO, optEnvironment);
-          throw new CPATransferException("Unexpected solver state");
-        }
-        assert result == OptStatus.OPT;
 
-        Optional<Rational> value = optEnvironment.upper(handle, EPSILON);
+          Template template = entry.getKey();
+          PolicyBound mergedBound = entry.getValue();
+          Formula objective = valDetConstraints.outVars.get(template, locId);
+
+          Optional<Rational> value;
+          if (environment.hasTemplateBound(objective, mergedBound.getBound())) {
+            statistics.reusedTemplateBounds++;
+            value = environment.getTemplateBound(objective, mergedBound.getBound());
+          } else {
+            Optional<Optional<Rational>> maximized =
+                maximizeTemplate(optEnvironment, objective, mergedBound.getBound());
+            if (!maximized.isPresent()) {
+              return Optional.empty();
+            }
+            value = maximized.get();
+            environment.putTemplateBound(objective, mergedBound.getBound(), value);
+          }
 
-        if (value.isPresent() &&
-            !templateToFormulaConversionManager.isOverflowing(template, value.get())) {
-          Rational v = value.get();
-          logger.log(Level.FINE, "Updating", template, "to value", v);
-          newAbstraction.put(template, mergedBound.updateValueFromValueDetermination(v));
-        } else {
+          if (value.isPresent() &&
+              !templateToFormulaConversionManager.isOverflowing(template, value.get())) {
+            Rational v = value.get();
+            logger.log(Level.FINE, "Updating", template, "to value", v);
+            newAbstraction.put(template, mergedBound.updateValueFromValueDetermination(v));
+          } else {
 
-          // Unbounded.
-          newAbstraction.remove(template);
+            // Unbounded.
+            newAbstraction.remove(template);
+          }
         }
-        optEnvironment.pop();
+      } finally {
+        statistics.valueDeterminationOptTimer.stop();
       }
     } catch(SolverException e){
       throw new CPATransferException("Failed maximization ", e);
     } finally{
+      if (!incrementalValueDetermination) {
+        environment.close();
+      }
       statistics.valueDeterminationTimer.stop();
     }
 
     return Optional.of(stateWithUpdates.withNewAbstraction(newAbstraction));
   }
 
+  /**
+   * Maximize the given objective with the lower bound of the previous value
+   * on top of the constraints already asserted in {@code optEnvironment}.
+   *
+   * @return Empty optional if the problem is unsatisfiable, otherwise the
+   * maximal value (empty if unbounded).
+   */
+  private Optional<Optional<Rational>> maximizeTemplate(
+      OptimizationProverEnvironment optEnvironment,
+      Formula objective,
+      Rational lowerBound
+  ) throws InterruptedException, SolverException, CPATransferException {
+    optEnvironment.push();
+    try {
+      BooleanFormula consistencyConstraint = fmgr.makeGreaterOrEqual(
+              objective,
+              fmgr.makeNumber(objective, lowerBound), true);
+
+      optEnvironment.addConstraint(consistencyConstraint);
+      int handle = optEnvironment.maximize(objective);
+
+      OptStatus result;
+      try {
+        statistics.optTimer.start();
+        result = optEnvironment.check();
+      } finally {
+        statistics.optTimer.stop();
+      }
+      if (result == OptStatus.UNSAT) {
+        shutdownNotifier.shutdownIfNecessary();
+        return Optional.empty();
+      } else if (result == OptStatus.UNDEF) {
+        shutdownNotifier.shutdownIfNecessary();
+        logger.log(Level.WARNING,
+            "Solver returned undefined status on the problem: ");
+        logger.log(Level.INFO, optEnvironment);
+        throw new CPATransferException("Unexpected solver state");
+      }
+      assert result == OptStatus.OPT;
+
+      return Optional.of(optEnvironment.upper(handle, EPSILON));
+    } finally {
+      optEnvironment.pop();
+    }
+  }
+
+  /**
+   * Get the optimization environment for value determination on the given location.
+   * Without {@link #incrementalValueDetermination}, a fresh environment is returned,
+   * which has to be closed by the caller.
+   */
+  private ValueDeterminationEnvironment getValueDeterminationEnvironment(
+      int locId, boolean namespaced) {
+    if (!incrementalValueDetermination) {
+      statistics.valueDeterminationEnvironmentsCreated++;
+      return new ValueDeterminationEnvironment(solver.newOptEnvironment(), false);
+    }
+
+    ValueDeterminationEnvironment environment =
+        valueDeterminationEnvironments.get(locId, namespaced);
+    if (environment != null && environment.isInconsistent()) {
+      // Interrupted in the middle of an update, the solver stack can not be trusted.
+      environment.close();
+      environment = null;
+    }
+    if (environment == null) {
+      statistics.valueDeterminationEnvironmentsCreated++;
+      environment = new ValueDeterminationEnvironment(solver.newOptEnvironment(), true);
+      valueDeterminationEnvironments.put(locId, namespaced, environment);
+    } else {
+      statistics.valueDeterminationSolverRestartsAvoided++;
+    }
+    return environment;
+  }
+
+  /**
+   * Close all persistent optimization environments.
+   */
+  void close() {
+    valueDeterminationEnvironments.values().forEach(ValueDeterminationEnvironment::close);
+    valueDeterminationEnvironments.clear();
+  }
+
   /**
    * @return Whether the <code>state</code> is unreachable.
    */
@@ -33,6 +33,14 @@ public class PolicyIterationStatistics implements Statistics {
 
   final Timer getBoundTimer = new Timer();
 
+  /** Optimization time of each value determination (one interval per iteration). */
+  final Timer valueDeterminationOptTimer = new Timer();
+
+  int valueDeterminationEnvironmentsCreated = 0;
+  int valueDeterminationSolverRestartsAvoided = 0;
+  int reusedValueDeterminationConstraints = 0;
+  int reusedTemplateBounds = 0;
+
   private final CFA cfa;
 
   private BigInteger wideningTemplatesGenerated = BigInteger.ZERO;
@@ -49,6 +57,15 @@ public class PolicyIterationStatistics implements Statistics {
     printTimer(out, valueDeterminationTimer, "value determination");
     printTimer(out, abstractionTimer, "abstraction");
     printTimer(out, optTimer, "optimization (OPT-SMT)");
+    printTimer(out, valueDeterminationOptTimer, "optimization per value determination");
+    out.printf("Number of optimization environments created for value determination: %d%n",
+        valueDeterminationEnvironmentsCreated);
+    out.printf("Number of solver restarts avoided in value determination: %d%n",
+        valueDeterminationSolverRestartsAvoided);
+    out.printf("Number of value determination constraints kept in the solver: %d%n",
+        reusedValueDeterminationConstraints);
+    out.printf("Number of reused template bounds in value determination: %d%n",
+        reusedTemplateBounds);
 
     printTimer(out, checkSATTimer, "checking bad states (SMT)");
 
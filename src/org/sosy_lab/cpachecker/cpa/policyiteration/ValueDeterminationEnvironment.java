@@ -0,0 +1,132 @@
+package org.sosy_lab.cpachecker.cpa.policyiteration;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+
+/**
+ * Optimization environment for value determination. In incremental mode, it is kept alive between
+ * subsequent value determinations of the same strongly connected component, i.e., of the same
+ * abstraction location.
+ *
+ * <p>In incremental mode, every constraint is asserted on its own level of the solver stack. When
+ * the constraints change, only the levels above the first constraint which is not needed anymore
+ * are popped, and the new constraints are pushed on top. Thus constraints which are shared between
+ * iterations stay in the solver together with the learned information.
+ */
+class ValueDeterminationEnvironment implements AutoCloseable {
+
+  private final OptimizationProverEnvironment optEnvironment;
+
+  /** Whether constraints can be retracted, otherwise they are asserted without push. */
+  private final boolean incremental;
+
+  /** Constraints on the solver stack, one per level. */
+  private final List<BooleanFormula> assertedConstraints = new ArrayList<>();
+
+  /**
+   * Results of maximizing an objective with a given lower bound under the currently asserted
+   * constraints. An empty value denotes an unbounded objective.
+   */
+  private final Map<Pair<Formula, Rational>, Optional<Rational>> templateBounds = new HashMap<>();
+
+  /** Set if the solver stack might not match {@link #assertedConstraints} anymore. */
+  private boolean inconsistent = false;
+
+  ValueDeterminationEnvironment(
+      OptimizationProverEnvironment pOptEnvironment, boolean pIncremental) {
+    optEnvironment = pOptEnvironment;
+    incremental = pIncremental;
+  }
+
+  OptimizationProverEnvironment getOptEnvironment() {
+    checkState(!inconsistent);
+    return optEnvironment;
+  }
+
+  /**
+   * Change the asserted constraints to the given set.
+   *
+   * @return the number of constraints that were already asserted and could be kept.
+   */
+  int setConstraints(Set<BooleanFormula> pConstraints) throws InterruptedException {
+    checkState(!inconsistent);
+    checkState(
+        incremental || assertedConstraints.isEmpty(),
+        "Constraints of a non-incremental environment can not be changed");
+    boolean success = false;
+    try {
+      int kept = 0;
+      while (kept < assertedConstraints.size()
+          && pConstraints.contains(assertedConstraints.get(kept))) {
+        kept++;
+      }
+      boolean changed = kept < assertedConstraints.size();
+      while (assertedConstraints.size() > kept) {
+        optEnvironment.pop();
+        assertedConstraints.remove(assertedConstraints.size() - 1);
+      }
+
+      Set<BooleanFormula> alreadyAsserted = new HashSet<>(assertedConstraints);
+      for (BooleanFormula constraint : pConstraints) {
+        if (!alreadyAsserted.contains(constraint)) {
+          if (incremental) {
+            optEnvironment.push();
+          }
+          optEnvironment.addConstraint(constraint);
+          assertedConstraints.add(constraint);
+          changed = true;
+        }
+      }
+
+      if (changed) {
+        templateBounds.clear();
+      }
+      success = true;
+      return kept;
+    } finally {
+      if (!success) {
+        inconsistent = true;
+      }
+    }
+  }
+
+  /**
+   * Returns whether the solver stack of this environment may not reflect the asserted constraints,
+   * e.g., because an interrupt occurred while changing them. Such an environment cannot be used
+   * anymore.
+   */
+  boolean isInconsistent() {
+    return inconsistent;
+  }
+
+  boolean hasTemplateBound(Formula pObjective, Rational pLowerBound) {
+    return templateBounds.containsKey(Pair.of(pObjective, pLowerBound));
+  }
+
+  Optional<Rational> getTemplateBound(Formula pObjective, Rational pLowerBound) {
+    Optional<Rational> bound = templateBounds.get(Pair.of(pObjective, pLowerBound));
+    checkState(bound != null);
+    return bound;
+  }
+
+  void putTemplateBound(Formula pObjective, Rational pLowerBound, Optional<Rational> pBound) {
+    templateBounds.put(Pair.of(pObjective, pLowerBound), pBound);
+  }
+
+  @Override
+  public void close() {
+    optEnvironment.close();
+  }
+}
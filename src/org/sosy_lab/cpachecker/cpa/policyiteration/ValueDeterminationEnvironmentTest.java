@@ -0,0 +1,179 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.policyiteration;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.truth.Truth8.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.sosy_lab.common.rationals.Rational;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+import org.sosy_lab.java_smt.api.Formula;
+import org.sosy_lab.java_smt.api.OptimizationProverEnvironment;
+
+public class ValueDeterminationEnvironmentTest {
+
+  private OptimizationProverEnvironment prover;
+  private BooleanFormula a;
+  private BooleanFormula b;
+  private BooleanFormula c;
+  private BooleanFormula d;
+  private Formula objective;
+
+  @Before
+  public void setUp() {
+    prover = mock(OptimizationProverEnvironment.class);
+    a = mock(BooleanFormula.class);
+    b = mock(BooleanFormula.class);
+    c = mock(BooleanFormula.class);
+    d = mock(BooleanFormula.class);
+    objective = mock(Formula.class);
+  }
+
+  @Test
+  public void testEachConstraintOnOwnLevel() throws Exception {
+    ValueDeterminationEnvironment env = new ValueDeterminationEnvironment(prover, true);
+
+    assertThat(env.setConstraints(ImmutableSet.of(a, b, c))).isEqualTo(0);
+
+    InOrder order = inOrder(prover);
+    order.verify(prover).push();
+    order.verify(prover).addConstraint(a);
+    order.verify(prover).push();
+    order.verify(prover).addConstraint(b);
+    order.verify(prover).push();
+    order.verify(prover).addConstraint(c);
+    verifyNoMoreInteractions(prover);
+  }
+
+  @Test
+  public void testCommonPrefixIsKept() throws Exception {
+    ValueDeterminationEnvironment env = new ValueDeterminationEnvironment(prover, true);
+    env.setConstraints(ImmutableSet.of(a, b, c));
+
+    // c is replaced by d, a and b stay on the stack
+    assertThat(env.setConstraints(ImmutableSet.of(a, b, d))).isEqualTo(2);
+    InOrder order = inOrder(prover);
+    order.verify(prover).addConstraint(c);
+    order.verify(prover).pop();
+    order.verify(prover).push();
+    order.verify(prover).addConstraint(d);
+
+    // b is dropped, so b and d are popped and d is pushed again
+    assertThat(env.setConstraints(ImmutableSet.of(d, a))).isEqualTo(1);
+    order.verify(prover, times(2)).pop();
+    order.verify(prover).push();
+    order.verify(prover).addConstraint(d);
+    verify(prover, times(5)).push();
+    verify(prover, times(3)).pop();
+    verify(prover).addConstraint(a);
+    verify(prover).addConstraint(b);
+    verify(prover, times(2)).addConstraint(d);
+    verifyNoMoreInteractions(prover);
+  }
+
+  @Test
+  public void testTemplateBoundsAreClearedOnChange() throws Exception {
+    ValueDeterminationEnvironment env = new ValueDeterminationEnvironment(prover, true);
+    env.setConstraints(ImmutableSet.of(a, b));
+    env.putTemplateBound(objective, Rational.ZERO, Optional.of(Rational.ONE));
+    env.putTemplateBound(objective, Rational.ONE, Optional.empty());
+    assertThat(env.getTemplateBound(objective, Rational.ZERO)).hasValue(Rational.ONE);
+    assertThat(env.getTemplateBound(objective, Rational.ONE)).isEmpty();
+
+    // same constraints in another order, nothing changes
+    assertThat(env.setConstraints(ImmutableSet.of(b, a))).isEqualTo(2);
+    assertThat(env.hasTemplateBound(objective, Rational.ZERO)).isTrue();
+    assertThat(env.hasTemplateBound(objective, Rational.ONE)).isTrue();
+
+    // only adding a constraint also invalidates the bounds
+    env.setConstraints(ImmutableSet.of(a, b, c));
+    assertThat(env.hasTemplateBound(objective, Rational.ZERO)).isFalse();
+    assertThat(env.hasTemplateBound(objective, Rational.ONE)).isFalse();
+
+    env.putTemplateBound(objective, Rational.ZERO, Optional.of(Rational.ONE));
+    env.setConstraints(ImmutableSet.of(a));
+    assertThat(env.hasTemplateBound(objective, Rational.ZERO)).isFalse();
+  }
+
+  @Test
+  public void testNonIncrementalEnvironment() throws Exception {
+    ValueDeterminationEnvironment env = new ValueDeterminationEnvironment(prover, false);
+    assertThat(env.setConstraints(ImmutableSet.of(a, b))).isEqualTo(0);
+    verify(prover).addConstraint(a);
+    verify(prover).addConstraint(b);
+    verifyNoMoreInteractions(prover);
+
+    try {
+      env.setConstraints(ImmutableSet.of(a, c));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    verifyNoMoreInteractions(prover);
+    assertThat(env.isInconsistent()).isFalse();
+  }
+
+  @Test
+  public void testFailureMakesEnvironmentInconsistent() throws Exception {
+    ValueDeterminationEnvironment env = new ValueDeterminationEnvironment(prover, true);
+    env.setConstraints(ImmutableSet.of(a));
+    doThrow(new IllegalArgumentException("solver failure")).when(prover).addConstraint(b);
+
+    try {
+      env.setConstraints(ImmutableSet.of(a, b));
+      fail();
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    assertThat(env.isInconsistent()).isTrue();
+
+    try {
+      env.getOptEnvironment();
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+    try {
+      env.setConstraints(ImmutableSet.of(a));
+      fail();
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    env.close();
+    verify(prover).close();
+  }
+}
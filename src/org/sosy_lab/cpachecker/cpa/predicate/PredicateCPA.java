@@ -209,7 +209,8 @@ public class PredicateCPA
             specification,
             shutdownNotifier,
             pathFormulaManager,
-            predicateManager);
+            predicateManager,
+            pAggregatedReachedSets);
     initialPrecision = precisionBootstraper.prepareInitialPredicates();
     logger.log(Level.FINEST, "Initial precision is", initialPrecision);
 
@@ -305,8 +306,9 @@ public class PredicateCPA
   }
 
   @Override
-  public Precision getInitialPrecision(CFANode pNode, StateSpacePartition pPartition) {
-    return initialPrecision;
+  public Precision getInitialPrecision(CFANode pNode, StateSpacePartition pPartition)
+      throws InterruptedException {
+    return precisionBootstraper.addSharedInvariantsAsPredicates(initialPrecision);
   }
 
   @Override
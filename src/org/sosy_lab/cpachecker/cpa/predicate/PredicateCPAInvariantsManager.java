@@ -38,6 +38,8 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Streams;
 import com.google.errorprone.annotations.FormatMethod;
 import java.io.IOException;
@@ -84,6 +86,7 @@ import org.sosy_lab.cpachecker.core.Specification;
 import org.sosy_lab.cpachecker.core.algorithm.bmc.CandidateGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.bmc.StaticCandidateProvider;
 import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.CandidateInvariant;
+import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.ExpressionTreeLocationInvariant;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.CPAInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantSupplier;
@@ -91,6 +94,8 @@ import org.sosy_lab.cpachecker.core.algorithm.invariants.KInductionInvariantChec
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard.Subscription;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.arg.ARGUtils;
@@ -224,6 +229,15 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
   )
   private boolean useGlobalInvariants = true;
 
+  @Option(
+    secure = true,
+    description =
+        "Provide invariants that other analyses running in parallel (e.g. k-induction"
+            + " in a parallel portfolio) have proven and shared while they are still running"
+            + " via the PredicateCPAInvariantsManager."
+  )
+  private boolean useSharedInvariants = false;
+
   @Option(
     secure = true,
     description =
@@ -257,6 +271,10 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
   private final Map<CFANode, Set<BooleanFormula>> locationInvariantsCache = new HashMap<>();
 
   private final FormulaInvariantsSupplier globalInvariants;
+  private final @Nullable Subscription<ExpressionTreeLocationInvariant>
+      sharedInvariantsSubscription;
+  private final Multimap<CFANode, ExpressionTreeLocationInvariant> sharedInvariants =
+      LinkedHashMultimap.create();
   private final Specification specification;
 
   public PredicateCPAInvariantsManager(
@@ -276,6 +294,15 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
     cfa = pCfa;
 
     globalInvariants = new FormulaInvariantsSupplier(pAggregatedReachedSets);
+    if (useSharedInvariants) {
+      sharedInvariantsSubscription =
+          pAggregatedReachedSets
+              .getBlackboard()
+              .register("predicate analysis")
+              .subscribe(ResultBlackboard.INVARIANTS);
+    } else {
+      sharedInvariantsSubscription = null;
+    }
     updateGlobalInvariants();
 
     if (generationStrategy.contains(InvariantGenerationStrategy.PF_CNF_KIND)
@@ -300,6 +327,11 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
 
   public void updateGlobalInvariants() {
     globalInvariants.updateInvariants();
+    if (sharedInvariantsSubscription != null) {
+      for (ExpressionTreeLocationInvariant invariant : sharedInvariantsSubscription.poll()) {
+        sharedInvariants.put(invariant.getLocation(), invariant);
+      }
+    }
   }
 
   @Override
@@ -321,6 +353,17 @@ class PredicateCPAInvariantsManager implements StatisticsProvider, InvariantSupp
               pNode, pCallstackInformation, pFormulaManager, pPathFormulaManager, pContext);
     }
 
+    for (ExpressionTreeLocationInvariant sharedInvariant : sharedInvariants.get(pNode)) {
+      try {
+        globalInvariant =
+            bfManager.and(
+                globalInvariant,
+                sharedInvariant.getFormula(pFormulaManager, pPathFormulaManager, pContext));
+      } catch (CPATransferException e) {
+        logger.logDebugException(e, "Could not use shared invariant " + sharedInvariant);
+      }
+    }
+
     return bfManager.and(globalInvariant, bfManager.and(localInvariants));
   }
 
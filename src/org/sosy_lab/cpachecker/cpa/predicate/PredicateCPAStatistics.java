@@ -68,6 +68,7 @@ import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.Solver;
+import org.sosy_lab.cpachecker.util.statistics.MetricsSnapshot;
 
 @Options(prefix = "cpa.predicate")
 class PredicateCPAStatistics implements Statistics {
@@ -204,6 +205,22 @@ class PredicateCPAStatistics implements Statistics {
   }
 
 
+  @Override
+  public void collectMetrics(MetricsSnapshot pSnapshot) {
+    PredicateAbstractionManager.Stats as = amgr.stats;
+    pSnapshot
+        .put("predicate_abstractions", statistics.numAbstractions.getValue())
+        .put("predicate_abstraction_seconds", statistics.computingAbstractionTime.getSumTime())
+        .put("predicate_post_seconds", statistics.postTimer.getSumTime())
+        .put("predicate_sat_checks", solver.satChecks)
+        .put(
+            "predicate_solver_seconds",
+            TimeSpan.sum(
+                solver.solverTime.getSumTime(),
+                as.abstractionSolveTime.getSumTime(),
+                as.abstractionEnumTime.getOuterSumTime()));
+  }
+
   @Override
   public void printStatistics(PrintStream out, Result result, UnmodifiableReachedSet reached) {
     int maxPredsPerLocation = -1;
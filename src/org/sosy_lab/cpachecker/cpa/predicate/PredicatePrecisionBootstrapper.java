@@ -35,6 +35,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -49,10 +50,14 @@ import org.sosy_lab.cpachecker.core.Specification;
 import org.sosy_lab.cpachecker.core.algorithm.bmc.candidateinvariants.ExpressionTreeLocationInvariant;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.reachedset.AggregatedReachedSets;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard;
+import org.sosy_lab.cpachecker.core.reachedset.ResultBlackboard.Subscription;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonGraphmlParser;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateMapParser;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.WitnessInvariantsExtractor;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionPredicate;
@@ -72,6 +77,15 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
   @Option(secure=true, description="always check satisfiability at end of block, even if precision is empty")
   private boolean checkBlockFeasibility = false;
 
+  @Option(
+      secure = true,
+      name = "abstraction.sharedInvariantsAsPredicates",
+      description =
+          "add predicates from invariants that other analyses running in parallel"
+              + " (e.g. k-induction in a parallel portfolio) have proven and shared"
+              + " to the initial precision of each new analysis run")
+  private boolean sharedInvariantsAsPredicates = false;
+
   @Options(prefix = "cpa.predicate.abstraction.initialPredicates")
   public static class InitialPredicatesOptions {
 
@@ -125,6 +139,10 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
 
   private final InitialPredicatesOptions options;
 
+  private final @Nullable Subscription<ExpressionTreeLocationInvariant> sharedInvariants;
+  private PredicatePrecision sharedInvariantsPrecision = PredicatePrecision.empty();
+  private int numberOfSharedInvariants = 0;
+
   public PredicatePrecisionBootstrapper(
       Configuration config,
       LogManager logger,
@@ -134,7 +152,8 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
       Specification specification,
       ShutdownNotifier shutdownNotifier,
       PathFormulaManager pathFormulaManager,
-      PredicateAbstractionManager predicateAbstractionManager)
+      PredicateAbstractionManager predicateAbstractionManager,
+      AggregatedReachedSets aggregatedReachedSets)
       throws InvalidConfigurationException {
     this.config = config;
     this.logger = logger;
@@ -152,6 +171,16 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
 
     this.options = new InitialPredicatesOptions();
     config.inject(this.options);
+
+    if (sharedInvariantsAsPredicates) {
+      sharedInvariants =
+          aggregatedReachedSets
+              .getBlackboard()
+              .register("predicate precision bootstrapper")
+              .subscribe(ResultBlackboard.INVARIANTS);
+    } else {
+      sharedInvariants = null;
+    }
   }
 
   private PredicatePrecision internalPrepareInitialPredicates()
@@ -207,55 +236,88 @@ public class PredicatePrecisionBootstrapper implements StatisticsProvider {
               config, specification, logger, cfa, shutdownNotifier, pWitnessFile);
       extractor.extractInvariantsFromReachedSet(invariants);
 
-      for (ExpressionTreeLocationInvariant invariant : invariants) {
+      result = invariantsAsPredicates(invariants);
+    } catch (CPAException | InterruptedException | InvalidConfigurationException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Predicate from correctness witness invariants could not be computed");
+    }
+    return result;
+  }
 
-        ListMultimap<CFANode, AbstractionPredicate> localPredicates =
-            MultimapBuilder.treeKeys().arrayListValues().build();
-        Set<AbstractionPredicate> globalPredicates = Sets.newHashSet();
-        ListMultimap<String, AbstractionPredicate> functionPredicates =
-            MultimapBuilder.treeKeys().arrayListValues().build();
+  private PredicatePrecision invariantsAsPredicates(
+      Iterable<ExpressionTreeLocationInvariant> pInvariants)
+      throws CPATransferException, InterruptedException {
+    PredicatePrecision result = PredicatePrecision.empty();
+    for (ExpressionTreeLocationInvariant invariant : pInvariants) {
 
-        List<AbstractionPredicate> predicates = new ArrayList<>();
-        // get atom predicates from invariant
-        if (options.splitIntoAtoms) {
-          predicates.addAll(
-              predicateAbstractionManager.getPredicatesForAtomsOf(
-                  invariant.getFormula(formulaManagerView, pathFormulaManager, null)));
+      ListMultimap<CFANode, AbstractionPredicate> localPredicates =
+          MultimapBuilder.treeKeys().arrayListValues().build();
+      Set<AbstractionPredicate> globalPredicates = Sets.newHashSet();
+      ListMultimap<String, AbstractionPredicate> functionPredicates =
+          MultimapBuilder.treeKeys().arrayListValues().build();
 
-        }
-        // get predicate from invariant
-        else {
-          predicates.add(
-              abstractionManager.makePredicate(
-                  invariant.getFormula(formulaManagerView, pathFormulaManager, null)));
-        }
-        for (AbstractionPredicate predicate : predicates) {
-          localPredicates.put(invariant.getLocation(), predicate);
-          globalPredicates.add(predicate);
-          functionPredicates.put(invariant.getLocation().getFunctionName(), predicate);
-        }
+      List<AbstractionPredicate> predicates = new ArrayList<>();
+      // get atom predicates from invariant
+      if (options.splitIntoAtoms) {
+        predicates.addAll(
+            predicateAbstractionManager.getPredicatesForAtomsOf(
+                invariant.getFormula(formulaManagerView, pathFormulaManager, null)));
 
-        // add predicates according to the scope
-        // location scope is chosen if neither function or global scope is specified or both are
-        // specified which would be a conflict here
-        boolean applyLocally =
-            (!options.applyFunctionWide && !options.applyGlobally)
-                || (options.applyFunctionWide && options.applyGlobally);
-        if (applyLocally) {
-          result = result.addLocalPredicates(localPredicates.entries());
-        } else if (options.applyFunctionWide) {
-          result = result.addFunctionPredicates(functionPredicates.entries());
-        } else if (options.applyGlobally) {
-          result = result.addGlobalPredicates(globalPredicates);
-        }
       }
-    } catch (CPAException | InterruptedException | InvalidConfigurationException e) {
-      logger.logUserException(
-          Level.WARNING, e, "Predicate from correctness witness invariants could not be computed");
+      // get predicate from invariant
+      else {
+        predicates.add(
+            abstractionManager.makePredicate(
+                invariant.getFormula(formulaManagerView, pathFormulaManager, null)));
+      }
+      for (AbstractionPredicate predicate : predicates) {
+        localPredicates.put(invariant.getLocation(), predicate);
+        globalPredicates.add(predicate);
+        functionPredicates.put(invariant.getLocation().getFunctionName(), predicate);
+      }
+
+      // add predicates according to the scope
+      // location scope is chosen if neither function or global scope is specified or both are
+      // specified which would be a conflict here
+      boolean applyLocally =
+          (!options.applyFunctionWide && !options.applyGlobally)
+              || (options.applyFunctionWide && options.applyGlobally);
+      if (applyLocally) {
+        result = result.addLocalPredicates(localPredicates.entries());
+      } else if (options.applyFunctionWide) {
+        result = result.addFunctionPredicates(functionPredicates.entries());
+      } else if (options.applyGlobally) {
+        result = result.addGlobalPredicates(globalPredicates);
+      }
     }
     return result;
   }
 
+  /**
+   * Add predicates for the invariants that other analyses have shared so far (if enabled) to the
+   * given precision.
+   */
+  public PredicatePrecision addSharedInvariantsAsPredicates(PredicatePrecision pPrecision)
+      throws InterruptedException {
+    if (sharedInvariants == null) {
+      return pPrecision;
+    }
+    List<ExpressionTreeLocationInvariant> newInvariants = sharedInvariants.poll();
+    if (!newInvariants.isEmpty()) {
+      try {
+        sharedInvariantsPrecision =
+            sharedInvariantsPrecision.mergeWith(invariantsAsPredicates(newInvariants));
+        numberOfSharedInvariants += newInvariants.size();
+        statistics.addKeyValueStatistic(
+            "Shared invariants as predicates", numberOfSharedInvariants);
+      } catch (CPATransferException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Predicates from shared invariants could not be computed");
+      }
+    }
+    return pPrecision.mergeWith(sharedInvariantsPrecision);
+  }
+
   /** Read the (initial) precision (predicates to track) from a file. */
   public PredicatePrecision prepareInitialPredicates()
       throws InvalidConfigurationException, InterruptedException {
@@ -199,6 +199,8 @@ public abstract class ErrorTracePrinter {
       }
     }
     finish();
+    // The container is not checked for unsafes any more
+    container.close();
   }
 
   public void printStatistics(StatisticsWriter out) {
@@ -67,7 +67,14 @@ import org.sosy_lab.cpachecker.util.Precisions;
 import org.sosy_lab.cpachecker.util.identifiers.SingleIdentifier;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
-
+/**
+ * Entry point of the refinement chain, which refines the unsafes of one identifier after another.
+ *
+ * <p>Only the detection of unsafes in {@link UsageContainer} is done in parallel. The refinement of
+ * the identifiers stays sequential: the blocks of the chain share the set of already refined
+ * states, the BAM caches and the predicate precision, which is updated for all identifiers at once,
+ * and the interpolants are computed with the solver of the predicate analysis.
+ */
 @Options(prefix="cpa.usage")
 public class IdentifierIterator extends WrappedConfigurableRefinementBlock<ReachedSet, SingleIdentifier> implements Refiner {
 
@@ -39,8 +39,11 @@ import java.util.SortedMap;
 import java.util.SortedSet;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
+import java.util.stream.Collectors;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -59,8 +62,15 @@ import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 
+/**
+ * Global storage of all usages, grouped by identifier.
+ *
+ * <p>The container is not thread-safe. Only the detection of unsafes may use several threads, which
+ * read the usages of different identifiers while the container is not modified. The container owns
+ * the threads for this and releases them on {@link #close()}.
+ */
 @Options(prefix="cpa.usage")
-public class UsageContainer {
+public class UsageContainer implements AutoCloseable {
   private final SortedMap<SingleIdentifier, UnrefinedUsagePointSet> unrefinedIds;
   private final SortedMap<SingleIdentifier, RefinedUsagePointSet> refinedIds;
   private final SortedMap<SingleIdentifier, RefinedUsagePointSet> failedIds;
@@ -79,6 +89,7 @@ public class UsageContainer {
   private final StatTimer resetTimer = new StatTimer("Time for reseting unsafes");
   private final StatTimer copyTimer = new StatTimer("Time for filling global container");
   private final StatTimer emptyEffectsTimer = new StatTimer("Time for coping usages");
+  private final StatTimer unsafeDetectionTimer = new StatTimer("Time for detection of unsafes");
 
   int unsafeUsages = -1;
   int totalIds = 0;
@@ -87,6 +98,17 @@ public class UsageContainer {
       secure = true)
   private boolean printOnlyTrueUnsafes = false;
 
+  @Option(
+      description =
+          "number of threads for checking the usages of identifiers for unsafes. "
+              + "Identifiers are checked independently, so the result does not depend on it.",
+      secure = true)
+  @IntegerOption(min = 1)
+  private int unsafeDetectionThreads = 1;
+
+  /** Threads for the detection of unsafes, created on first use. */
+  private ForkJoinPool unsafeDetectionPool = null;
+
   public UsageContainer(Configuration config, LogManager l) throws InvalidConfigurationException {
     this(new TreeMap<SingleIdentifier, UnrefinedUsagePointSet>(),
         new TreeMap<SingleIdentifier, RefinedUsagePointSet>(),
@@ -219,16 +241,16 @@ public class UsageContainer {
 
   private void calculateUnsafesIfNecessary() {
     if (unsafeUsages == -1) {
+      unsafeDetectionTimer.start();
       processedUnsafes.clear();
       unsafeUsages = 0;
       Set<SingleIdentifier> toDelete = new HashSet<>();
 
-      for (Entry<SingleIdentifier, UnrefinedUsagePointSet> entry : unrefinedIds.entrySet()) {
-        UnrefinedUsagePointSet tmpList = entry.getValue();
-        if (detector.isUnsafe(tmpList)) {
-          unsafeUsages += tmpList.size();
+      for (Entry<SingleIdentifier, Boolean> entry : detectUnsafes().entrySet()) {
+        SingleIdentifier id = entry.getKey();
+        if (entry.getValue()) {
+          unsafeUsages += unrefinedIds.get(id).size();
         } else {
-          SingleIdentifier id = entry.getKey();
           toDelete.add(id);
           falseUnsafes.add(id);
         }
@@ -242,6 +264,49 @@ public class UsageContainer {
         initialSet = new HashSet<>(unrefinedIds.keySet());
         initialUsages = unsafeUsages;
       }
+      unsafeDetectionTimer.stop();
+    }
+  }
+
+  /**
+   * Check for each unrefined identifier whether its usages contain an unsafe. The checks are
+   * independent of each other and do not modify the usage sets, so they can be done in parallel.
+   * The result is sorted by identifier like the container itself.
+   */
+  private SortedMap<SingleIdentifier, Boolean> detectUnsafes() {
+    if (unsafeDetectionThreads == 1 || unrefinedIds.size() <= 1) {
+      SortedMap<SingleIdentifier, Boolean> result = new TreeMap<>();
+      unrefinedIds.forEach((id, uset) -> result.put(id, detector.isUnsafe(uset)));
+      return result;
+    }
+
+    if (unsafeDetectionPool == null) {
+      unsafeDetectionPool = new ForkJoinPool(unsafeDetectionThreads);
+    }
+    return unsafeDetectionPool
+        .submit(
+            () ->
+                unrefinedIds
+                    .entrySet()
+                    .parallelStream()
+                    .collect(
+                        Collectors.toMap(
+                            Entry::getKey,
+                            entry -> detector.isUnsafe(entry.getValue()),
+                            (a, b) -> a,
+                            TreeMap::new)))
+        .join();
+  }
+
+  /**
+   * Stop the threads for the detection of unsafes. The container stays usable, but a later
+   * detection starts new threads.
+   */
+  @Override
+  public void close() {
+    if (unsafeDetectionPool != null) {
+      unsafeDetectionPool.shutdown();
+      unsafeDetectionPool = null;
     }
   }
 
@@ -395,7 +460,8 @@ public class UsageContainer {
         .put(failedUsages)
         .put(resetTimer)
         .put(copyTimer)
-        .put(emptyEffectsTimer);
+        .put(emptyEffectsTimer)
+        .put(unsafeDetectionTimer);
   }
 
   public Set<SingleIdentifier> getProcessedUnsafes() {
@@ -0,0 +1,161 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.usage.storage;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterators;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
+import org.sosy_lab.cpachecker.cpa.usage.UsageInfo;
+import org.sosy_lab.cpachecker.cpa.usage.UsageInfo.Access;
+import org.sosy_lab.cpachecker.util.identifiers.GlobalVariableIdentifier;
+import org.sosy_lab.cpachecker.util.identifiers.SingleIdentifier;
+
+public class UsageContainerTest {
+
+  private static final int IDENTIFIERS = 40;
+
+  /** A state that only has a location, such that usages do not contain any locks. */
+  private static class LocationOnlyState implements AbstractStateWithLocation {
+
+    private final CFANode node = new CFANode("main");
+
+    @Override
+    public CFANode getLocationNode() {
+      return node;
+    }
+
+    @Override
+    public Iterable<CFANode> getLocationNodes() {
+      return ImmutableSet.of(node);
+    }
+
+    @Override
+    public Iterable<CFAEdge> getOutgoingEdges() {
+      return ImmutableList.of();
+    }
+
+    @Override
+    public Iterable<CFAEdge> getIngoingEdges() {
+      return ImmutableList.of();
+    }
+  }
+
+  private static SingleIdentifier id(int i) {
+    return new GlobalVariableIdentifier("g" + i, CNumericTypes.INT, 0);
+  }
+
+  /** Every third identifier is written once, all identifiers are read twice. */
+  private static TemporaryUsageStorage createUsages() {
+    TemporaryUsageStorage storage = new TemporaryUsageStorage();
+    for (int i = 0; i < IDENTIFIERS; i++) {
+      SingleIdentifier id = id(i);
+      storage.add(id, UsageInfo.createUsageInfo(Access.READ, new LocationOnlyState(), id));
+      storage.add(id, UsageInfo.createUsageInfo(Access.READ, new LocationOnlyState(), id));
+      if (i % 3 == 0) {
+        storage.add(id, UsageInfo.createUsageInfo(Access.WRITE, new LocationOnlyState(), id));
+      }
+    }
+    return storage;
+  }
+
+  private static UsageContainer createContainer(int threads)
+      throws InvalidConfigurationException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("cpa.usage.unsafeDetectionThreads", Integer.toString(threads))
+            .setOption("cpa.usage.unsafedetector.ignoreEmptyLockset", "false")
+            .build();
+    UsageContainer container = new UsageContainer(config, LogManager.createTestLogManager());
+    container.forceAddNewUsages(createUsages());
+    return container;
+  }
+
+  @Test
+  public void testDetectUnsafes() throws InvalidConfigurationException {
+    List<SingleIdentifier> expected = new ArrayList<>();
+    for (int i = 0; i < IDENTIFIERS; i += 3) {
+      expected.add(id(i));
+    }
+
+    try (UsageContainer container = createContainer(1)) {
+      assertThat(container.getUnsafeSize()).isEqualTo(expected.size());
+      assertThat(ImmutableList.copyOf(container.getUnsafeIterator()))
+          .containsExactlyElementsIn(expected);
+      assertThat(container.getFalseUnsafes()).hasSize(IDENTIFIERS - expected.size());
+    }
+  }
+
+  @Test
+  public void testParallelDetectionEqualsSequential() throws InvalidConfigurationException {
+    try (UsageContainer sequential = createContainer(1);
+        UsageContainer parallel = createContainer(4)) {
+      assertSameUnsafes(parallel, sequential);
+    }
+  }
+
+  @Test
+  public void testParallelDetectionAfterReset() throws InvalidConfigurationException {
+    try (UsageContainer sequential = createContainer(1);
+        UsageContainer parallel = createContainer(4)) {
+      assertSameUnsafes(parallel, sequential);
+
+      // the second detection reuses the threads of the container
+      refill(parallel);
+      assertSameUnsafes(parallel, sequential);
+
+      // and after closing, a detection starts new threads
+      parallel.close();
+      refill(parallel);
+      assertSameUnsafes(parallel, sequential);
+    }
+  }
+
+  /** Simulate a new iteration of the analysis, which fills the container again. */
+  private static void refill(UsageContainer container) {
+    container.resetUnrefinedUnsafes();
+    container.forceAddNewUsages(createUsages());
+  }
+
+  private static void assertSameUnsafes(UsageContainer parallel, UsageContainer sequential) {
+    assertThat(parallel.getUnsafeSize()).isEqualTo(sequential.getUnsafeSize());
+    assertThat(ImmutableList.copyOf(parallel.getUnsafeIterator()))
+        .containsExactlyElementsIn(ImmutableList.copyOf(sequential.getUnsafeIterator()))
+        .inOrder();
+    assertThat(parallel.getFalseUnsafes()).isEqualTo(sequential.getFalseUnsafes());
+    assertThat(Iterators.size(parallel.getUnrefinedUnsafeIterator()))
+        .isEqualTo(Iterators.size(sequential.getUnrefinedUnsafeIterator()));
+  }
+}
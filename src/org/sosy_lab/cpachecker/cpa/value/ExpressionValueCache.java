@@ -0,0 +1,293 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.MapMaker;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CCastExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CCharLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFloatLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CParameterDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CTypeIdExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression.UnaryOperator;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.DefaultCExpressionVisitor;
+import org.sosy_lab.cpachecker.cfa.types.c.CEnumType;
+import org.sosy_lab.cpachecker.cfa.types.c.CEnumType.CEnumerator;
+import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.cfa.types.c.CType;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.cpa.value.type.Value;
+import org.sosy_lab.cpachecker.exceptions.NoException;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+
+/**
+ * Cache for the values of C expressions that are evaluated by the {@link ExpressionValueVisitor}.
+ *
+ * <p>Only expressions that read nothing but variables of simple types (no pointers, fields, arrays
+ * or function calls) are cached. An entry is keyed by the expression (which is specific to a CFA
+ * edge), the target type, and the values of all variables the expression reads, and is only
+ * created if all these values are concrete numbers. In this case the evaluation is a pure
+ * computation, and the cached result can be reused for all states that agree on these variables.
+ *
+ * <p>This class is thread-safe.
+ */
+final class ExpressionValueCache implements Statistics {
+
+  /** Read set of each analyzed expression, empty if the expression cannot be cached. */
+  private final Map<CExpression, Optional<ImmutableList<MemoryLocation>>> readSets =
+      new MapMaker().weakKeys().makeMap();
+
+  private final Map<Key, Value> values = new ConcurrentHashMap<>();
+  private final int maxSize;
+
+  private final StatCounter hits = new StatCounter("Cache hits");
+  private final StatCounter misses = new StatCounter("Cache misses");
+  private final StatCounter uncacheable = new StatCounter("Evaluations not cacheable");
+  private final StatCounter clears = new StatCounter("Cache clears because of size limit");
+
+  ExpressionValueCache(int pMaxSize) {
+    maxSize = pMaxSize;
+  }
+
+  /**
+   * Create the key for an evaluation of the given expression in the given state.
+   *
+   * @return the key, or null if the result of the evaluation must not be cached
+   */
+  @Nullable Key createKey(CExpression pExp, CType pTargetType, ValueAnalysisState pState) {
+    Optional<ImmutableList<MemoryLocation>> readSet =
+        readSets.computeIfAbsent(pExp, ExpressionValueCache::computeReadSet);
+    if (!readSet.isPresent()) {
+      uncacheable.inc();
+      return null;
+    }
+
+    List<Value> readValues = new ArrayList<>(readSet.get().size());
+    for (MemoryLocation location : readSet.get()) {
+      if (!pState.contains(location)) {
+        uncacheable.inc();
+        return null;
+      }
+      Value value = pState.getValueFor(location);
+      if (!(value instanceof NumericValue)) {
+        uncacheable.inc();
+        return null;
+      }
+      readValues.add(value);
+    }
+    return new Key(pExp, pTargetType, readValues);
+  }
+
+  @Nullable Value get(Key pKey) {
+    Value value = values.get(pKey);
+    if (value == null) {
+      misses.inc();
+    } else {
+      hits.inc();
+    }
+    return value;
+  }
+
+  void put(Key pKey, Value pValue) {
+    if (values.size() >= maxSize) {
+      // Simple but effective bound: the working set is usually much smaller than the limit.
+      values.clear();
+      clears.inc();
+    }
+    values.put(pKey, pValue);
+  }
+
+  @VisibleForTesting
+  long getHits() {
+    return hits.getValue();
+  }
+
+  @VisibleForTesting
+  long getMisses() {
+    return misses.getValue();
+  }
+
+  @VisibleForTesting
+  long getUncacheable() {
+    return uncacheable.getValue();
+  }
+
+  private static Optional<ImmutableList<MemoryLocation>> computeReadSet(CExpression pExp) {
+    List<MemoryLocation> readSet = new ArrayList<>();
+    if (pExp.accept(new ReadSetCollector(readSet))) {
+      return Optional.of(ImmutableList.copyOf(readSet));
+    }
+    return Optional.empty();
+  }
+
+  @Override
+  public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
+    writingStatisticsTo(pOut)
+        .put(hits)
+        .put(misses)
+        .put(uncacheable)
+        .putIfUpdatedAtLeastOnce(clears)
+        .put("Current number of cached values", values.size());
+  }
+
+  @Override
+  public String getName() {
+    return "Expression value cache";
+  }
+
+  /**
+   * Visitor that collects the memory locations read by an expression and returns whether the
+   * expression can be evaluated purely from the values of these locations.
+   */
+  private static class ReadSetCollector extends DefaultCExpressionVisitor<Boolean, NoException> {
+
+    private final List<MemoryLocation> readSet;
+
+    ReadSetCollector(List<MemoryLocation> pReadSet) {
+      readSet = pReadSet;
+    }
+
+    @Override
+    protected Boolean visitDefault(CExpression pExp) {
+      // pointers, fields, arrays, strings, etc. depend on more than the values of variables
+      return false;
+    }
+
+    @Override
+    public Boolean visit(CIntegerLiteralExpression pE) {
+      return true;
+    }
+
+    @Override
+    public Boolean visit(CCharLiteralExpression pE) {
+      return true;
+    }
+
+    @Override
+    public Boolean visit(CFloatLiteralExpression pE) {
+      return true;
+    }
+
+    @Override
+    public Boolean visit(CTypeIdExpression pE) {
+      return true;
+    }
+
+    @Override
+    public Boolean visit(CBinaryExpression pE) {
+      return pE.getOperand1().accept(this) && pE.getOperand2().accept(this);
+    }
+
+    @Override
+    public Boolean visit(CCastExpression pE) {
+      return pE.getOperand().accept(this);
+    }
+
+    @Override
+    public Boolean visit(CUnaryExpression pE) {
+      if (pE.getOperator() == UnaryOperator.SIZEOF || pE.getOperator() == UnaryOperator.ALIGNOF) {
+        return true; // operand is not evaluated
+      }
+      return pE.getOperator() != UnaryOperator.AMPER && pE.getOperand().accept(this);
+    }
+
+    @Override
+    public Boolean visit(CIdExpression pE) {
+      CSimpleDeclaration declaration = pE.getDeclaration();
+      if (declaration instanceof CEnumerator) {
+        return true;
+      }
+      if (!(declaration instanceof CVariableDeclaration
+          || declaration instanceof CParameterDeclaration)) {
+        return false;
+      }
+      CType type = declaration.getType().getCanonicalType();
+      if (!(type instanceof CSimpleType || type instanceof CEnumType)) {
+        return false;
+      }
+      readSet.add(MemoryLocation.valueOf(declaration.getQualifiedName()));
+      return true;
+    }
+  }
+
+  /** Key of a cached value, the expression is compared by identity. */
+  static final class Key {
+
+    private final CExpression expression;
+    private final CType targetType;
+    private final List<Value> readValues;
+    private final int hashCode;
+
+    private Key(CExpression pExpression, CType pTargetType, List<Value> pReadValues) {
+      expression = pExpression;
+      targetType = pTargetType;
+      readValues = pReadValues;
+      hashCode =
+          31 * (31 * System.identityHashCode(expression) + targetType.hashCode())
+              + readValues.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (this == pOther) {
+        return true;
+      }
+      if (!(pOther instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) pOther;
+      return expression == other.expression
+          && hashCode == other.hashCode
+          && Objects.equals(targetType, other.targetType)
+          && readValues.equals(other.readValues);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CFieldReference;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CLeftHandSide;
 import org.sosy_lab.cpachecker.cfa.ast.c.CPointerExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CRightHandSide;
 import org.sosy_lab.cpachecker.cfa.ast.c.DefaultCExpressionVisitor;
 import org.sosy_lab.cpachecker.cfa.ast.java.JIdExpression;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
@@ -65,6 +66,8 @@ public class ExpressionValueVisitor extends AbstractExpressionValueVisitor {
   // This state is read-only! No writing or modification allowed!
   protected final ValueAnalysisState readableState;
 
+  private @Nullable ExpressionValueCache cache = null;
+
   /** This Visitor returns the numeral value for an expression.
    *
    * @param pState where to get the values for variables (identifiers)
@@ -78,6 +81,39 @@ public class ExpressionValueVisitor extends AbstractExpressionValueVisitor {
     readableState = pState;
   }
 
+  /**
+   * Use the given cache for the results of {@link #evaluate(CExpression, CType)}. This must only be
+   * used for visitors whose evaluation of side-effect free expressions is not overridden.
+   */
+  void setCache(ExpressionValueCache pCache) {
+    cache = pCache;
+  }
+
+  @Override
+  public Value evaluate(CExpression pExp, CType pTargetType) throws UnrecognizedCodeException {
+    if (cache == null) {
+      return super.evaluate(pExp, pTargetType);
+    }
+    ExpressionValueCache.Key key = cache.createKey(pExp, pTargetType, readableState);
+    if (key == null) {
+      return super.evaluate(pExp, pTargetType);
+    }
+    Value value = cache.get(key);
+    if (value == null) {
+      value = super.evaluate(pExp, pTargetType);
+      cache.put(key, value);
+    }
+    return value;
+  }
+
+  @Override
+  public Value evaluate(CRightHandSide pExp, CType pTargetType) throws UnrecognizedCodeException {
+    if (cache != null && pExp instanceof CExpression) {
+      return evaluate((CExpression) pExp, pTargetType);
+    }
+    return super.evaluate(pExp, pTargetType);
+  }
+
   /* additional methods */
 
   @Override
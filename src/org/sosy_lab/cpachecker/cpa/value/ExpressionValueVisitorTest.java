@@ -25,6 +25,8 @@ package org.sosy_lab.cpachecker.cpa.value;
 
 import static com.google.common.truth.Truth.assertThat;
 import static com.google.common.truth.TruthJUnit.assume;
+import static org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression.BinaryOperator.PLUS;
+import static org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression.UnaryOperator.AMPER;
 
 import com.google.common.collect.ImmutableList;
 import java.math.BigInteger;
@@ -39,14 +41,24 @@ import org.junit.runners.Parameterized.Parameters;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.log.LogManagerWithoutDuplicates;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CBinaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CCastExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CIdExpression;
 import org.sosy_lab.cpachecker.cfa.ast.c.CIntegerLiteralExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CPointerExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CUnaryExpression;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cfa.types.c.CPointerType;
 import org.sosy_lab.cpachecker.cfa.types.c.CSimpleType;
+import org.sosy_lab.cpachecker.cfa.types.c.CStorageClass;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
 import org.sosy_lab.cpachecker.cpa.value.type.Value;
 import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
 /**
  * Unit tests for {@link ExpressionValueVisitor}
@@ -326,6 +338,126 @@ public class ExpressionValueVisitorTest {
     }
   }
 
+  @Test
+  public void checkCachedEvaluation() throws Exception {
+    ExpressionValueCache cache = new ExpressionValueCache(100);
+    CIdExpression x = createVariable("x");
+    CExpression exp =
+        new CBinaryExpression(FileLocation.DUMMY, S_INT, S_INT, x, createLiteral(3), PLUS);
+
+    assertThat(evaluateCached(cache, exp, 5).asLong(S_INT)).isEqualTo(8);
+    assertThat(cache.getMisses()).isEqualTo(1);
+    assertThat(cache.getHits()).isEqualTo(0);
+
+    // another state with the same value of x reuses the result
+    assertThat(evaluateCached(cache, exp, 5).asLong(S_INT)).isEqualTo(8);
+    assertThat(cache.getHits()).isEqualTo(1);
+
+    // a different value of x must not hit the cached result
+    assertThat(evaluateCached(cache, exp, 6).asLong(S_INT)).isEqualTo(9);
+    assertThat(cache.getMisses()).isEqualTo(2);
+    assertThat(cache.getHits()).isEqualTo(1);
+
+    // the target type is part of the key
+    ExpressionValueVisitor visitor = createCachedVisitor(cache, 5);
+    assertThat(visitor.evaluate(exp, S_CHAR).asLong(S_CHAR)).isEqualTo(8);
+    assertThat(cache.getMisses()).isEqualTo(3);
+  }
+
+  @Test
+  public void checkCachedEvaluationWithCast() throws Exception {
+    ExpressionValueCache cache = new ExpressionValueCache(100);
+    CExpression exp = new CCastExpression(FileLocation.DUMMY, U_CHAR, createVariable("x"));
+
+    assertThat(evaluateCached(cache, exp, 260).asLong(U_CHAR)).isEqualTo(4);
+    assertThat(evaluateCached(cache, exp, 260).asLong(U_CHAR)).isEqualTo(4);
+    assertThat(evaluateCached(cache, exp, -1).asLong(U_CHAR)).isEqualTo(255);
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void checkUncacheableEvaluation() throws Exception {
+    ExpressionValueCache cache = new ExpressionValueCache(100);
+    CIdExpression x = createVariable("x");
+    CIdExpression y = createVariable("y");
+    CExpression exp = new CBinaryExpression(FileLocation.DUMMY, S_INT, S_INT, x, y, PLUS);
+
+    // y has no value in the state, so the result depends on more than the cached values
+    ExpressionValueVisitor visitor = createCachedVisitor(cache, 5);
+    Value expected =
+        new ExpressionValueVisitor(createState(5), "dummy_function", machineModel, logger)
+            .evaluate(exp, S_INT);
+    assertThat(visitor.evaluate(exp, S_INT)).isEqualTo(expected);
+    assertThat(visitor.evaluate(exp, S_INT)).isEqualTo(expected);
+
+    // pointer dereferences are never cached
+    CExpression deref =
+        new CPointerExpression(
+            FileLocation.DUMMY,
+            S_INT,
+            new CUnaryExpression(
+                FileLocation.DUMMY, new CPointerType(false, false, S_INT), x, AMPER));
+    visitor.evaluate(deref, S_INT);
+
+    assertThat(cache.getUncacheable()).isEqualTo(3);
+    assertThat(cache.getHits()).isEqualTo(0);
+    assertThat(cache.getMisses()).isEqualTo(0);
+  }
+
+  @Test
+  public void checkCacheSizeLimit() throws Exception {
+    ExpressionValueCache cache = new ExpressionValueCache(2);
+    CExpression exp =
+        new CBinaryExpression(
+            FileLocation.DUMMY, S_INT, S_INT, createVariable("x"), createLiteral(1), PLUS);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(evaluateCached(cache, exp, i).asLong(S_INT)).isEqualTo(i + 1);
+    }
+    assertThat(cache.getMisses()).isEqualTo(10);
+    // only the most recent values can still be cached
+    assertThat(evaluateCached(cache, exp, 9).asLong(S_INT)).isEqualTo(10);
+    assertThat(cache.getHits()).isEqualTo(1);
+  }
+
+  private Value evaluateCached(ExpressionValueCache pCache, CExpression pExp, long pValueOfX)
+      throws UnrecognizedCodeException {
+    return createCachedVisitor(pCache, pValueOfX).evaluate(pExp, S_INT);
+  }
+
+  private ExpressionValueVisitor createCachedVisitor(ExpressionValueCache pCache, long pValueOfX) {
+    ExpressionValueVisitor visitor =
+        new ExpressionValueVisitor(createState(pValueOfX), "dummy_function", machineModel, logger);
+    visitor.setCache(pCache);
+    return visitor;
+  }
+
+  private ValueAnalysisState createState(long pValueOfX) {
+    ValueAnalysisState state = new ValueAnalysisState(machineModel);
+    state.assignConstant(
+        MemoryLocation.valueOf("dummy_function::x"), new NumericValue(pValueOfX), S_INT);
+    return state;
+  }
+
+  private static CIdExpression createVariable(String pName) {
+    CVariableDeclaration declaration =
+        new CVariableDeclaration(
+            FileLocation.DUMMY,
+            false,
+            CStorageClass.AUTO,
+            S_INT,
+            pName,
+            pName,
+            "dummy_function::" + pName,
+            null);
+    return new CIdExpression(FileLocation.DUMMY, declaration);
+  }
+
+  private static CIntegerLiteralExpression createLiteral(long pValue) {
+    return new CIntegerLiteralExpression(FileLocation.DUMMY, S_INT, BigInteger.valueOf(pValue));
+  }
+
   private void performMachineModelAgnosticChecksForFloats() {
     for (CType type : ImmutableList.of(FLOAT, DOUBLE)) {
       for (Float n : ImmutableList
@@ -37,9 +37,11 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -76,6 +78,7 @@ import org.sosy_lab.cpachecker.cpa.value.symbolic.SymbolicValueAssigner;
 import org.sosy_lab.cpachecker.util.StateToFormulaWriter;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.cpachecker.util.states.MemoryLocationValueHandler;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 @Options(prefix = "cpa.value")
 public class ValueAnalysisCPA extends AbstractCPA
@@ -107,6 +110,18 @@ public class ValueAnalysisCPA extends AbstractCPA
           + " Otherwise, symbolic values will be created, but not evaluated.")
   private boolean useSymbolicValues = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Cache the values of side-effect free expressions on CFA edges, "
+              + "keyed by the values of the variables they read. "
+              + "States that agree on these variables reuse the result.")
+  private boolean cacheExpressionValues = false;
+
+  @Option(secure = true, description = "Maximal number of values in the expression-value cache.")
+  @IntegerOption(min = 1)
+  private int expressionValueCacheSize = 100000;
+
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ValueAnalysisCPA.class);
   }
@@ -129,6 +144,7 @@ public class ValueAnalysisCPA extends AbstractCPA
   private final PrecAdjustmentOptions precisionAdjustmentOptions;
   private final PrecAdjustmentStatistics precisionAdjustmentStatistics;
   private final SymbolicStatistics symbolicStats;
+  private final @Nullable ExpressionValueCache expressionValueCache;
 
   private ValueAnalysisCPA(Configuration config, LogManager logger,
       ShutdownNotifier pShutdownNotifier, CFA cfa) throws InvalidConfigurationException {
@@ -142,6 +158,8 @@ public class ValueAnalysisCPA extends AbstractCPA
 
     precision           = initializePrecision(config, cfa);
     statistics          = new ValueAnalysisCPAStatistics(this, config);
+    expressionValueCache =
+        cacheExpressionValues ? new ExpressionValueCache(expressionValueCacheSize) : null;
     writer = new StateToFormulaWriter(config, logger, shutdownNotifier, cfa);
     errorPathAllocator = new ValueAnalysisConcreteErrorPathAllocator(config, logger, cfa.getMachineModel());
 
@@ -239,7 +257,16 @@ public class ValueAnalysisCPA extends AbstractCPA
 
   @Override
   public StopOperator getStopOperator() {
-    return buildStopOperator(stopType);
+    final StopOperator stopOperator = buildStopOperator(stopType);
+    final TimerWrapper stopTimer = statistics.stopTime.getNewTimer();
+    return (state, reached, stopPrecision) -> {
+      stopTimer.start();
+      try {
+        return stopOperator.stop(state, reached, stopPrecision);
+      } finally {
+        stopTimer.stop();
+      }
+    };
   }
 
   @Override
@@ -250,7 +277,8 @@ public class ValueAnalysisCPA extends AbstractCPA
         transferOptions,
         unknownValueHandler,
         constraintsStrengthenOperator,
-        statistics);
+        statistics,
+        expressionValueCache);
   }
 
   @Override
@@ -306,6 +334,9 @@ public class ValueAnalysisCPA extends AbstractCPA
     if (symbolicStats != null) {
       pStatsCollection.add(symbolicStats);
     }
+    if (expressionValueCache != null) {
+      pStatsCollection.add(expressionValueCache);
+    }
     pStatsCollection.add(constraintsStrengthenOperator);
     writer.collectStatistics(pStatsCollection);
   }
@@ -46,6 +46,7 @@ import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
 
 @Options(prefix="cpa.value")
 public class ValueAnalysisCPAStatistics implements Statistics {
@@ -58,6 +59,10 @@ public class ValueAnalysisCPAStatistics implements Statistics {
   private StatCounter assumptions = new StatCounter("Number of assumptions");
   private StatCounter deterministicAssumptions =
       new StatCounter("Number of deterministic assumptions");
+  final ThreadSafeTimerContainer transferTime =
+      new ThreadSafeTimerContainer("Time for value-analysis transfer");
+  final ThreadSafeTimerContainer stopTime =
+      new ThreadSafeTimerContainer("Time for value-analysis stop operator");
   private final ValueAnalysisCPA cpa;
 
   public ValueAnalysisCPAStatistics(ValueAnalysisCPA cpa, Configuration config) throws InvalidConfigurationException {
@@ -95,7 +100,9 @@ public class ValueAnalysisCPAStatistics implements Statistics {
     writer
         .put(assumptions)
         .put(deterministicAssumptions)
-        .put("Level of Determinism", getCurrentLevelOfDeterminism() + "%");
+        .put("Level of Determinism", getCurrentLevelOfDeterminism() + "%")
+        .putIfUpdatedAtLeastOnce(transferTime)
+        .putIfUpdatedAtLeastOnce(stopTime);
   }
 
   /**
@@ -157,8 +157,16 @@ public class ValueAnalysisState
       valueToAdd = ((SymbolicValue) valueToAdd).copyForLocation(pMemLoc);
     }
 
-    ValueAndType valueAndType = new ValueAndType(checkNotNull(valueToAdd), pType);
     ValueAndType oldValueAndType = constantsMap.get(pMemLoc);
+    if (oldValueAndType != null
+        && Objects.equals(pType, oldValueAndType.getType())
+        && valueToAdd.equals(oldValueAndType.getValue())) {
+      // Nothing changes. Keeping the old map instance avoids copying the path in the map
+      // and allows cheap identity checks against states that share it (cf. isLessOrEqual).
+      return;
+    }
+
+    ValueAndType valueAndType = new ValueAndType(checkNotNull(valueToAdd), pType);
     if (oldValueAndType != null) {
       hashCode -= (pMemLoc.hashCode() ^ oldValueAndType.hashCode());
     }
@@ -385,6 +393,11 @@ public class ValueAnalysisState
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
 
+    // states created from each other without changes share the same map
+    if (constantsMap == other.constantsMap) {
+      return true;
+    }
+
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
       return false;
@@ -427,6 +440,9 @@ public class ValueAnalysisState
     }
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
+    if (otherElement.constantsMap == constantsMap) {
+      return true;
+    }
     // hashCode is used as optimization: about 20% speedup when using many SingletonSets
     return otherElement.hashCode == hashCode && otherElement.constantsMap.equals(constantsMap);
   }
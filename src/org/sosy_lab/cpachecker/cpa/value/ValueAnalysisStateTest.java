@@ -0,0 +1,115 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ValueAnalysisStateTest {
+
+  private static final MemoryLocation X = MemoryLocation.valueOf("main", "x");
+  private static final MemoryLocation Y = MemoryLocation.valueOf("main", "y");
+  private static final MemoryLocation G = MemoryLocation.valueOf("g");
+
+  private static ValueAnalysisState createState(long pX, long pY) {
+    ValueAnalysisState state = new ValueAnalysisState(MachineModel.LINUX64);
+    state.assignConstant(X, new NumericValue(pX), CNumericTypes.INT);
+    state.assignConstant(Y, new NumericValue(pY), CNumericTypes.INT);
+    return state;
+  }
+
+  @Test
+  public void testAssignSameValue() {
+    ValueAnalysisState state = createState(1, 2);
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+    int hashCode = copy.hashCode();
+
+    copy.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(copy.hashCode()).isEqualTo(hashCode);
+    assertThat(copy).isEqualTo(state);
+    assertThat(copy.isLessOrEqual(state)).isTrue();
+    assertThat(state.isLessOrEqual(copy)).isTrue();
+    assertThat(copy.getValueFor(X)).isEqualTo(new NumericValue(1));
+  }
+
+  @Test
+  public void testAssignSameValueWithOtherType() {
+    ValueAnalysisState state = createState(1, 2);
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+
+    copy.assignConstant(X, new NumericValue(1), CNumericTypes.LONG_INT);
+
+    assertThat(copy.getTypeForMemoryLocation(X)).isEqualTo(CNumericTypes.LONG_INT);
+    assertThat(copy).isNotEqualTo(state);
+    assertThat(state.getTypeForMemoryLocation(X)).isEqualTo(CNumericTypes.INT);
+  }
+
+  @Test
+  public void testAssignOtherValue() {
+    ValueAnalysisState state = createState(1, 2);
+    ValueAnalysisState copy = ValueAnalysisState.copyOf(state);
+
+    copy.assignConstant(X, new NumericValue(3), CNumericTypes.INT);
+
+    assertThat(copy).isNotEqualTo(state);
+    assertThat(copy.isLessOrEqual(state)).isFalse();
+    assertThat(state.isLessOrEqual(copy)).isFalse();
+    assertThat(state.getValueFor(X)).isEqualTo(new NumericValue(1));
+    assertThat(copy.getValueFor(X)).isEqualTo(new NumericValue(3));
+    assertThat(copy.hashCode()).isEqualTo(createState(3, 2).hashCode());
+  }
+
+  @Test
+  public void testEqualStatesFromDifferentOrder() {
+    ValueAnalysisState state = createState(1, 2);
+    ValueAnalysisState other = new ValueAnalysisState(MachineModel.LINUX64);
+    other.assignConstant(Y, new NumericValue(2), CNumericTypes.INT);
+    other.assignConstant(X, new NumericValue(1), CNumericTypes.INT);
+
+    assertThat(other).isEqualTo(state);
+    assertThat(other.hashCode()).isEqualTo(state.hashCode());
+    assertThat(other.isLessOrEqual(state)).isTrue();
+  }
+
+  @Test
+  public void testLessOrEqualWithMoreVariables() {
+    ValueAnalysisState state = createState(1, 2);
+    ValueAnalysisState bigger = ValueAnalysisState.copyOf(state);
+    bigger.assignConstant(G, new NumericValue(0), CNumericTypes.INT);
+
+    // a state with more information is less or equal than one with less information
+    assertThat(bigger.isLessOrEqual(state)).isTrue();
+    assertThat(state.isLessOrEqual(bigger)).isFalse();
+
+    bigger.forget(G);
+    assertThat(bigger).isEqualTo(state);
+    assertThat(state.isLessOrEqual(bigger)).isTrue();
+  }
+}
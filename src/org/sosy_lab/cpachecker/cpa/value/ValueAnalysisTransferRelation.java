@@ -136,6 +136,7 @@ import org.sosy_lab.cpachecker.util.CFAEdgeUtils;
 import org.sosy_lab.cpachecker.util.Pair;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 import org.sosy_lab.cpachecker.util.states.MemoryLocationValueHandler;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 public class ValueAnalysisTransferRelation
     extends ForwardingTransferRelation<ValueAnalysisState, ValueAnalysisState, VariableTrackingPrecision> {
@@ -199,6 +200,8 @@ public class ValueAnalysisTransferRelation
 
   private final ValueTransferOptions options;
   private final @Nullable ValueAnalysisCPAStatistics stats;
+  private final @Nullable TimerWrapper transferTimer;
+  private final @Nullable ExpressionValueCache expressionValueCache;
 
   private final ConstraintsStrengthenOperator constraintsStrengthenOperator;
 
@@ -247,10 +250,30 @@ public class ValueAnalysisTransferRelation
       MemoryLocationValueHandler pUnknownValueHandler,
       ConstraintsStrengthenOperator pConstraintsStrengthenOperator,
       @Nullable ValueAnalysisCPAStatistics pStats) {
+    this(
+        pLogger,
+        pCfa,
+        pOptions,
+        pUnknownValueHandler,
+        pConstraintsStrengthenOperator,
+        pStats,
+        null);
+  }
+
+  ValueAnalysisTransferRelation(
+      LogManager pLogger,
+      CFA pCfa,
+      ValueTransferOptions pOptions,
+      MemoryLocationValueHandler pUnknownValueHandler,
+      ConstraintsStrengthenOperator pConstraintsStrengthenOperator,
+      @Nullable ValueAnalysisCPAStatistics pStats,
+      @Nullable ExpressionValueCache pExpressionValueCache) {
     options = pOptions;
+    expressionValueCache = pExpressionValueCache;
     machineModel = pCfa.getMachineModel();
     logger = new LogManagerWithoutDuplicates(pLogger);
     stats = pStats;
+    transferTimer = stats == null ? null : stats.transferTime.getNewTimer();
 
     if (pCfa.getVarClassification().isPresent()) {
       addressedVariables = pCfa.getVarClassification().get().getAddressedVariables();
@@ -275,6 +298,20 @@ public class ValueAnalysisTransferRelation
   }
 
 
+  @Override
+  public Collection<ValueAnalysisState> getAbstractSuccessorsForEdge(
+      AbstractState pState, Precision pPrecision, CFAEdge pCfaEdge) throws CPATransferException {
+    if (transferTimer == null) {
+      return super.getAbstractSuccessorsForEdge(pState, pPrecision, pCfaEdge);
+    }
+    transferTimer.start();
+    try {
+      return super.getAbstractSuccessorsForEdge(pState, pPrecision, pCfaEdge);
+    } finally {
+      transferTimer.stop();
+    }
+  }
+
   @Override
   protected void setInfo(AbstractState pAbstractState,
       Precision pAbstractPrecision, CFAEdge pCfaEdge) {
@@ -1652,11 +1689,17 @@ public class ValueAnalysisTransferRelation
 
   /** returns an initialized, empty visitor */
   private ExpressionValueVisitor getVisitor(ValueAnalysisState pState, String pFunctionName) {
+    final ExpressionValueVisitor visitor;
     if (options.isIgnoreFunctionValue()) {
-      return new ExpressionValueVisitor(pState, pFunctionName, machineModel, logger);
+      visitor = new ExpressionValueVisitor(pState, pFunctionName, machineModel, logger);
     } else {
-      return new FunctionPointerExpressionValueVisitor(pState, pFunctionName, machineModel, logger);
+      visitor =
+          new FunctionPointerExpressionValueVisitor(pState, pFunctionName, machineModel, logger);
+    }
+    if (expressionValueCache != null) {
+      visitor.setCache(expressionValueCache);
     }
+    return visitor;
   }
 
   private ExpressionValueVisitor getVisitor() {
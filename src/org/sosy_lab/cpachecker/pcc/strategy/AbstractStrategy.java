@@ -39,6 +39,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -59,6 +60,8 @@ import org.sosy_lab.cpachecker.exceptions.ValidationConfigurationConstructionFai
 import org.sosy_lab.cpachecker.pcc.util.ProofStatesInfoCollector;
 import org.sosy_lab.cpachecker.pcc.util.ValidationConfigurationBuilder;
 import org.sosy_lab.cpachecker.util.Triple;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 @Options(prefix="pcc")
 public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvider {
@@ -241,6 +244,9 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     protected Timer preparationTimer = new Timer();
     protected Timer propertyCheckingTimer = new Timer();
 
+    protected final ThreadSafeTimerContainer partitionWaitTimer =
+        new ThreadSafeTimerContainer("Time for waiting for partitions");
+
     protected int countIterations = 0;
     protected int proofSize = 0;
     protected final long fileProofSize;
@@ -274,6 +280,14 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
       return propertyCheckingTimer;
     }
 
+    /**
+     * Returns a timer for measuring how long a checker thread waits until the next partition has
+     * been read. Timers can be used concurrently by several threads.
+     */
+    public TimerWrapper getNewPartitionWaitTimer() {
+      return partitionWaitTimer.getNewTimer();
+    }
+
     public void increaseIteration() {
       countIterations++;
     }
@@ -291,6 +305,11 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
           + stopTimer.getNumberOfIntervals()
           + ")");
       out.println(" Time for checking property:          "   + propertyCheckingTimer);
+      if (partitionWaitTimer.getUpdateCount() > 0) {
+        out.println("  Time for waiting for partitions:        "
+            + partitionWaitTimer.getSumTime().formatAs(TimeUnit.SECONDS) + " (Waits: "
+            + partitionWaitTimer.getNumberOfIntervals() + ")");
+      }
       out.println("Proof file size (bytes):                      "  + fileProofSize);
     }
 
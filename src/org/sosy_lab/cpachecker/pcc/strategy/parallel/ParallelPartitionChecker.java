@@ -37,8 +37,10 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PartitioningCheckingHelper;
+import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitionChecker;
 import org.sosy_lab.cpachecker.pcc.strategy.partitioning.PartitioningIOHelper;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
 
 import com.google.common.collect.Multimap;
 
@@ -60,13 +62,15 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
   private final Collection<AbstractState> inOtherPartition;
 
   private final ShutdownNotifier shutdownNotifier;
+  private final TimerWrapper partitionWaitTimer;
 
   public ParallelPartitionChecker(final AtomicInteger pAvailablePartitions, final AtomicInteger pNextId,
       final AtomicBoolean pCheckResult, final Semaphore pReadButUnprocessed, final Semaphore pPartitionsChecked,
       final Lock pMutex, final PartitioningIOHelper pIOHelper,
       final Multimap<CFANode, AbstractState> partitionElements, final Collection<AbstractState> pCertificate,
       final Collection<AbstractState> pInOtherPartition, final Precision init, final StopOperator stop,
-      final TransferRelation transfer, final ShutdownNotifier pShutdownNotifier, final LogManager pLogger) {
+      final TransferRelation transfer, final ShutdownNotifier pShutdownNotifier,
+      final LogManager pLogger, final PCStrategyStatistics pStats) {
     numPartitionsAcquiredForChecking = pAvailablePartitions;
     nextPartition = pNextId;
     checkResult = pCheckResult;
@@ -80,6 +84,7 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
     inOtherPartition = pInOtherPartition;
 
     shutdownNotifier = pShutdownNotifier;
+    partitionWaitTimer = pStats.getNewPartitionWaitTimer();
 
     checker = new PartitionChecker(init, stop, transfer, ioHelper, this, pShutdownNotifier, pLogger);
   }
@@ -96,11 +101,14 @@ public class ParallelPartitionChecker implements Runnable, PartitioningCheckingH
         break;
       }
 
+      partitionWaitTimer.start();
       try {
         readAndUnprocessedPartitions.acquire();
       } catch (InterruptedException e) {
         abortCheckingPreparation();
         return;
+      } finally {
+        partitionWaitTimer.stop();
       }
       nextPartitionId = nextPartition.getAndIncrement();
 
@@ -105,7 +105,7 @@ public class PartialReachedSetPartitioningParallelStrategy extends AbstractStrat
       for (int i = 0; i < numThreads; i++) {
         executor.execute(new ParallelPartitionChecker(availablePartitions, nextId, checkResult, readButUnprocessed,
             partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec,
-            cpa.getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger));
+            cpa.getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger, stats));
       }
 
       partitionChecked.acquire(ioHelper.getNumPartitions());
@@ -113,7 +113,7 @@ public class PartialReachedSetIOCheckingInterleavedStrategy extends AbstractStra
       for (int i = 0; i < numThreads-1; i++) {
         executor.execute(new ParallelPartitionChecker(availableForChecking, nextId, checkResult, partitionsRead,
             partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec, cpa
-                .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger));
+                .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger, stats));
       }
 
       // read partitions
@@ -124,7 +124,7 @@ public class PartialReachedSetIOCheckingInterleavedStrategy extends AbstractStra
       // help checking remaining partitions
       new ParallelPartitionChecker(availableForChecking, nextId, checkResult, partitionsRead,
           partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec, cpa
-              .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger).run();
+              .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger, stats).run();
 
       partitionChecked.acquire(ioHelper.getNumPartitions());
 
@@ -189,7 +189,7 @@ public class PartialReachedSetParallelIOCheckingInterleavedStrategy extends Abst
     for (int i = 0; i < threads; i++) {
       pCheckingExecutor.execute(new ParallelPartitionChecker(availablePartitions, nextId, pCheckResult, pPartitionsRead,
           pPartitionChecked, pLock, ioHelper, pInPartition, pCertificate, pInOtherPartition, pInitialPrecision, cpa
-              .getStopOperator(), cpa.getTransferRelation(), shutdown, logger));
+              .getStopOperator(), cpa.getTransferRelation(), shutdown, logger, stats));
     }
   }
 
@@ -113,7 +113,7 @@ public class PartialReachedSetParallelReadingStrategy extends AbstractStrategy {
       for (int i = 0; i < threads; i++) {
         executor.execute(new ParallelPartitionChecker(availablePartitions, id, checkResult, readPartitions,
             partitionChecked, lock, ioHelper, partitionNodes, certificate, inOtherPartition, initPrec, cpa
-                .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger));
+                .getStopOperator(), cpa.getTransferRelation(), shutdownNotifier, logger, stats));
       }
 
       partitionChecked.acquire(ioHelper.getNumPartitions());
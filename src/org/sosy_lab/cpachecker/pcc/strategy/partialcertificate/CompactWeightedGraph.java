@@ -0,0 +1,315 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partialcertificate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Undirected, weighted graph stored in compressed sparse row format, i.e. the neighbors of node
+ * <code>i</code> are <code>neighbors[offsets[i]]</code> to <code>neighbors[offsets[i+1]-1]</code>.
+ * In contrast to {@link WeightedGraph}, no objects are allocated per node or edge, which makes this
+ * representation suitable for graphs with millions of nodes and for processing them in parallel.
+ *
+ * <p>Every directed edge of the original graph contributes a weight of 1 to the undirected edge
+ * between its end points, self loops are dropped. Instances are immutable.
+ */
+public final class CompactWeightedGraph {
+
+  private final int[] nodeWeights;
+  private final int[] offsets;
+  private final int[] neighbors;
+  private final int[] edgeWeights;
+  private final long totalNodeWeight;
+
+  private CompactWeightedGraph(
+      final int[] pNodeWeights,
+      final int[] pOffsets,
+      final int[] pNeighbors,
+      final int[] pEdgeWeights) {
+    nodeWeights = pNodeWeights;
+    offsets = pOffsets;
+    neighbors = pNeighbors;
+    edgeWeights = pEdgeWeights;
+    long total = 0;
+    for (int weight : nodeWeights) {
+      total += weight;
+    }
+    totalNodeWeight = total;
+  }
+
+  /**
+   * Create the compact representation of the given graph, every node gets weight 1.
+   *
+   * @param pGraph graph whose nodes and edges are copied
+   * @return undirected version of the graph in compressed sparse row format
+   */
+  public static CompactWeightedGraph of(final PartialReachedSetDirectedGraph pGraph) {
+    checkArgument(pGraph != null, "Graph may not be null.");
+    int numNodes = pGraph.getNumNodes();
+    ImmutableList<ImmutableList<Integer>> adjacencyList = pGraph.getAdjacencyList();
+
+    int[] degree = new int[numNodes];
+    for (int node = 0; node < numNodes; node++) {
+      for (Integer succ : adjacencyList.get(node)) {
+        if (succ != node) {
+          degree[node]++;
+          degree[succ]++;
+        }
+      }
+    }
+
+    int[] offsets = prefixSum(degree);
+    int[] neighbors = new int[offsets[numNodes]];
+    int[] position = Arrays.copyOf(offsets, numNodes);
+    for (int node = 0; node < numNodes; node++) {
+      for (Integer succ : adjacencyList.get(node)) {
+        if (succ != node) {
+          neighbors[position[node]++] = succ;
+          neighbors[position[succ]++] = node;
+        }
+      }
+    }
+
+    // merge parallel edges, e.g. created by edges in both directions, into one weighted edge
+    int[][] rowNeighbors = new int[numNodes][];
+    int[][] rowWeights = new int[numNodes][];
+    for (int node = 0; node < numNodes; node++) {
+      int[] row = Arrays.copyOfRange(neighbors, offsets[node], offsets[node + 1]);
+      int[] weights = new int[row.length];
+      Arrays.fill(weights, 1);
+      mergeRow(row, weights, node, rowNeighbors, rowWeights);
+    }
+
+    int[] nodeWeights = new int[numNodes];
+    Arrays.fill(nodeWeights, 1);
+    return fromRows(nodeWeights, rowNeighbors, rowWeights);
+  }
+
+  public int getNumNodes() {
+    return nodeWeights.length;
+  }
+
+  /** Returns the number of undirected edges. */
+  public int getNumEdges() {
+    return neighbors.length / 2;
+  }
+
+  public long getTotalNodeWeight() {
+    return totalNodeWeight;
+  }
+
+  public int getNodeWeight(final int pNode) {
+    return nodeWeights[pNode];
+  }
+
+  public int getDegree(final int pNode) {
+    return offsets[pNode + 1] - offsets[pNode];
+  }
+
+  /** Returns the <code>pIndex</code>-th neighbor of <code>pNode</code>. */
+  public int getNeighbor(final int pNode, final int pIndex) {
+    return neighbors[offsets[pNode] + pIndex];
+  }
+
+  /**
+   * Returns the weight of the edge to the <code>pIndex</code>-th neighbor of <code>pNode</code>.
+   */
+  public int getEdgeWeight(final int pNode, final int pIndex) {
+    return edgeWeights[offsets[pNode] + pIndex];
+  }
+
+  /**
+   * Computes the total weight of all edges whose end points are assigned to different blocks.
+   *
+   * @param pBlockOfNode block of every node
+   * @return weight of the edge cut
+   */
+  public long computeEdgeCut(final int[] pBlockOfNode) {
+    checkArgument(pBlockOfNode.length == getNumNodes());
+    long cut = 0;
+    for (int node = 0; node < getNumNodes(); node++) {
+      for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+        if (pBlockOfNode[node] != pBlockOfNode[neighbors[i]]) {
+          cut += edgeWeights[i];
+        }
+      }
+    }
+    return cut / 2;
+  }
+
+  /**
+   * Contracts the graph according to the given mapping. Nodes mapped to the same coarse node are
+   * merged, their weights are summed up. Edges between merged nodes disappear, parallel edges are
+   * merged and their weights are summed up.
+   *
+   * @param pCoarseNodeOf maps every node of this graph to a node of the coarse graph
+   * @param pNumCoarseNodes number of nodes of the coarse graph, every node in <code>[0,
+   *     pNumCoarseNodes)</code> must be the image of at least one node
+   * @param pPool if not null, the rows of the coarse graph are computed in parallel in this pool
+   * @return the contracted graph
+   */
+  public CompactWeightedGraph contract(
+      final int[] pCoarseNodeOf, final int pNumCoarseNodes, final @Nullable ForkJoinPool pPool) {
+    checkArgument(pCoarseNodeOf.length == getNumNodes());
+
+    // group fine nodes by their coarse node (counting sort)
+    int[] numMembers = new int[pNumCoarseNodes];
+    for (int coarse : pCoarseNodeOf) {
+      numMembers[coarse]++;
+    }
+    int[] memberOffsets = prefixSum(numMembers);
+    int[] members = new int[getNumNodes()];
+    int[] position = Arrays.copyOf(memberOffsets, pNumCoarseNodes);
+    for (int node = 0; node < getNumNodes(); node++) {
+      members[position[pCoarseNodeOf[node]]++] = node;
+    }
+
+    int[] coarseWeights = new int[pNumCoarseNodes];
+    int[][] rowNeighbors = new int[pNumCoarseNodes][];
+    int[][] rowWeights = new int[pNumCoarseNodes][];
+
+    IntStream coarseNodes = IntStream.range(0, pNumCoarseNodes);
+    if (pPool == null) {
+      coarseNodes.forEach(
+          coarse ->
+              contractRow(
+                  coarse, pCoarseNodeOf, members, memberOffsets, coarseWeights, rowNeighbors,
+                  rowWeights));
+    } else {
+      // every task writes to distinct array cells only
+      pPool
+          .submit(
+              () ->
+                  coarseNodes
+                      .parallel()
+                      .forEach(
+                          coarse ->
+                              contractRow(
+                                  coarse, pCoarseNodeOf, members, memberOffsets, coarseWeights,
+                                  rowNeighbors, rowWeights)))
+          .join();
+    }
+
+    return fromRows(coarseWeights, rowNeighbors, rowWeights);
+  }
+
+  private void contractRow(
+      final int pCoarse,
+      final int[] pCoarseNodeOf,
+      final int[] pMembers,
+      final int[] pMemberOffsets,
+      final int[] pCoarseWeights,
+      final int[][] pRowNeighbors,
+      final int[][] pRowWeights) {
+    int weight = 0;
+    int size = 0;
+    for (int m = pMemberOffsets[pCoarse]; m < pMemberOffsets[pCoarse + 1]; m++) {
+      weight += nodeWeights[pMembers[m]];
+      size += getDegree(pMembers[m]);
+    }
+    pCoarseWeights[pCoarse] = weight;
+
+    int[] rowNodes = new int[size];
+    int[] rowEdgeWeights = new int[size];
+    size = 0;
+    for (int m = pMemberOffsets[pCoarse]; m < pMemberOffsets[pCoarse + 1]; m++) {
+      int member = pMembers[m];
+      for (int i = offsets[member]; i < offsets[member + 1]; i++) {
+        rowNodes[size] = pCoarseNodeOf[neighbors[i]];
+        rowEdgeWeights[size] = edgeWeights[i];
+        size++;
+      }
+    }
+    mergeRow(rowNodes, rowEdgeWeights, pCoarse, pRowNeighbors, pRowWeights);
+  }
+
+  /**
+   * Sorts the row by neighbor, sums up weights of equal neighbors and drops self loops of
+   * <code>pNode</code>.
+   */
+  private static void mergeRow(
+      final int[] pNeighbors,
+      final int[] pWeights,
+      final int pNode,
+      final int[][] pRowNeighbors,
+      final int[][] pRowWeights) {
+    long[] packed = new long[pNeighbors.length];
+    for (int i = 0; i < pNeighbors.length; i++) {
+      packed[i] = ((long) pNeighbors[i] << 32) | pWeights[i];
+    }
+    Arrays.sort(packed);
+
+    int[] resultNeighbors = new int[packed.length];
+    int[] resultWeights = new int[packed.length];
+    int size = 0;
+    for (long entry : packed) {
+      int neighbor = (int) (entry >>> 32);
+      int weight = (int) entry;
+      if (neighbor == pNode) {
+        continue;
+      }
+      if (size > 0 && resultNeighbors[size - 1] == neighbor) {
+        resultWeights[size - 1] += weight;
+      } else {
+        resultNeighbors[size] = neighbor;
+        resultWeights[size] = weight;
+        size++;
+      }
+    }
+    pRowNeighbors[pNode] = Arrays.copyOf(resultNeighbors, size);
+    pRowWeights[pNode] = Arrays.copyOf(resultWeights, size);
+  }
+
+  private static CompactWeightedGraph fromRows(
+      final int[] pNodeWeights, final int[][] pRowNeighbors, final int[][] pRowWeights) {
+    int numNodes = pNodeWeights.length;
+    int[] degree = new int[numNodes];
+    for (int node = 0; node < numNodes; node++) {
+      degree[node] = pRowNeighbors[node].length;
+    }
+    int[] offsets = prefixSum(degree);
+    int[] neighbors = new int[offsets[numNodes]];
+    int[] edgeWeights = new int[offsets[numNodes]];
+    for (int node = 0; node < numNodes; node++) {
+      System.arraycopy(pRowNeighbors[node], 0, neighbors, offsets[node], degree[node]);
+      System.arraycopy(pRowWeights[node], 0, edgeWeights, offsets[node], degree[node]);
+    }
+    return new CompactWeightedGraph(pNodeWeights, offsets, neighbors, edgeWeights);
+  }
+
+  /** Returns the exclusive prefix sums of the given counts, with the total sum as last entry. */
+  private static int[] prefixSum(final int[] pCounts) {
+    int[] sums = new int[pCounts.length + 1];
+    for (int i = 0; i < pCounts.length; i++) {
+      sums[i + 1] = sums[i] + pCounts[i];
+    }
+    return sums;
+  }
+}
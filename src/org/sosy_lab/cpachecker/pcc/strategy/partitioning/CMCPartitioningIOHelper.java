@@ -186,9 +186,14 @@ public class CMCPartitioningIOHelper extends PartitioningIOHelper{
   public void readPartition(final ObjectInputStream pIn, final PCStrategyStatistics pStats, final Lock pLock)
       throws ClassNotFoundException, IOException {
     checkArgument(pLock != null, "Cannot protect against parallel access");
+    // decode outside of the lock such that several readers can deserialize concurrently,
+    // only registering partition and successors must be atomic to keep their indices aligned
+    Pair<AbstractState[], AbstractState[]> partition = readPartitionContent(pIn);
+    int[][] successors = (int[][]) pIn.readObject();
     pLock.lock();
     try {
-      readPartition(pIn, pStats);
+      addPartition(partition, pStats);
+      savedSuccessors.add(successors);
     } finally {
       pLock.unlock();
     }
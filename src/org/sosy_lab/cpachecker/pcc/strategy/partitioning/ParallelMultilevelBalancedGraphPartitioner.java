@@ -0,0 +1,491 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.BalancedGraphPartitioner;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompactWeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
+
+/**
+ * Multilevel graph partitioning algorithm working on a {@link CompactWeightedGraph}. Like {@link
+ * MultilevelBalancedGraphPartitioner}, the graph is coarsened down by contracting matchings, the
+ * coarsest graph is partitioned and the partitioning is projected back and refined on every
+ * level. Matching, contraction and the gain computation of the refinement are done in parallel.
+ *
+ * <p>All parallel phases only compute proposals that are applied sequentially in a fixed order
+ * afterwards, thus the computed partitioning does not depend on the number of threads.
+ */
+@Options(prefix = "pcc.partitioning.parallelMultilevel")
+public class ParallelMultilevelBalancedGraphPartitioner implements BalancedGraphPartitioner {
+
+  /** Number of handshake rounds used to compute a single matching. */
+  private static final int MATCHING_ROUNDS = 3;
+
+  /** Coarsening stops if a matching does not reduce the number of nodes by at least 5%. */
+  private static final double MIN_COARSENING_FACTOR = 0.95;
+
+  @Option(
+    secure = true,
+    description =
+        "Number of threads used for partitioning. The value 0 uses as many threads as processors"
+            + " are available, the value 1 partitions sequentially."
+  )
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
+  @Option(
+    secure = true,
+    description =
+        "Allowed imbalance of the partitions, i.e. a partition may be up to this fraction larger"
+            + " than the average partition."
+  )
+  private double imbalance = 0.03;
+
+  @Option(
+    secure = true,
+    description = "Maximal number of refinement rounds on every level of the multilevel heuristic."
+  )
+  @IntegerOption(min = 0)
+  private int refinementRounds = 10;
+
+  private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
+
+  public ParallelMultilevelBalancedGraphPartitioner(
+      final Configuration pConfig,
+      final LogManager pLogger,
+      final ShutdownNotifier pShutdownNotifier)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    if (imbalance < 0) {
+      throw new InvalidConfigurationException(
+          "Option pcc.partitioning.parallelMultilevel.imbalance must not be negative.");
+    }
+    logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
+  }
+
+  @Override
+  public List<Set<Integer>> computePartitioning(
+      final int pNumPartitions, final PartialReachedSetDirectedGraph pGraph)
+      throws InterruptedException {
+    checkArgument(
+        pNumPartitions > 0 && pGraph != null,
+        "Partitioniong must contain at most 1 partition. Graph may not be null.");
+    CompactWeightedGraph graph = CompactWeightedGraph.of(pGraph);
+
+    ForkJoinPool pool = null;
+    if (threads != 1) {
+      pool = new ForkJoinPool(threads == 0 ? Runtime.getRuntime().availableProcessors() : threads);
+    }
+    int[] blockOfNode;
+    try {
+      blockOfNode = computeBlocks(graph, pNumPartitions, pool);
+    } finally {
+      if (pool != null) {
+        pool.shutdownNow();
+      }
+    }
+
+    logger.log(
+        Level.FINE,
+        String.format(
+            "[ParallelMultilevel] Computed %d-way partitioning of %d nodes with edge cut %d",
+            pNumPartitions, graph.getNumNodes(), graph.computeEdgeCut(blockOfNode)));
+
+    List<Set<Integer>> partitioning = new ArrayList<>(pNumPartitions);
+    for (int block = 0; block < pNumPartitions; block++) {
+      partitioning.add(new HashSet<Integer>());
+    }
+    for (int node = 0; node < blockOfNode.length; node++) {
+      partitioning.get(blockOfNode[node]).add(node);
+    }
+    // Empty partitions may slow down proof checking phase
+    partitioning.removeIf(Set::isEmpty);
+    return partitioning;
+  }
+
+  private int[] computeBlocks(
+      final CompactWeightedGraph pGraph,
+      final int pNumPartitions,
+      final @Nullable ForkJoinPool pPool)
+      throws InterruptedException {
+    int numNodes = pGraph.getNumNodes();
+    int[] blockOfNode = new int[numNodes];
+    if (pNumPartitions == 1) { // all nodes in one partition
+      return blockOfNode;
+    }
+    if (pNumPartitions >= numNodes) { // each node has its own partition
+      Arrays.setAll(blockOfNode, node -> node);
+      return blockOfNode;
+    }
+
+    long averageWeight = (pGraph.getTotalNodeWeight() + pNumPartitions - 1) / pNumPartitions;
+    long maxBlockWeight =
+        Math.max(averageWeight, (long) Math.ceil((1 + imbalance) * averageWeight));
+    // coarse nodes must remain small enough to distribute them evenly among the partitions
+    long maxNodeWeight = Math.max(1, maxBlockWeight / 8);
+    int maxLoad = numNodes / pNumPartitions + 1;
+    int minGraphSize = (int) (Math.min(((double) maxLoad) / 15 + 1, 15) * pNumPartitions);
+
+    // Coarsen the graph
+    Deque<CompactWeightedGraph> levels = new ArrayDeque<>();
+    Deque<int[]> mappings = new ArrayDeque<>();
+    CompactWeightedGraph current = pGraph;
+    levels.push(current);
+    while (current.getNumNodes() > minGraphSize) {
+      shutdownNotifier.shutdownIfNecessary();
+      int[] coarseNodeOf = new int[current.getNumNodes()];
+      int numCoarseNodes =
+          computeMatching(current, maxNodeWeight, levels.size(), pPool, coarseNodeOf);
+      if (numCoarseNodes > MIN_COARSENING_FACTOR * current.getNumNodes()) {
+        break;
+      }
+      current = current.contract(coarseNodeOf, numCoarseNodes, pPool);
+      mappings.push(coarseNodeOf);
+      levels.push(current);
+      logger.log(
+          Level.FINE,
+          String.format(
+              "[ParallelMultilevel] Graph (size: %d) level %d computed",
+              current.getNumNodes(), levels.size() - 1));
+    }
+
+    // Initial partitioning of coarsest graph
+    current = levels.pop();
+    blockOfNode = computeInitialPartitioning(current, pNumPartitions, maxBlockWeight);
+    refinePartitioning(current, blockOfNode, pNumPartitions, maxBlockWeight, pPool);
+
+    // Uncoarsening, i.e. project partitioning onto finer graph and refine it
+    while (!levels.isEmpty()) {
+      shutdownNotifier.shutdownIfNecessary();
+      current = levels.pop();
+      int[] coarseNodeOf = mappings.pop();
+      int[] fineBlockOfNode = new int[current.getNumNodes()];
+      for (int node = 0; node < fineBlockOfNode.length; node++) {
+        fineBlockOfNode[node] = blockOfNode[coarseNodeOf[node]];
+      }
+      blockOfNode = fineBlockOfNode;
+      refinePartitioning(current, blockOfNode, pNumPartitions, maxBlockWeight, pPool);
+    }
+    return blockOfNode;
+  }
+
+  /**
+   * Computes a matching by letting every unmatched node propose its heaviest unmatched neighbor and
+   * matching nodes which propose each other. Proposals are computed in parallel.
+   *
+   * @param pCoarseNodeOf filled with the coarse node every node is mapped to
+   * @return the number of coarse nodes
+   */
+  private int computeMatching(
+      final CompactWeightedGraph pGraph,
+      final long pMaxNodeWeight,
+      final int pLevel,
+      final @Nullable ForkJoinPool pPool,
+      final int[] pCoarseNodeOf) {
+    int numNodes = pGraph.getNumNodes();
+    int[] mate = new int[numNodes];
+    Arrays.fill(mate, -1);
+    int[] proposal = new int[numNodes];
+
+    for (int round = 0; round < MATCHING_ROUNDS; round++) {
+      forEachNode(
+          numNodes,
+          pPool,
+          node ->
+              proposal[node] =
+                  mate[node] < 0
+                      ? computeHeaviestUnmatchedNeighbor(
+                          pGraph, node, mate, pMaxNodeWeight, pLevel)
+                      : -1);
+
+      boolean changed = false;
+      for (int node = 0; node < numNodes; node++) {
+        int partner = proposal[node];
+        if (partner > node && proposal[partner] == node) {
+          mate[node] = partner;
+          mate[partner] = node;
+          changed = true;
+        }
+      }
+      if (!changed) {
+        break;
+      }
+    }
+
+    int numCoarseNodes = 0;
+    for (int node = 0; node < numNodes; node++) {
+      if (mate[node] < 0 || node < mate[node]) {
+        pCoarseNodeOf[node] = numCoarseNodes;
+        if (mate[node] >= 0) {
+          pCoarseNodeOf[mate[node]] = numCoarseNodes;
+        }
+        numCoarseNodes++;
+      }
+    }
+    return numCoarseNodes;
+  }
+
+  private static int computeHeaviestUnmatchedNeighbor(
+      final CompactWeightedGraph pGraph,
+      final int pNode,
+      final int[] pMate,
+      final long pMaxNodeWeight,
+      final int pLevel) {
+    int nodeWeight = pGraph.getNodeWeight(pNode);
+    int best = -1;
+    int bestEdgeWeight = 0;
+    long bestNodeWeight = 0;
+    int bestTieBreaker = 0;
+    for (int i = 0; i < pGraph.getDegree(pNode); i++) {
+      int neighbor = pGraph.getNeighbor(pNode, i);
+      long combinedWeight = (long) nodeWeight + pGraph.getNodeWeight(neighbor);
+      if (pMate[neighbor] >= 0 || combinedWeight > pMaxNodeWeight) {
+        continue;
+      }
+      int edgeWeight = pGraph.getEdgeWeight(pNode, i);
+      // prefer heavy edges, then light nodes, then break ties pseudo-randomly but reproducibly
+      int tieBreaker = scramble(neighbor + 31 * pLevel);
+      if (best < 0
+          || edgeWeight > bestEdgeWeight
+          || (edgeWeight == bestEdgeWeight
+              && (combinedWeight < bestNodeWeight
+                  || (combinedWeight == bestNodeWeight && tieBreaker < bestTieBreaker)))) {
+        best = neighbor;
+        bestEdgeWeight = edgeWeight;
+        bestNodeWeight = combinedWeight;
+        bestTieBreaker = tieBreaker;
+      }
+    }
+    return best;
+  }
+
+  private static int scramble(final int pValue) {
+    int h = pValue * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Computes an initial partitioning by growing one partition after the other in breadth-first
+   * order until it reaches its share of the remaining node weight.
+   */
+  private int[] computeInitialPartitioning(
+      final CompactWeightedGraph pGraph, final int pNumPartitions, final long pMaxBlockWeight) {
+    int numNodes = pGraph.getNumNodes();
+    int[] blockOfNode = new int[numNodes];
+    Arrays.fill(blockOfNode, -1);
+    long remainingWeight = pGraph.getTotalNodeWeight();
+    int nextSeed = 0;
+    int[] queue = new int[numNodes];
+    int[] enqueuedForBlock = new int[numNodes];
+    Arrays.fill(enqueuedForBlock, -1);
+
+    for (int block = 0; block < pNumPartitions - 1; block++) {
+      long targetWeight = remainingWeight / (pNumPartitions - block);
+      long weight = 0;
+      int head = 0;
+      int tail = 0;
+      while (nextSeed < numNodes && blockOfNode[nextSeed] >= 0) {
+        nextSeed++;
+      }
+      int seed = nextSeed;
+      while (weight < targetWeight) {
+        if (head == tail) {
+          // continue with next component, skip nodes already rejected for this partition
+          while (seed < numNodes && (blockOfNode[seed] >= 0 || enqueuedForBlock[seed] == block)) {
+            seed++;
+          }
+          if (seed == numNodes) {
+            break;
+          }
+          head = 0;
+          tail = 0;
+          queue[tail++] = seed;
+          enqueuedForBlock[seed] = block;
+        }
+        int node = queue[head++];
+        if (blockOfNode[node] >= 0
+            || (weight > 0 && weight + pGraph.getNodeWeight(node) > pMaxBlockWeight)) {
+          continue;
+        }
+        blockOfNode[node] = block;
+        weight += pGraph.getNodeWeight(node);
+        for (int i = 0; i < pGraph.getDegree(node); i++) {
+          int neighbor = pGraph.getNeighbor(node, i);
+          if (blockOfNode[neighbor] < 0 && enqueuedForBlock[neighbor] != block) {
+            queue[tail++] = neighbor;
+            enqueuedForBlock[neighbor] = block;
+          }
+        }
+      }
+      remainingWeight -= weight;
+    }
+
+    for (int node = 0; node < numNodes; node++) {
+      if (blockOfNode[node] < 0) {
+        blockOfNode[node] = pNumPartitions - 1;
+      }
+    }
+    return blockOfNode;
+  }
+
+  /**
+   * Refines the partitioning with size-constrained label propagation. In every round, the best
+   * move of every node is computed in parallel, then the moves are applied sequentially if they
+   * still reduce the edge cut (or relieve an overloaded partition) and respect the balance.
+   */
+  private void refinePartitioning(
+      final CompactWeightedGraph pGraph,
+      final int[] pBlockOfNode,
+      final int pNumPartitions,
+      final long pMaxBlockWeight,
+      final @Nullable ForkJoinPool pPool)
+      throws InterruptedException {
+    int numNodes = pGraph.getNumNodes();
+    long[] blockWeights = new long[pNumPartitions];
+    for (int node = 0; node < numNodes; node++) {
+      blockWeights[pBlockOfNode[node]] += pGraph.getNodeWeight(node);
+    }
+    ThreadLocal<long[]> connections = ThreadLocal.withInitial(() -> new long[pNumPartitions]);
+    int[] proposedBlock = new int[numNodes];
+
+    for (int round = 0; round < refinementRounds; round++) {
+      shutdownNotifier.shutdownIfNecessary();
+      forEachNode(
+          numNodes,
+          pPool,
+          node ->
+              proposedBlock[node] =
+                  computeBestMove(
+                      pGraph, node, pBlockOfNode, blockWeights, pMaxBlockWeight,
+                      connections.get()));
+
+      int moved = 0;
+      for (int node = 0; node < numNodes; node++) {
+        int target = proposedBlock[node];
+        if (target < 0) {
+          continue;
+        }
+        int source = pBlockOfNode[node];
+        int nodeWeight = pGraph.getNodeWeight(node);
+        if (blockWeights[target] + nodeWeight > pMaxBlockWeight) {
+          continue;
+        }
+        // recompute gain, neighbors may have moved in this round already
+        long gain = 0;
+        for (int i = 0; i < pGraph.getDegree(node); i++) {
+          int neighborBlock = pBlockOfNode[pGraph.getNeighbor(node, i)];
+          if (neighborBlock == target) {
+            gain += pGraph.getEdgeWeight(node, i);
+          } else if (neighborBlock == source) {
+            gain -= pGraph.getEdgeWeight(node, i);
+          }
+        }
+        if (gain > 0 || blockWeights[source] > pMaxBlockWeight) {
+          pBlockOfNode[node] = target;
+          blockWeights[source] -= nodeWeight;
+          blockWeights[target] += nodeWeight;
+          moved++;
+        }
+      }
+      if (moved == 0) {
+        break;
+      }
+    }
+  }
+
+  /**
+   * Returns the adjacent partition the node should be moved to or -1 if no move improves the
+   * partitioning. <code>pConnections</code> must be zero initially and is reset afterwards.
+   */
+  private static int computeBestMove(
+      final CompactWeightedGraph pGraph,
+      final int pNode,
+      final int[] pBlockOfNode,
+      final long[] pBlockWeights,
+      final long pMaxBlockWeight,
+      final long[] pConnections) {
+    int degree = pGraph.getDegree(pNode);
+    for (int i = 0; i < degree; i++) {
+      pConnections[pBlockOfNode[pGraph.getNeighbor(pNode, i)]] += pGraph.getEdgeWeight(pNode, i);
+    }
+
+    int source = pBlockOfNode[pNode];
+    boolean overloaded = pBlockWeights[source] > pMaxBlockWeight;
+    int nodeWeight = pGraph.getNodeWeight(pNode);
+    int best = -1;
+    long bestGain = 0;
+    for (int i = 0; i < degree; i++) {
+      int target = pBlockOfNode[pGraph.getNeighbor(pNode, i)];
+      if (target == source || pBlockWeights[target] + nodeWeight > pMaxBlockWeight) {
+        continue;
+      }
+      long gain = pConnections[target] - pConnections[source];
+      if ((best < 0 && (gain > 0 || overloaded))
+          || (best >= 0
+              && (gain > bestGain
+                  || (gain == bestGain && pBlockWeights[target] < pBlockWeights[best])))) {
+        best = target;
+        bestGain = gain;
+      }
+    }
+
+    for (int i = 0; i < degree; i++) {
+      pConnections[pBlockOfNode[pGraph.getNeighbor(pNode, i)]] = 0;
+    }
+    return best;
+  }
+
+  private static void forEachNode(
+      final int pNumNodes, final @Nullable ForkJoinPool pPool, final IntConsumer pAction) {
+    if (pPool == null) {
+      IntStream.range(0, pNumNodes).forEach(pAction);
+    } else {
+      // the action only writes the array cell of the respective node
+      pPool.submit(() -> IntStream.range(0, pNumNodes).parallel().forEach(pAction)).join();
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.CompactWeightedGraph;
+import org.sosy_lab.cpachecker.pcc.strategy.partialcertificate.PartialReachedSetDirectedGraph;
+
+public class ParallelMultilevelBalancedGraphPartitionerTest {
+
+  private static final int DIAMONDS = 300;
+
+  /**
+   * Builds a chain of diamonds, i.e., the shape of a sequence of if-then-else statements, with a
+   * loop back edge every ten diamonds.
+   */
+  private static PartialReachedSetDirectedGraph diamondChain(int pDiamonds) {
+    ARGState[] nodes = new ARGState[3 * pDiamonds + 1];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = new ARGState(null, null);
+    }
+    for (int d = 0; d < pDiamonds; d++) {
+      int branch = 3 * d;
+      nodes[branch + 1].addParent(nodes[branch]);
+      nodes[branch + 2].addParent(nodes[branch]);
+      nodes[branch + 3].addParent(nodes[branch + 1]);
+      nodes[branch + 3].addParent(nodes[branch + 2]);
+    }
+    for (int d = 10; d < pDiamonds; d += 10) {
+      nodes[3 * (d - 10)].addParent(nodes[3 * d]);
+    }
+    return new PartialReachedSetDirectedGraph(nodes);
+  }
+
+  private static List<Set<Integer>> partitionParallel(
+      PartialReachedSetDirectedGraph pGraph, int pPartitions, int pThreads)
+      throws InvalidConfigurationException, InterruptedException {
+    Configuration config =
+        Configuration.builder()
+            .setOption("pcc.partitioning.parallelMultilevel.threads", Integer.toString(pThreads))
+            .build();
+    return new ParallelMultilevelBalancedGraphPartitioner(
+            config, LogManager.createTestLogManager(), ShutdownNotifier.createDummy())
+        .computePartitioning(pPartitions, pGraph);
+  }
+
+  private static List<Set<Integer>> partitionMultilevel(
+      PartialReachedSetDirectedGraph pGraph, int pPartitions)
+      throws InvalidConfigurationException, InterruptedException {
+    return new MultilevelBalancedGraphPartitioner(
+            Configuration.defaultConfiguration(), LogManager.createTestLogManager())
+        .computePartitioning(pPartitions, pGraph);
+  }
+
+  /** Checks that every node is in exactly one partition and returns the partition of each node. */
+  private static int[] assertCover(List<Set<Integer>> pPartitions, int pNumNodes) {
+    int[] blockOfNode = new int[pNumNodes];
+    int covered = 0;
+    for (int block = 0; block < pPartitions.size(); block++) {
+      for (int node : pPartitions.get(block)) {
+        assertThat(node).isAtLeast(0);
+        assertThat(node).isLessThan(pNumNodes);
+        blockOfNode[node] = block;
+        covered++;
+      }
+    }
+    assertThat(covered).isEqualTo(pNumNodes);
+    return blockOfNode;
+  }
+
+  private static long edgeCut(
+      PartialReachedSetDirectedGraph pGraph, List<Set<Integer>> pPartitions) {
+    return CompactWeightedGraph.of(pGraph)
+        .computeEdgeCut(assertCover(pPartitions, pGraph.getNumNodes()));
+  }
+
+  private static void assertBalanced(List<Set<Integer>> pPartitions, int pNumNodes) {
+    // default imbalance of 3% on top of the rounded up average
+    int average = (pNumNodes + pPartitions.size() - 1) / pPartitions.size();
+    int maxSize = (int) Math.ceil(average * 1.03);
+    for (Set<Integer> partition : pPartitions) {
+      assertThat(partition.size()).isAtMost(maxSize);
+    }
+  }
+
+  @Test
+  public void testBalancedCover() throws Exception {
+    PartialReachedSetDirectedGraph graph = diamondChain(DIAMONDS);
+    for (int k : new int[] {1, 2, 3, 4, 8}) {
+      List<Set<Integer>> partitions = partitionParallel(graph, k, 1);
+      assertThat(partitions).hasSize(k);
+      assertCover(partitions, graph.getNumNodes());
+      assertBalanced(partitions, graph.getNumNodes());
+    }
+  }
+
+  @Test
+  public void testEdgeCutNotWorseThanMultilevel() throws Exception {
+    PartialReachedSetDirectedGraph graph = diamondChain(DIAMONDS);
+    // the sequential heuristic is randomized, on this graph the parallel one reaches
+    // the best cut that the sequential one found in repeated runs
+    for (int k : new int[] {2, 3}) {
+      long parallelCut = edgeCut(graph, partitionParallel(graph, k, 1));
+      long multilevelCut = edgeCut(graph, partitionMultilevel(graph, k));
+      assertThat(parallelCut).isAtMost(multilevelCut);
+    }
+  }
+
+  @Test
+  public void testDeterministicAcrossThreadCounts() throws Exception {
+    PartialReachedSetDirectedGraph graph = diamondChain(DIAMONDS);
+    for (int k : new int[] {2, 4, 8}) {
+      List<Set<Integer>> sequential = partitionParallel(graph, k, 1);
+      assertThat(partitionParallel(graph, k, 4)).isEqualTo(sequential);
+      assertThat(partitionParallel(graph, k, 0)).isEqualTo(sequential);
+    }
+  }
+
+  @Test
+  public void testEmptyGraph() throws Exception {
+    PartialReachedSetDirectedGraph graph = new PartialReachedSetDirectedGraph(new ARGState[0]);
+    List<Set<Integer>> partitions = partitionParallel(graph, 2, 1);
+    assertCover(partitions, 0);
+  }
+}
@@ -41,6 +41,7 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -75,6 +76,8 @@ public class PartitioningIOHelper {
   private List<Pair<AbstractState[], AbstractState[]>> partitions;
   private Statistics currentGraphStatistics;
   private ProofStatesInfoCollector infoCollector;
+  private final Timer partitioningTimer = new Timer();
+  private long edgeCut = -1;
 
   public PartitioningIOHelper(final Configuration pConfig, final LogManager pLogger,
       final ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
@@ -135,27 +138,58 @@ public class PartitioningIOHelper {
     PartialReachedSetDirectedGraph graph = new PartialReachedSetDirectedGraph(argNodes);
     currentGraphStatistics = graph;
 
-    if (useGraphSizeToComputePartitionNumber) {
-      return Pair.of(graph,
-          partitioner.computePartitioning(
-              maxNumElemsPerPartition <= 0 ? 1
-                  : (int) Math.ceil(graph.getNumNodes() / (double) maxNumElemsPerPartition), graph));
-    } else {
-      return Pair.of(graph,
+    int numElems = useGraphSizeToComputePartitionNumber ? graph.getNumNodes() : pReached.size();
+    List<Set<Integer>> partitioning;
+    partitioningTimer.start();
+    try {
+      partitioning =
           partitioner.computePartitioning(
-              maxNumElemsPerPartition <= 0 ? 1 : (int) Math.ceil(pReached.size() / (double) maxNumElemsPerPartition),
-              graph));
+              maxNumElemsPerPartition <= 0
+                  ? 1
+                  : (int) Math.ceil(numElems / (double) maxNumElemsPerPartition),
+              graph);
+    } finally {
+      partitioningTimer.stop();
     }
+    edgeCut = computeEdgeCut(graph, partitioning);
+    return Pair.of(graph, partitioning);
+  }
+
+  /**
+   * Counts the edges of the graph whose source and target belong to different partitions. Together
+   * with the time needed for partitioning this allows to compare the partitioning heuristics.
+   */
+  private long computeEdgeCut(
+      final PartialReachedSetDirectedGraph pGraph, final List<Set<Integer>> pPartitioning) {
+    int[] partitionOfNode = new int[pGraph.getNumNodes()];
+    for (int i = 0; i < pPartitioning.size(); i++) {
+      for (Integer node : pPartitioning.get(i)) {
+        partitionOfNode[node] = i;
+      }
+    }
+    long cut = 0;
+    for (int node = 0; node < partitionOfNode.length; node++) {
+      for (Integer succ : pGraph.getAdjacencyList().get(node)) {
+        if (partitionOfNode[node] != partitionOfNode[succ]) {
+          cut++;
+        }
+      }
+    }
+    return cut;
   }
 
   public void readPartition(final ObjectInputStream pIn, final PCStrategyStatistics pStats)
       throws ClassNotFoundException, IOException {
-    Pair<AbstractState[], AbstractState[]> result = readPartitionContent(pIn);
-    partitions.add(result);
-    pStats.increaseProofSize(result.getFirst().length+result.getSecond().length);
+    addPartition(readPartitionContent(pIn), pStats);
   }
 
-  private Pair<AbstractState[], AbstractState[]> readPartitionContent(final ObjectInputStream pIn)
+  protected void addPartition(final Pair<AbstractState[], AbstractState[]> pPartition,
+      final PCStrategyStatistics pStats) {
+    partitions.add(pPartition);
+    pStats.increaseProofSize(pPartition.getFirst().length + pPartition.getSecond().length);
+  }
+
+  protected Pair<AbstractState[], AbstractState[]> readPartitionContent(final ObjectInputStream pIn)
       throws ClassNotFoundException, IOException {
     return Pair.of((AbstractState[]) pIn.readObject(), (AbstractState[]) pIn.readObject());
   }
@@ -164,11 +198,9 @@ public class PartitioningIOHelper {
       throws ClassNotFoundException, IOException {
     checkArgument(pLock != null, "Cannot protect against parallel access");
     Pair<AbstractState[], AbstractState[]> result = readPartitionContent(pIn);
-    int partialProofSize = result.getFirst().length+result.getSecond().length;
     pLock.lock();
     try {
-      partitions.add(result);
-      pStats.increaseProofSize(partialProofSize);
+      addPartition(result, pStats);
     } finally {
       pLock.unlock();
     }
@@ -265,6 +297,10 @@ public class PartitioningIOHelper {
     public void printStatistics(PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {
       if (numPartitions > 0 && partitions != null) {
         pOut.printf("Number of partitions: %d%n", numPartitions);
+        if (partitioningTimer.getNumberOfIntervals() > 0) {
+          pOut.println("Time for computing partitioning: " + partitioningTimer);
+          pOut.printf("Edge cut (edges between partitions): %d%n", edgeCut);
+        }
         pOut.printf("The following numbers are given in number of states.%n");
         computeAndPrintDetailedPartitioningStats(pOut);
       }
@@ -0,0 +1,252 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy.partitioning;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.pcc.strategy.AbstractStrategy.PCStrategyStatistics;
+import org.sosy_lab.cpachecker.util.Pair;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class PartitioningIOHelperTest {
+
+  private static final int NUM_PARTITIONS = 40;
+  private static final int NUM_THREADS = 8;
+
+  private Configuration config;
+  private LogManager logger;
+
+  @Before
+  public void setUp() throws Exception {
+    config = TestDataTools.configurationForTest().build();
+    logger = LogManager.createTestLogManager();
+  }
+
+  @Test
+  public void testConcurrentReading() throws Exception {
+    PartitioningIOHelper helper =
+        new PartitioningIOHelper(config, logger, ShutdownNotifier.createDummy());
+    PCStrategyStatistics stats = new PCStrategyStatistics(null);
+
+    readMetadata(helper);
+    List<byte[]> serialized = new ArrayList<>(NUM_PARTITIONS);
+    for (int i = 0; i < NUM_PARTITIONS; i++) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        helper.writePartition(out, createPartition(i));
+      }
+      serialized.add(bytes.toByteArray());
+    }
+
+    readConcurrently(helper, serialized, stats);
+
+    assertThat(readPartitionIds(helper)).containsExactlyElementsIn(allPartitionIds());
+    assertThat(printStatistics(stats))
+        .containsMatch("Number of proof elements: +" + expectedProofSize() + "\\b");
+  }
+
+  @Test
+  public void testConcurrentReadingKeepsSuccessorsAligned() throws Exception {
+    CMCPartitioningIOHelper helper =
+        new CMCPartitioningIOHelper(config, logger, ShutdownNotifier.createDummy());
+    PCStrategyStatistics stats = new PCStrategyStatistics(null);
+
+    readMetadata(helper);
+    List<byte[]> serialized = new ArrayList<>(NUM_PARTITIONS);
+    for (int i = 0; i < NUM_PARTITIONS; i++) {
+      Pair<AbstractState[], AbstractState[]> partition = createPartition(i);
+      int[][] successors = new int[partition.getFirst().length][];
+      for (int j = 0; j < successors.length; j++) {
+        successors[j] = new int[] {i, j};
+      }
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+        helper.writePartition(out, partition);
+        out.writeObject(successors);
+      }
+      serialized.add(bytes.toByteArray());
+    }
+
+    readConcurrently(helper, serialized, stats);
+
+    assertThat(readPartitionIds(helper)).containsExactlyElementsIn(allPartitionIds());
+    for (int p = 0; p < NUM_PARTITIONS; p++) {
+      AbstractState[] states = helper.getPartition(p).getFirst();
+      int[][] successors = helper.getEdgesForPartition(p);
+      assertThat(successors).hasLength(states.length);
+      for (int j = 0; j < states.length; j++) {
+        assertThat(successors[j][0]).isEqualTo(((TestState) states[j]).partition);
+        assertThat(successors[j][1]).isEqualTo(((TestState) states[j]).index);
+      }
+    }
+    assertThat(printStatistics(stats))
+        .containsMatch("Number of proof elements: +" + expectedProofSize() + "\\b");
+  }
+
+  @Test
+  public void testPartitionWaitTimeIsReported() throws Exception {
+    PCStrategyStatistics stats = new PCStrategyStatistics(null);
+    assertThat(printStatistics(stats)).doesNotContain("waiting for partitions");
+
+    TimerWrapper timer = stats.getNewPartitionWaitTimer();
+    timer.start();
+    timer.stop();
+    // aligned with the other timers of the proof checking statistics
+    assertThat(printStatistics(stats))
+        .containsMatch("(?m)^  Time for waiting for partitions: {8}\\d.*\\(Waits: 1\\)");
+  }
+
+  private static void readMetadata(PartitioningIOHelper pHelper) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      pHelper.writeMetadata(out, expectedProofSize(), NUM_PARTITIONS);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      pHelper.readMetadata(in, true);
+    }
+    assertThat(pHelper.getNumPartitions()).isEqualTo(NUM_PARTITIONS);
+    assertThat(pHelper.getSavedReachedSetSize()).isEqualTo(expectedProofSize());
+  }
+
+  private static void readConcurrently(
+      final PartitioningIOHelper pHelper,
+      final List<byte[]> pSerialized,
+      final PCStrategyStatistics pStats)
+      throws Exception {
+    final Lock lock = new ReentrantLock();
+    final AtomicInteger next = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+    try {
+      List<Future<?>> readers = new ArrayList<>(NUM_THREADS);
+      for (int t = 0; t < NUM_THREADS; t++) {
+        readers.add(
+            executor.submit(
+                () -> {
+                  for (int i = next.getAndIncrement();
+                      i < pSerialized.size();
+                      i = next.getAndIncrement()) {
+                    try (ObjectInputStream in =
+                        new ObjectInputStream(new ByteArrayInputStream(pSerialized.get(i)))) {
+                      pHelper.readPartition(in, pStats, lock);
+                    }
+                  }
+                  return null;
+                }));
+      }
+      for (Future<?> reader : readers) {
+        reader.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** Partition i consists of i % 5 + 1 states and a single adjacent state outside. */
+  private static Pair<AbstractState[], AbstractState[]> createPartition(int pId) {
+    AbstractState[] states = new AbstractState[pId % 5 + 1];
+    for (int j = 0; j < states.length; j++) {
+      states[j] = new TestState(pId, j);
+    }
+    return Pair.of(states, new AbstractState[] {new TestState(pId, -1)});
+  }
+
+  private static int expectedProofSize() {
+    int size = 0;
+    for (int i = 0; i < NUM_PARTITIONS; i++) {
+      size += createPartition(i).getFirst().length + 1;
+    }
+    return size;
+  }
+
+  private static Set<Integer> allPartitionIds() {
+    Set<Integer> ids = new HashSet<>();
+    for (int i = 0; i < NUM_PARTITIONS; i++) {
+      ids.add(i);
+    }
+    return ids;
+  }
+
+  private static List<Integer> readPartitionIds(PartitioningIOHelper pHelper) {
+    List<Integer> ids = new ArrayList<>();
+    for (int p = 0; p < pHelper.getNumPartitions(); p++) {
+      Pair<AbstractState[], AbstractState[]> partition = pHelper.getPartition(p);
+      int id = ((TestState) partition.getSecond()[0]).partition;
+      assertThat(partition.getFirst()).hasLength(id % 5 + 1);
+      for (AbstractState state : partition.getFirst()) {
+        assertThat(((TestState) state).partition).isEqualTo(id);
+      }
+      ids.add(id);
+    }
+    return ids;
+  }
+
+  private static String printStatistics(PCStrategyStatistics pStats)
+      throws UnsupportedEncodingException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    @SuppressWarnings("checkstyle:IllegalInstantiation") // ok for statistics
+    PrintStream out = new PrintStream(bytes, true, UTF_8.name());
+    pStats.printStatistics(out, null, null);
+    return bytes.toString(UTF_8.name());
+  }
+
+  private static class TestState implements AbstractState, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int partition;
+    private final int index;
+
+    TestState(int pPartition, int pIndex) {
+      partition = pPartition;
+      index = pIndex;
+    }
+  }
+}
@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.CFAUtils.hasBackWardsEdges;
@@ -36,6 +37,7 @@ import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import java.io.Serializable;
 import java.util.ArrayDeque;
@@ -149,6 +151,22 @@ public final class LoopStructure implements Serializable {
                                 .build();
     }
 
+    private Loop(Iterable<CFANode> pLoopHeads, Iterable<CFANode> pNodes) {
+      loopHeads = ImmutableSet.copyOf(pLoopHeads);
+      nodes = ImmutableSortedSet.copyOf(pNodes);
+      checkArgument(!loopHeads.isEmpty(), "loop without loop heads");
+      checkArgument(nodes.containsAll(loopHeads), "loop heads are not part of the loop");
+    }
+
+    /**
+     * Create a loop with the given loop heads and nodes that was determined before, e.g., for a
+     * CFA that was stored in a cache. New loops are found by {@link
+     * LoopStructure#getLoopStructure(MutableCFA)}.
+     */
+    public static Loop of(Iterable<CFANode> pLoopHeads, Iterable<CFANode> pNodes) {
+      return new Loop(pLoopHeads, pNodes);
+    }
+
     private void computeSets() {
       if (innerLoopEdges != null) {
         assert incomingEdges != null;
@@ -325,6 +343,16 @@ public final class LoopStructure implements Serializable {
     loops = pLoops;
   }
 
+  /**
+   * Create loop-structure information from loops that were determined before, e.g., for a CFA
+   * that was stored in a cache. Use {@link #getLoopStructure(MutableCFA)} for new CFAs.
+   *
+   * @param pLoops the loops of each function, by function name
+   */
+  public static LoopStructure of(Multimap<String, Loop> pLoops) {
+    return new LoopStructure(ImmutableMultimap.copyOf(pLoops));
+  }
+
   /**
    * Get the total number of loops in the program.
    */
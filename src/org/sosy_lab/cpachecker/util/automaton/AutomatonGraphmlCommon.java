@@ -30,14 +30,19 @@ import com.google.common.base.Preconditions;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.hash.HashCode;
 import com.google.common.hash.Hashing;
 import com.google.common.io.BaseEncoding;
 import com.google.common.io.CharStreams;
 import com.google.common.io.MoreFiles;
+import com.google.common.xml.XmlEscapers;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import java.io.BufferedWriter;
+import java.io.Flushable;
 import java.io.IOException;
+import java.io.Writer;
 import java.nio.file.Path;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -348,6 +353,54 @@ public class AutomatonGraphmlCommon {
     return BaseEncoding.base16().lowerCase().encode(hash.asBytes());
   }
 
+  /** Returns the data of the graph element of a witness, in the order they are written. */
+  private static List<Map.Entry<KeyDef, String>> getGraphData(
+      WitnessType pGraphType, CFA pCfa, VerificationTaskMetaData pVerificationTaskMetaData)
+      throws IOException {
+    List<Map.Entry<KeyDef, String>> result = new ArrayList<>();
+    result.add(Maps.immutableEntry(KeyDef.WITNESS_TYPE, pGraphType.toString()));
+    result.add(Maps.immutableEntry(KeyDef.SOURCECODELANGUAGE, pCfa.getLanguage().toString()));
+    result.add(
+        Maps.immutableEntry(KeyDef.PRODUCER, pVerificationTaskMetaData.getProducerString()));
+
+    int nSpecs = 0;
+    for (SpecificationProperty property : pVerificationTaskMetaData.getProperties()) {
+      result.add(Maps.immutableEntry(KeyDef.SPECIFICATION, property.toString()));
+      ++nSpecs;
+    }
+
+    for (Path specFile : pVerificationTaskMetaData.getNonPropertySpecificationFiles()) {
+      result.add(
+          Maps.immutableEntry(
+              KeyDef.SPECIFICATION,
+              MoreFiles.asCharSource(specFile, Charsets.UTF_8).read().trim()));
+      ++nSpecs;
+    }
+
+    if (nSpecs == 0) {
+      result.add(Maps.immutableEntry(KeyDef.SPECIFICATION, "TRUE"));
+    }
+
+    for (Path inputWitness : pVerificationTaskMetaData.getInputWitnessFiles()) {
+      result.add(Maps.immutableEntry(KeyDef.INPUTWITNESSHASH, computeHash(inputWitness)));
+    }
+
+    for (Path programFile : pCfa.getFileNames()) {
+      result.add(Maps.immutableEntry(KeyDef.PROGRAMFILE, programFile.toString()));
+    }
+    for (Path programFile : pCfa.getFileNames()) {
+      result.add(Maps.immutableEntry(KeyDef.PROGRAMHASH, computeHash(programFile)));
+    }
+
+    result.add(
+        Maps.immutableEntry(KeyDef.ARCHITECTURE, getArchitecture(pCfa.getMachineModel())));
+    ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault()).withNano(0);
+    result.add(
+        Maps.immutableEntry(
+            KeyDef.CREATIONTIME, now.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)));
+    return result;
+  }
+
   public static class GraphMlBuilder {
 
     private final Document doc;
@@ -380,47 +433,10 @@ public class AutomatonGraphmlCommon {
       graph = doc.createElement("graph");
       root.appendChild(graph);
       graph.setAttribute("edgedefault", "directed");
-      graph.appendChild(createDataElement(KeyDef.WITNESS_TYPE, pGraphType.toString()));
-      graph.appendChild(
-          createDataElement(KeyDef.SOURCECODELANGUAGE, pCfa.getLanguage().toString()));
-      graph.appendChild(
-          createDataElement(KeyDef.PRODUCER, pVerificationTaskMetaData.getProducerString()));
-
-      int nSpecs = 0;
-      for (SpecificationProperty property : pVerificationTaskMetaData.getProperties()) {
-        graph.appendChild(createDataElement(KeyDef.SPECIFICATION, property.toString()));
-        ++nSpecs;
-      }
-
-      for (Path specFile : pVerificationTaskMetaData.getNonPropertySpecificationFiles()) {
-        graph.appendChild(
-            createDataElement(
-                KeyDef.SPECIFICATION,
-                MoreFiles.asCharSource(specFile, Charsets.UTF_8).read().trim()));
-        ++nSpecs;
-      }
-
-      if (nSpecs == 0) {
-        graph.appendChild(createDataElement(KeyDef.SPECIFICATION, "TRUE"));
+      for (Map.Entry<KeyDef, String> data :
+          getGraphData(pGraphType, pCfa, pVerificationTaskMetaData)) {
+        graph.appendChild(createDataElement(data.getKey(), data.getValue()));
       }
-
-      for (Path inputWitness : pVerificationTaskMetaData.getInputWitnessFiles()) {
-        graph.appendChild(createDataElement(KeyDef.INPUTWITNESSHASH, computeHash(inputWitness)));
-      }
-
-      for (Path programFile : pCfa.getFileNames()) {
-        graph.appendChild(createDataElement(KeyDef.PROGRAMFILE, programFile.toString()));
-      }
-      for (Path programFile : pCfa.getFileNames()) {
-        graph.appendChild(createDataElement(KeyDef.PROGRAMHASH, computeHash(programFile)));
-      }
-
-      graph.appendChild(
-          createDataElement(KeyDef.ARCHITECTURE, getArchitecture(pCfa.getMachineModel())));
-      ZonedDateTime now = ZonedDateTime.now(ZoneId.systemDefault()).withNano(0);
-      graph.appendChild(
-          createDataElement(
-              KeyDef.CREATIONTIME, now.format(DateTimeFormatter.ISO_OFFSET_DATE_TIME)));
     }
 
     private void defineKey(KeyDef pKeyDef) {
@@ -525,6 +541,170 @@ public class AutomatonGraphmlCommon {
 
   }
 
+  /**
+   * Writes a witness in GraphML format element by element to an {@link Appendable}, without
+   * building a DOM document.
+   *
+   * <p>GraphML requires all keys to be declared before the graph, so the keys used by nodes and
+   * edges need to be given upfront. Nodes and edges are written in the order in which they are
+   * started, each of them is closed when the next one is started or the graph is finished.
+   */
+  public static class GraphMlStreamWriter {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Appendable target;
+    private final Set<KeyDef> definedKeys;
+
+    private @Nullable GraphMLTag openElement = null;
+    private boolean openElementHasChildren = false;
+
+    private int nodeCount = 0;
+    private int edgeCount = 0;
+
+    /**
+     * Writes the header of the GraphML document including the key declarations and the data of the
+     * graph element.
+     *
+     * @param pUsedKeys the keys of all data that will be written for nodes and edges.
+     */
+    public GraphMlStreamWriter(
+        Appendable pTarget,
+        WitnessType pGraphType,
+        @Nullable String pDefaultSourceFileName,
+        CFA pCfa,
+        VerificationTaskMetaData pVerificationTaskMetaData,
+        Set<KeyDef> pUsedKeys)
+        throws IOException {
+      target =
+          pTarget instanceof Writer && !(pTarget instanceof BufferedWriter)
+              ? new BufferedWriter((Writer) pTarget, BUFFER_SIZE)
+              : pTarget;
+
+      List<Map.Entry<KeyDef, String>> graphData =
+          getGraphData(pGraphType, pCfa, pVerificationTaskMetaData);
+      definedKeys = EnumSet.of(KeyDef.ORIGINFILE);
+      definedKeys.addAll(pUsedKeys);
+      for (KeyDef keyDef : KeyDef.values()) {
+        if (keyDef.keyFor == ElementType.GRAPH) {
+          definedKeys.add(keyDef);
+        }
+      }
+      for (Map.Entry<KeyDef, String> data : graphData) {
+        definedKeys.add(data.getKey());
+      }
+
+      target.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
+      target.append(
+          "<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\""
+              + " xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n");
+      for (KeyDef keyDef : definedKeys) {
+        String defaultValue =
+            keyDef == KeyDef.ORIGINFILE ? pDefaultSourceFileName : keyDef.defaultValue;
+        target
+            .append(" <key attr.name=\"")
+            .append(escapeAttribute(keyDef.attrName))
+            .append("\" attr.type=\"")
+            .append(escapeAttribute(keyDef.attrType))
+            .append("\" for=\"")
+            .append(keyDef.keyFor.toString())
+            .append("\" id=\"")
+            .append(escapeAttribute(keyDef.id))
+            .append('"');
+        if (defaultValue == null) {
+          target.append("/>\n");
+        } else {
+          target.append(">\n  <default>").append(escapeContent(defaultValue));
+          target.append("</default>\n </key>\n");
+        }
+      }
+      target.append(" <graph edgedefault=\"directed\">\n");
+      for (Map.Entry<KeyDef, String> data : graphData) {
+        writeData(data.getKey(), data.getValue(), "  ");
+      }
+    }
+
+    public void startNode(String pNodeId, NodeType pNodeType) throws IOException {
+      closeOpenElement();
+      target.append("  <node id=\"").append(escapeAttribute(pNodeId)).append('"');
+      openElement = GraphMLTag.NODE;
+      nodeCount++;
+      if (pNodeType != defaultNodeType) {
+        addData(KeyDef.NODETYPE, pNodeType.toString());
+      }
+    }
+
+    public void startEdge(String pSource, String pTarget) throws IOException {
+      closeOpenElement();
+      target
+          .append("  <edge source=\"")
+          .append(escapeAttribute(pSource))
+          .append("\" target=\"")
+          .append(escapeAttribute(pTarget))
+          .append('"');
+      openElement = GraphMLTag.EDGE;
+      edgeCount++;
+    }
+
+    /** Adds a data element to the most recently started node or edge. */
+    public void addData(KeyDef pKey, String pValue) throws IOException {
+      Preconditions.checkState(openElement != null, "No open node or edge.");
+      Preconditions.checkArgument(definedKeys.contains(pKey), "Key %s was not declared.", pKey);
+      if (!openElementHasChildren) {
+        target.append(">\n");
+        openElementHasChildren = true;
+      }
+      writeData(pKey, pValue, "   ");
+    }
+
+    /** Closes the graph and the document and flushes the output. */
+    public void finish() throws IOException {
+      closeOpenElement();
+      target.append(" </graph>\n</graphml>\n");
+      if (target instanceof Flushable) {
+        ((Flushable) target).flush();
+      }
+    }
+
+    public int getNodeCount() {
+      return nodeCount;
+    }
+
+    public int getEdgeCount() {
+      return edgeCount;
+    }
+
+    private void writeData(KeyDef pKey, String pValue, String pIndent) throws IOException {
+      target
+          .append(pIndent)
+          .append("<data key=\"")
+          .append(escapeAttribute(pKey.id))
+          .append("\">")
+          .append(escapeContent(pValue))
+          .append("</data>\n");
+    }
+
+    private void closeOpenElement() throws IOException {
+      if (openElement != null) {
+        if (openElementHasChildren) {
+          target.append("  </").append(openElement.toString()).append(">\n");
+        } else {
+          target.append("/>\n");
+        }
+      }
+      openElement = null;
+      openElementHasChildren = false;
+    }
+
+    private static String escapeAttribute(String pValue) {
+      return XmlEscapers.xmlAttributeEscaper().escape(pValue);
+    }
+
+    private static String escapeContent(String pValue) {
+      return XmlEscapers.xmlContentEscaper().escape(pValue);
+    }
+  }
+
   public static boolean handleAsEpsilonEdge(CFAEdge pEdge, CFAEdgeWithAdditionalInfo
       pAdditionalInfo) {
     if (pAdditionalInfo != null && !pAdditionalInfo.getInfos().isEmpty()) {
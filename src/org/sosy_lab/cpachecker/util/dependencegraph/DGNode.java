@@ -55,6 +55,11 @@ public class DGNode implements Serializable {
     return cfaEdge;
   }
 
+  /** Returns the memory location defined at the edge of this node, if this node is specific. */
+  @Nullable MemoryLocation getCause() {
+    return cause;
+  }
+
   public boolean isUnknownPointerNode() {
     return false;
   }
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.util.dependencegraph;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ForwardingTable;
 import com.google.common.collect.HashBasedTable;
@@ -43,18 +44,25 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -111,6 +119,7 @@ public class DependenceGraphBuilder implements StatisticsProvider {
   private final Configuration config;
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
+  private final DependenceGraphCache cache;
   private NodeMap nodes;
   private Table<DGNode, DGNode, DependenceType> adjacencyMatrix;
 
@@ -154,6 +163,21 @@ public class DependenceGraphBuilder implements StatisticsProvider {
               + "represented by a single assumption (with true- and false-edges)")
   private boolean controlDepsTakeBothAssumptions = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Compute flow dependences and post-dominators concurrently, and the control dependences"
+              + " of different functions in parallel. The resulting dependence graph is the same.")
+  private boolean parallel = false;
+
+  @Option(
+      secure = true,
+      description =
+          "number of threads for computing the dependence graph in parallel"
+              + " (0 for the number of available processors)")
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
   public DependenceGraphBuilder(
       final MutableCFA pCfa,
       final Optional<VariableClassification> pVarClassification,
@@ -167,6 +191,7 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     logger = pLogger;
     shutdownNotifier = pShutdownNotifier;
     varClassification = pVarClassification;
+    cache = new DependenceGraphCache(pConfig, pLogger);
   }
 
   public DependenceGraph build()
@@ -183,24 +208,34 @@ public class DependenceGraphBuilder implements StatisticsProvider {
               + " to build a meaningful dependence graph");
     }
 
-    if (considerFlowDeps) {
-      flowDependenceTimer.start();
+    Path cacheFile = null;
+    if (cache.isEnabled()) {
       try {
-        addFlowDependences();
-      } finally {
-        flowDependenceTimer.stop();
+        cacheFile = cache.getCacheFile(cfa, varClassification.isPresent());
+      } catch (IOException e) {
+        logger.logUserException(
+            Level.WARNING, e, "Could not compute cache key for dependence graph");
       }
     }
 
-    if (considerControlDeps) {
-      controlDependenceTimer.start();
-      try {
-        addControlDependences();
-      } finally {
-        controlDependenceTimer.stop();
+    if (cacheFile == null || !cache.load(cacheFile, cfa, nodes, adjacencyMatrix)) {
+      if (parallel) {
+        ForkJoinPool pool =
+            new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        try {
+          addDependences(pool);
+        } finally {
+          pool.shutdownNow();
+        }
+      } else {
+        addDependences(null);
+      }
+      addMissingNodes();
+
+      if (cacheFile != null) {
+        cache.store(cacheFile, nodes, adjacencyMatrix);
       }
     }
-    addMissingNodes();
 
     DependenceGraph dg = new DependenceGraph(nodes, adjacencyMatrix, shutdownNotifier);
     export(dg);
@@ -215,6 +250,77 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     return dg;
   }
 
+  /**
+   * Adds flow and control dependences to the dependence graph. If a pool is given, the flow
+   * dependences and the post-dominators are computed concurrently, and the control dependences of
+   * the different functions in parallel. The dependences are always added in the same order as in
+   * the sequential case, such that the resulting graph does not depend on the scheduling.
+   */
+  private void addDependences(@Nullable ForkJoinPool pPool)
+      throws InterruptedException, InvalidConfigurationException, CPAException {
+    Future<FlowDependences> flowDependences = null;
+    if (considerFlowDeps && considerControlDeps && pPool != null) {
+      flowDependences = pPool.submit(this::computeFlowDependences);
+    }
+
+    PostDominators postDominators = null;
+    if (considerControlDeps) {
+      controlDependenceTimer.start();
+      try {
+        postDominators = PostDominators.create(cfa, logger, shutdownNotifier);
+      } finally {
+        controlDependenceTimer.stop();
+      }
+    }
+
+    if (considerFlowDeps) {
+      FlowDependences flowDeps;
+      if (flowDependences != null) {
+        flowDeps = getResult(flowDependences);
+      } else {
+        flowDeps = computeFlowDependences();
+      }
+      flowDependenceTimer.start();
+      try {
+        addFlowDependences(flowDeps);
+      } finally {
+        flowDependenceTimer.stop();
+      }
+    }
+
+    if (considerControlDeps) {
+      controlDependenceTimer.start();
+      try {
+        addControlDependences(postDominators, pPool);
+      } finally {
+        controlDependenceTimer.stop();
+      }
+    }
+  }
+
+  private FlowDependences computeFlowDependences()
+      throws InvalidConfigurationException, InterruptedException, CPAException {
+    flowDependenceTimer.start();
+    try {
+      return FlowDependences.create(cfa, varClassification, config, logger, shutdownNotifier);
+    } finally {
+      flowDependenceTimer.stop();
+    }
+  }
+
+  private static <T> T getResult(Future<T> pFuture)
+      throws InterruptedException, InvalidConfigurationException, CPAException {
+    try {
+      return pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      Throwables.throwIfInstanceOf(cause, InterruptedException.class);
+      Throwables.propagateIfPossible(
+          cause, InvalidConfigurationException.class, CPAException.class);
+      throw new UnexpectedCheckedException("dependence graph construction", cause);
+    }
+  }
+
   private void addMissingNodes() {
     EdgeCollectingCFAVisitor edgeCollector = new EdgeCollectingCFAVisitor();
     CFATraversal.dfs().traverse(cfa.getMainFunction(), edgeCollector);
@@ -231,10 +337,10 @@ public class DependenceGraphBuilder implements StatisticsProvider {
   /**
    * Adds control dependencies to dependence graph.
    */
-  private void addControlDependences()
-      throws InterruptedException, InvalidConfigurationException, CPAException {
-    PostDominators postDoms = PostDominators.create(cfa, logger, shutdownNotifier);
-    Set<CFANode> reachableNodes = postDoms.getNodes();
+  private void addControlDependences(
+      final PostDominators pPostDoms, final @Nullable ForkJoinPool pPool)
+      throws InterruptedException {
+    Set<CFANode> reachableNodes = pPostDoms.getNodes();
     List<CFANode> branchingNodes =
         reachableNodes
             .stream()
@@ -242,54 +348,40 @@ public class DependenceGraphBuilder implements StatisticsProvider {
             .filter(n -> n.getLeavingEdge(0) instanceof CAssumeEdge)
             .collect(Collectors.toList());
 
-    for (CFANode branch : branchingNodes) {
-      Set<CFANode> postDominatorsOfBranchingNode = postDoms.getPostDominators(branch);
-      FluentIterable<CFAEdge> assumeEdges = CFAUtils.leavingEdges(branch);
+    // for each branching node and each of its assume edges, the edges depending on the assumption
+    List<List<List<CFAEdge>>> dependingEdges;
+    if (pPool == null) {
+      dependingEdges = new ArrayList<>(branchingNodes.size());
+      for (CFANode branch : branchingNodes) {
+        dependingEdges.add(getEdgesControlDependentOn(branch, reachableNodes, pPostDoms));
+      }
+    } else {
+      dependingEdges = computeControlDependencesPerFunction(branchingNodes, pPostDoms, pPool);
+    }
+
+    for (int i = 0; i < branchingNodes.size(); i++) {
+      FluentIterable<CFAEdge> assumeEdges = CFAUtils.leavingEdges(branchingNodes.get(i));
       assert assumeEdges.size() == 2;
-      for (CFAEdge g : assumeEdges) {
+      List<List<CFAEdge>> dependingEdgesOfBranch = dependingEdges.get(i);
+      for (int j = 0; j < assumeEdges.size(); j++) {
+        CFAEdge g = assumeEdges.get(j);
         int controlDepCount = 0;
-        List<CFANode> nodesOnPath = new ArrayList<>();
-        Queue<CFAEdge> waitlist = new ArrayDeque<>(8);
-        Set<CFAEdge> reached = new HashSet<>();
-        waitlist.offer(g);
-        while (!waitlist.isEmpty()) {
-          CFAEdge current = waitlist.poll();
-          CFANode succ = current.getSuccessor();
-          if (!reachableNodes.contains(succ)) {
-            continue;
-          }
-          if (!reached.contains(current)) {
-            reached.add(current);
-            CFANode precessorNode = current.getPredecessor();
-            if (precessorNode.equals(branch)) {
-              CFAUtils.leavingEdges(succ).forEach(waitlist::offer);
-
-            } else
-            // branch node is not post-dominated by current node (condition 2 of control dependence)
-            if (!postDominatorsOfBranchingNode.contains(precessorNode)) {
-              // all nodes on path from branch to current are post-dominated by current
-              // (condition 1 of control dependence)
-              if (isPostDomOfAll(precessorNode, nodesOnPath, postDoms)) {
-                Collection<DGNode> nodesDepending = getDGNodes(current);
-                for (DGNode nodeDepending : nodesDepending) {
-                  Iterable<CFAEdge> edgesDependingOn;
-                  if (controlDepsTakeBothAssumptions) {
-                    edgesDependingOn = assumeEdges;
-                  } else {
-                    edgesDependingOn = ImmutableList.of(g);
-                  }
-                  for (CFAEdge assumes : edgesDependingOn) {
-                    DGNode nodeDependentOn = getDGNode(assumes, Optional.empty());
-                    assert getDGNodes(assumes).size() == 1
-                        : "Only using one DG node, but multiple would exist: " + nodeDependentOn;
-                    addDependence(nodeDependentOn, nodeDepending, DependenceType.CONTROL);
-                  }
-                  controlDepCount++;
-                }
-                nodesOnPath.add(precessorNode);
-              }
-              CFAUtils.leavingEdges(current.getSuccessor()).forEach(waitlist::offer);
+        for (CFAEdge current : dependingEdgesOfBranch.get(j)) {
+          Collection<DGNode> nodesDepending = getDGNodes(current);
+          for (DGNode nodeDepending : nodesDepending) {
+            Iterable<CFAEdge> edgesDependingOn;
+            if (controlDepsTakeBothAssumptions) {
+              edgesDependingOn = assumeEdges;
+            } else {
+              edgesDependingOn = ImmutableList.of(g);
             }
+            for (CFAEdge assumes : edgesDependingOn) {
+              DGNode nodeDependentOn = getDGNode(assumes, Optional.empty());
+              assert getDGNodes(assumes).size() == 1
+                  : "Only using one DG node, but multiple would exist: " + nodeDependentOn;
+              addDependence(nodeDependentOn, nodeDepending, DependenceType.CONTROL);
+            }
+            controlDepCount++;
           }
         }
         controlDependenceNumber.setNextValue(controlDepCount);
@@ -321,7 +413,95 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     }
   }
 
-  private boolean isPostDomOfAll(
+  /**
+   * Computes the control dependences of the given branching nodes with one task per function.
+   * Only the post-dominators and the CFA are accessed by the tasks, which are both not modified
+   * anymore.
+   */
+  private List<List<List<CFAEdge>>> computeControlDependencesPerFunction(
+      final List<CFANode> pBranchingNodes,
+      final PostDominators pPostDoms,
+      final ForkJoinPool pPool)
+      throws InterruptedException {
+    Set<CFANode> reachableNodes = pPostDoms.getNodes();
+    Map<String, List<Integer>> branchesPerFunction = new LinkedHashMap<>();
+    for (int i = 0; i < pBranchingNodes.size(); i++) {
+      branchesPerFunction
+          .computeIfAbsent(pBranchingNodes.get(i).getFunctionName(), k -> new ArrayList<>())
+          .add(i);
+    }
+
+    @SuppressWarnings("unchecked")
+    List<List<CFAEdge>>[] results = new List[pBranchingNodes.size()];
+    List<Future<?>> tasks = new ArrayList<>(branchesPerFunction.size());
+    for (List<Integer> branchesOfFunction : branchesPerFunction.values()) {
+      tasks.add(
+          pPool.submit(
+              () -> {
+                for (int i : branchesOfFunction) {
+                  results[i] =
+                      getEdgesControlDependentOn(pBranchingNodes.get(i), reachableNodes, pPostDoms);
+                }
+              }));
+    }
+    for (Future<?> task : tasks) {
+      try {
+        task.get();
+      } catch (ExecutionException e) {
+        Throwables.throwIfUnchecked(e.getCause());
+        throw new UnexpectedCheckedException("computing control dependences", e.getCause());
+      }
+    }
+    return ImmutableList.copyOf(results);
+  }
+
+  /**
+   * Returns for each leaving assume edge of the given branching node the edges that are control
+   * dependent on it, in the order in which they are found.
+   */
+  private static List<List<CFAEdge>> getEdgesControlDependentOn(
+      final CFANode pBranch,
+      final Set<CFANode> pReachableNodes,
+      final PostDominators pPostDoms) {
+    Set<CFANode> postDominatorsOfBranchingNode = pPostDoms.getPostDominators(pBranch);
+    List<List<CFAEdge>> result = new ArrayList<>(pBranch.getNumLeavingEdges());
+    for (CFAEdge g : CFAUtils.leavingEdges(pBranch)) {
+      List<CFAEdge> dependingEdges = new ArrayList<>();
+      List<CFANode> nodesOnPath = new ArrayList<>();
+      Queue<CFAEdge> waitlist = new ArrayDeque<>(8);
+      Set<CFAEdge> reached = new HashSet<>();
+      waitlist.offer(g);
+      while (!waitlist.isEmpty()) {
+        CFAEdge current = waitlist.poll();
+        CFANode succ = current.getSuccessor();
+        if (!pReachableNodes.contains(succ)) {
+          continue;
+        }
+        if (!reached.contains(current)) {
+          reached.add(current);
+          CFANode precessorNode = current.getPredecessor();
+          if (precessorNode.equals(pBranch)) {
+            CFAUtils.leavingEdges(succ).forEach(waitlist::offer);
+
+          } else
+          // branch node is not post-dominated by current node (condition 2 of control dependence)
+          if (!postDominatorsOfBranchingNode.contains(precessorNode)) {
+            // all nodes on path from branch to current are post-dominated by current
+            // (condition 1 of control dependence)
+            if (isPostDomOfAll(precessorNode, nodesOnPath, pPostDoms)) {
+              dependingEdges.add(current);
+              nodesOnPath.add(precessorNode);
+            }
+            CFAUtils.leavingEdges(current.getSuccessor()).forEach(waitlist::offer);
+          }
+        }
+      }
+      result.add(dependingEdges);
+    }
+    return result;
+  }
+
+  private static boolean isPostDomOfAll(
       final CFANode pNode,
       final Collection<CFANode> pNodeSet,
       final PostDominators pPostDominators) {
@@ -334,10 +514,7 @@ public class DependenceGraphBuilder implements StatisticsProvider {
     return true;
   }
 
-  private void addFlowDependences()
-      throws InvalidConfigurationException, InterruptedException, CPAException {
-    FlowDependences flowDependences =
-        FlowDependences.create(cfa, varClassification, config, logger, shutdownNotifier);
+  private void addFlowDependences(final FlowDependences flowDependences) {
     for (Cell<CFAEdge, Optional<MemoryLocation>, FlowDependence> c : flowDependences.cellSet()) {
       CFAEdge edgeDepending = checkNotNull(c.getRowKey());
       Optional<MemoryLocation> specificDefAtEdge = checkNotNull(c.getColumnKey());
@@ -441,6 +618,17 @@ public class DependenceGraphBuilder implements StatisticsProvider {
           put(pOut, 4, controlDependenceNumber);
           put(pOut, 4, isolatedNodes);
         }
+        if (cache.isEnabled()) {
+          put(pOut, 4, cache.cacheHits);
+          put(pOut, 4, cache.cacheMisses);
+          put(pOut, 4, cache.keyTime);
+          if (cache.loadTime.getUpdateCount() > 0) {
+            put(pOut, 4, cache.loadTime);
+          }
+          if (cache.storeTime.getUpdateCount() > 0) {
+            put(pOut, 4, cache.storeTime);
+          }
+        }
       }
 
       @Override
@@ -0,0 +1,403 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedSet;
+import com.google.common.collect.Table;
+import com.google.common.collect.Table.Cell;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.ast.ADeclaration;
+import org.sosy_lab.cpachecker.cfa.model.ADeclarationEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.core.CPAchecker;
+import org.sosy_lab.cpachecker.util.dependencegraph.DGNode.UnknownPointerNode;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.DependenceType;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.NodeMap;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
+
+/**
+ * A persistent cache for dependence graphs, such that slicing configurations do not have to
+ * recompute the dependences of an unchanged program.
+ *
+ * <p>The cache key is a hash over the structure of the CFA (nodes, edges, their statements and
+ * declared types), the machine model, the CPAchecker version, and all options that influence the
+ * dependence graph. Because the cached graph has to be connected to the edges of the CFA of the
+ * current run, {@link DGNode DGNodes} are not serialized directly, but as the number of the
+ * predecessor node and the index of the edge. Cache files contain only numbers and strings and no
+ * serialized Java objects.
+ */
+@Options(prefix = "dependencegraph.cache")
+final class DependenceGraphCache {
+
+  // not secure, because cached files are read from a configurable directory
+  @Option(
+    description =
+        "Store the dependence graph in a cache directory and load it from there if a CFA with the"
+            + " same structure is analyzed again with the same dependence-graph options."
+  )
+  private boolean enabled = false;
+
+  @Option(
+    description =
+        "directory for cached dependence graphs, use an absolute path to share the cache between"
+            + " several executions of CPAchecker"
+  )
+  @FileOption(FileOption.Type.OUTPUT_DIRECTORY)
+  private Path directory = Paths.get("dependenceGraphCache");
+
+  private static final String CACHE_FILE_SUFFIX = ".dg.bin";
+
+  private static final ImmutableList<String> KEY_OPTION_PREFIXES =
+      ImmutableList.of("dependencegraph.", "cfa.variableClassification.");
+
+  /** Edge index used for summary edges, which are not part of the regular leaving edges. */
+  private static final int SUMMARY_EDGE_INDEX = -1;
+
+  private static final int FORMAT_VERSION = 2;
+
+  private final Configuration config;
+  private final LogManager logger;
+
+  final StatTimer keyTime = new StatTimer("Time for computing dep. graph cache key");
+  final StatTimer loadTime = new StatTimer("Time for loading cached dep. graph");
+  final StatTimer storeTime = new StatTimer("Time for storing dep. graph in cache");
+  final StatCounter cacheHits = new StatCounter("Number of dep. graph cache hits");
+  final StatCounter cacheMisses = new StatCounter("Number of dep. graph cache misses");
+
+  DependenceGraphCache(Configuration pConfig, LogManager pLogger)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    config = pConfig;
+    logger = pLogger;
+  }
+
+  boolean isEnabled() {
+    return enabled && directory != null;
+  }
+
+  /** Returns the file in which the dependence graph for the given CFA is cached. */
+  Path getCacheFile(CFA pCfa, boolean pHasVariableClassification) throws IOException {
+    keyTime.start();
+    try {
+      Hasher hasher = Hashing.sha256().newHasher();
+      hasher.putString(CPAchecker.getPlainVersion(), UTF_8).putByte((byte) 0);
+      hasher.putBoolean(pHasVariableClassification);
+
+      // sorted such that the order in the configuration files does not matter
+      Properties properties = new Properties();
+      properties.load(new StringReader(config.asPropertiesString()));
+      for (String name : new TreeSet<>(properties.stringPropertyNames())) {
+        if (!name.startsWith("dependencegraph.cache.")
+            && KEY_OPTION_PREFIXES.stream().anyMatch(name::startsWith)) {
+          hasher.putString(name, UTF_8).putByte((byte) 0);
+          hasher.putString(properties.getProperty(name), UTF_8).putByte((byte) 0);
+        }
+      }
+
+      hasher.putString(pCfa.getMachineModel().name(), UTF_8).putByte((byte) 0);
+      hasher.putString(pCfa.getMainFunction().getFunctionName(), UTF_8).putByte((byte) 0);
+      for (CFANode node : ImmutableSortedSet.copyOf(pCfa.getAllNodes())) {
+        hasher.putInt(node.getNodeNumber());
+        hasher.putString(node.getFunctionName(), UTF_8).putByte((byte) 0);
+        hasher.putString(node.getClass().getName(), UTF_8).putByte((byte) 0);
+        for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+          putEdge(hasher, node.getLeavingEdge(i));
+        }
+        FunctionSummaryEdge summaryEdge = node.getLeavingSummaryEdge();
+        if (summaryEdge != null) {
+          hasher.putByte((byte) 1);
+          putEdge(hasher, summaryEdge);
+        }
+        hasher.putByte((byte) 0);
+      }
+      return directory.resolve(hasher.hash() + CACHE_FILE_SUFFIX);
+    } finally {
+      keyTime.stop();
+    }
+  }
+
+  private static void putEdge(Hasher pHasher, CFAEdge pEdge) {
+    pHasher.putString(pEdge.getEdgeType().name(), UTF_8).putByte((byte) 0);
+    pHasher.putString(pEdge.getDescription(), UTF_8).putByte((byte) 0);
+    // the description contains the source code, but not resolved types, e.g., of typedefs
+    pHasher.putString(pEdge.getCode(), UTF_8).putByte((byte) 0);
+    if (pEdge instanceof ADeclarationEdge) {
+      ADeclaration declaration = ((ADeclarationEdge) pEdge).getDeclaration();
+      pHasher.putString(declaration.getType().toString(), UTF_8).putByte((byte) 0);
+    }
+    pHasher.putString(pEdge.getFileLocation().toString(), UTF_8).putByte((byte) 0);
+    pHasher.putInt(pEdge.getSuccessor().getNodeNumber());
+  }
+
+  /**
+   * Loads a previously cached dependence graph for the given CFA from the given file into the given
+   * node map and adjacency matrix, which need to be empty.
+   *
+   * @return whether the dependence graph was loaded successfully
+   */
+  boolean load(
+      Path pCacheFile,
+      CFA pCfa,
+      NodeMap pNodes,
+      Table<DGNode, DGNode, DependenceType> pAdjacencyMatrix) {
+    if (!Files.isRegularFile(pCacheFile)) {
+      logger.log(Level.FINE, "No cached dependence graph found in", pCacheFile);
+      cacheMisses.inc();
+      return false;
+    }
+
+    loadTime.start();
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(pCacheFile)))) {
+      if (in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported format of cached dependence graph");
+      }
+
+      Map<Integer, CFANode> nodesByNumber = new HashMap<>();
+      for (CFANode node : pCfa.getAllNodes()) {
+        nodesByNumber.put(node.getNodeNumber(), node);
+      }
+
+      int nodeCount = in.readInt();
+      List<DGNode> dgNodes = new ArrayList<>(nodeCount);
+      for (int i = 0; i < nodeCount; i++) {
+        if (in.readBoolean()) {
+          DGNode unknownPointer = UnknownPointerNode.getInstance();
+          pNodes.getSpecialNodes().add(unknownPointer);
+          dgNodes.add(unknownPointer);
+        } else {
+          CFAEdge edge = readEdge(in, nodesByNumber);
+          MemoryLocation cause = readMemoryLocation(in);
+          DGNode dgNode = cause == null ? new DGNode(edge) : new DGNode(edge, cause);
+          pNodes.getNodesForEdges().put(edge, Optional.ofNullable(cause), dgNode);
+          dgNodes.add(dgNode);
+        }
+      }
+
+      DependenceType[] types = DependenceType.values();
+      int edgeCount = in.readInt();
+      for (int i = 0; i < edgeCount; i++) {
+        DGNode dependentOn = dgNodes.get(in.readInt());
+        DGNode depending = dgNodes.get(in.readInt());
+        pAdjacencyMatrix.put(dependentOn, depending, types[in.readByte()]);
+      }
+
+      logger.log(Level.INFO, "Loaded dependence graph from cache file", pCacheFile);
+      cacheHits.inc();
+      return true;
+
+    } catch (IOException | IndexOutOfBoundsException e) {
+      // e.g., an incompatible file written by a different version
+      logger.logUserException(
+          Level.WARNING, e, "Could not read cached dependence graph, creating it from scratch");
+      pNodes.getNodesForEdges().clear();
+      pNodes.getSpecialNodes().clear();
+      pAdjacencyMatrix.clear();
+      cacheMisses.inc();
+      return false;
+    } finally {
+      loadTime.stop();
+    }
+  }
+
+  private static CFAEdge readEdge(DataInputStream pIn, Map<Integer, CFANode> pNodesByNumber)
+      throws IOException {
+    int nodeNumber = pIn.readInt();
+    int edgeIndex = pIn.readInt();
+    CFANode predecessor = pNodesByNumber.get(nodeNumber);
+    if (predecessor == null) {
+      throw new IOException("Cached dependence graph refers to unknown CFA node " + nodeNumber);
+    }
+    CFAEdge edge =
+        edgeIndex == SUMMARY_EDGE_INDEX
+            ? predecessor.getLeavingSummaryEdge()
+            : predecessor.getLeavingEdge(edgeIndex);
+    if (edge == null) {
+      throw new IOException("Cached dependence graph refers to unknown CFA edge");
+    }
+    return edge;
+  }
+
+  /**
+   * Stores the given dependence graph in the given file. The file is written to a temporary
+   * location first and moved afterwards, such that concurrent executions never see partially
+   * written files.
+   */
+  void store(Path pCacheFile, NodeMap pNodes, Table<DGNode, DGNode, DependenceType> pMatrix) {
+    storeTime.start();
+    try {
+      MoreFiles.createParentDirectories(pCacheFile);
+      Path tmpFile =
+          Files.createTempFile(
+              pCacheFile.getParent(), pCacheFile.getFileName().toString(), ".tmp");
+      try {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmpFile));
+            DataOutputStream dataOut = new DataOutputStream(out)) {
+          writeGraph(dataOut, pNodes, pMatrix);
+        }
+        Files.move(
+            tmpFile,
+            pCacheFile,
+            StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmpFile);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write dependence graph to cache");
+    } finally {
+      storeTime.stop();
+    }
+  }
+
+  private static void writeGraph(
+      DataOutputStream pOut, NodeMap pNodes, Table<DGNode, DGNode, DependenceType> pMatrix)
+      throws IOException {
+    pOut.writeInt(FORMAT_VERSION);
+
+    Map<DGNode, Integer> indices = new HashMap<>();
+    pOut.writeInt(pNodes.size());
+    for (DGNode special : pNodes.getSpecialNodes()) {
+      if (!special.isUnknownPointerNode()) {
+        throw new IOException("Cannot store special dependence graph node " + special);
+      }
+      pOut.writeBoolean(true);
+      indices.put(special, indices.size());
+    }
+    for (DGNode dgNode : pNodes.getNodesForEdges().values()) {
+      CFAEdge edge = dgNode.getCfaEdge();
+      CFANode predecessor = edge.getPredecessor();
+      pOut.writeBoolean(false);
+      pOut.writeInt(predecessor.getNodeNumber());
+      pOut.writeInt(getEdgeIndex(predecessor, edge));
+      writeMemoryLocation(pOut, dgNode.getCause());
+      indices.put(dgNode, indices.size());
+    }
+
+    pOut.writeInt(pMatrix.size());
+    for (Cell<DGNode, DGNode, DependenceType> cell : pMatrix.cellSet()) {
+      Integer dependentOn = indices.get(cell.getRowKey());
+      Integer depending = indices.get(cell.getColumnKey());
+      if (dependentOn == null || depending == null) {
+        throw new IOException("Dependence graph edge between unknown nodes");
+      }
+      pOut.writeInt(dependentOn);
+      pOut.writeInt(depending);
+      pOut.writeByte(cell.getValue().ordinal());
+    }
+  }
+
+  /**
+   * Writes a memory location as plain strings and numbers, such that reading a cache file never
+   * creates objects of arbitrary classes.
+   */
+  private static void writeMemoryLocation(DataOutputStream pOut, @Nullable MemoryLocation pLocation)
+      throws IOException {
+    if (pLocation == null) {
+      pOut.writeBoolean(false);
+      return;
+    }
+    if (pLocation.getClass() != MemoryLocation.class) {
+      throw new IOException("Cannot store memory location of type " + pLocation.getClass());
+    }
+    pOut.writeBoolean(true);
+    pOut.writeBoolean(pLocation.isOnFunctionStack());
+    if (pLocation.isOnFunctionStack()) {
+      pOut.writeUTF(pLocation.getFunctionName());
+    }
+    pOut.writeUTF(pLocation.getIdentifier());
+    pOut.writeBoolean(pLocation.isReference());
+    if (pLocation.isReference()) {
+      pOut.writeLong(pLocation.getOffset());
+    }
+  }
+
+  private static @Nullable MemoryLocation readMemoryLocation(DataInputStream pIn)
+      throws IOException {
+    if (!pIn.readBoolean()) {
+      return null;
+    }
+    String functionName = pIn.readBoolean() ? pIn.readUTF() : null;
+    String identifier = pIn.readUTF();
+    if (pIn.readBoolean()) {
+      long offset = pIn.readLong();
+      return functionName == null
+          ? MemoryLocation.valueOf(identifier, offset)
+          : MemoryLocation.valueOf(functionName, identifier, offset);
+    } else {
+      return functionName == null
+          ? MemoryLocation.valueOf(identifier, OptionalLong.empty())
+          : MemoryLocation.valueOf(functionName, identifier);
+    }
+  }
+
+  private static int getEdgeIndex(CFANode pPredecessor, CFAEdge pEdge) throws IOException {
+    if (pEdge.equals(pPredecessor.getLeavingSummaryEdge())) {
+      return SUMMARY_EDGE_INDEX;
+    }
+    for (int i = 0; i < pPredecessor.getNumLeavingEdges(); i++) {
+      if (pEdge.equals(pPredecessor.getLeavingEdge(i))) {
+        return i;
+      }
+    }
+    throw new IOException("Dependence graph node for edge not in CFA: " + pEdge);
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.dependencegraph;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.CFACreator;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.util.CFAUtils;
+import org.sosy_lab.cpachecker.util.dependencegraph.DependenceGraph.TraversalDirection;
+
+public class DependenceGraphCacheTest {
+
+  private static final String PROGRAM =
+      "int g;\n"
+          + "void set(int *p, int v) { *p = v; }\n"
+          + "int main() {\n"
+          + "  int a = 1;\n"
+          + "  int b = a + 1;\n"
+          + "  set(&g, b);\n"
+          + "  if (g > a) { b = 0; }\n"
+          + "  return b;\n"
+          + "}\n";
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private FileTypeConverter fileTypeConverter;
+  private Path cacheDirectory;
+
+  @Before
+  public void setUp() throws Exception {
+    cacheDirectory = tempFolder.newFolder("cache").toPath();
+    fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder("output").toString())
+                .build());
+  }
+
+  private Configuration createConfig(String pMachineModel) throws Exception {
+    return Configuration.builder()
+        .addConverter(FileOption.class, fileTypeConverter)
+        .setOption("analysis.machineModel", pMachineModel)
+        .setOption("cfa.createDependenceGraph", "true")
+        .setOption("dependencegraph.cache.enabled", "true")
+        .setOption("dependencegraph.cache.directory", cacheDirectory.toString())
+        .setOption("cfa.export", "false")
+        .setOption("cfa.exportPerFunction", "false")
+        .setOption("cfa.callgraph.export", "false")
+        .build();
+  }
+
+  private static CFA createCFA(Configuration pConfig) throws Exception {
+    return createCFA(pConfig, PROGRAM);
+  }
+
+  private static CFA createCFA(Configuration pConfig, String pProgram) throws Exception {
+    LogManager logger = LogManager.createTestLogManager();
+    return new CFACreator(pConfig, logger, ShutdownNotifier.createDummy())
+        .parseSourceAndCreateCFA(pProgram);
+  }
+
+  private long countCacheFiles() throws IOException {
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      return files.filter(f -> f.getFileName().toString().endsWith(".dg.bin")).count();
+    }
+  }
+
+  /** Describes the backward slice of every edge, with node numbers relative to the first node. */
+  private static List<String> describeSlices(CFA pCfa) throws InterruptedException {
+    DependenceGraph dg = pCfa.getDependenceGraph().get();
+    int firstNodeNumber = pCfa.getAllNodes().first().getNodeNumber();
+    List<String> result = new ArrayList<>();
+    for (CFANode node : pCfa.getAllNodes()) {
+      for (CFAEdge edge : CFAUtils.allLeavingEdges(node)) {
+        List<String> slice =
+            FluentIterable.from(dg.getReachable(edge, TraversalDirection.BACKWARD))
+                .transform(
+                    e ->
+                        (e.getPredecessor().getNodeNumber() - firstNodeNumber)
+                            + " "
+                            + e.getDescription())
+                .toSortedList(String::compareTo);
+        result.add(edge.getDescription() + " <- " + slice);
+      }
+    }
+    return result;
+  }
+
+  @Test
+  public void testStoreAndLoad() throws Exception {
+    Configuration config = createConfig("LINUX32");
+    CFA created = createCFA(config);
+    assertThat(countCacheFiles()).isEqualTo(1);
+
+    CFA loaded = createCFA(config);
+    assertThat(countCacheFiles()).isEqualTo(1);
+    assertThat(loaded.getDependenceGraph().get().getAllNodes())
+        .hasSize(created.getDependenceGraph().get().getAllNodes().size());
+    assertThat(describeSlices(loaded)).containsExactlyElementsIn(describeSlices(created)).inOrder();
+  }
+
+  @Test
+  public void testCacheKeyDependsOnTypes() throws Exception {
+    Configuration config32 = createConfig("LINUX32");
+    Configuration config64 = createConfig("LINUX64");
+    DependenceGraphCache cache =
+        new DependenceGraphCache(config32, LogManager.createTestLogManager());
+
+    Path file32 = cache.getCacheFile(createCFA(config32), true);
+    Path file64 = cache.getCacheFile(createCFA(config64), true);
+    assertThat(file32).isNotEqualTo(file64);
+
+    CFA withOtherType = createCFA(config32, PROGRAM.replace("int g;", "long g;"));
+    assertThat(cache.getCacheFile(withOtherType, true)).isNotEqualTo(file32);
+  }
+
+  @Test
+  public void testCorruptCacheFile() throws Exception {
+    Configuration config = createConfig("LINUX32");
+    List<String> expected = describeSlices(createCFA(config));
+
+    try (Stream<Path> files = Files.list(cacheDirectory)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.write(file, ImmutableList.of("not a dependence graph"));
+      }
+    }
+    assertThat(describeSlices(createCFA(config))).containsExactlyElementsIn(expected).inOrder();
+  }
+}
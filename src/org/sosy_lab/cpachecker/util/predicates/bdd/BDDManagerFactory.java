@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.util.predicates.bdd;
 
+import java.util.logging.Level;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
@@ -59,6 +60,15 @@ public class BDDManagerFactory {
   @Option(secure = true, description = "sequentialize all accesses to the BDD library.")
   private boolean synchronizeLibraryAccess = false;
 
+  @Option(
+      secure = true,
+      description =
+          "Create a region manager that can be used by several threads concurrently without "
+              + "sequentializing all accesses, e.g., for sharing regions between the threads of "
+              + "ParallelBAMAlgorithm. This uses PJBDD with a concurrent unique table and "
+              + "operation cache, the value of bdd.package is ignored.")
+  private boolean concurrentAccess = false;
+
   private final Configuration config;
   private final LogManager logger;
 
@@ -70,11 +80,27 @@ public class BDDManagerFactory {
   }
 
   public RegionManager createRegionManager() throws InvalidConfigurationException {
+    if (concurrentAccess) {
+      if (!bddPackage.equals("PJBDD")) {
+        logger.logf(
+            Level.INFO,
+            "BDD package %s does not support concurrent access, using PJBDD instead.",
+            bddPackage);
+      }
+      if (synchronizeLibraryAccess) {
+        logger.log(
+            Level.WARNING,
+            "Ignoring option bdd.synchronizeLibraryAccess, "
+                + "the concurrent region manager does not need external synchronization.");
+      }
+      return new PJBDDRegionManager(config, true);
+    }
+
     RegionManager rmgr;
     if (bddPackage.equals("SYLVAN")) {
       rmgr = new SylvanBDDRegionManager(config, logger);
     } else if (bddPackage.equals("PJBDD")) {
-      rmgr = new PJBDDRegionManager(config);
+      rmgr = new PJBDDRegionManager(config, false);
     } else {
       rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
     }
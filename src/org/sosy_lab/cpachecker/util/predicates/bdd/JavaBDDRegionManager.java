@@ -28,15 +28,20 @@ import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.primitives.ImmutableIntArray;
+import java.io.IOException;
 import java.io.PrintStream;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,10 +53,12 @@ import net.sf.javabdd.BDDFactory;
 import net.sf.javabdd.JFactory;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.IO;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.cpachecker.util.Triple;
@@ -60,6 +67,7 @@ import org.sosy_lab.cpachecker.util.predicates.regions.Region;
 import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
 import org.sosy_lab.cpachecker.util.predicates.smt.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.smt.FormulaManagerView;
+import org.sosy_lab.cpachecker.util.statistics.StatCounter;
 import org.sosy_lab.cpachecker.util.statistics.StatInt;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
 import org.sosy_lab.cpachecker.util.statistics.StatTimer;
@@ -83,6 +91,13 @@ class JavaBDDRegionManager implements RegionManager {
   // Statistics
   private final StatInt cleanupQueueSize = new StatInt(StatKind.AVG, "Size of BDD node cleanup queue");
   private final StatTimer cleanupTimer = new StatTimer("Time for BDD node cleanup");
+  private final StatCounter dynamicReorderings =
+      new StatCounter("Number of dynamic BDD reorderings");
+  private final StatTimer dynamicReorderTimer = new StatTimer("Time for dynamic BDD reordering");
+  private final StatInt nodesBeforeReordering =
+      new StatInt(StatKind.AVG, "Number of BDD nodes before reordering");
+  private final StatInt nodesAfterReordering =
+      new StatInt(StatKind.AVG, "Number of BDD nodes after reordering");
   private final LogManager logger;
   private final BDDFactory factory;
   private final Region trueFormula;
@@ -108,6 +123,64 @@ class JavaBDDRegionManager implements RegionManager {
   @Option(secure = true,
       description = "Size of the BDD cache in relation to the node table size (set to 0 to use fixed BDD cache size).")
   private double cacheRatio = 0.1;
+
+  @Option(
+      secure = true,
+      description =
+          "Reorder the BDD variables dynamically with the given method whenever the number of "
+              + "BDD nodes has grown by reorderGrowthFactor since the last reordering.",
+      values = {"NONE", "SIFT", "SIFTITE", "WIN2", "WIN2ITE", "WIN3", "WIN3ITE", "RANDOM"},
+      toUppercase = true)
+  private String dynamicReordering = "NONE";
+
+  @Option(
+      secure = true,
+      description =
+          "Growth factor of the number of BDD nodes (compared to the size after the last "
+              + "reordering) that triggers a dynamic reordering.")
+  private double reorderGrowthFactor = 2.0;
+
+  @Option(
+      secure = true,
+      description = "Minimal number of BDD nodes before a dynamic reordering is triggered.")
+  @IntegerOption(min = 0)
+  private int reorderMinNodes = 100000;
+
+  @Option(
+      secure = true,
+      description =
+          "Number of BDD operations between two checks whether a dynamic reordering is needed.")
+  @IntegerOption(min = 1)
+  private int reorderCheckInterval = 1000;
+
+  @Option(
+      secure = true,
+      description =
+          "Write the variable order to this file after dynamic reorderings, "
+              + "such that later runs on the same program can start from it "
+              + "(cf. option initialVariableOrderFile). The file is written at most every "
+              + "10 seconds during the analysis and once more when statistics are printed.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path variableOrderFile = null;
+
+  @Option(
+      secure = true,
+      description =
+          "Read an initial variable order (e.g., written by a previous run with "
+              + "option variableOrderFile) and apply it before the analysis.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path initialVariableOrderFile = null;
+
+  /** Minimal time between two writes of {@link #variableOrderFile} during the analysis. */
+  private static final long VARIABLE_ORDER_EXPORT_INTERVAL = SECONDS.toNanos(10);
+
+  private final BDDFactory.ReorderMethod reorderMethod;
+  private boolean variableOrderExported = false;
+  private boolean variableOrderExportPending = false;
+  private long lastVariableOrderExport = 0;
+  private int operationsSinceReorderCheck = 0;
+  private int nodesAfterLastReordering = 0;
+
   private int nextvar = 0;
   private int varcount = 100;
 
@@ -174,10 +247,162 @@ class JavaBDDRegionManager implements RegionManager {
     factory.setVarNum(varcount);
     factory.setCacheRatio(cacheRatio);
 
+    if (reorderGrowthFactor <= 1) {
+      throw new InvalidConfigurationException(
+          "Invalid value "
+              + reorderGrowthFactor
+              + " for option bdd.javabdd.reorderGrowthFactor, needs to be greater than 1.");
+    }
+    reorderMethod = getReorderMethod(dynamicReordering);
+    if (initialVariableOrderFile != null) {
+      applyInitialVariableOrder(initialVariableOrderFile);
+    }
+
     trueFormula = new JavaBDDRegion(factory.one());
     falseFormula = new JavaBDDRegion(factory.zero());
   }
 
+  private static BDDFactory.ReorderMethod getReorderMethod(String pMethod) {
+    switch (pMethod) {
+      case "NONE":
+        return BDDFactory.REORDER_NONE;
+      case "SIFT":
+        return BDDFactory.REORDER_SIFT;
+      case "SIFTITE":
+        return BDDFactory.REORDER_SIFTITE;
+      case "WIN2":
+        return BDDFactory.REORDER_WIN2;
+      case "WIN2ITE":
+        return BDDFactory.REORDER_WIN2ITE;
+      case "WIN3":
+        return BDDFactory.REORDER_WIN3;
+      case "WIN3ITE":
+        return BDDFactory.REORDER_WIN3ITE;
+      case "RANDOM":
+        return BDDFactory.REORDER_RANDOM;
+      default:
+        throw new AssertionError("unexpected reordering method: " + pMethod);
+    }
+  }
+
+  /**
+   * Read a variable order (one variable index per line, from the top-most level downwards) and
+   * apply it to the factory. Variables that are not listed keep their relative order below the
+   * listed ones. As variables are created in a deterministic order by the analyses, the indices
+   * are stable between runs on the same program with the same configuration.
+   */
+  private void applyInitialVariableOrder(Path pFile) {
+    List<Integer> learnedOrder = new ArrayList<>();
+    try {
+      for (String line : Files.readAllLines(pFile, StandardCharsets.UTF_8)) {
+        line = line.trim();
+        if (!line.isEmpty()) {
+          learnedOrder.add(Integer.parseInt(line));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not read BDD variable order from file " + pFile);
+      return;
+    }
+
+    int maxVar = learnedOrder.stream().mapToInt(Integer::intValue).max().orElse(-1);
+    if (maxVar >= varcount) {
+      varcount = maxVar + 1;
+      factory.setVarNum(varcount);
+    }
+
+    boolean[] used = new boolean[varcount];
+    int[] order = new int[varcount];
+    int level = 0;
+    for (int var : learnedOrder) {
+      if (var < 0 || used[var]) {
+        logger.log(Level.WARNING, "Ignoring invalid BDD variable order from file", pFile);
+        return;
+      }
+      used[var] = true;
+      order[level++] = var;
+    }
+    for (int var = 0; var < varcount; var++) {
+      if (!used[var]) {
+        order[level++] = var;
+      }
+    }
+    factory.setVarOrder(order);
+    logger.log(Level.INFO, "Using BDD variable order from file", pFile);
+  }
+
+  /**
+   * Check whether the node table has grown enough since the last reordering to trigger a new
+   * dynamic reordering, and run it if so. The check itself is cheap, but is only done every
+   * reorderCheckInterval operations.
+   */
+  private void checkDynamicReordering() {
+    if (reorderMethod == BDDFactory.REORDER_NONE
+        || ++operationsSinceReorderCheck < reorderCheckInterval) {
+      return;
+    }
+    operationsSinceReorderCheck = 0;
+
+    int nodes = factory.getNodeNum();
+    if (nodes < reorderMinNodes || nodes < nodesAfterLastReordering * reorderGrowthFactor) {
+      return;
+    }
+
+    dynamicReorderTimer.start();
+    try {
+      factory.reorder(reorderMethod);
+    } finally {
+      dynamicReorderTimer.stop();
+    }
+    nodesAfterLastReordering = factory.getNodeNum();
+    dynamicReorderings.inc();
+    nodesBeforeReordering.setNextValue(nodes);
+    nodesAfterReordering.setNextValue(nodesAfterLastReordering);
+    logger.log(
+        Level.FINE,
+        "Dynamic BDD reordering reduced number of nodes from",
+        nodes,
+        "to",
+        nodesAfterLastReordering);
+
+    if (variableOrderFile != null) {
+      variableOrderExportPending = true;
+      long now = System.nanoTime();
+      if (!variableOrderExported
+          || now - lastVariableOrderExport >= VARIABLE_ORDER_EXPORT_INTERVAL) {
+        exportVariableOrder(variableOrderFile);
+      }
+    }
+  }
+
+  /** Return the variable at each level of the BDD, from the top-most level downwards. */
+  @VisibleForTesting
+  int[] getVariableOrder() {
+    return factory.getVarOrder();
+  }
+
+  @VisibleForTesting
+  long getNumberOfDynamicReorderings() {
+    return dynamicReorderings.getValue();
+  }
+
+  private void exportVariableOrder(Path pFile) {
+    variableOrderExportPending = false;
+    variableOrderExported = true;
+    lastVariableOrderExport = System.nanoTime();
+    StringBuilder content = new StringBuilder();
+    for (int var : factory.getVarOrder()) {
+      content.append(var).append('\n');
+    }
+    try {
+      IO.writeFile(pFile, StandardCharsets.UTF_8, content);
+    } catch (IOException e) {
+      logger.logUserException(
+          Level.WARNING, e, "Could not write BDD variable order to file " + pFile);
+    }
+  }
+
   @SuppressWarnings("unused")
   private void gcCallback(Integer pre, BDDFactory.GCStats stats) {
     if (logger.wouldBeLogged(LOG_LEVEL)) {
@@ -218,6 +443,9 @@ class JavaBDDRegionManager implements RegionManager {
 
   @Override
   public void printStatistics(PrintStream out) {
+    if (variableOrderExportPending) {
+      exportVariableOrder(variableOrderFile);
+    }
     try {
       BDDFactory.GCStats stats = factory.getGCStats();
       int currentCacheSize = readCacheSize();
@@ -228,6 +456,10 @@ class JavaBDDRegionManager implements RegionManager {
           .putIf(currentCacheSize >= 0, "Size of BDD cache", currentCacheSize)
           .put(cleanupQueueSize)
           .put(cleanupTimer)
+          .putIfUpdatedAtLeastOnce(dynamicReorderings)
+          .putIfUpdatedAtLeastOnce(dynamicReorderTimer)
+          .putIfUpdatedAtLeastOnce(nodesBeforeReordering)
+          .putIfUpdatedAtLeastOnce(nodesAfterReordering)
           .put(
               "Time for BDD garbage collection",
               TimeSpan.ofMillis(stats.sumtime).formatAs(SECONDS)
@@ -327,6 +559,7 @@ class JavaBDDRegionManager implements RegionManager {
    * Always use this method, and never the JavaBDDRegion constructor directly.
    */
   private JavaBDDRegion wrap(BDD bdd) {
+    checkDynamicReordering();
     JavaBDDRegion region = new JavaBDDRegion(bdd);
 
     PhantomReference<JavaBDDRegion> ref = new PhantomReference<>(region, referenceQueue);
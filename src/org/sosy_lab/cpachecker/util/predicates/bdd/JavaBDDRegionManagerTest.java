@@ -0,0 +1,190 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.base.Joiner;
+import com.google.common.io.ByteStreams;
+import com.google.common.primitives.Ints;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+
+public class JavaBDDRegionManagerTest {
+
+  private static final int PAIRS = 10;
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private JavaBDDRegionManager createRegionManager(String... pOptions)
+      throws IOException, InvalidConfigurationException {
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder().toString())
+                .build());
+    ConfigurationBuilder builder =
+        Configuration.builder().addConverter(FileOption.class, fileTypeConverter);
+    for (int i = 0; i < pOptions.length; i += 2) {
+      builder.setOption(pOptions[i], pOptions[i + 1]);
+    }
+    return new JavaBDDRegionManager("JAVA", builder.build(), LogManager.createTestLogManager());
+  }
+
+  /**
+   * Build (x_1 & y_1) | ... | (x_n & y_n) with all x created before all y, which needs an
+   * exponential number of nodes in the initial variable order.
+   */
+  private static Region buildPairs(JavaBDDRegionManager pRmgr, List<Region> pXs) {
+    List<Region> ys = new ArrayList<>();
+    while (pXs.size() < PAIRS) {
+      pXs.add(pRmgr.createPredicate());
+    }
+    for (int i = 0; i < PAIRS; i++) {
+      ys.add(pRmgr.createPredicate());
+    }
+    Region result = pRmgr.makeFalse();
+    for (int i = 0; i < PAIRS; i++) {
+      result = pRmgr.makeOr(result, pRmgr.makeAnd(pXs.get(i), ys.get(i)));
+    }
+    return result;
+  }
+
+  @Test
+  public void testNoDynamicReorderingByDefault() throws Exception {
+    JavaBDDRegionManager rmgr = createRegionManager();
+    int[] initialOrder = rmgr.getVariableOrder();
+    buildPairs(rmgr, new ArrayList<>());
+    assertThat(rmgr.getNumberOfDynamicReorderings()).isEqualTo(0);
+    assertThat(rmgr.getVariableOrder()).isEqualTo(initialOrder);
+  }
+
+  @Test
+  public void testDynamicReordering() throws Exception {
+    Path orderFile = tempFolder.getRoot().toPath().resolve("order.txt");
+    JavaBDDRegionManager rmgr =
+        createRegionManager(
+            "bdd.javabdd.dynamicReordering", "SIFT",
+            "bdd.javabdd.reorderMinNodes", "0",
+            "bdd.javabdd.reorderCheckInterval", "1",
+            "bdd.javabdd.reorderGrowthFactor", "1.5",
+            "bdd.javabdd.variableOrderFile", orderFile.toString());
+
+    List<Region> xs = new ArrayList<>();
+    Region pairs = buildPairs(rmgr, xs);
+    assertThat(rmgr.getNumberOfDynamicReorderings()).isGreaterThan(0);
+
+    // reordering must not change the represented functions
+    Region someX = rmgr.makeFalse();
+    Region noX = rmgr.makeTrue();
+    for (Region x : xs) {
+      someX = rmgr.makeOr(someX, x);
+      noX = rmgr.makeAnd(noX, rmgr.makeNot(x));
+    }
+    assertThat(rmgr.entails(pairs, someX)).isTrue();
+    assertThat(rmgr.makeAnd(pairs, noX)).isEqualTo(rmgr.makeFalse());
+    assertThat(rmgr.makeExists(pairs, xs.toArray(new Region[0])))
+        .isNotEqualTo(rmgr.makeTrue());
+
+    // the file is written at the first reordering and the latest order when printing statistics
+    assertThat(Files.readAllLines(orderFile, UTF_8)).isNotEmpty();
+    @SuppressWarnings("checkstyle:IllegalInstantiation") // ok for statistics
+    PrintStream statistics = new PrintStream(ByteStreams.nullOutputStream(), true, UTF_8.name());
+    rmgr.printStatistics(statistics);
+    List<String> exported = Files.readAllLines(orderFile, UTF_8);
+    List<String> expected = new ArrayList<>();
+    for (int var : rmgr.getVariableOrder()) {
+      expected.add(Integer.toString(var));
+    }
+    assertThat(exported).containsExactlyElementsIn(expected).inOrder();
+  }
+
+  @Test
+  public void testInitialVariableOrder() throws Exception {
+    Path orderFile = writeOrderFile(5, 2);
+    JavaBDDRegionManager rmgr =
+        createRegionManager("bdd.javabdd.initialVariableOrderFile", orderFile.toString());
+
+    List<Integer> order = Ints.asList(rmgr.getVariableOrder());
+    assertThat(order.subList(0, 6)).containsExactly(5, 2, 0, 1, 3, 4).inOrder();
+    assertThat(order).containsNoDuplicates();
+  }
+
+  @Test
+  public void testInitialVariableOrderWithMoreVariables() throws Exception {
+    Path orderFile = writeOrderFile(150, 0);
+    JavaBDDRegionManager rmgr =
+        createRegionManager("bdd.javabdd.initialVariableOrderFile", orderFile.toString());
+
+    List<Integer> order = Ints.asList(rmgr.getVariableOrder());
+    assertThat(order.size()).isAtLeast(151);
+    assertThat(order.subList(0, 3)).containsExactly(150, 0, 1).inOrder();
+  }
+
+  @Test
+  public void testInvalidInitialVariableOrderIsIgnored() throws Exception {
+    int[] defaultOrder = createRegionManager().getVariableOrder();
+
+    Path duplicates = writeOrderFile(3, 3);
+    assertThat(
+            createRegionManager("bdd.javabdd.initialVariableOrderFile", duplicates.toString())
+                .getVariableOrder())
+        .isEqualTo(defaultOrder);
+
+    Path garbage = tempFolder.newFile();
+    Files.write(garbage, "not a number\n".getBytes(UTF_8));
+    assertThat(
+            createRegionManager("bdd.javabdd.initialVariableOrderFile", garbage.toString())
+                .getVariableOrder())
+        .isEqualTo(defaultOrder);
+  }
+
+  @Test(expected = InvalidConfigurationException.class)
+  public void testInvalidGrowthFactor() throws Exception {
+    createRegionManager("bdd.javabdd.reorderGrowthFactor", "1.0");
+  }
+
+  private Path writeOrderFile(int... pVariables) throws IOException {
+    Path file = tempFolder.newFile().toPath();
+    Files.write(
+        file,
+        (Joiner.on('\n').join(Ints.asList(pVariables)) + "\n").getBytes(UTF_8));
+    return file;
+  }
+}
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.util.predicates.bdd;
 import static com.google.common.base.Preconditions.checkState;
 import static org.sosy_lab.cpachecker.util.predicates.bdd.PJBDDRegion.unwrap;
 import static org.sosy_lab.cpachecker.util.predicates.bdd.PJBDDRegion.wrap;
+import static org.sosy_lab.cpachecker.util.statistics.StatisticsWriter.writingStatisticsTo;
 
 import com.google.common.primitives.ImmutableIntArray;
 import java.io.PrintStream;
@@ -58,15 +59,32 @@ import org.sosy_lab.pjbdd.CreatorBuilder;
 import org.sosy_lab.pjbdd.creators.Creator;
 import org.sosy_lab.pjbdd.node.BDD;
 
+/**
+ * RegionManager based on PJBDD. All operations of PJBDD work on a concurrent unique table and
+ * operation cache, so an instance of this class can be used by several threads at once without
+ * wrapping it into a {@link
+ * org.sosy_lab.cpachecker.util.predicates.regions.SynchronizedRegionManager}.
+ */
 public class PJBDDRegionManager implements RegionManager {
 
   private final Region trueFormula;
   private final Region falseFormula;
-  private Creator bddCreator;
+  private final Creator bddCreator;
+  private final String creatorName;
+  private final boolean concurrentAccess;
 
-  public PJBDDRegionManager(Configuration pConfig) throws InvalidConfigurationException {
+  /**
+   * Create a new region manager.
+   *
+   * @param pConcurrentAccess whether the manager is shared by concurrent callers. In this case the
+   *     creator is chosen by option bdd.pjbdd.concurrentCreator instead of bdd.pjbdd.creator.
+   */
+  public PJBDDRegionManager(Configuration pConfig, boolean pConcurrentAccess)
+      throws InvalidConfigurationException {
     BuildFromConfig buildFromConfig = new BuildFromConfig(pConfig);
-    bddCreator = buildFromConfig.makeCreator();
+    concurrentAccess = pConcurrentAccess;
+    creatorName = concurrentAccess ? buildFromConfig.concurrentCreator : buildFromConfig.creator;
+    bddCreator = buildFromConfig.makeCreator(creatorName);
     trueFormula = wrap(bddCreator.makeTrue());
     falseFormula = wrap(bddCreator.makeFalse());
   }
@@ -101,8 +119,9 @@ public class PJBDDRegionManager implements RegionManager {
 
   @Override
   public void printStatistics(PrintStream out) {
-    out.println("Stats to be printed");
-    // TODO    out.print(bddCreator.getCreatorStats().prettyPrint());
+    writingStatisticsTo(out)
+        .put("PJBDD creator", creatorName)
+        .put("Shared by concurrent callers", concurrentAccess);
   }
 
   @Override
@@ -194,8 +213,9 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public void close() {
+      // The creator is shared with all other users of this region manager
+      // (possibly in other threads), so only the local cache is cleared here.
       cache.clear();
-      PJBDDRegionManager.this.bddCreator.shutDown();
     }
 
     @Override
@@ -215,7 +235,7 @@ public class PJBDDRegionManager implements RegionManager {
 
     @Override
     public BDD visitAnd(List<BooleanFormula> pList) {
-      if (pList.isEmpty()) return bddCreator.makeFalse();
+      if (pList.isEmpty()) return bddCreator.makeTrue();
 
       BDD result = bddCreator.makeTrue();
       for (BooleanFormula bFormula : pList) {
@@ -341,7 +361,7 @@ public class PJBDDRegionManager implements RegionManager {
 
         BDD[] clauses = cubes.stream().filter(bdd -> bdd != null).toArray(BDD[]::new);
 
-        BDD result = bddCreator.makeTrue();
+        BDD result = bddCreator.makeFalse();
 
         for (BDD bdd : clauses) result = bddCreator.makeOr(result, bdd);
 
@@ -401,6 +421,17 @@ public class PJBDDRegionManager implements RegionManager {
         toUppercase = true)
     private String creator = "FORK-JOIN";
 
+    @Option(
+        secure = true,
+        description =
+            "Which parallel bdd creator should be used if the region manager is shared by "
+                + "concurrent callers (bdd.concurrentAccess)? The callers already provide the "
+                + "parallelism, so by default the serial algorithms are used on the concurrent "
+                + "unique table and cache instead of spawning further worker tasks per operation.",
+        values = {"COMP-FUT", "FORK-JOIN", "SERIAL", "SERIAL-INT"},
+        toUppercase = true)
+    private String concurrentCreator = "SERIAL";
+
     @Option(
         secure = true,
         description =
@@ -419,10 +450,10 @@ public class PJBDDRegionManager implements RegionManager {
       builder = CreatorBuilder.newBuilder();
     }
 
-    private Creator makeCreator() {
+    private Creator makeCreator(String pCreator) {
       resolveProperties(builder);
       resolveTable(builder);
-      switch (creator) {
+      switch (pCreator) {
         case "SERIAL-INT":
           return builder.makeSerialIntCreator();
         case "SERIAL":
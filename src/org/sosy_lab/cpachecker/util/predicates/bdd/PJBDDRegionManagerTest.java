@@ -0,0 +1,173 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.util.predicates.regions.Region;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionCreator.RegionBuilder;
+import org.sosy_lab.cpachecker.util.predicates.regions.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.smt.SolverViewBasedTest0;
+import org.sosy_lab.java_smt.api.BooleanFormula;
+
+public class PJBDDRegionManagerTest extends SolverViewBasedTest0 {
+
+  private static final int THREADS = 8;
+
+  private static RegionManager createRegionManager(boolean pConcurrentAccess)
+      throws InvalidConfigurationException {
+    Configuration bddConfig =
+        Configuration.builder()
+            .setOption("bdd.package", "PJBDD")
+            .setOption("bdd.concurrentAccess", Boolean.toString(pConcurrentAccess))
+            .build();
+    return new BDDManagerFactory(bddConfig, LogManager.createTestLogManager())
+        .createRegionManager();
+  }
+
+  @Test
+  public void testConcurrentAccessUsesPJBDD() throws InvalidConfigurationException {
+    Configuration bddConfig =
+        Configuration.builder()
+            .setOption("bdd.package", "JAVA")
+            .setOption("bdd.concurrentAccess", "true")
+            .setOption("bdd.synchronizeLibraryAccess", "true")
+            .build();
+    RegionManager rmgr =
+        new BDDManagerFactory(bddConfig, LogManager.createTestLogManager()).createRegionManager();
+    assertThat(rmgr).isInstanceOf(PJBDDRegionManager.class);
+  }
+
+  @Test
+  public void testRegionBuilder() throws Exception {
+    RegionManager rmgr = createRegionManager(true);
+    Region a = rmgr.createPredicate();
+    Region b = rmgr.createPredicate();
+
+    try (RegionBuilder builder = rmgr.builder(ShutdownNotifier.createDummy())) {
+      assertThat(builder.getResult()).isEqualTo(rmgr.makeFalse());
+    }
+
+    try (RegionBuilder builder = rmgr.builder(ShutdownNotifier.createDummy())) {
+      builder.startNewConjunction();
+      builder.addPositiveRegion(a);
+      builder.addNegativeRegion(b);
+      builder.finishConjunction();
+      assertThat(builder.getResult()).isEqualTo(rmgr.makeAnd(a, rmgr.makeNot(b)));
+    }
+
+    try (RegionBuilder builder = rmgr.builder(ShutdownNotifier.createDummy())) {
+      builder.startNewConjunction();
+      builder.addPositiveRegion(a);
+      builder.addNegativeRegion(b);
+      builder.finishConjunction();
+      builder.startNewConjunction();
+      builder.addNegativeRegion(a);
+      builder.addPositiveRegion(b);
+      builder.finishConjunction();
+      assertThat(builder.getResult()).isEqualTo(rmgr.makeUnequal(a, b));
+    }
+  }
+
+  @Test
+  public void testFromFormulaRepeatedly() throws InvalidConfigurationException {
+    RegionManager rmgr = createRegionManager(true);
+    BooleanFormula x = bmgrv.makeVariable("x");
+    BooleanFormula y = bmgrv.makeVariable("y");
+    Region rx = rmgr.createPredicate();
+    Region ry = rmgr.createPredicate();
+    Map<BooleanFormula, Region> atoms = ImmutableMap.of(x, rx, y, ry);
+
+    BooleanFormula f = bmgrv.or(bmgrv.and(x, y), bmgrv.not(x));
+    Region expected = rmgr.makeOr(rmgr.makeAnd(rx, ry), rmgr.makeNot(rx));
+
+    // the creator must still be usable after a conversion
+    for (int i = 0; i < 3; i++) {
+      assertThat(rmgr.fromFormula(f, mgrv, atoms::get)).isEqualTo(expected);
+    }
+    assertThat(rmgr.fromFormula(bmgrv.and(x, y), mgrv, atoms::get))
+        .isEqualTo(rmgr.makeAnd(rx, ry));
+  }
+
+  @Test
+  public void testConcurrentOperations() throws Exception {
+    RegionManager rmgr = createRegionManager(true);
+    List<Region> predicates = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      predicates.add(rmgr.createPredicate());
+    }
+
+    Region expectedParity = rmgr.makeFalse();
+    for (Region p : predicates) {
+      expectedParity = rmgr.makeUnequal(expectedParity, p);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      List<Future<Region>> parities = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        final int offset = t;
+        parities.add(
+            executor.submit(
+                () -> {
+                  // every thread combines the predicates in a different order
+                  Region parity = rmgr.makeFalse();
+                  for (int i = 0; i < predicates.size(); i++) {
+                    Region p = predicates.get((i + offset) % predicates.size());
+                    parity = rmgr.makeUnequal(parity, p);
+                    Region q = predicates.get((i + offset + 1) % predicates.size());
+                    assertThat(rmgr.makeOr(rmgr.makeAnd(p, q), rmgr.makeAnd(p, rmgr.makeNot(q))))
+                        .isEqualTo(p);
+                  }
+                  return parity;
+                }));
+      }
+      for (Future<Region> parity : parities) {
+        assertThat(parity.get()).isEqualTo(expectedParity);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testSerialManagerStillWorks() throws InvalidConfigurationException {
+    RegionManager rmgr = createRegionManager(false);
+    Region a = rmgr.createPredicate();
+    Region b = rmgr.createPredicate();
+    assertThat(rmgr.makeExists(rmgr.makeAnd(a, b), b)).isEqualTo(a);
+  }
+}
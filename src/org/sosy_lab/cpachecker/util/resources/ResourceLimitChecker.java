@@ -177,6 +177,23 @@ public final class ResourceLimitChecker {
     return new ResourceLimitChecker(shutdownManager, ImmutableList.of());
   }
 
+  /**
+   * Create an instance of this class with a limit for the CPU time of the given thread. This is
+   * useful if several analyses run in parallel and each of them should get its own CPU time. The
+   * returned instance is not started yet.
+   */
+  public static ResourceLimitChecker createThreadCpuTimeLimitChecker(
+      LogManager logger, ShutdownManager shutdownManager, TimeSpan cpuTime, Thread thread) {
+
+    if (cpuTime.compareTo(TimeSpan.empty()) <= 0) {
+      return new ResourceLimitChecker(shutdownManager, ImmutableList.of());
+    }
+
+    ResourceLimit cpuTimeLimitChecker = ThreadCpuTimeLimit.fromNowOn(cpuTime, thread);
+    logger.log(Level.INFO, "Using " + cpuTimeLimitChecker.getName());
+    return new ResourceLimitChecker(shutdownManager, ImmutableList.of(cpuTimeLimitChecker));
+  }
+
   @Options(prefix="limits")
   private static class ResourceLimitOptions {
 
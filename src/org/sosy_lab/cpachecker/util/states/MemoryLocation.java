@@ -43,11 +43,18 @@ import org.sosy_lab.common.collect.PersistentMap;
 */
 public class MemoryLocation implements Comparable<MemoryLocation>, Serializable {
 
-  private static final long serialVersionUID = -8910967707373729034L;
+  private static final long serialVersionUID = -8910967707373729036L;
   private final String functionName;
   private final String identifier;
   private final @Nullable Long offset;
 
+  /**
+   * Memory locations are used as keys in the (persistent) maps of many abstract states, and the
+   * hash code is needed for every update of the incrementally maintained state hash codes, so we
+   * compute it only once.
+   */
+  private final int hashCode;
+
   private MemoryLocation(String pFunctionName, String pIdentifier, @Nullable Long pOffset) {
     checkNotNull(pFunctionName);
     checkNotNull(pIdentifier);
@@ -55,6 +62,7 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     functionName = pFunctionName;
     identifier = pIdentifier;
     offset = pOffset;
+    hashCode = Objects.hash(functionName, identifier, offset);
   }
 
   protected MemoryLocation(String pIdentifier, @Nullable Long pOffset) {
@@ -69,6 +77,7 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
       identifier = pIdentifier;
     }
     offset = pOffset;
+    hashCode = Objects.hash(functionName, identifier, offset);
   }
 
   @Override
@@ -84,14 +93,15 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
     MemoryLocation otherLocation = (MemoryLocation) other;
 
-    return Objects.equals(functionName, otherLocation.functionName)
+    return hashCode == otherLocation.hashCode
+        && Objects.equals(functionName, otherLocation.functionName)
         && Objects.equals(identifier, otherLocation.identifier)
         && Objects.equals(offset, otherLocation.offset);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(functionName, identifier, offset);
+    return hashCode;
   }
 
   public static MemoryLocation valueOf(String pFunctionName, String pIdentifier) {
@@ -208,6 +218,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
     return ComparisonChain.start()
         .compare(functionName, other.functionName, Ordering.natural().nullsFirst())
         .compare(identifier, other.identifier)
@@ -0,0 +1,94 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Ordering;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.List;
+import java.util.OptionalLong;
+import org.junit.Test;
+
+public class MemoryLocationTest {
+
+  private static final List<MemoryLocation> LOCATIONS =
+      ImmutableList.of(
+          MemoryLocation.valueOf("a"),
+          MemoryLocation.valueOf("a", 0),
+          MemoryLocation.valueOf("a", 4),
+          MemoryLocation.valueOf("b"),
+          MemoryLocation.valueOf("f", "a"),
+          MemoryLocation.valueOf("f", "a", 0),
+          MemoryLocation.valueOf("f", "a", 8),
+          MemoryLocation.valueOf("g", "a"));
+
+  @Test
+  public void testEqualsAndHashCode() {
+    for (MemoryLocation location : LOCATIONS) {
+      MemoryLocation parsed = MemoryLocation.valueOf(location.getAsSimpleString());
+      assertThat(parsed).isEqualTo(location);
+      assertThat(parsed.hashCode()).isEqualTo(location.hashCode());
+      assertThat(parsed.compareTo(location)).isEqualTo(0);
+    }
+    assertThat(MemoryLocation.valueOf("a", OptionalLong.of(4)))
+        .isEqualTo(MemoryLocation.valueOf("a", 4));
+    assertThat(MemoryLocation.valueOf("a", OptionalLong.empty()))
+        .isEqualTo(MemoryLocation.valueOf("a"));
+  }
+
+  @Test
+  public void testDistinctLocations() {
+    for (MemoryLocation first : LOCATIONS) {
+      for (MemoryLocation second : LOCATIONS) {
+        if (first != second) {
+          assertThat(first).isNotEqualTo(second);
+          assertThat(first.compareTo(second)).isNotEqualTo(0);
+          assertThat(Integer.signum(first.compareTo(second)))
+              .isEqualTo(-Integer.signum(second.compareTo(first)));
+        }
+      }
+    }
+    assertThat(Ordering.natural().isStrictlyOrdered(LOCATIONS)).isTrue();
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(LOCATIONS);
+    }
+    Object read;
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      read = in.readObject();
+    }
+    assertThat(read).isEqualTo(LOCATIONS);
+    assertThat(read.hashCode()).isEqualTo(LOCATIONS.hashCode());
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * A timer for hot code paths, e.g., for single operations of a CPA that are executed millions of
+ * times. In contrast to {@link org.sosy_lab.common.time.Timer} and {@link
+ * ThreadSafeTimerContainer}, starting and stopping this timer does not allocate objects once the
+ * current thread has used it for the first time.
+ *
+ * <p>Each thread accumulates its intervals in its own stripe of primitive fields, the stripes are
+ * only summed up when the values of the timer are queried. Querying the values while other threads
+ * are still using the timer can give slightly outdated values.
+ *
+ * <p>With a sampling rate of n &gt; 1, only every n-th interval is measured with {@link
+ * System#nanoTime()}, which avoids most of the calls to the system clock. The sum of all intervals
+ * is then extrapolated from the measured intervals, and the maximum is the maximum of the measured
+ * intervals. With a sampling rate of 1, all values are exact.
+ *
+ * <p>In contrast to {@link org.sosy_lab.common.time.Timer}, a currently running interval is counted
+ * only in the number of intervals, but not in the time values.
+ */
+public class LowOverheadTimer extends AbstractStatValue {
+
+  private static final TimeUnit UNIT = TimeUnit.NANOSECONDS;
+
+  private final int samplingRate;
+
+  private final List<Stripe> stripes = new CopyOnWriteArrayList<>();
+
+  private final ThreadLocal<Stripe> stripeOfThread = ThreadLocal.withInitial(this::newStripe);
+
+  /**
+   * The stripe that was used last. Usually only one thread uses the timer, so this avoids the
+   * lookup of the thread-local stripe. A stale value is harmless because the owner is checked.
+   */
+  private Stripe lastStripe = null;
+
+  public LowOverheadTimer(String pTitle) {
+    this(pTitle, 1);
+  }
+
+  /**
+   * @param pTitle the title of the timer in the statistics output
+   * @param pSamplingRate only every n-th interval of a thread is measured
+   */
+  public LowOverheadTimer(String pTitle, int pSamplingRate) {
+    super(StatKind.SUM, pTitle);
+    checkArgument(pSamplingRate >= 1, "sampling rate has to be positive");
+    samplingRate = pSamplingRate;
+  }
+
+  private Stripe newStripe() {
+    Stripe stripe = new Stripe(Thread.currentThread());
+    stripes.add(stripe);
+    return stripe;
+  }
+
+  private Stripe currentStripe() {
+    Stripe stripe = lastStripe;
+    if (stripe == null || stripe.owner != Thread.currentThread()) {
+      stripe = stripeOfThread.get();
+      lastStripe = stripe;
+    }
+    return stripe;
+  }
+
+  public void start() {
+    Stripe stripe = currentStripe();
+    checkState(!stripe.running, "Timer already running");
+    stripe.running = true;
+    stripe.intervals++;
+    if (--stripe.untilNextSample <= 0) {
+      stripe.untilNextSample = samplingRate;
+      stripe.measuring = true;
+      stripe.startTime = System.nanoTime();
+    } else {
+      stripe.measuring = false;
+    }
+  }
+
+  public void stop() {
+    Stripe stripe = currentStripe();
+    checkState(stripe.running, "Timer not running");
+    stop0(stripe);
+  }
+
+  public void stopIfRunning() {
+    Stripe stripe = currentStripe();
+    if (stripe.running) {
+      stop0(stripe);
+    }
+  }
+
+  private static void stop0(Stripe stripe) {
+    if (stripe.measuring) {
+      long time = System.nanoTime() - stripe.startTime;
+      stripe.measuredTime += time;
+      stripe.maxTime = Math.max(stripe.maxTime, time);
+      stripe.measuredIntervals++;
+    }
+    stripe.running = false;
+  }
+
+  /** Return whether the timer is running in the current thread. */
+  public boolean isRunning() {
+    return currentStripe().running;
+  }
+
+  public int getSamplingRate() {
+    return samplingRate;
+  }
+
+  @Override
+  public int getUpdateCount() {
+    return getNumberOfIntervals();
+  }
+
+  /**
+   * Return the number of intervals of all threads, including currently running intervals, no
+   * matter whether they were measured or not.
+   */
+  public int getNumberOfIntervals() {
+    long intervals = 0;
+    for (Stripe stripe : stripes) {
+      intervals += stripe.intervals;
+    }
+    return (int) intervals;
+  }
+
+  /** Return the number of intervals that were actually measured. */
+  public int getNumberOfMeasuredIntervals() {
+    long intervals = 0;
+    for (Stripe stripe : stripes) {
+      intervals += stripe.measuredIntervals;
+    }
+    return (int) intervals;
+  }
+
+  /**
+   * Return the sum of all finished intervals. If not all intervals were measured, this is an
+   * extrapolation from the measured intervals of each thread.
+   */
+  public TimeSpan getSumTime() {
+    return TimeSpan.of(sumTime(), UNIT);
+  }
+
+  private long sumTime() {
+    long sum = 0;
+    for (Stripe stripe : stripes) {
+      sum += stripe.estimatedTime();
+    }
+    return sum;
+  }
+
+  /** Return the maximal time of all measured intervals. */
+  public TimeSpan getMaxTime() {
+    long max = 0;
+    for (Stripe stripe : stripes) {
+      max = Math.max(max, stripe.maxTime);
+    }
+    return TimeSpan.of(max, UNIT);
+  }
+
+  /** Return the average time of all finished intervals. */
+  public TimeSpan getAvgTime() {
+    long finishedIntervals = 0;
+    for (Stripe stripe : stripes) {
+      finishedIntervals += stripe.finishedIntervals();
+    }
+    if (finishedIntervals == 0) {
+      // prevent divide by zero
+      return TimeSpan.empty();
+    }
+    return TimeSpan.of(sumTime() / finishedIntervals, UNIT);
+  }
+
+  @Override
+  public String toString() {
+    return getSumTime().formatAs(TimeUnit.SECONDS);
+  }
+
+  /** Syntax sugar method: pretty-format the timer output into a string in seconds. */
+  public String prettyFormat() {
+    TimeUnit t = TimeUnit.SECONDS;
+    String result =
+        String.format(
+            "%s (Max: %s), (Avg: %s), (#intervals = %s)",
+            getSumTime().formatAs(t),
+            getMaxTime().formatAs(t),
+            getAvgTime().formatAs(t),
+            getNumberOfIntervals());
+    if (samplingRate > 1) {
+      result += String.format(" (#measured intervals = %s)", getNumberOfMeasuredIntervals());
+    }
+    return result;
+  }
+
+  /** The values of one thread. Only the owner writes to the fields. */
+  private static final class Stripe {
+
+    private final Thread owner;
+
+    private boolean running = false;
+    private boolean measuring = false;
+    private long startTime = 0;
+    private int untilNextSample = 0;
+
+    private long intervals = 0;
+    private long measuredIntervals = 0;
+    private long measuredTime = 0;
+    private long maxTime = 0;
+
+    private Stripe(Thread pOwner) {
+      owner = pOwner;
+    }
+
+    private long finishedIntervals() {
+      return running ? intervals - 1 : intervals;
+    }
+
+    private long estimatedTime() {
+      long finished = finishedIntervals();
+      if (measuredIntervals == 0 || measuredIntervals == finished) {
+        return measuredTime;
+      }
+      return (long) ((double) measuredTime / measuredIntervals * finished);
+    }
+  }
+}
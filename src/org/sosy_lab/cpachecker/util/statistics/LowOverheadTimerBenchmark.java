@@ -0,0 +1,92 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import java.util.concurrent.TimeUnit;
+import org.sosy_lab.common.time.Timer;
+import org.sosy_lab.cpachecker.util.statistics.ThreadSafeTimerContainer.TimerWrapper;
+
+/**
+ * Loop micro-benchmark that compares the overhead of starting and stopping a {@link
+ * LowOverheadTimer} with {@link Timer} and {@link ThreadSafeTimerContainer}. Each timer measures
+ * an empty interval many times, the result is the average time per start/stop pair including the
+ * loop. This is not part of the test suite, run the main method manually.
+ */
+final class LowOverheadTimerBenchmark {
+
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int ROUNDS = 10;
+  private static final int ITERATIONS = 1_000_000;
+
+  private LowOverheadTimerBenchmark() {}
+
+  public static void main(String[] args) {
+    int sum = 0;
+    for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+      boolean print = round >= WARMUP_ROUNDS;
+
+      Timer timer = new Timer();
+      long time = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        timer.start();
+        timer.stop();
+      }
+      report(print, "Timer", time);
+      sum += timer.getNumberOfIntervals();
+
+      TimerWrapper wrapper = new ThreadSafeTimerContainer("").getNewTimer();
+      time = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        wrapper.start();
+        wrapper.stop();
+      }
+      report(print, "ThreadSafeTimerContainer", time);
+
+      for (int samplingRate : new int[] {1, 16}) {
+        LowOverheadTimer lowOverheadTimer = new LowOverheadTimer("", samplingRate);
+        time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+          lowOverheadTimer.start();
+          lowOverheadTimer.stop();
+        }
+        report(print, "LowOverheadTimer (sampling rate " + samplingRate + ")", time);
+        sum += lowOverheadTimer.getNumberOfIntervals();
+      }
+      if (print) {
+        System.out.println();
+      }
+    }
+    // use the results such that the loops are not optimized away
+    System.out.println("Total number of intervals: " + sum);
+  }
+
+  private static void report(boolean print, String name, long startTime) {
+    if (print) {
+      long nanos = System.nanoTime() - startTime;
+      System.out.printf(
+          "%-40s %6.1f ns per interval (%d ms)%n",
+          name, (double) nanos / ITERATIONS, TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+  }
+}
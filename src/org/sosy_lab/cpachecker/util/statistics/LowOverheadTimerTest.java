@@ -0,0 +1,179 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.Range;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.sosy_lab.common.time.TimeSpan;
+
+public class LowOverheadTimerTest {
+
+  private static final long SLEEP_MILLIS = 2;
+
+  private static void measureSleep(LowOverheadTimer timer) throws InterruptedException {
+    timer.start();
+    TimeUnit.MILLISECONDS.sleep(SLEEP_MILLIS);
+    timer.stop();
+  }
+
+  private static TimeSpan sleepTime(int intervals) {
+    return TimeSpan.ofMillis(intervals * SLEEP_MILLIS);
+  }
+
+  @Test
+  public void testExactAtSamplingRateOne() throws InterruptedException {
+    LowOverheadTimer timer = new LowOverheadTimer("");
+    for (int i = 0; i < 5; i++) {
+      measureSleep(timer);
+      assertThat(timer.getNumberOfIntervals()).isEqualTo(i + 1);
+      assertThat(timer.getNumberOfMeasuredIntervals()).isEqualTo(i + 1);
+    }
+
+    TimeSpan sum = timer.getSumTime();
+    assertThat(sum).isAtLeast(sleepTime(5));
+    assertThat(timer.getMaxTime()).isAtLeast(sleepTime(1));
+    assertThat(timer.getMaxTime()).isAtMost(sum);
+    // the average is the sum divided by the number of intervals, rounded down to nanoseconds
+    assertThat(sum.asNanos() - 5 * timer.getAvgTime().asNanos()).isIn(Range.closedOpen(0L, 5L));
+  }
+
+  @Test
+  public void testExtrapolationAtHigherSamplingRate() throws InterruptedException {
+    LowOverheadTimer timer = new LowOverheadTimer("", 4);
+    assertThat(timer.getSamplingRate()).isEqualTo(4);
+
+    for (int i = 0; i < 8; i++) {
+      measureSleep(timer);
+    }
+
+    // the first and the fifth interval are measured
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(8);
+    assertThat(timer.getNumberOfMeasuredIntervals()).isEqualTo(2);
+    // each measured interval takes at least the sleep time,
+    // and the sum is extrapolated to all 8 intervals
+    assertThat(timer.getSumTime()).isAtLeast(sleepTime(8));
+    assertThat(timer.getAvgTime()).isAtLeast(sleepTime(1));
+    assertThat(timer.getMaxTime()).isAtLeast(sleepTime(1));
+    assertThat(timer.prettyFormat()).contains("#measured intervals = 2");
+  }
+
+  @Test
+  public void testUnmeasuredIntervalsOnlyCounted() {
+    LowOverheadTimer timer = new LowOverheadTimer("", 1000);
+    for (int i = 0; i < 10; i++) {
+      timer.start();
+      timer.stop();
+    }
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(10);
+    assertThat(timer.getNumberOfMeasuredIntervals()).isEqualTo(1);
+  }
+
+  @Test
+  public void testStopIfRunning() throws InterruptedException {
+    LowOverheadTimer timer = new LowOverheadTimer("");
+    timer.stopIfRunning();
+    assertThat(timer.isRunning()).isFalse();
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(0);
+
+    timer.start();
+    assertThat(timer.isRunning()).isTrue();
+    TimeUnit.MILLISECONDS.sleep(SLEEP_MILLIS);
+    // a running interval is counted, but has no time yet
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(1);
+    assertThat(timer.getSumTime().asNanos()).isEqualTo(0);
+
+    timer.stopIfRunning();
+    assertThat(timer.isRunning()).isFalse();
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(1);
+    assertThat(timer.getSumTime()).isAtLeast(sleepTime(1));
+
+    TimeSpan sum = timer.getSumTime();
+    timer.stopIfRunning();
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(1);
+    assertThat(timer.getSumTime()).isEqualTo(sum);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStopWithoutStart() {
+    new LowOverheadTimer("").stop();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testStartTwice() {
+    LowOverheadTimer timer = new LowOverheadTimer("");
+    timer.start();
+    timer.start();
+  }
+
+  @Test
+  public void testSeveralThreads() throws InterruptedException {
+    final int threads = 4;
+    final int intervalsPerThread = 9;
+    LowOverheadTimer timer = new LowOverheadTimer("", 3);
+
+    // the timer is running in this thread while the other threads use it
+    timer.start();
+    AtomicInteger runningInOtherThread = new AtomicInteger(0);
+    AtomicInteger failedThreads = new AtomicInteger(0);
+
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      Thread worker =
+          new Thread(
+              () -> {
+                if (timer.isRunning()) {
+                  runningInOtherThread.incrementAndGet();
+                }
+                try {
+                  for (int i = 0; i < intervalsPerThread; i++) {
+                    measureSleep(timer);
+                  }
+                } catch (InterruptedException | RuntimeException e) {
+                  failedThreads.incrementAndGet();
+                }
+              });
+      workers.add(worker);
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    assertThat(runningInOtherThread.get()).isEqualTo(0);
+    assertThat(failedThreads.get()).isEqualTo(0);
+    assertThat(timer.isRunning()).isTrue();
+    timer.stop();
+
+    // every thread measures every third of its own intervals
+    assertThat(timer.getNumberOfIntervals()).isEqualTo(threads * intervalsPerThread + 1);
+    assertThat(timer.getNumberOfMeasuredIntervals()).isEqualTo(threads * 3 + 1);
+    assertThat(timer.getSumTime()).isAtLeast(sleepTime(threads * intervalsPerThread));
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.common.io.MoreFiles;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Concurrency;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.configuration.TimeSpanOption;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+
+/**
+ * Periodically writes a {@link MetricsSnapshot} of the running analysis to a file, such that the
+ * progress of long-running analyses can be monitored before the final statistics are printed.
+ *
+ * <p>The snapshots are taken in a separate daemon thread, which calls {@link
+ * Statistics#collectMetrics(MetricsSnapshot)} of the given statistics. Call {@link #start()} to
+ * start exporting and {@link #stop()} to write the last snapshot and stop.
+ */
+@Options(prefix = "statistics.metrics")
+public class MetricsExporter implements Runnable {
+
+  public enum MetricsFormat {
+    /** Append one JSON object per snapshot to the file. */
+    JSON_LINES(".jsonl"),
+
+    /**
+     * Replace the file with the latest snapshot in the text format of Prometheus, e.g., for the
+     * textfile collector of the node exporter.
+     */
+    PROMETHEUS(".prom"),
+    ;
+
+    private final String fileExtension;
+
+    private MetricsFormat(String pFileExtension) {
+      fileExtension = pFileExtension;
+    }
+  }
+
+  private static final String PROMETHEUS_PREFIX = "cpachecker_";
+
+  @Option(
+    secure = true,
+    name = "export",
+    description =
+        "periodically export metrics of the running analysis (e.g., size of reached set,"
+            + " solver time, memory usage) to a file"
+  )
+  private boolean exportMetrics = false;
+
+  @Option(
+    secure = true,
+    name = "file",
+    description =
+        "file for exporting the metrics. If the file name has no extension, the extension"
+            + " of the format is appended (.jsonl or .prom)."
+  )
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private @Nullable Path metricsFile = Paths.get("metrics");
+
+  @Option(secure = true, name = "format", description = "format of the exported metrics")
+  private MetricsFormat format = MetricsFormat.JSON_LINES;
+
+  @Option(
+    secure = true,
+    name = "interval",
+    description = "time between two snapshots of the metrics (use seconds or specify a unit)"
+  )
+  @TimeSpanOption(codeUnit = TimeUnit.MILLISECONDS, defaultUserUnit = TimeUnit.SECONDS, min = 1)
+  private TimeSpan interval = TimeSpan.ofSeconds(10);
+
+  private final LogManager logger;
+  private final Statistics source;
+  private final long startTime = System.nanoTime();
+
+  private @Nullable Thread thread = null;
+
+  private boolean fileWritten = false;
+
+  public MetricsExporter(Configuration pConfig, LogManager pLogger, Statistics pSource)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+    source = pSource;
+
+    if (metricsFile != null && !metricsFile.getFileName().toString().contains(".")) {
+      metricsFile = metricsFile.resolveSibling(metricsFile.getFileName() + format.fileExtension);
+    }
+  }
+
+  /** Returns the file the metrics are written to, or null if the output is disabled. */
+  @Nullable Path getMetricsFile() {
+    return metricsFile;
+  }
+
+  /** Start exporting metrics if this is enabled. May be called only once. */
+  public void start() {
+    if (exportMetrics && metricsFile != null) {
+      thread = Concurrency.newDaemonThread("CPAchecker metrics exporter", this);
+      thread.start();
+    }
+  }
+
+  /** Stop exporting metrics after writing a last snapshot. */
+  public void stop() {
+    if (thread != null) {
+      thread.interrupt();
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      thread = null;
+    }
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (true) { // no stop condition, call stop() to stop it
+        TimeUnit.MILLISECONDS.sleep(interval.asMillis());
+        export();
+      }
+    } catch (InterruptedException e) {
+      // stop was requested, write the final values
+      export();
+    }
+  }
+
+  private void export() {
+    MetricsSnapshot snapshot = new MetricsSnapshot(System.currentTimeMillis());
+    snapshot.put("uptime_seconds", TimeSpan.ofNanos(System.nanoTime() - startTime));
+    try {
+      source.collectMetrics(snapshot);
+    } catch (RuntimeException e) {
+      // The values are read while the analysis modifies them.
+      // This is just about monitoring, so we skip this snapshot.
+      logger.logDebugException(e, "Could not take snapshot of metrics");
+      return;
+    }
+
+    try {
+      MoreFiles.createParentDirectories(metricsFile);
+      switch (format) {
+        case JSON_LINES:
+          writeJsonLine(snapshot);
+          break;
+        case PROMETHEUS:
+          writePrometheus(snapshot);
+          break;
+        default:
+          throw new AssertionError("unknown format " + format);
+      }
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write metrics");
+    }
+  }
+
+  private void writeJsonLine(MetricsSnapshot snapshot) throws IOException {
+    // overwrite the file of previous runs with the first snapshot
+    StandardOpenOption mode =
+        fileWritten ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+    try (Writer out =
+        Files.newBufferedWriter(
+            metricsFile, UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+      snapshot.writeJsonLine(out);
+      out.write('\n');
+    }
+    fileWritten = true;
+  }
+
+  /** Write to a temporary file first such that readers never see partially written files. */
+  private void writePrometheus(MetricsSnapshot snapshot) throws IOException {
+    Path tmpFile =
+        Files.createTempFile(metricsFile.getParent(), metricsFile.getFileName().toString(), ".tmp");
+    try {
+      try (Writer out = Files.newBufferedWriter(tmpFile, UTF_8)) {
+        snapshot.writePrometheus(out, PROMETHEUS_PREFIX);
+      }
+      Files.move(
+          tmpFile,
+          metricsFile,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tmpFile);
+    }
+  }
+}
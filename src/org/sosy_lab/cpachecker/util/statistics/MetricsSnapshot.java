@@ -0,0 +1,123 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.sosy_lab.common.time.TimeSpan;
+
+/**
+ * A set of named numeric values that describe the current state of an analysis. Snapshots are
+ * taken periodically by {@link MetricsExporter} while the analysis is running, each component adds
+ * its values in {@link org.sosy_lab.cpachecker.core.interfaces.Statistics#collectMetrics}.
+ *
+ * <p>Names have to be valid Prometheus metric names (letters, digits, underscores and colons, not
+ * starting with a digit) and should contain the unit, e.g., {@code cpa_algorithm_transfer_seconds}.
+ * Times are always exported in seconds.
+ */
+public final class MetricsSnapshot {
+
+  private static final Pattern VALID_NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+  private final long timestamp;
+  private final String prefix;
+  private final Map<String, Number> values;
+
+  /** @param pTimestamp the time of this snapshot in milliseconds since the epoch */
+  MetricsSnapshot(long pTimestamp) {
+    this(pTimestamp, "", new LinkedHashMap<>());
+  }
+
+  private MetricsSnapshot(long pTimestamp, String pPrefix, Map<String, Number> pValues) {
+    timestamp = pTimestamp;
+    prefix = pPrefix;
+    values = pValues;
+  }
+
+  /**
+   * Return a view of this snapshot that adds the given prefix to the names of all values put into
+   * it. This can be used by components that run several sub-analyses, such that the metrics of the
+   * sub-analyses do not overwrite each other.
+   */
+  public MetricsSnapshot withPrefix(String pPrefix) {
+    checkArgument(VALID_NAME.matcher(pPrefix).matches(), "Invalid metric prefix %s", pPrefix);
+    return new MetricsSnapshot(timestamp, prefix + pPrefix, values);
+  }
+
+  public MetricsSnapshot put(String pName, long pValue) {
+    return put0(pName, pValue);
+  }
+
+  /** Add a floating-point value, values that are NaN or infinite are ignored. */
+  public MetricsSnapshot put(String pName, double pValue) {
+    if (Double.isNaN(pValue) || Double.isInfinite(pValue)) {
+      return this;
+    }
+    return put0(pName, pValue);
+  }
+
+  /** Add a time span, which is exported in seconds. */
+  public MetricsSnapshot put(String pName, TimeSpan pValue) {
+    return put0(pName, pValue.asNanos() / (double) TimeUnit.SECONDS.toNanos(1));
+  }
+
+  private MetricsSnapshot put0(String pName, Number pValue) {
+    checkArgument(VALID_NAME.matcher(pName).matches(), "Invalid metric name %s", pName);
+    values.put(prefix + pName, pValue);
+    return this;
+  }
+
+  /** Write this snapshot as a single line of JSON (without line break). */
+  void writeJsonLine(Appendable pOut) throws IOException {
+    pOut.append("{\"timestamp\":").append(Long.toString(timestamp));
+    for (Entry<String, Number> entry : values.entrySet()) {
+      pOut.append(",\"").append(entry.getKey()).append("\":").append(entry.getValue().toString());
+    }
+    pOut.append('}');
+  }
+
+  /**
+   * Write this snapshot in the text exposition format of Prometheus. The timestamp is exported as
+   * separate metric, because files with explicit timestamps are rejected by the textfile collector
+   * of the node exporter.
+   */
+  void writePrometheus(Appendable pOut, String pPrefix) throws IOException {
+    writePrometheusValue(pOut, pPrefix + "snapshot_timestamp_seconds", timestamp / 1000.0);
+    for (Entry<String, Number> entry : values.entrySet()) {
+      writePrometheusValue(pOut, pPrefix + entry.getKey(), entry.getValue());
+    }
+  }
+
+  private static void writePrometheusValue(Appendable pOut, String pName, Number pValue)
+      throws IOException {
+    pOut.append("# TYPE ").append(pName).append(" gauge\n");
+    pOut.append(pName).append(' ').append(pValue.toString()).append('\n');
+  }
+}
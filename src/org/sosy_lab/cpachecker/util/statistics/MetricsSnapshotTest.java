@@ -0,0 +1,176 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.statistics;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.converters.FileTypeConverter;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
+
+public class MetricsSnapshotTest {
+
+  @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+  private static MetricsSnapshot createSnapshot() {
+    MetricsSnapshot snapshot = new MetricsSnapshot(1234);
+    snapshot
+        .put("reached_set_size", 42)
+        .put("solver_seconds", TimeSpan.ofMillis(1500))
+        .put("ratio", 0.25)
+        .put("ignored", Double.NaN);
+    snapshot.withPrefix("analysis1_").put("reached_set_size", 7);
+    return snapshot;
+  }
+
+  @Test
+  public void testJsonLine() throws IOException {
+    StringBuilder out = new StringBuilder();
+    createSnapshot().writeJsonLine(out);
+    assertThat(out.toString())
+        .isEqualTo(
+            "{\"timestamp\":1234,\"reached_set_size\":42,\"solver_seconds\":1.5,"
+                + "\"ratio\":0.25,\"analysis1_reached_set_size\":7}");
+  }
+
+  @Test
+  public void testPrometheus() throws IOException {
+    StringBuilder out = new StringBuilder();
+    createSnapshot().writePrometheus(out, "cpachecker_");
+    assertThat(out.toString())
+        .isEqualTo(
+            "# TYPE cpachecker_snapshot_timestamp_seconds gauge\n"
+                + "cpachecker_snapshot_timestamp_seconds 1.234\n"
+                + "# TYPE cpachecker_reached_set_size gauge\n"
+                + "cpachecker_reached_set_size 42\n"
+                + "# TYPE cpachecker_solver_seconds gauge\n"
+                + "cpachecker_solver_seconds 1.5\n"
+                + "# TYPE cpachecker_ratio gauge\n"
+                + "cpachecker_ratio 0.25\n"
+                + "# TYPE cpachecker_analysis1_reached_set_size gauge\n"
+                + "cpachecker_analysis1_reached_set_size 7\n");
+  }
+
+  @Test
+  public void testNestedPrefixes() throws IOException {
+    MetricsSnapshot snapshot = new MetricsSnapshot(0);
+    snapshot.withPrefix("a_").withPrefix("b_").put("x", 1);
+    StringBuilder out = new StringBuilder();
+    snapshot.writeJsonLine(out);
+    assertThat(out.toString()).isEqualTo("{\"timestamp\":0,\"a_b_x\":1}");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidName() {
+    new MetricsSnapshot(0).put("size of reached set", 1);
+  }
+
+  private Configuration createConfig(String... pOptions)
+      throws IOException, InvalidConfigurationException {
+    FileTypeConverter fileTypeConverter =
+        FileTypeConverter.create(
+            Configuration.builder()
+                .setOption("output.path", tempFolder.newFolder("output").toString())
+                .build());
+    ConfigurationBuilder builder =
+        Configuration.builder().addConverter(FileOption.class, fileTypeConverter);
+    for (int i = 0; i < pOptions.length; i += 2) {
+      builder.setOption(pOptions[i], pOptions[i + 1]);
+    }
+    return builder.build();
+  }
+
+  private static class ConstantStatistics implements Statistics {
+
+    @Override
+    public void printStatistics(
+        PrintStream pOut, Result pResult, UnmodifiableReachedSet pReached) {}
+
+    @Override
+    public String getName() {
+      return "constant";
+    }
+
+    @Override
+    public void collectMetrics(MetricsSnapshot pSnapshot) {
+      pSnapshot.put("answer", 42);
+    }
+  }
+
+  @Test
+  public void testDefaultFileDependsOnFormat() throws Exception {
+    MetricsExporter jsonExporter =
+        new MetricsExporter(createConfig(), LogManager.createTestLogManager(), null);
+    assertThat(jsonExporter.getMetricsFile().getFileName()).isEqualTo(Paths.get("metrics.jsonl"));
+
+    MetricsExporter prometheusExporter =
+        new MetricsExporter(
+            createConfig("statistics.metrics.format", "PROMETHEUS"),
+            LogManager.createTestLogManager(),
+            null);
+    assertThat(prometheusExporter.getMetricsFile().getFileName())
+        .isEqualTo(Paths.get("metrics.prom"));
+
+    MetricsExporter explicitExporter =
+        new MetricsExporter(
+            createConfig(
+                "statistics.metrics.format", "PROMETHEUS", "statistics.metrics.file", "node.txt"),
+            LogManager.createTestLogManager(),
+            null);
+    assertThat(explicitExporter.getMetricsFile().getFileName()).isEqualTo(Paths.get("node.txt"));
+  }
+
+  @Test
+  public void testExportOnStop() throws Exception {
+    MetricsExporter exporter =
+        new MetricsExporter(
+            createConfig(
+                "statistics.metrics.export", "true",
+                "statistics.metrics.format", "PROMETHEUS",
+                "statistics.metrics.interval", "1h"),
+            LogManager.createTestLogManager(),
+            new ConstantStatistics());
+    exporter.start();
+    exporter.stop();
+
+    Path file = exporter.getMetricsFile();
+    assertThat(Files.readAllLines(file, UTF_8)).contains("cpachecker_answer 42");
+  }
+}
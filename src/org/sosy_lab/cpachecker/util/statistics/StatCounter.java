@@ -38,6 +38,10 @@ public class StatCounter extends AbstractStatValue {
     counter.increment();
   }
 
+  public void inc(long pValue) {
+    counter.add(pValue);
+  }
+
   public long getValue() {
     return counter.sum();
   }
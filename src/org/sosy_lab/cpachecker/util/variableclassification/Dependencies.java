@@ -35,6 +35,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -152,6 +153,27 @@ class Dependencies {
     }
   }
 
+  /**
+   * This function adds all partitions of the given dependencies, which were collected for another
+   * part of the program, to these dependencies. Partitions that share a variable are merged.
+   */
+  void addAllFrom(Dependencies other) {
+    for (Partition otherPartition : other.partitions) {
+      Iterator<String> iter = otherPartition.getVars().iterator();
+      String var = iter.next();
+      addVar(var);
+      while (iter.hasNext()) {
+        add(var, iter.next());
+      }
+
+      Partition partition = getPartitionForVar(var);
+      partition.addValues(otherPartition.getValues());
+      for (Entry<CFAEdge, Integer> edge : otherPartition.getEdges().entries()) {
+        partition.addEdge(edge.getKey(), edge.getValue());
+      }
+    }
+  }
+
   /**
    * This function adds all depending vars to the set, if necessary. If A depends on B and A is part
    * of the set, B is added to the set, and vice versa. Example: If A is not boolean, B is not
@@ -29,6 +29,7 @@ import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
@@ -36,6 +37,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.io.Writer;
@@ -43,14 +45,22 @@ import java.math.BigInteger;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -121,6 +131,24 @@ public class VariableClassificationBuilder implements StatisticsProvider {
   @Option(secure=true, description = "Print some information about the variable classification.")
   private boolean printStatsOnStartup = false;
 
+  @Option(
+    secure = true,
+    description =
+        "Collect the variables of different functions in parallel and merge the partial results"
+            + " afterwards. The classification is the same, only the numbering of partitions"
+            + " may differ."
+  )
+  private boolean parallel = false;
+
+  @Option(
+    secure = true,
+    description =
+        "number of threads for collecting variables in parallel"
+            + " (0 for the number of available processors)"
+  )
+  @IntegerOption(min = 0)
+  private int threads = 0;
+
   /**
    * Use {@link FunctionEntryNode#getReturnVariable()} and
    * {@link AReturnStatement#asAssignment()} instead.
@@ -180,6 +208,11 @@ public class VariableClassificationBuilder implements StatisticsProvider {
     config.inject(this);
   }
 
+  /** Creates a builder that is only used for collecting the variables of a part of a CFA. */
+  private VariableClassificationBuilder(LogManager pLogger) {
+    logger = pLogger;
+  }
+
   @Override
   public void collectStatistics(Collection<Statistics> pStatsCollection) {
     pStatsCollection.add(stats);
@@ -411,7 +444,23 @@ public class VariableClassificationBuilder implements StatisticsProvider {
   /** This function iterates over all edges of the cfa, collects all variables
    * and orders them into different sets, i.e. nonBoolean and nonIntEuqalNumber. */
   private void collectVars(CFA cfa) throws UnrecognizedCodeException {
-    Collection<CFANode> nodes = cfa.getAllNodes();
+    VarFieldDependencies varFieldDependencies;
+    if (parallel) {
+      varFieldDependencies = collectVarsInParallel(cfa);
+    } else {
+      varFieldDependencies = collectVarsOfNodes(cfa.getAllNodes(), cfa);
+    }
+    addressedVariables = Optional.of(varFieldDependencies.computeAddressedVariables());
+    addressedFields = Optional.of(varFieldDependencies.computeAddressedFields());
+    final Pair<ImmutableSet<String>, ImmutableMultimap<CCompositeType, String>> relevant =
+                                                              varFieldDependencies.computeRelevantVariablesAndFields();
+    relevantVariables = Optional.of(relevant.getFirst());
+    relevantFields = Optional.of(relevant.getSecond());
+  }
+
+  /** Collects the variables on all edges leaving the given nodes into this builder. */
+  private VarFieldDependencies collectVarsOfNodes(Collection<CFANode> nodes, CFA cfa)
+      throws UnrecognizedCodeException {
     VarFieldDependencies varFieldDependencies = VarFieldDependencies.emptyDependencies();
     for (CFANode node : nodes) {
       for (CFAEdge edge : leavingEdges(node)) {
@@ -421,12 +470,64 @@ public class VariableClassificationBuilder implements StatisticsProvider {
                 VariableAndFieldRelevancyComputer.handleEdge(cfa, edge));
       }
     }
-    addressedVariables = Optional.of(varFieldDependencies.computeAddressedVariables());
-    addressedFields = Optional.of(varFieldDependencies.computeAddressedFields());
-    final Pair<ImmutableSet<String>, ImmutableMultimap<CCompositeType, String>> relevant =
-                                                              varFieldDependencies.computeRelevantVariablesAndFields();
-    relevantVariables = Optional.of(relevant.getFirst());
-    relevantFields = Optional.of(relevant.getSecond());
+    return varFieldDependencies;
+  }
+
+  /**
+   * Collects the variables of each function with a separate builder in parallel and merges the
+   * partial results into this builder afterwards. All collected information is either a set or a
+   * partitioning of variables, so the merge result does not depend on the order of edges. The
+   * partial results are merged in a fixed order anyway, such that the numbering of partitions is
+   * deterministic.
+   */
+  private VarFieldDependencies collectVarsInParallel(CFA cfa) throws UnrecognizedCodeException {
+    Map<String, List<CFANode>> nodesPerFunction = new LinkedHashMap<>();
+    for (CFANode node : cfa.getAllNodes()) {
+      nodesPerFunction.computeIfAbsent(node.getFunctionName(), k -> new ArrayList<>()).add(node);
+    }
+
+    ForkJoinPool pool =
+        new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+    try {
+      List<Future<Pair<VariableClassificationBuilder, VarFieldDependencies>>> results =
+          new ArrayList<>(nodesPerFunction.size());
+      for (List<CFANode> nodesOfFunction : nodesPerFunction.values()) {
+        results.add(
+            pool.submit(
+                () -> {
+                  VariableClassificationBuilder partialBuilder =
+                      new VariableClassificationBuilder(logger);
+                  VarFieldDependencies partialDependencies =
+                      partialBuilder.collectVarsOfNodes(nodesOfFunction, cfa);
+                  return Pair.of(partialBuilder, partialDependencies);
+                }));
+      }
+
+      VarFieldDependencies varFieldDependencies = VarFieldDependencies.emptyDependencies();
+      for (Future<Pair<VariableClassificationBuilder, VarFieldDependencies>> result : results) {
+        Pair<VariableClassificationBuilder, VarFieldDependencies> partialResult;
+        try {
+          // the tasks are short and cannot be cancelled, so just wait for them
+          partialResult = Uninterruptibles.getUninterruptibly(result);
+        } catch (ExecutionException e) {
+          Throwables.propagateIfPossible(e.getCause(), UnrecognizedCodeException.class);
+          throw new UnexpectedCheckedException("collecting variables", e.getCause());
+        }
+
+        VariableClassificationBuilder partialBuilder = partialResult.getFirst();
+        allVars.addAll(partialBuilder.allVars);
+        nonIntBoolVars.addAll(partialBuilder.nonIntBoolVars);
+        nonIntEqVars.addAll(partialBuilder.nonIntEqVars);
+        nonIntAddVars.addAll(partialBuilder.nonIntAddVars);
+        intOverflowVars.addAll(partialBuilder.intOverflowVars);
+        dependencies.addAllFrom(partialBuilder.dependencies);
+        varFieldDependencies = varFieldDependencies.withDependencies(partialResult.getSecond());
+      }
+      return varFieldDependencies;
+
+    } finally {
+      pool.shutdownNow();
+    }
   }
 
   /**
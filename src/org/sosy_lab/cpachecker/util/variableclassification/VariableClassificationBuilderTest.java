@@ -0,0 +1,139 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2019  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.variableclassification;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.Test;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+public class VariableClassificationBuilderTest {
+
+  private static final String[] PROGRAM = {
+    "int g;",
+    "int f(int x) {",
+    "  int y = x + 1;",
+    "  if (y == 5) { return 1; }",
+    "  return y;",
+    "}",
+    "int main() {",
+    "  int flag = 0;",
+    "  int counter = 0;",
+    "  int *p = &counter;",
+    "  while (counter < 10) { counter = counter + f(counter); }",
+    "  if (*p > 3) { flag = 1; }",
+    "  g = counter * 2;",
+    "  return flag;",
+    "}"
+  };
+
+  private static VariableClassification classify(boolean pParallel) throws Exception {
+    CFA cfa =
+        TestDataTools.makeCFA(
+            TestDataTools.configurationForTest()
+                .setOption("cfa.variableClassification.parallel", Boolean.toString(pParallel))
+                .setOption("cfa.variableClassification.threads", "2")
+                .build(),
+            PROGRAM);
+    return cfa.getVarClassification().get();
+  }
+
+  private static Set<Set<String>> partitionVariables(Set<Partition> pPartitions) {
+    return FluentIterable.from(pPartitions)
+        .<Set<String>>transform(p -> ImmutableSet.copyOf(p.getVars()))
+        .toSet();
+  }
+
+  private static void assertSameClassification(
+      VariableClassification pActual, VariableClassification pExpected) {
+    assertThat(pActual.hasRelevantNonIntAddVars()).isEqualTo(pExpected.hasRelevantNonIntAddVars());
+    assertThat(pActual.getIntBoolVars()).isEqualTo(pExpected.getIntBoolVars());
+    assertThat(pActual.getIntEqualVars()).isEqualTo(pExpected.getIntEqualVars());
+    assertThat(pActual.getIntAddVars()).isEqualTo(pExpected.getIntAddVars());
+    assertThat(pActual.getIntOverflowVars()).isEqualTo(pExpected.getIntOverflowVars());
+    assertThat(pActual.getRelevantVariables()).isEqualTo(pExpected.getRelevantVariables());
+    assertThat(pActual.getAddressedVariables()).isEqualTo(pExpected.getAddressedVariables());
+    assertThat(pActual.getAssumedVariables()).isEqualTo(pExpected.getAssumedVariables());
+    assertThat(pActual.getAssignedVariables()).isEqualTo(pExpected.getAssignedVariables());
+    assertThat(partitionVariables(pActual.getPartitions()))
+        .isEqualTo(partitionVariables(pExpected.getPartitions()));
+    assertThat(partitionVariables(pActual.getIntBoolPartitions()))
+        .isEqualTo(partitionVariables(pExpected.getIntBoolPartitions()));
+    assertThat(partitionVariables(pActual.getIntEqualPartitions()))
+        .isEqualTo(partitionVariables(pExpected.getIntEqualPartitions()));
+    assertThat(partitionVariables(pActual.getIntAddPartitions()))
+        .isEqualTo(partitionVariables(pExpected.getIntAddPartitions()));
+  }
+
+  @Test
+  public void testParallelCollection() throws Exception {
+    VariableClassification sequential = classify(false);
+    VariableClassification parallel = classify(true);
+
+    assertThat(sequential.getRelevantVariables()).contains("main::counter");
+    assertThat(sequential.getAddressedVariables()).containsExactly("main::counter");
+    assertSameClassification(parallel, sequential);
+  }
+
+  @Test
+  public void testLoadedClassification() throws Exception {
+    VariableClassification original = classify(false);
+    VariableClassification loaded = serializeAndLoad(original);
+    loaded.setLogger(LogManager.createTestLogManager());
+
+    assertSameClassification(loaded, original);
+    ImmutableList<String> variables = ImmutableList.of("main::flag", "main::counter", "f::y");
+    assertThat(loaded.obtainDomainTypeScoreForVariables(variables, Optional.empty()))
+        .isEqualTo(original.obtainDomainTypeScoreForVariables(variables, Optional.empty()));
+    assertThat(
+            loaded.obtainDomainTypeScoreForVariables(
+                Collections.nCopies(Integer.MAX_VALUE / 4 + 1, "unknown::var"), Optional.empty()))
+        .isEqualTo(Integer.MAX_VALUE - 1);
+  }
+
+  private static VariableClassification serializeAndLoad(VariableClassification pClassification)
+      throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(pClassification);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (VariableClassification) in.readObject();
+    }
+  }
+}